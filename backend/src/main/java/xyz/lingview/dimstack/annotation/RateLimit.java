@@ -21,6 +21,20 @@ public @interface RateLimit {
 
     String message() default "请求过于频繁，请稍后再试";
 
+    /**
+     * 限流算法，默认固定窗口
+     */
+    Algorithm algorithm() default Algorithm.FIXED_WINDOW;
+
+    enum Algorithm {
+        /** 固定窗口计数 */
+        FIXED_WINDOW,
+        /** 滑动窗口，窗口随请求时间平滑移动，避免窗口边界处的突发 */
+        SLIDING_WINDOW,
+        /** 令牌桶，容量为 maxRequests，按 window 匀速补充 */
+        TOKEN_BUCKET
+    }
+
     enum TimeUnit {
         MILLISECONDS(java.util.concurrent.TimeUnit.MILLISECONDS),
         SECONDS(java.util.concurrent.TimeUnit.SECONDS),
@@ -7,12 +7,19 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.data.redis.serializer.RedisSerializer;
 import xyz.lingview.dimstack.service.CacheService;
+import xyz.lingview.dimstack.service.RateLimiterService;
+import xyz.lingview.dimstack.service.impl.HybridCacheServiceImpl;
 import xyz.lingview.dimstack.service.impl.MemoryCacheServiceImpl;
+import xyz.lingview.dimstack.service.impl.MemoryRateLimiterServiceImpl;
 import xyz.lingview.dimstack.service.impl.RedisCacheServiceImpl;
+import xyz.lingview.dimstack.service.impl.RedisRateLimiterServiceImpl;
 
 import jakarta.annotation.PostConstruct;
+import java.util.List;
+import java.util.Set;
 
 @Configuration
 @Slf4j
@@ -27,6 +34,28 @@ public class CacheAutoConfiguration {
     @Value("${spring.data.redis.port:0}")
     private int redisPort;
 
+    @Value("${app.cache.near-cache.enabled:false}")
+    private boolean nearCacheEnabled;
+
+    @Value("${app.cache.near-cache.maximum-size:10000}")
+    private long nearCacheMaximumSize;
+
+    @Value("${app.cache.near-cache.ttl-seconds:60}")
+    private long nearCacheTtlSeconds;
+
+    @Value("${app.cache.near-cache.key-prefixes:dimstack:,article:home:}")
+    private List<String> nearCacheKeyPrefixes;
+
+    // 验证码、限流计数、会话等一次性或高频变化的键即使匹配上面的前缀也不进入本地缓存
+    @Value("${app.cache.near-cache.exclude-prefixes:dimstack:forgot_password_,dimstack:session}")
+    private List<String> nearCacheExcludePrefixes;
+
+    @Value("${app.cache.memory.maximum-weight-mb:64}")
+    private long memoryMaximumWeightMb;
+
+    @Value("${app.cache.memory.pinned-keys:dimstack:site_config,dimstack:llm_config}")
+    private Set<String> memoryPinnedKeys;
+
     @PostConstruct
     public void initialize() {
         RedisMode mode = determineRedisMode();
@@ -49,6 +78,16 @@ public class CacheAutoConfiguration {
         }
     }
 
+    @Bean
+    public RateLimiterService rateLimiterService(RedisConnectionFactory connectionFactory) {
+        RedisMode mode = determineRedisMode();
+        if (mode == RedisMode.MEMORY_ONLY) {
+            log.info("限流使用内存模式");
+            return new MemoryRateLimiterServiceImpl();
+        }
+        log.info("限流使用Redis模式");
+        return new RedisRateLimiterServiceImpl(new StringRedisTemplate(connectionFactory));
+    }
 
     private RedisMode determineRedisMode() {
         if (appRedisEnabled != null && appRedisEnabled) {
@@ -82,6 +121,11 @@ public class CacheAutoConfiguration {
 
             RedisCacheServiceImpl redisImpl = new RedisCacheServiceImpl(redisTemplate);
             if (redisImpl.isRedisAvailable()) {
+                if (nearCacheEnabled) {
+                    log.info("Redis 连接成功，使用本地 + Redis 二级缓存");
+                    return new HybridCacheServiceImpl(redisImpl, new StringRedisTemplate(connectionFactory),
+                            nearCacheMaximumSize, nearCacheTtlSeconds, nearCacheKeyPrefixes, nearCacheExcludePrefixes);
+                }
                 log.info("Redis 连接成功，使用 Redis 缓存");
                 return redisImpl;
             } else {
@@ -107,7 +151,7 @@ public class CacheAutoConfiguration {
 
     private CacheService createMemoryCacheService() {
         log.info("使用内存缓存");
-        return new MemoryCacheServiceImpl();
+        return new MemoryCacheServiceImpl(memoryMaximumWeightMb * 1024 * 1024, memoryPinnedKeys);
     }
 
 
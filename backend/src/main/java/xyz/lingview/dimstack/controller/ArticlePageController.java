@@ -1,19 +1,25 @@
 package xyz.lingview.dimstack.controller;
 
 import jakarta.servlet.http.HttpServletRequest;
-import xyz.lingview.dimstack.domain.ReadArticle;
-import xyz.lingview.dimstack.domain.SiteConfig;
-import xyz.lingview.dimstack.service.ReadArticleService;
+import xyz.lingview.dimstack.service.SeoPageService;
+import xyz.lingview.dimstack.service.SeoPageService.RenderedPage;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.*;
 
 import org.springframework.web.servlet.ModelAndView;
-import xyz.lingview.dimstack.service.SiteConfigService;
 import xyz.lingview.dimstack.util.BotUtil;
 import xyz.lingview.dimstack.util.DomainUtil;
-import xyz.lingview.dimstack.util.UrlUtil;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.zip.GZIPInputStream;
 
 /**
  * @Author: lingview
@@ -25,11 +31,10 @@ import xyz.lingview.dimstack.util.UrlUtil;
 @Controller
 public class ArticlePageController {
 
-    @Autowired
-    private ReadArticleService readArticleService;
+    private static final MediaType HTML_UTF8 = MediaType.parseMediaType("text/html;charset=UTF-8");
 
     @Autowired
-    private SiteConfigService siteConfigService;
+    private SeoPageService seoPageService;
 
     @GetMapping("/article/{alias}")
     public Object articleForSEO(
@@ -43,27 +48,15 @@ public class ArticlePageController {
 
         if (bot) {
             try {
-                ReadArticle article = readArticleService.getArticleByAlias(alias, null);
-                SiteConfig siteConfig = siteConfigService.getSiteConfig();
-
                 String domain = DomainUtil.getFullDomain(request);
-                String url = domain + "/article/" + alias;
-
-                ModelAndView mv = new ModelAndView("seo_article");
-                mv.addObject("title", article.getArticle_name());
-                mv.addObject("excerpt", article.getExcerpt());
-                mv.addObject("content", article.getArticle_content());
-                mv.addObject("date", article.getCreate_time());
-                mv.addObject("tag", article.getTag());
-
-                mv.addObject("url", url);
-                mv.addObject("domain", domain);
-                mv.addObject("siteIcon", UrlUtil.getFullUrl(domain, siteConfig.getSite_icon()));
-
-
-                return mv;
+                RenderedPage page = seoPageService.article(alias, domain);
+                if (page == null) {
+                    return new ModelAndView("seo_404");
+                }
+                return serve(request, page);
 
             } catch (Exception e) {
+                log.warn("渲染文章页失败: {}", alias, e);
                 return new ModelAndView("seo_404");
             }
         }
@@ -71,4 +64,31 @@ public class ArticlePageController {
         return "forward:/index.html";
     }
 
-}
\ No newline at end of file
+    /**
+     * 爬虫每次带校验值回访，页面未变化时由 Spring 直接返回 304
+     */
+    private ResponseEntity<byte[]> serve(HttpServletRequest request, RenderedPage page) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .contentType(HTML_UTF8)
+                .eTag(page.etag())
+                .lastModified(page.lastModified())
+                .cacheControl(CacheControl.noCache())
+                // 同一地址对普通访客返回主题页面
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING + ", " + HttpHeaders.USER_AGENT);
+
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        if (acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip")) {
+            return builder.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(page.gzipped());
+        }
+        return builder.body(gunzip(page.gzipped()));
+    }
+
+    private byte[] gunzip(byte[] gzipped) {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzipped))) {
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+}
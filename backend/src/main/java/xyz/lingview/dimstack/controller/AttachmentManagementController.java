@@ -375,4 +375,17 @@ public class AttachmentManagementController {
         }
         return ApiResponse.success(log);
     }
+
+    /**
+     * 查询迁移任务进度（含预计剩余时间）
+     */
+    @GetMapping("/admin/migrate-logs/{id}/progress")
+    @RequiresPermission({"system:attachment:management"})
+    public ApiResponse<Map<String, Object>> getMigrateProgress(@PathVariable int id) {
+        Map<String, Object> progress = attachmentManagementService.getMigrateProgress(id);
+        if (progress == null) {
+            return ApiResponse.error(400, "记录不存在");
+        }
+        return ApiResponse.success(progress);
+    }
 }
\ No newline at end of file
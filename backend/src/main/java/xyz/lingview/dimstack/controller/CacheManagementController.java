@@ -7,6 +7,8 @@ import xyz.lingview.dimstack.annotation.RequiresPermission;
 import xyz.lingview.dimstack.common.ApiResponse;
 import xyz.lingview.dimstack.service.CacheService;
 import xyz.lingview.dimstack.service.ArticleService;
+import xyz.lingview.dimstack.service.SeoPageService;
+import xyz.lingview.dimstack.service.SitemapService;
 
 import java.util.HashMap;
 import java.util.List;
@@ -23,6 +25,12 @@ public class CacheManagementController {
     @Autowired
     private ArticleService articleService;
 
+    @Autowired
+    private SitemapService sitemapService;
+
+    @Autowired
+    private SeoPageService seoPageService;
+
     @PostMapping("/clear/article-list")
     @RequiresPermission("system:config:management")
     public ApiResponse<Map<String, Object>> clearArticleListCache() {
@@ -50,23 +58,25 @@ public class CacheManagementController {
                 "dimstack:site_config",
                 "dimstack:user:blacklist",
                 "dimstack:hot_articles",
-                "dimstack:sitemap:articles",
-                "dimstack:sitemap:categories",
-                "dimstack:llm_config",
-                "dimstack:sitemap:tags"
+                "dimstack:llm_config"
             };
 
-            cacheService.deleteByPrefix("article:home:");
-            log.info("已清除所有文章列表分页缓存");
+            long removedPages = cacheService.deleteByPrefix("article:home:");
+            log.info("已清除所有文章列表分页缓存，共 {} 个", removedPages);
 
             for (String key : cacheKeys) {
                 cacheService.delete(key);
                 log.info("已清除缓存: {}", key);
             }
 
+            sitemapService.invalidate();
+
+            seoPageService.invalidate();
+
             Map<String, Object> result = new HashMap<>();
             result.put("clearedKeys", cacheKeys);
             result.put("count", cacheKeys.length);
+            result.put("removedPageKeys", removedPages);
 
             return ApiResponse.success(result);
         } catch (Exception e) {
@@ -96,11 +106,12 @@ public class CacheManagementController {
 
                 return ApiResponse.success(result);
             } else {
-                cacheService.deleteByPrefix("dimstack:article:");
-                log.info("已清除所有文章缓存");
+                long removed = cacheService.deleteByPrefix("dimstack:article:");
+                log.info("已清除所有文章缓存，共 {} 个", removed);
 
                 Map<String, Object> result = new HashMap<>();
                 result.put("message", "已清除所有文章缓存");
+                result.put("removedCount", removed);
 
                 return ApiResponse.success(result);
             }
@@ -169,7 +180,8 @@ public class CacheManagementController {
     public ApiResponse<Map<String, Object>> clearSitemapArticlesCache() {
         log.info("执行清除站点地图文章缓存操作");
         try {
-            cacheService.delete("dimstack:sitemap:articles");
+            sitemapService.invalidate();
+            seoPageService.invalidate();
             log.info("已清除站点地图文章缓存");
 
             Map<String, Object> result = new HashMap<>();
@@ -187,7 +199,8 @@ public class CacheManagementController {
     public ApiResponse<Map<String, Object>> clearSitemapCategoriesCache() {
         log.info("执行清除站点地图分类缓存操作");
         try {
-            cacheService.delete("dimstack:sitemap:categories");
+            sitemapService.invalidate();
+            seoPageService.invalidate();
             log.info("已清除站点地图分类缓存");
 
             Map<String, Object> result = new HashMap<>();
@@ -223,7 +236,8 @@ public class CacheManagementController {
     public ApiResponse<Map<String, Object>> clearSitemapTagsCache() {
         log.info("执行清除站点地图标签缓存操作");
         try {
-            cacheService.delete("dimstack:sitemap:tags");
+            sitemapService.invalidate();
+            seoPageService.invalidate();
             log.info("已清除站点地图标签缓存");
 
             Map<String, Object> result = new HashMap<>();
@@ -247,11 +261,13 @@ public class CacheManagementController {
             }
 
             List<String> clearedKeys = new java.util.ArrayList<>();
+            long removedByPrefix = 0L;
             for (String key : cacheKeys) {
                 if (key.endsWith(":")) {
-                    cacheService.deleteByPrefix(key);
+                    long removed = cacheService.deleteByPrefix(key);
+                    removedByPrefix += removed;
                     clearedKeys.add(key + "*");
-                    log.info("已清除以 {} 开头的所有缓存", key);
+                    log.info("已清除以 {} 开头的所有缓存，共 {} 个", key, removed);
                 } else {
                     cacheService.delete(key);
                     clearedKeys.add(key);
@@ -262,6 +278,7 @@ public class CacheManagementController {
             Map<String, Object> result = new HashMap<>();
             result.put("clearedKeys", clearedKeys);
             result.put("count", clearedKeys.size());
+            result.put("removedByPrefix", removedByPrefix);
 
             return ApiResponse.success(result);
         } catch (Exception e) {
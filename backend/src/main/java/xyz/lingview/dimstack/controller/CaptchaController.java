@@ -6,6 +6,8 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import xyz.lingview.dimstack.service.CacheService;
+import xyz.lingview.dimstack.service.CaptchaService;
+import xyz.lingview.dimstack.service.CaptchaService.Captcha;
 
 import jakarta.servlet.http.HttpSession;
 import xyz.lingview.dimstack.util.CaptchaUtil;
@@ -23,11 +25,14 @@ public class CaptchaController {
     @Autowired
     private CacheService cacheService;
 
+    @Autowired
+    private CaptchaService captchaService;
+
     @GetMapping("/captcha")
     public ApiResponse<Map<String, String>> getCaptcha(HttpSession session) {
         try {
-            // 生成新的验证码
-            String captcha = CaptchaUtil.generateCaptcha(4);
+            // 从验证码池取出新的验证码
+            Captcha captcha = captchaService.next();
             String captchaKey = CaptchaUtil.generateCaptchaKey();
 
             // 删除旧的验证码（如果存在）
@@ -37,16 +42,13 @@ public class CaptchaController {
             }
 
             // 保存新验证码到缓存（有效期5分钟）
-            cacheService.set("captcha_" + captchaKey, captcha.toLowerCase(), 5, TimeUnit.MINUTES);
+            cacheService.set("captcha_" + captchaKey, captcha.code().toLowerCase(), 5, TimeUnit.MINUTES);
 
             // 存储新的验证码key到session
             session.setAttribute("captchaKey", captchaKey);
 
-            // 生成验证码图片
-            String captchaImage = CaptchaUtil.generateCaptchaImage(captcha);
-
             Map<String, String> responseData = new HashMap<>();
-            responseData.put("image", "data:image/png;base64," + captchaImage);
+            responseData.put("image", captcha.image());
             responseData.put("key", captchaKey);
 
             return ApiResponse.success(responseData);
@@ -16,6 +16,7 @@ import xyz.lingview.dimstack.dto.request.ThemeSlugRequestDTO;
 import xyz.lingview.dimstack.dto.response.ThemeDetailResponseDTO;
 import xyz.lingview.dimstack.dto.response.ThemeListResponseDTO;
 import xyz.lingview.dimstack.service.SiteConfigService;
+import xyz.lingview.dimstack.service.ThemeAssetService;
 import xyz.lingview.dimstack.service.UpdateService;
 
 import java.io.*;
@@ -59,6 +60,9 @@ public class ExpansionController {
     @Autowired
     private UpdateService updateService;
 
+    @Autowired
+    private ThemeAssetService themeAssetService;
+
     private static final String DEFAULT_THEME = "default";
 
     // 主题名字只允许字母、数字、连字符和下划线
@@ -169,6 +173,10 @@ public class ExpansionController {
             // 下载并解压主题
             boolean downloadSuccess = downloadAndExtractTheme(downloadUrl, slug);
             if (downloadSuccess) {
+                // 覆盖安装当前主题时需刷新资源清单
+                if (slug.equals(themeProperties.getActiveTheme())) {
+                    themeAssetService.reload();
+                }
                 responseDTO.setData(targetTheme);
                 responseDTO.setMessage("主题 '" + slug + "' 下载并安装成功");
                 return ApiResponse.success("主题 '" + slug + "' 下载并安装成功", responseDTO);
@@ -225,6 +233,7 @@ public class ExpansionController {
             if (deletingActive) {
                 siteConfigService.updateSiteTheme(DEFAULT_THEME);
                 themeProperties.setActiveTheme(DEFAULT_THEME);
+                themeAssetService.reload();
                 return ApiResponse.success("主题 '" + slug + "' 删除成功，已切换回默认主题");
             }
 
@@ -1,19 +1,31 @@
 package xyz.lingview.dimstack.controller;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
-import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.StreamUtils;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
 import xyz.lingview.dimstack.service.FileAccessService;
+import xyz.lingview.dimstack.service.RangeReadableStorage;
+import xyz.lingview.dimstack.util.HttpRangeUtil;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
 
 /**
  * @Author: lingview
@@ -29,10 +41,18 @@ public class FileAccessController {
     @Autowired
     private FileAccessService fileAccessService;
 
+    // 访问键对应的内容不会变化，允许客户端长期缓存
+    private static final String IMMUTABLE_CACHE_CONTROL = "public, max-age=31536000, immutable";
+
+    // 内容可能变化（如原图被压缩图替换），短期缓存后带 ETag 重新验证
+    private static final String REVALIDATE_CACHE_CONTROL = "public, max-age=3600";
+
     @GetMapping("/{accessKey}")
-    public ResponseEntity<org.springframework.core.io.Resource> getFile(
+    public ResponseEntity<?> getFile(
             @PathVariable String accessKey,
-            @RequestParam(required = false, defaultValue = "false") Boolean download) {
+            @RequestParam(required = false, defaultValue = "false") Boolean download,
+            HttpServletRequest request,
+            HttpServletResponse response) {
         try {
             FileAccessService.FileAccessResult result = fileAccessService.getFile(accessKey, download);
 
@@ -42,21 +62,106 @@ public class FileAccessController {
 
             // 外部存储：302 重定向
             if (result.redirectUrl() != null) {
+                // 只允许浏览器短期缓存跳转，共享缓存无法感知附件删除或迁移
+                CacheControl cacheControl = result.redirectMaxAge() > 0
+                        ? CacheControl.maxAge(result.redirectMaxAge(), TimeUnit.SECONDS).cachePrivate()
+                        : CacheControl.noStore();
                 return ResponseEntity.status(HttpStatus.FOUND)
                         .location(URI.create(result.redirectUrl()))
                         .header(HttpHeaders.CONTENT_DISPOSITION, result.filename())
+                        .cacheControl(cacheControl)
                         .build();
             }
 
-            // 本地存储：直接返回文件内容
-            return ResponseEntity.ok()
-                    .contentType(MediaType.parseMediaType(result.contentType()))
-                    .header(HttpHeaders.CONTENT_DISPOSITION, result.filename())
-                    .body(result.resource());
+            // 命中 If-None-Match / If-Modified-Since 时已写入 304
+            if (new ServletWebRequest(request, response).checkNotModified(result.etag(), result.lastModified())) {
+                return null;
+            }
+
+            response.setContentType(result.contentType());
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, result.filename());
+            response.setHeader(HttpHeaders.CACHE_CONTROL,
+                    result.immutable() ? IMMUTABLE_CACHE_CONTROL : REVALIDATE_CACHE_CONTROL);
+
+            String range = request.getHeader(HttpHeaders.RANGE);
+            String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+            if (ifRange != null && !ifRange.equals(result.etag())) {
+                range = null;
+            }
+            boolean headOnly = HttpMethod.HEAD.matches(request.getMethod());
+
+            if (result.resource().isFile()) {
+                return writeLocalFile(request, response, result.resource().getFile().toPath(), range, headOnly);
+            }
+            if (result.rangeStorage() != null && HttpRangeUtil.isSingleRange(range)) {
+                return writeStorageRange(response, result, range, headOnly);
+            }
+
+            if (result.rangeStorage() != null) {
+                response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+            }
+            if (!headOnly) {
+                try (InputStream in = result.resource().getInputStream()) {
+                    in.transferTo(response.getOutputStream());
+                }
+            }
+            return null;
 
         } catch (Exception e) {
             log.error("获取文件时发生错误，访问键: {}", accessKey, e);
+            if (response.isCommitted()) {
+                return null;
+            }
+            response.reset();
             return ResponseEntity.internalServerError().build();
         }
     }
-}
\ No newline at end of file
+
+    private ResponseEntity<?> writeLocalFile(HttpServletRequest request, HttpServletResponse response,
+                                             Path file, String range, boolean headOnly) throws IOException {
+        long totalLength = Files.size(file);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+        HttpRangeUtil.ByteRange byteRange = HttpRangeUtil.resolve(range, totalLength);
+        if (byteRange == HttpRangeUtil.UNSATISFIABLE) {
+            return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+                    .header(HttpHeaders.CONTENT_RANGE, "bytes */" + totalLength)
+                    .build();
+        }
+
+        long start = 0;
+        long length = totalLength;
+        if (byteRange != null) {
+            start = byteRange.start();
+            length = byteRange.length();
+            response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+            response.setHeader(HttpHeaders.CONTENT_RANGE, byteRange.contentRange(totalLength));
+        }
+        response.setContentLengthLong(length);
+        if (!headOnly) {
+            HttpRangeUtil.transferFile(request, response, file, start, length);
+        }
+        return null;
+    }
+
+    private ResponseEntity<?> writeStorageRange(HttpServletResponse response, FileAccessService.FileAccessResult result,
+                                                String range, boolean headOnly) throws IOException {
+        RangeReadableStorage.RangedStream ranged = result.rangeStorage().retrieveRange(result.objectKey(), range);
+        if (ranged == null) {
+            return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE).build();
+        }
+
+        try (InputStream in = ranged.stream()) {
+            long length = ranged.end() - ranged.start() + 1;
+            String total = ranged.totalLength() >= 0 ? String.valueOf(ranged.totalLength()) : "*";
+            response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+            response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + ranged.start() + "-" + ranged.end() + "/" + total);
+            response.setContentLengthLong(length);
+            if (!headOnly) {
+                StreamUtils.copyRange(in, response.getOutputStream(), 0, length - 1);
+            }
+        }
+        return null;
+    }
+}
@@ -17,8 +17,21 @@ public class HomeController {
     @Autowired
     private ArticleService articleService;
 
+    /**
+     * 传入 cursor 参数（第一页传空字符串）时按游标分页返回，否则按页码分页
+     */
     @GetMapping("/articles")
-    public ApiResponse<PageResult<ArticleDTO>> getHomeArticles(PageRequest pageRequest) {
+    public ApiResponse<?> getHomeArticles(PageRequest pageRequest,
+                                          @RequestParam(required = false) String cursor) {
+        if (cursor != null) {
+            try {
+                return ApiResponse.success(articleService.getArticlesForHomePageByCursor(
+                        pageRequest.getCategory(), cursor, pageRequest.getSize()));
+            } catch (IllegalArgumentException e) {
+                return ApiResponse.error(400, e.getMessage());
+            }
+        }
+
         log.info("接收到获取文章列表请求: page={}, size={}, category={}",
                 pageRequest.getPage(), pageRequest.getSize(), pageRequest.getCategory());
 
@@ -0,0 +1,21 @@
+package xyz.lingview.dimstack.controller;
+
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import xyz.lingview.dimstack.annotation.RequiresPermission;
+import xyz.lingview.dimstack.common.ApiResponse;
+import xyz.lingview.dimstack.util.MetricsUtil;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/metrics")
+public class MetricsController {
+
+    @GetMapping
+    @RequiresPermission("system:config:management")
+    public ApiResponse<Map<String, Object>> getMetrics() {
+        return ApiResponse.success(MetricsUtil.snapshot());
+    }
+}
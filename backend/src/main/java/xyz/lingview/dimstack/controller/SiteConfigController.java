@@ -9,6 +9,7 @@ import xyz.lingview.dimstack.domain.SiteConfig;
 import xyz.lingview.dimstack.dto.request.HeroDTO;
 import xyz.lingview.dimstack.dto.request.TestSmtpRequestDTO;
 import xyz.lingview.dimstack.service.MailService;
+import xyz.lingview.dimstack.service.SeoPageService;
 import xyz.lingview.dimstack.service.SiteConfigService;
 import org.springframework.beans.factory.annotation.Autowired;
 import xyz.lingview.dimstack.service.UserService;
@@ -37,6 +38,9 @@ public class SiteConfigController {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private SeoPageService seoPageService;
+
     @GetMapping("/hero")
     public HeroDTO getHeroConfig() {
         return siteConfigService.getHeroConfig();
@@ -265,6 +269,8 @@ public class SiteConfigController {
             boolean result = siteConfigService.updateSiteConfig(currentConfig);
 
             if (result) {
+                // 站点图标等配置会写入爬虫页面
+                seoPageService.invalidate();
                 try {
                     imageCompressionService.updateWorkerThreads();
                 } catch (Exception e) {
@@ -2,24 +2,29 @@ package xyz.lingview.dimstack.controller;
 
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RestController;
-import xyz.lingview.dimstack.domain.ReadArticle;
-import xyz.lingview.dimstack.service.ReadArticleService;
+import xyz.lingview.dimstack.service.SitemapService;
+import xyz.lingview.dimstack.service.SitemapService.SitemapDocument;
 
-import java.net.URLEncoder;
-import java.nio.charset.StandardCharsets;
-import java.time.LocalDateTime;
-import java.time.ZoneOffset;
-import java.time.format.DateTimeFormatter;
-import java.util.Date;
-import java.util.List;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
 
 @RestController
 @RequiredArgsConstructor
 public class SitemapController {
 
-    private final ReadArticleService readArticleService;
+    private static final MediaType XML_UTF8 = MediaType.parseMediaType("application/xml;charset=UTF-8");
+
+    private final SitemapService sitemapService;
 
     private String getDomain(HttpServletRequest request) {
         String scheme = request.getHeader("X-Forwarded-Proto");
@@ -34,139 +39,65 @@ public class SitemapController {
         return scheme + "://" + host;
     }
 
-    private String escapeXml10(String input) {
-        if (input == null) return null;
-        return input.replace("&", "&amp;")
-                .replace("<", "&lt;")
-                .replace(">", "&gt;")
-                .replace("\"", "&quot;")
-                .replace("'", "&apos;");
+    @GetMapping("/sitemap-index.xml")
+    public ResponseEntity<byte[]> sitemapIndex(HttpServletRequest request) {
+        return serve(request, sitemapService.index(getDomain(request)));
     }
 
-    @GetMapping(value = "/sitemap-index.xml", produces = "application/xml;charset=UTF-8")
-    public String sitemapIndex(HttpServletRequest request) {
-        String domain = escapeXml10(getDomain(request));
-
-        return """
-                <?xml version="1.0" encoding="UTF-8"?>
-                <sitemapindex xmlns="http://www.sitemaps.org/schemas/sitemap/0.9">
-                    <sitemap>
-                        <loc>%s/sitemap.xml</loc>
-                    </sitemap>
-                    <sitemap>
-                        <loc>%s/sitemap-article.xml</loc>
-                    </sitemap>
-                    <sitemap>
-                        <loc>%s/sitemap-category.xml</loc>
-                    </sitemap>
-                    <sitemap>
-                        <loc>%s/sitemap-tag.xml</loc>
-                    </sitemap>
-                </sitemapindex>
-                """.formatted(domain, domain, domain, domain);
+    @GetMapping("/sitemap.xml")
+    public ResponseEntity<byte[]> sitemap(HttpServletRequest request) {
+        return serve(request, sitemapService.home(getDomain(request)));
     }
 
-    @GetMapping(value = "/sitemap.xml", produces = "application/xml;charset=UTF-8")
-    public String sitemap(HttpServletRequest request) {
-        String domain = escapeXml10(getDomain(request));
-
-        return """
-                <?xml version="1.0" encoding="UTF-8"?>
-                <urlset xmlns="http://www.sitemaps.org/schemas/sitemap/0.9">
-                    %s
-                </urlset>
-                """.formatted(
-                buildUrl(domain + "/", "daily", "1.0", null)
-        );
+    @GetMapping("/sitemap-article.xml")
+    public ResponseEntity<byte[]> sitemapArticle(HttpServletRequest request) {
+        return serve(request, sitemapService.articles(getDomain(request), 1));
     }
 
-    @GetMapping(value = "/sitemap-article.xml", produces = "application/xml;charset=UTF-8")
-    public String sitemapArticle(HttpServletRequest request) {
-        String domain = escapeXml10(getDomain(request));
-        List<ReadArticle> articles = readArticleService.listAllArticles();
-
-        StringBuilder xml = new StringBuilder("""
-                <?xml version="1.0" encoding="UTF-8"?>
-                <urlset xmlns="http://www.sitemaps.org/schemas/sitemap/0.9">
-                """);
-
-        for (ReadArticle a : articles) {
-            String urlPath = domain + "/article/" + url(a.getAlias());
-            xml.append(buildUrl(urlPath, "weekly", "0.9", a.getCreate_time()));
-        }
-
-        xml.append("</urlset>");
-        return xml.toString();
+    // 文章超过 50000 篇时的后续分片
+    @GetMapping("/sitemap-article-{shard:\\d+}.xml")
+    public ResponseEntity<byte[]> sitemapArticleShard(@PathVariable int shard, HttpServletRequest request) {
+        return serve(request, sitemapService.articles(getDomain(request), shard));
     }
 
-    @GetMapping(value = "/sitemap-category.xml", produces = "application/xml;charset=UTF-8")
-    public String sitemapCategory(HttpServletRequest request) {
-        String domain = escapeXml10(getDomain(request));
-        List<String> categories = readArticleService.listAllCategories();
-
-        StringBuilder xml = new StringBuilder("""
-                <?xml version="1.0" encoding="UTF-8"?>
-                <urlset xmlns="http://www.sitemaps.org/schemas/sitemap/0.9">
-                """);
-
-        for (String c : categories) {
-            String urlPath = domain + "/category/" + url(c);
-            xml.append(buildUrl(urlPath, "weekly", "0.6", null));
-        }
-
-        xml.append("</urlset>");
-        return xml.toString();
+    @GetMapping("/sitemap-category.xml")
+    public ResponseEntity<byte[]> sitemapCategory(HttpServletRequest request) {
+        return serve(request, sitemapService.categories(getDomain(request)));
     }
 
-    @GetMapping(value = "/sitemap-tag.xml", produces = "application/xml;charset=UTF-8")
-    public String sitemapTag(HttpServletRequest request) {
-        String domain = escapeXml10(getDomain(request));
-        List<String> tags = readArticleService.listAllTags();
-
-        StringBuilder xml = new StringBuilder("""
-                <?xml version="1.0" encoding="UTF-8"?>
-                <urlset xmlns="http://www.sitemaps.org/schemas/sitemap/0.9">
-                """);
-
-        for (String t : tags) {
-            String urlPath = domain + "/tag/" + url(t);
-            xml.append(buildUrl(urlPath, "weekly", "0.5", null));
-        }
-
-        xml.append("</urlset>");
-        return xml.toString();
+    @GetMapping("/sitemap-tag.xml")
+    public ResponseEntity<byte[]> sitemapTag(HttpServletRequest request) {
+        return serve(request, sitemapService.tags(getDomain(request)));
     }
 
-    private String buildUrl(String loc, String changefreq, String priority, Date lastmod) {
-        String escapedLoc = escapeXml10(loc);
-
-        StringBuilder sb = new StringBuilder();
-        sb.append("<url>");
-        sb.append("<loc>").append(escapedLoc).append("</loc>");
-        sb.append("<changefreq>").append(changefreq).append("</changefreq>");
-        sb.append("<priority>").append(priority).append("</priority>");
-
-        if (lastmod != null) {
-            LocalDateTime ldt = toLocalDateTime(lastmod);
-            String formatted = ldt.atOffset(ZoneOffset.ofHours(8))
-                    .format(DateTimeFormatter.ISO_OFFSET_DATE_TIME);
-            sb.append("<lastmod>").append(escapeXml10(formatted)).append("</lastmod>");
+    /**
+     * 返回预压缩的内容，If-None-Match / If-Modified-Since 命中时由 Spring 直接返回 304
+     */
+    private ResponseEntity<byte[]> serve(HttpServletRequest request, SitemapDocument document) {
+        if (document == null) {
+            return ResponseEntity.notFound().build();
         }
 
-        sb.append("</url>");
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .contentType(XML_UTF8)
+                .eTag(document.etag())
+                .lastModified(document.lastModified())
+                .cacheControl(CacheControl.maxAge(10, TimeUnit.MINUTES).cachePublic())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
 
-        return sb.toString();
-    }
-
-    private String url(String s) {
-        if (s == null) return "";
-        return URLEncoder.encode(s, StandardCharsets.UTF_8).replace("+", "%20");
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        if (acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip")) {
+            return builder.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(document.gzipped());
+        }
+        // 极少数不支持 gzip 的客户端临时解压
+        return builder.body(gunzip(document.gzipped()));
     }
 
-    private LocalDateTime toLocalDateTime(Date date) {
-        if (date == null) return null;
-        return date.toInstant()
-                .atZone(ZoneOffset.ofHours(8))
-                .toLocalDateTime();
+    private byte[] gunzip(byte[] gzipped) {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzipped))) {
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 }
@@ -42,11 +42,21 @@ public class TagAndCategoryController {
         return ApiResponse.success(articleCategoryService.findAllEnabledCategoriesAndCount());
     }
 
+    // 传入 cursor 参数（第一页传空字符串）时按游标分页返回，深分页不再随页码变慢
     @GetMapping("/categories/articles")
-    public ApiResponse<PageResult<ArticleDTO>> getArticlesByCategory(
+    public ApiResponse<?> getArticlesByCategory(
             @RequestParam String category,
             @RequestParam(defaultValue = "1") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String cursor) {
+
+        if (cursor != null) {
+            try {
+                return ApiResponse.success(articleCategoryService.findArticlesByCategoryAfter(category, cursor, size));
+            } catch (IllegalArgumentException e) {
+                return ApiResponse.error(400, e.getMessage());
+            }
+        }
 
         int offset = (page - 1) * size;
 
@@ -71,10 +81,19 @@ public class TagAndCategoryController {
 
 
     @GetMapping("/tags/{tag}/articles")
-    public ApiResponse<PageResult<ArticleDTO>> getArticlesByTag(
+    public ApiResponse<?> getArticlesByTag(
             @PathVariable String tag,
             @RequestParam(defaultValue = "1") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String cursor) {
+
+        if (cursor != null) {
+            try {
+                return ApiResponse.success(articleTagService.findArticlesByTagAfter(tag, cursor, size));
+            } catch (IllegalArgumentException e) {
+                return ApiResponse.error(400, e.getMessage());
+            }
+        }
 
         int offset = (page - 1) * size;
 
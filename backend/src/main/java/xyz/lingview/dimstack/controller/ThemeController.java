@@ -5,6 +5,7 @@ import xyz.lingview.dimstack.annotation.RequiresPermission;
 import xyz.lingview.dimstack.common.ApiResponse;
 import xyz.lingview.dimstack.config.ThemeProperties;
 import xyz.lingview.dimstack.service.SiteConfigService;
+import xyz.lingview.dimstack.service.ThemeAssetService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
 
@@ -28,6 +29,9 @@ public class ThemeController {
     @Autowired
     private SiteConfigService siteConfigService;
 
+    @Autowired
+    private ThemeAssetService themeAssetService;
+
     @PostMapping("/switch")
     @RequiresPermission("system:theme:management")
     public ApiResponse<String> switchTheme(@RequestParam String themeName) {
@@ -39,6 +43,7 @@ public class ThemeController {
         }
 
         themeProperties.setActiveTheme(themeName);
+        themeAssetService.reload();
         boolean success = siteConfigService.updateSiteTheme(themeName);
 
         if (!success) {
@@ -62,6 +67,7 @@ public class ThemeController {
         }
 
         themeProperties.setActiveTheme(DEFAULT_THEME);
+        themeAssetService.reload();
         boolean success = siteConfigService.updateSiteTheme(DEFAULT_THEME);
 
         if (!success) {
@@ -13,4 +13,5 @@ public class ApiKey {
     private Date create_time;
     private Date update_time;
     private Integer status;
+    private Date last_used_time;
 }
@@ -18,6 +18,7 @@ public class AttachmentManagement {
     private String attachment_path;
     private String access_key;
     private String storage_id;
+    private String content_type;
     private LocalDateTime create_time;
     private LocalDateTime deleted_time;
     private int status;
@@ -0,0 +1,18 @@
+package xyz.lingview.dimstack.domain;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+public class LlmReviewTask {
+    private long id;
+    // ARTICLE / COMMENT
+    private String target_type;
+    private String target_id;
+    private String username;
+    private int attempts;
+    private String claim_token;
+    private LocalDateTime claim_time;
+    private LocalDateTime create_time;
+}
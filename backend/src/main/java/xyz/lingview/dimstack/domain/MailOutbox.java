@@ -0,0 +1,22 @@
+package xyz.lingview.dimstack.domain;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+public class MailOutbox {
+    private long id;
+    // 多个收件人以英文逗号分隔
+    private String recipients;
+    private String subject;
+    private String content;
+    private boolean html;
+    private int status;
+    private int attempts;
+    private LocalDateTime next_attempt_time;
+    private String claim_token;
+    private String last_error;
+    private LocalDateTime create_time;
+    private LocalDateTime update_time;
+}
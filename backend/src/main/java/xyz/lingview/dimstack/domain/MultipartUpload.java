@@ -0,0 +1,22 @@
+package xyz.lingview.dimstack.domain;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+public class MultipartUpload {
+    private long id;
+    private String upload_id;
+    private String username;
+    private String original_filename;
+    private String attachment_id;
+    private String storage_id;
+    private String object_key;
+    // 存储后端原生分片上传的标识，为空时分片暂存在本地
+    private String storage_upload_id;
+    private String content_type;
+    private LocalDateTime create_time;
+    // 最后一次上传分片或续传的时间，过期清理以此为准
+    private LocalDateTime update_time;
+}
@@ -0,0 +1,11 @@
+package xyz.lingview.dimstack.domain;
+
+import lombok.Data;
+
+@Data
+public class MultipartUploadPart {
+    private String upload_id;
+    private int part_number;
+    private String etag;
+    private long size;
+}
@@ -0,0 +1,19 @@
+package xyz.lingview.dimstack.domain;
+
+import lombok.Data;
+
+import java.util.Date;
+
+/**
+ * @Author: lingview
+ * @Date: 2026/10/18 22:05:13
+ * @Description: 站点地图用的文章投影，只包含生成 URL 所需的字段
+ * @Version: 1.0
+ */
+@Data
+public class SitemapArticle {
+    private Integer id;
+    private String article_id;
+    private String alias;
+    private Date create_time;
+}
@@ -0,0 +1,16 @@
+package xyz.lingview.dimstack.domain;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+public class StorageMigrationItem {
+    private int id;
+    private int migration_id;
+    private String attachment_id;
+    private String file_path;
+    private int status;
+    private long bytes;
+    private LocalDateTime updated_at;
+}
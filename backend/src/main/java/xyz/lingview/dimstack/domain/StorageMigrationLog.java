@@ -13,8 +13,10 @@ public class StorageMigrationLog {
     private int total;
     private int success;
     private int failed;
+    private long bytes_migrated;
     private int status;
     private LocalDateTime created_at;
     private LocalDateTime updated_at;
+    private LocalDateTime finished_at;
     private List<StorageMigrationFailedItem> failedItems;
 }
\ No newline at end of file
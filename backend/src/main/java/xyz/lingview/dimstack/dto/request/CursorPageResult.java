@@ -0,0 +1,14 @@
+package xyz.lingview.dimstack.dto.request;
+
+import lombok.Data;
+import java.util.List;
+
+@Data
+public class CursorPageResult<T> {
+    private List<T> data;
+    private int total;
+    private int size;
+    // 下一页游标，没有更多数据时为 null
+    private String next_cursor;
+    private boolean has_more;
+}
@@ -11,4 +11,5 @@ public class ApiKeyResponseDTO {
     private Date createTime;
     private Date updateTime;
     private Integer status;
+    private Date lastUsedTime;
 }
@@ -396,6 +396,13 @@ public class InitController {
         ymlContent.append("app:\n");
         ymlContent.append("  redis:\n");
         ymlContent.append("    enabled: ").append(enableRedis).append("\n");
+        ymlContent.append("  cache:\n");
+        ymlContent.append("    memory:\n");
+        ymlContent.append("      maximum-weight-mb: 64\n");
+        ymlContent.append("    near-cache:\n");
+        ymlContent.append("      enabled: false\n");
+        ymlContent.append("      maximum-size: 10000\n");
+        ymlContent.append("      ttl-seconds: 60\n");
         ymlContent.append("  theme:\n");
         ymlContent.append("    active-theme: default\n");
         ymlContent.append("    themes-path: themes\n");
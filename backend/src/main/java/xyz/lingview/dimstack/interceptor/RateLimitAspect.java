@@ -12,12 +12,11 @@ import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 import xyz.lingview.dimstack.annotation.RateLimit;
 import xyz.lingview.dimstack.common.RateLimitException;
-import xyz.lingview.dimstack.service.CacheService;
+import xyz.lingview.dimstack.service.RateLimiterService;
 
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpSession;
 import java.lang.reflect.Method;
-import java.util.concurrent.TimeUnit;
 
 /**
  * @Author: lingview
@@ -34,7 +33,7 @@ public class RateLimitAspect {
     private static final String RATE_LIMIT_PREFIX = "rate_limit:";
 
     @Autowired
-    private CacheService cacheService;
+    private RateLimiterService rateLimiterService;
 
     @Around("@annotation(xyz.lingview.dimstack.annotation.RateLimit)")
     public Object around(ProceedingJoinPoint joinPoint) throws Throwable {
@@ -58,61 +57,18 @@ public class RateLimitAspect {
         String sessionId = session != null ? session.getId() : getClientIp(request);
         String rateLimitKey = buildRateLimitKey(method, sessionId);
 
-        long windowInSeconds = convertToSeconds(rateLimit.window(), rateLimit.timeUnit());
+        long windowInMillis = convertToMillis(rateLimit.window(), rateLimit.timeUnit());
         int maxRequests = rateLimit.maxRequests();
 
-        if (isRateLimited(rateLimitKey, windowInSeconds, maxRequests)) {
-            logger.warn("请求被限流：key={}, window={}s, maxRequests={}",
-                    rateLimitKey, windowInSeconds, maxRequests);
+        if (!rateLimiterService.tryAcquire(rateLimitKey, rateLimit.algorithm(), maxRequests, windowInMillis)) {
+            logger.warn("请求被限流：key={}, algorithm={}, window={}ms, maxRequests={}",
+                    rateLimitKey, rateLimit.algorithm(), windowInMillis, maxRequests);
             throw new RateLimitException(rateLimit.message());
         }
 
         return joinPoint.proceed();
     }
 
-    /**
-     *
-     * @param key
-     * @param windowInSeconds
-     * @param maxRequests
-     * @return
-     */
-    private boolean isRateLimited(String key, long windowInSeconds, int maxRequests) {
-        synchronized (key.intern()) {
-            RateLimitInfo info = cacheService.get(key + "_info", RateLimitInfo.class);
-            long currentTime = System.currentTimeMillis();
-
-            if (info == null || currentTime > info.expireTime) {
-                info = new RateLimitInfo(1, currentTime + windowInSeconds * 1000);
-                cacheService.set(key + "_info", info, windowInSeconds, TimeUnit.SECONDS);
-                return false;
-            }
-
-            if (info.count >= maxRequests) {
-                return true;
-            }
-
-            info.count++;
-            cacheService.set(key + "_info", info, windowInSeconds, TimeUnit.SECONDS);
-            return false;
-        }
-    }
-
-
-    private static class RateLimitInfo implements java.io.Serializable {
-        private static final long serialVersionUID = 1L;
-        public long count;
-        public long expireTime;
-
-        public RateLimitInfo() {}
-
-        public RateLimitInfo(long count, long expireTime) {
-            this.count = count;
-            this.expireTime = expireTime;
-        }
-    }
-
-
     private String buildRateLimitKey(Method method, String sessionId) {
         String className = method.getDeclaringClass().getName();
         String methodName = method.getName();
@@ -120,13 +76,8 @@ public class RateLimitAspect {
     }
 
 
-    private long convertToSeconds(long time, RateLimit.TimeUnit timeUnit) {
-        return switch (timeUnit) {
-            case MILLISECONDS -> Math.max(1, time / 1000);
-            case SECONDS -> time;
-            case MINUTES -> time * 60;
-            case HOURS -> time * 3600;
-        };
+    private long convertToMillis(long time, RateLimit.TimeUnit timeUnit) {
+        return Math.max(1, timeUnit.toTimeUnit().toMillis(time));
     }
 
 
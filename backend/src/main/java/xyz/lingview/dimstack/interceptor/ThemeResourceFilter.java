@@ -3,52 +3,25 @@ package xyz.lingview.dimstack.interceptor;
 import jakarta.servlet.*;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import xyz.lingview.dimstack.config.ThemeProperties;
+import xyz.lingview.dimstack.service.ThemeAssetService;
+import xyz.lingview.dimstack.service.ThemeAssetService.ThemeAsset;
 import xyz.lingview.dimstack.util.BotUtil;
+import xyz.lingview.dimstack.util.HttpRangeUtil;
+import xyz.lingview.dimstack.util.MetricsUtil;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.io.Resource;
-import org.springframework.core.io.UrlResource;
 import org.springframework.stereotype.Component;
 
-import java.io.File;
 import java.io.IOException;
-import java.io.OutputStream;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.util.HashMap;
-import java.util.Map;
 
 @Component
 public class ThemeResourceFilter implements Filter {
 
+    // 构建产物文件名带内容哈希，可以永久缓存
+    private static final String IMMUTABLE_CACHE_CONTROL = "public, max-age=31536000, immutable";
+    private static final String DEFAULT_CACHE_CONTROL = "public, max-age=600";
+
     @Autowired
-    private ThemeProperties themeProperties;
-
-    private static final Map<String, String> CONTENT_TYPES = new HashMap<>();
-
-    static {
-        CONTENT_TYPES.put(".html", "text/html");
-        CONTENT_TYPES.put(".htm", "text/html");
-        CONTENT_TYPES.put(".css", "text/css");
-        CONTENT_TYPES.put(".js", "application/javascript");
-        CONTENT_TYPES.put(".mjs", "text/javascript");
-        CONTENT_TYPES.put(".wasm", "application/wasm");
-        CONTENT_TYPES.put(".json", "application/json");
-        CONTENT_TYPES.put(".xml", "application/xml");
-        CONTENT_TYPES.put(".png", "image/png");
-        CONTENT_TYPES.put(".jpg", "image/jpeg");
-        CONTENT_TYPES.put(".jpeg", "image/jpeg");
-        CONTENT_TYPES.put(".gif", "image/gif");
-        CONTENT_TYPES.put(".bmp", "image/bmp");
-        CONTENT_TYPES.put(".ico", "image/x-icon");
-        CONTENT_TYPES.put(".svg", "image/svg+xml");
-        CONTENT_TYPES.put(".woff", "font/woff");
-        CONTENT_TYPES.put(".woff2", "font/woff2");
-        CONTENT_TYPES.put(".ttf", "font/ttf");
-        CONTENT_TYPES.put(".eot", "application/vnd.ms-fontobject");
-        CONTENT_TYPES.put(".txt", "text/plain");
-        CONTENT_TYPES.put(".pdf", "application/pdf");
-    }
+    private ThemeAssetService themeAssetService;
 
     @Override
     public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
@@ -87,9 +60,10 @@ public class ThemeResourceFilter implements Filter {
             resourcePath = "/index.html";
         }
 
-        Resource resource = resolveResource(resourcePath);
-        if (resource != null && resource.exists()) {
-            serveResource(resource, httpResponse);
+        // 只查内存中的资源清单，不存在的路径不会访问磁盘
+        ThemeAsset asset = themeAssetService.lookup(resourcePath);
+        if (asset != null) {
+            serveAsset(asset, httpRequest, httpResponse);
             return;
         }
 
@@ -99,9 +73,9 @@ public class ThemeResourceFilter implements Filter {
                 chain.doFilter(request, response);
                 return;
             }
-            Resource indexResource = resolveResource("/index.html");
-            if (indexResource != null && indexResource.exists()) {
-                serveResource(indexResource, httpResponse);
+            ThemeAsset index = themeAssetService.lookup("/index.html");
+            if (index != null) {
+                serveAsset(index, httpRequest, httpResponse);
                 return;
             }
         }
@@ -109,63 +83,134 @@ public class ThemeResourceFilter implements Filter {
         chain.doFilter(request, response);
     }
 
-    private boolean shouldHandleAsThemeResource(String resourcePath) {
-        return resourcePath.startsWith("/assets/") ||
-               resourcePath.startsWith("/static/") ||
-               resourcePath.contains(".") ||
-               resourcePath.equals("/index.html");
-    }
+    private void serveAsset(ThemeAsset asset, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        byte[] body = asset.content();
+        String etag = asset.etag();
+        String encoding = null;
+
+        if (body != null) {
+            String acceptEncoding = request.getHeader("Accept-Encoding");
+            if (asset.brotli() != null && acceptsEncoding(acceptEncoding, "br")) {
+                body = asset.brotli();
+                encoding = "br";
+            } else if (asset.gzip() != null && acceptsEncoding(acceptEncoding, "gzip")) {
+                body = asset.gzip();
+                encoding = "gzip";
+            }
+            if (asset.gzip() != null || asset.brotli() != null) {
+                response.setHeader("Vary", "Accept-Encoding");
+            }
+            if (encoding != null) {
+                // 不同编码的内容字节不同，校验值也需区分
+                etag = etag.substring(0, etag.length() - 1) + "-" + encoding + "\"";
+            }
+        }
 
-    private Resource resolveResource(String resourcePath) {
-        try {
-            String themesPath = themeProperties.getThemesPath();
-            String activeTheme = themeProperties.getActiveTheme();
+        response.setHeader("ETag", etag);
+        response.setDateHeader("Last-Modified", asset.lastModified());
+        response.setHeader("Cache-Control", cacheControl(asset));
 
-            String cleanResourcePath = resourcePath.startsWith("/") ? resourcePath.substring(1) : resourcePath;
+        if (isNotModified(request, etag, asset.lastModified())) {
+            MetricsUtil.increment("theme.asset.not_modified");
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
 
-            Path themeResourcePath = Path.of(themesPath, activeTheme, cleanResourcePath);
-            File themeResourceFile = themeResourcePath.toFile();
+        response.setContentType(asset.contentType());
+        boolean head = "HEAD".equalsIgnoreCase(request.getMethod());
 
-            if (themeResourceFile.exists() && themeResourceFile.isFile()) {
-                return new UrlResource(themeResourceFile.toURI());
+        if (body != null) {
+            MetricsUtil.increment("theme.asset.memory_hit");
+            if (encoding != null) {
+                response.setHeader("Content-Encoding", encoding);
             }
+            response.setContentLength(body.length);
+            if (!head) {
+                response.getOutputStream().write(body);
+            }
+            return;
+        }
 
-            return null;
-        } catch (Exception e) {
-            return null;
+        // 大文件支持断点续传，由 sendfile 直接发送
+        MetricsUtil.increment("theme.asset.file_hit");
+        response.setHeader("Accept-Ranges", "bytes");
+        long totalLength = asset.length();
+        String ifRange = request.getHeader("If-Range");
+        String range = ifRange == null || ifRange.equals(etag) ? request.getHeader("Range") : null;
+        HttpRangeUtil.ByteRange byteRange = HttpRangeUtil.resolve(range, totalLength);
+        if (byteRange == HttpRangeUtil.UNSATISFIABLE) {
+            response.setHeader("Content-Range", "bytes */" + totalLength);
+            response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+            return;
         }
-    }
 
-    private void serveResource(Resource resource, HttpServletResponse response) throws IOException {
-        try {
-            Path path = resource.getFile().toPath();
-            String fileName = path.getFileName().toString();
-            String contentType = getContentType(fileName);
+        long start = 0;
+        long length = totalLength;
+        if (byteRange != null) {
+            start = byteRange.start();
+            length = byteRange.length();
+            response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+            response.setHeader("Content-Range", byteRange.contentRange(totalLength));
+        }
+        response.setContentLengthLong(length);
+        if (!head) {
+            HttpRangeUtil.transferFile(request, response, asset.file(), start, length);
+        }
+    }
 
-            response.setContentType(contentType);
-            response.setContentLengthLong(Files.size(path));
+    private String cacheControl(ThemeAsset asset) {
+        if (asset.path().startsWith("/assets/")) {
+            return IMMUTABLE_CACHE_CONTROL;
+        }
+        // 入口页面每次都向服务端确认，未变化时只返回 304
+        if ("text/html".equals(asset.contentType())) {
+            return "no-cache";
+        }
+        return DEFAULT_CACHE_CONTROL;
+    }
 
-            if (fileName.endsWith(".html") || fileName.endsWith(".htm")) {
-                response.setHeader("Cache-Control", "no-cache, no-store, must-revalidate");
-                response.setHeader("Pragma", "no-cache");
-                response.setDateHeader("Expires", 0);
+    private boolean isNotModified(HttpServletRequest request, String etag, long lastModified) {
+        String ifNoneMatch = request.getHeader("If-None-Match");
+        if (ifNoneMatch != null) {
+            String current = stripWeak(etag);
+            for (String candidate : ifNoneMatch.split(",")) {
+                String tag = candidate.trim();
+                if (tag.equals("*") || stripWeak(tag).equals(current)) {
+                    return true;
+                }
             }
-            try (OutputStream out = response.getOutputStream()) {
-                Files.copy(path, out);
-                out.flush();
-            }
-        } catch (Exception e) {
-            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return false;
+        }
+        try {
+            long ifModifiedSince = request.getDateHeader("If-Modified-Since");
+            return ifModifiedSince >= 0 && lastModified / 1000 <= ifModifiedSince / 1000;
+        } catch (IllegalArgumentException e) {
+            return false;
         }
     }
 
-    private String getContentType(String fileName) {
-        String extension = "";
-        int lastDot = fileName.lastIndexOf('.');
-        if (lastDot > 0) {
-            extension = fileName.substring(lastDot).toLowerCase();
-        }
+    private static String stripWeak(String tag) {
+        return tag.startsWith("W/") ? tag.substring(2) : tag;
+    }
 
-        return CONTENT_TYPES.getOrDefault(extension, "application/octet-stream");
+    private static boolean acceptsEncoding(String acceptEncoding, String encoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String part : acceptEncoding.split(",")) {
+            String[] params = part.split(";");
+            if (!params[0].trim().equalsIgnoreCase(encoding)) {
+                continue;
+            }
+            for (int i = 1; i < params.length; i++) {
+                // q=0 表示明确拒绝该编码
+                if (params[i].trim().replace(" ", "").matches("q=0(\\.0{0,3})?")) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return false;
     }
 }
@@ -5,7 +5,9 @@ import org.apache.ibatis.annotations.Param;
 import org.springframework.stereotype.Repository;
 import xyz.lingview.dimstack.domain.ApiKey;
 
+import java.util.Date;
 import java.util.List;
+import java.util.Map;
 
 @Mapper
 @Repository
@@ -26,4 +28,6 @@ public interface ApiKeyMapper {
     int deleteByIdAndUserId(@Param("id") Integer id, @Param("userId") String userId);
 
     int countByKeyHash(@Param("keyHash") String keyHash);
+
+    int batchUpdateLastUsedTime(@Param("lastUsed") Map<String, Date> lastUsed);
 }
@@ -5,6 +5,7 @@ import xyz.lingview.dimstack.domain.ArticleCategory;
 import xyz.lingview.dimstack.domain.ArticleCategoryAndCount;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
+import java.util.Date;
 import java.util.List;
 
 @Mapper
@@ -20,6 +21,12 @@ public interface ArticleCategoryMapper {
 
     int countArticlesByCategory(@Param("category") String category);
 
+    // 游标分页，cursorTime 为空时返回第一页
+    List<ArticleDTO> findArticlesByCategoryAfterCursor(@Param("category") String category,
+                                                       @Param("cursorTime") Date cursorTime,
+                                                       @Param("cursorId") Integer cursorId,
+                                                       @Param("limit") int limit);
+
     List<ArticleCategory> findAll();
     List<ArticleCategory> findByStatus(@Param("status") Integer status);
     ArticleCategory findById(@Param("id") Integer id);
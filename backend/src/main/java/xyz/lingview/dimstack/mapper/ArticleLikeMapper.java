@@ -7,7 +7,8 @@ import xyz.lingview.dimstack.domain.ArticleLike;
 @Mapper
 @Repository
 public interface ArticleLikeMapper {
-    void insertLike(ArticleLike like);
-    void deleteLike(String userId, String articleId);
+    // 已点赞时忽略，返回实际插入行数
+    int insertLikeIgnore(ArticleLike like);
+    int deleteLike(String userId, String articleId);
     boolean existsLike(String userId, String articleId);
 }
@@ -4,6 +4,8 @@ import org.springframework.stereotype.Repository;
 import xyz.lingview.dimstack.domain.Article;
 import xyz.lingview.dimstack.dto.request.ArticleDTO;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import java.util.Date;
 import java.util.List;
 
 @Mapper
@@ -14,6 +16,12 @@ public interface ArticleMapper {
 
     int countArticles(String category);
 
+    // 游标分页，cursorTime 为空时返回第一页
+    List<ArticleDTO> selectArticlesAfterCursor(@Param("category") String category,
+                                               @Param("cursorTime") Date cursorTime,
+                                               @Param("cursorId") Integer cursorId,
+                                               @Param("limit") int limit);
+
     // 评论区
     Article selectArticleByAlias(String alias);
     Article selectArticleByArticleId(String articleId);
@@ -21,7 +29,7 @@ public interface ArticleMapper {
     // 根据文章 uuid 查询文章所有者 uuid
     String selectUserUuidByArticleId(String articleId);
 
-    // 更新文章点赞数
-    void updateArticleLikeCount(String articleId, long likeCount);
+    // 批量累加文章点赞数：文章id -> 增量
+    int batchIncrementLikeCount(@Param("deltas") java.util.Map<String, Long> deltas);
 
 }
@@ -5,6 +5,7 @@ import org.apache.ibatis.annotations.Param;
 import xyz.lingview.dimstack.domain.ArticleTag;
 import xyz.lingview.dimstack.dto.request.ArticleDTO;
 
+import java.util.Date;
 import java.util.List;
 
 @Mapper
@@ -24,4 +25,10 @@ public interface ArticleTagMapper {
     List<ArticleDTO> findArticlesByTag(@Param("tagName") String tagName,
                                        @Param("offset") int offset,
                                        @Param("size") int size);
+
+    // 游标分页，cursorTime 为空时返回第一页
+    List<ArticleDTO> findArticlesByTagAfterCursor(@Param("tagName") String tagName,
+                                                  @Param("cursorTime") Date cursorTime,
+                                                  @Param("cursorId") Integer cursorId,
+                                                  @Param("limit") int limit);
 }
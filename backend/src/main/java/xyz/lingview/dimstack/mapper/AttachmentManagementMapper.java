@@ -5,6 +5,7 @@ import org.apache.ibatis.annotations.Param;
 import xyz.lingview.dimstack.domain.AttachmentManagement;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -82,12 +83,15 @@ public interface AttachmentManagementMapper {
     // 根据用户UUID查询已删除附件总数（6小时内）
     int countDeletedOnlyByUserUuid(@Param("userUuid") String userUuid);
     
-    // 查询删除超过6小时的附件
-    List<AttachmentManagement> selectExpiredDeletedAttachments();
+    // 按附件ID分页查询删除超过6小时的附件，afterId 为上一页最后一个附件ID
+    List<AttachmentManagement> selectExpiredDeletedPage(@Param("afterId") String afterId, @Param("limit") int limit);
     
     // 物理删除附件记录（将状态改为2）
     int physicallyDeleteAttachment(@Param("attachmentId") String attachmentId);
 
+    // 批量物理删除附件记录（将状态改为2）
+    int batchPhysicallyDeleteAttachments(@Param("attachmentIds") Collection<String> attachmentIds);
+
     // 批量删除附件（软删除）
     int batchDeleteByAttachmentIds(@Param("attachmentIds") List<String> attachmentIds, @Param("deletedTime") LocalDateTime deletedTime);
 
@@ -99,4 +103,7 @@ public interface AttachmentManagementMapper {
 
     // 更新附件的存储方式
     int updateStorageId(@Param("attachmentId") String attachmentId, @Param("storageId") String storageId);
+
+    // 查询附件的访问键，用于清除文件访问缓存
+    List<String> selectAccessKeysByAttachmentIds(@Param("attachmentIds") Collection<String> attachmentIds);
 }
\ No newline at end of file
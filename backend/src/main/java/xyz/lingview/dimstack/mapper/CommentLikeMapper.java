@@ -1,13 +1,20 @@
 package xyz.lingview.dimstack.mapper;
 
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
 import org.springframework.stereotype.Repository;
 import xyz.lingview.dimstack.domain.CommentLike;
 
+import java.util.List;
+
 @Mapper
 @Repository
 public interface CommentLikeMapper {
-    void insertLike(CommentLike like);
-    void deleteLike(String userId, String commentId);
+    // 已点赞时忽略，返回实际插入行数
+    int insertLikeIgnore(CommentLike like);
+    int deleteLike(String userId, String commentId);
     boolean existsLike(String userId, String commentId);
+
+    // 查询用户在某篇文章下点赞过的全部评论id
+    List<String> selectLikedCommentIdsByArticle(@Param("userId") String userId, @Param("articleId") String articleId);
 }
@@ -13,8 +13,14 @@ public interface CommentMapper {
     void insertComment(Comment comment);
     List<Comment> selectCommentsByArticleId(String articleId);
     Comment selectCommentByCommentId(String commentId);
-    void updateCommentLikeCount(String commentId, Long likeCount);
+    Comment selectCommentForReview(String commentId);
+    // 批量累加评论点赞数：评论id -> 增量
+    int batchIncrementCommentLikeCount(@Param("deltas") java.util.Map<String, Long> deltas);
     void deleteComment(String commentId);
 
     int updateCommentStatus(@Param("commentId") String commentId, @Param("status") int status);
+
+    int updateCommentStatusIfCurrent(@Param("commentId") String commentId,
+                                     @Param("currentStatus") int currentStatus,
+                                     @Param("status") int status);
 }
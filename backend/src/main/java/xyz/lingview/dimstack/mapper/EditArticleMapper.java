@@ -43,6 +43,12 @@ public interface EditArticleMapper {
 
     int updateArticleStatus(@Param("articleId") String articleId, @Param("status") Integer status);
 
+    int updateArticleStatusIfCurrent(@Param("articleId") String articleId,
+                                     @Param("currentStatus") Integer currentStatus,
+                                     @Param("status") Integer status);
+
+    Integer getArticleStatusById(@Param("articleId") String articleId);
+
     List<EditArticleDTO> searchArticlesByUuid(@Param("uuid") String uuid,
                                              @Param("keyword") String keyword,
                                              @Param("offset") int offset,
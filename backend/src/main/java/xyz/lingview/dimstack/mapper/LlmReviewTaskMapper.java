@@ -0,0 +1,32 @@
+package xyz.lingview.dimstack.mapper;
+
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.springframework.stereotype.Repository;
+import xyz.lingview.dimstack.domain.LlmReviewTask;
+
+import java.util.Collection;
+import java.util.List;
+
+@Mapper
+@Repository
+public interface LlmReviewTaskMapper {
+
+    int insertOrMarkResubmitted(@Param("targetType") String targetType,
+                     @Param("targetId") String targetId,
+                     @Param("username") String username);
+
+    int claimPending(@Param("claimToken") String claimToken,
+                     @Param("limit") int limit,
+                     @Param("staleMinutes") int staleMinutes);
+
+    List<LlmReviewTask> selectClaimed(@Param("claimToken") String claimToken);
+
+    int releaseClaims(@Param("ids") Collection<Long> ids);
+
+    int deleteClaimed(@Param("id") long id, @Param("claimToken") String claimToken);
+
+    int requeueResubmitted(@Param("id") long id, @Param("claimToken") String claimToken);
+
+    long countPending();
+}
@@ -0,0 +1,38 @@
+package xyz.lingview.dimstack.mapper;
+
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.springframework.stereotype.Repository;
+import xyz.lingview.dimstack.domain.MailOutbox;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Mapper
+@Repository
+public interface MailOutboxMapper {
+    int insert(MailOutbox mail);
+
+    // 把到期的待发送邮件标记为发送中，多节点之间靠 claim_token 区分各自领取的批次
+    int claimDue(@Param("claimToken") String claimToken, @Param("limit") int limit);
+
+    List<MailOutbox> selectClaimed(@Param("claimToken") String claimToken);
+
+    int markSent(@Param("id") long id);
+
+    int markRetry(@Param("id") long id,
+                  @Param("recipients") String recipients,
+                  @Param("attempts") int attempts,
+                  @Param("nextAttemptTime") LocalDateTime nextAttemptTime,
+                  @Param("lastError") String lastError);
+
+    int markFailed(@Param("id") long id,
+                   @Param("recipients") String recipients,
+                   @Param("attempts") int attempts,
+                   @Param("lastError") String lastError);
+
+    // 发送中途节点宕机的邮件重新放回待发送
+    int releaseStale(@Param("minutes") int minutes);
+
+    int deleteSentBefore(@Param("days") int days);
+}
@@ -0,0 +1,33 @@
+package xyz.lingview.dimstack.mapper;
+
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.springframework.stereotype.Repository;
+import xyz.lingview.dimstack.domain.MultipartUpload;
+import xyz.lingview.dimstack.domain.MultipartUploadPart;
+
+import java.util.List;
+
+@Mapper
+@Repository
+public interface MultipartUploadMapper {
+
+    int insert(MultipartUpload upload);
+
+    MultipartUpload selectByUploadId(@Param("uploadId") String uploadId);
+
+    List<MultipartUpload> selectExpired(@Param("hours") int hours, @Param("limit") int limit);
+
+    int touch(@Param("uploadId") String uploadId);
+
+    int deleteByUploadId(@Param("uploadId") String uploadId);
+
+    int upsertPart(@Param("uploadId") String uploadId,
+                   @Param("partNumber") int partNumber,
+                   @Param("etag") String etag,
+                   @Param("size") long size);
+
+    List<MultipartUploadPart> selectParts(@Param("uploadId") String uploadId);
+
+    int deleteParts(@Param("uploadId") String uploadId);
+}
@@ -1,11 +1,13 @@
 package xyz.lingview.dimstack.mapper;
 
 import xyz.lingview.dimstack.domain.ReadArticle;
+import xyz.lingview.dimstack.domain.SitemapArticle;
 import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Mapper;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Map;
 
 @Mapper
 @Repository
@@ -14,15 +16,18 @@ public interface ReadArticleMapper {
 
     ReadArticle selectByAlias(@Param("alias") String alias);
 
-    ReadArticle selectRandomArticle();
+    List<String> listPublishedAliases();
 
     boolean isArticleNeedPassword(@Param("alias") String alias);
 
     void updatePageViews(@Param("alias") String alias);
 
     void batchUpdatePageViews(@Param("alias") String alias, @Param("count") Long count);
+
+    int batchIncrementPageViews(@Param("deltas") Map<String, Long> deltas);
     // seo优化用
-    List<ReadArticle> listAllArticles();
+    List<SitemapArticle> listSitemapArticles();
+    SitemapArticle selectSitemapArticle(@Param("article_id") String articleId);
     List<String> listAllCategories();
     List<String> listAllTags();
 }
@@ -1,11 +1,14 @@
 package xyz.lingview.dimstack.mapper;
 
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
 import org.springframework.stereotype.Repository;
 import xyz.lingview.dimstack.domain.StorageMigrationFailedItem;
+import xyz.lingview.dimstack.domain.StorageMigrationItem;
 import xyz.lingview.dimstack.domain.StorageMigrationLog;
 
 import java.util.List;
+import java.util.Map;
 
 @Mapper
 @Repository
@@ -21,4 +24,16 @@ public interface StorageMigrationLogMapper {
     StorageMigrationLog selectById(int id);
 
     List<StorageMigrationLog> selectAll();
+
+    List<StorageMigrationLog> selectRunning();
+
+    void insertItems(List<StorageMigrationItem> items);
+
+    List<StorageMigrationItem> selectPendingItems(@Param("migrationId") int migrationId,
+                                                  @Param("afterId") int afterId,
+                                                  @Param("limit") int limit);
+
+    int updateItemStatus(@Param("id") int id, @Param("status") int status, @Param("bytes") long bytes);
+
+    Map<String, Object> selectItemStats(@Param("migrationId") int migrationId);
 }
\ No newline at end of file
@@ -15,6 +15,9 @@ public interface UserInformationMapper {
 
     UserInformation selectUserByUUID(@Param("uuid") String uuid);
 
+    // 批量查询用户名与头像，只返回 uuid、username、avatar
+    List<UserInformation> selectUserProfilesByUuids(@Param("uuids") java.util.Collection<String> uuids);
+
     String selectUsernameByUUID(@Param("uuid") String uuid);
 
     int updateUserByUUID(UserInformation userInformation);
@@ -4,7 +4,6 @@ import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
-import xyz.lingview.dimstack.mapper.UserInformationMapper;
 import xyz.lingview.dimstack.service.ApiKeyService;
 
 @Component
@@ -17,9 +16,6 @@ public class TokenAuthResolver {
     @Autowired
     private ApiKeyService apiKeyService;
 
-    @Autowired
-    private UserInformationMapper userInformationMapper;
-
     // 检查请求中是否携带 Bearer 令牌
     public boolean hasToken(HttpServletRequest request) {
         String header = request.getHeader(AUTH_HEADER);
@@ -36,17 +32,7 @@ public class TokenAuthResolver {
             return null;
         }
 
-        String uuid = apiKeyService.validateAndGetUserId(token);
-        if (uuid == null) {
-            return null;
-        }
-
-        String username = userInformationMapper.getUsernameByUuid(uuid);
-        if (username == null) {
-            log.warn("API Key 校验通过但未找到对应用户, uuid={}", uuid);
-            return null;
-        }
-
-        return new AuthenticatedUser(username, uuid, AuthType.TOKEN);
+        // 校验结果由 ApiKeyService 缓存，命中时无需访问数据库
+        return apiKeyService.authenticate(token);
     }
 }
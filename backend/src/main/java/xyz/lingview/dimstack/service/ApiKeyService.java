@@ -2,6 +2,7 @@ package xyz.lingview.dimstack.service;
 
 import xyz.lingview.dimstack.dto.response.ApiKeyCreatedResponseDTO;
 import xyz.lingview.dimstack.dto.response.ApiKeyResponseDTO;
+import xyz.lingview.dimstack.security.AuthenticatedUser;
 
 import java.util.List;
 
@@ -22,4 +23,9 @@ public interface ApiKeyService {
     boolean deleteApiKey(String userId, Integer id);
 
     String validateAndGetUserId(String apiKey);
+
+    /**
+     * 校验 API Key 并解析出所属用户，无效、禁用或用户不存在时返回 null
+     */
+    AuthenticatedUser authenticate(String apiKey);
 }
@@ -4,6 +4,7 @@ import xyz.lingview.dimstack.domain.ArticleCategory;
 import xyz.lingview.dimstack.domain.ArticleCategoryAndCount;
 import xyz.lingview.dimstack.dto.request.ArticleCategoryDTO;
 import xyz.lingview.dimstack.dto.request.ArticleDTO;
+import xyz.lingview.dimstack.dto.request.CursorPageResult;
 
 import java.util.List;
 
@@ -23,5 +24,6 @@ public interface ArticleCategoryService {
     List<ArticleCategory> findAllEnabledCategories();
     List<ArticleCategoryAndCount> findAllEnabledCategoriesAndCount();
     List<ArticleDTO> findArticlesByCategory(String category, int offset, int size);
+    CursorPageResult<ArticleDTO> findArticlesByCategoryAfter(String category, String cursor, int size);
     int countArticlesByCategory(String category);
 }
@@ -1,6 +1,7 @@
 package xyz.lingview.dimstack.service;
 
 import xyz.lingview.dimstack.dto.request.ArticleDTO;
+import xyz.lingview.dimstack.dto.request.CursorPageResult;
 import xyz.lingview.dimstack.dto.request.PageRequest;
 import xyz.lingview.dimstack.dto.request.PageResult;
 
@@ -8,5 +9,8 @@ public interface ArticleService {
 
     PageResult<ArticleDTO> getArticlesForHomePage(PageRequest pageRequest);
 
+    // 游标分页，cursor 为空字符串时返回第一页
+    CursorPageResult<ArticleDTO> getArticlesForHomePageByCursor(String category, String cursor, int size);
+
     void clearArticleCache();
 }
\ No newline at end of file
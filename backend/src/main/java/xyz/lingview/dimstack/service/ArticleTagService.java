@@ -3,6 +3,7 @@ package xyz.lingview.dimstack.service;
 import xyz.lingview.dimstack.domain.ArticleTag;
 import xyz.lingview.dimstack.dto.request.ArticleDTO;
 import xyz.lingview.dimstack.dto.request.ArticleTagDTO;
+import xyz.lingview.dimstack.dto.request.CursorPageResult;
 
 import java.util.List;
 
@@ -18,5 +19,6 @@ public interface ArticleTagService {
     // 公开前端接口方法
     List<ArticleTag> findAllEnabledTags();
     List<ArticleDTO> findArticlesByTag(String tagName, int offset, int size);
+    CursorPageResult<ArticleDTO> findArticlesByTagAfter(String tagName, String cursor, int size);
     int countArticlesByTag(String tagName);
 }
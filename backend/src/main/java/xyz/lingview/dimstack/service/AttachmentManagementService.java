@@ -54,5 +54,7 @@ public interface AttachmentManagementService {
 
     StorageMigrationLog getMigrateLogDetail(int id);
 
+    Map<String, Object> getMigrateProgress(int id);
+
     int cleanupExpiredDeletedAttachments();
 }
\ No newline at end of file
@@ -13,7 +13,11 @@ public interface  CacheService {
     void set(String key, Object value, long timeout, TimeUnit unit);
     <T> T get(String key, Class<T> type);
     void delete(String key);
-    void deleteByPrefix(String prefix);
+    /**
+     * 按前缀批量删除缓存
+     * @return 实际删除的键数量
+     */
+    long deleteByPrefix(String prefix);
 
     void addToSet(String key, Object value);
     void removeFromSet(String key, Object value);
@@ -26,4 +30,14 @@ public interface  CacheService {
     long decrementAndGet(String key);
     long getAndIncrement(String key);
     long getAndDecrement(String key);
+
+    /**
+     * 对哈希中的多个字段做原子累加，用于跨节点汇总增量
+     */
+    void incrementHashFields(String key, java.util.Map<String, Long> deltas);
+
+    /**
+     * 原子地取出并删除整个哈希，多个节点并发调用时每个增量只会被取出一次
+     */
+    java.util.Map<String, Long> drainHash(String key);
 }
@@ -0,0 +1,24 @@
+package xyz.lingview.dimstack.service;
+
+/**
+ * @Author: lingview
+ * @Date: 2026/10/19 01:26:08
+ * @Description: 图形验证码，由后台线程预先渲染放入池中，请求线程只取用
+ * @Version: 1.0
+ */
+public interface CaptchaService {
+
+    /**
+     * 一张验证码
+     *
+     * @param code  验证码文本（大写）
+     * @param image 图片的 data URI，可直接用于 img 标签
+     */
+    record Captcha(String code, String image) {
+    }
+
+    /**
+     * 取出一张未使用过的验证码，池为空时在当前线程渲染
+     */
+    Captcha next();
+}
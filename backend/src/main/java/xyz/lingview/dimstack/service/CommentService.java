@@ -10,4 +10,7 @@ public interface CommentService {
     int addComment(String username, AddCommentRequestDTO request);
     void likeComment(String username, String commentId);
     void deleteComment(String username, String commentId);
+
+    // 评论新增、删除、审核或编辑后清除文章的评论树快照
+    void evictCommentTree(String articleId);
 }
@@ -2,6 +2,8 @@ package xyz.lingview.dimstack.service;
 
 import org.springframework.core.io.Resource;
 
+import java.util.Collection;
+
 public interface FileAccessService {
 
     /**
@@ -12,14 +14,39 @@ public interface FileAccessService {
      */
     FileAccessResult getFile(String accessKey, boolean download);
 
+    /**
+     * 附件被删除或迁移存储后清除其访问缓存
+     */
+    void evictAttachments(Collection<String> attachmentIds);
+
     /**
      * 文件访问结果
+     *
+     * @param etag 强校验 ETag，访问键对应的内容不会变化
+     * @param lastModified 最后修改时间（毫秒），未知时为 -1
+     * @param rangeStorage 支持范围读取的外部存储，本地文件与不支持范围读取的存储为 null
+     * @param redirectMaxAge 重定向可被客户端缓存的秒数，不可缓存时为 0
+     * @param immutable 同一访问键返回的字节是否固定不变；图片可能在压缩完成后改为返回压缩图，此时为 false
      */
     record FileAccessResult(
             Resource resource,
             String contentType,
             String filename,
             boolean found,
-            String redirectUrl
-    ) {}
+            String redirectUrl,
+            String etag,
+            long lastModified,
+            RangeReadableStorage rangeStorage,
+            String objectKey,
+            long redirectMaxAge,
+            boolean immutable
+    ) {
+        public static FileAccessResult notFound() {
+            return new FileAccessResult(null, null, null, false, null, null, -1L, null, null, 0L, false);
+        }
+
+        public static FileAccessResult redirect(String redirectUrl, String filename, long maxAge) {
+            return new FileAccessResult(null, null, filename, true, redirectUrl, null, -1L, null, null, maxAge, false);
+        }
+    }
 }
\ No newline at end of file
@@ -1,6 +1,8 @@
 package xyz.lingview.dimstack.service;
 
 import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * @Author: lingview
@@ -16,8 +18,39 @@ public interface FileStorage {
 
     void delete(String objectKey);
 
+    /**
+     * 后端是否支持一次请求删除多个对象
+     */
+    default boolean supportsBatchDelete() {
+        return false;
+    }
+
+    /**
+     * 批量删除对象，对象不存在视为删除成功，默认逐个删除
+     *
+     * @return 删除失败的对象键
+     */
+    default List<String> deleteBatch(List<String> objectKeys) {
+        List<String> failed = new ArrayList<>();
+        for (String objectKey : objectKeys) {
+            try {
+                delete(objectKey);
+            } catch (Exception e) {
+                failed.add(objectKey);
+            }
+        }
+        return failed;
+    }
+
     boolean exists(String objectKey);
 
+    /**
+     * 返回对象字节数，对象不存在或后端无法提供大小时返回 -1
+     */
+    default long size(String objectKey) {
+        return -1L;
+    }
+
     void copy(String sourceKey, String destKey);
 
     String getType();
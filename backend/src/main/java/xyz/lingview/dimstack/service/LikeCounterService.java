@@ -0,0 +1,25 @@
+package xyz.lingview.dimstack.service;
+
+/**
+ * @Author: lingview
+ * @Date: 2026/10/18 19:05:32
+ * @Description: 点赞数增量计数，点赞记录实时写入，点赞数汇总后批量落库
+ * @Version: 1.0
+ */
+public interface LikeCounterService {
+
+    enum Target {
+        ARTICLE,
+        COMMENT
+    }
+
+    /**
+     * 记录点赞数增量，点赞为 1，取消点赞为 -1
+     */
+    void add(Target target, String id, long delta);
+
+    /**
+     * 本节点尚未落库的增量，从数据库加载点赞数时叠加
+     */
+    long pending(Target target, String id);
+}
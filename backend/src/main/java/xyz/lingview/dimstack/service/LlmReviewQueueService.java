@@ -0,0 +1,34 @@
+package xyz.lingview.dimstack.service;
+
+/**
+ * @Author: lingview
+ * @Date: 2026/10/18 21:03:17
+ * @Description: 大模型审核队列，任务先持久化再由有界执行器处理，重启后未完成的审核会继续执行
+ * @Version: 1.0
+ */
+public interface LlmReviewQueueService {
+
+    enum Target {
+        ARTICLE,
+        COMMENT
+    }
+
+    @FunctionalInterface
+    interface ReviewHandler {
+        /**
+         * 执行一次审核，需自行处理异常并在失败时转为人工审核
+         */
+        void review(String targetId, String username);
+    }
+
+    /**
+     * 注册审核对象的处理逻辑
+     */
+    void registerHandler(Target target, ReviewHandler handler);
+
+    /**
+     * 提交审核任务，同一对象已有待执行的任务时不重复提交；
+     * 任务正在执行时，执行结束后会对最新内容重新审核
+     */
+    void submit(Target target, String targetId, String username);
+}
@@ -3,6 +3,8 @@ package xyz.lingview.dimstack.service;
 import jakarta.mail.MessagingException;
 import org.springframework.scheduling.annotation.Async;
 
+import java.time.Duration;
+import java.util.List;
 import java.util.Map;
 
 public interface MailService {
@@ -15,6 +17,25 @@ public interface MailService {
     @Async
     void sendSimpleMail(String to, String subject, String content);
 
+    /**
+     * 向多个收件人发送同一封简单文本邮件，每位收件人单独收到一封
+     * @param to 收件人邮箱列表
+     * @param subject 邮件主题
+     * @param content 邮件内容
+     */
+    @Async
+    void sendBulkSimpleMail(List<String> to, String subject, String content);
+
+    /**
+     * 发送有时效的验证码邮件，不写入发件箱（验证码不落库），超过有效期仍未发出时放弃发送
+     * @param to 收件人邮箱
+     * @param subject 邮件主题
+     * @param content 邮件内容
+     * @param validity 验证码有效期
+     */
+    @Async
+    void sendVerificationMail(String to, String subject, String content, Duration validity);
+
     /**
      * 发送HTML格式邮件
      * @param to 收件人邮箱
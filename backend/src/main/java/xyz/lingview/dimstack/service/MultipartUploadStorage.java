@@ -0,0 +1,44 @@
+package xyz.lingview.dimstack.service;
+
+import java.io.InputStream;
+import java.util.List;
+
+/**
+ * @Author: lingview
+ * @Date: 2026/10/19 17:41:02
+ * @Description: 支持原生分片上传的存储后端，分片直接写入存储，无需在本地合并；上传时以 instanceof 判断
+ * @Version: 1.0
+ */
+public interface MultipartUploadStorage extends FileStorage {
+
+    /**
+     * 除最后一个分片外，每个分片的最小字节数
+     */
+    long minPartSize();
+
+    /**
+     * 开始一次分片上传，返回存储后端的上传标识
+     */
+    String initMultipartUpload(String objectKey, String contentType);
+
+    /**
+     * 上传一个分片，同一分片可重复上传，以最后一次为准
+     *
+     * @param partNumber 分片序号，从 1 开始
+     * @return 分片校验值，完成上传时原样传回
+     */
+    String uploadPart(String objectKey, String uploadId, int partNumber, InputStream data, long contentLength);
+
+    /**
+     * 按分片序号顺序合并为最终对象
+     */
+    void completeMultipartUpload(String objectKey, String uploadId, List<UploadedPart> parts);
+
+    /**
+     * 放弃分片上传并释放已上传的分片
+     */
+    void abortMultipartUpload(String objectKey, String uploadId);
+
+    record UploadedPart(int partNumber, String etag) {
+    }
+}
@@ -0,0 +1,20 @@
+package xyz.lingview.dimstack.service;
+
+/**
+ * @Author: lingview
+ * @Date: 2026/10/18 16:42:10
+ * @Description: 已发布文章别名池，用于随机文章的常数时间抽取
+ * @Version: 1.0
+ */
+public interface RandomArticleService {
+
+    /**
+     * 随机抽取一个已发布文章的别名，没有已发布文章时返回 null
+     */
+    String pickAlias();
+
+    /**
+     * 文章发布、下架、删除或别名变更后调用，下次抽取前重建别名池
+     */
+    void markStale();
+}
@@ -0,0 +1,25 @@
+package xyz.lingview.dimstack.service;
+
+import java.io.InputStream;
+
+/**
+ * @Author: lingview
+ * @Date: 2026/10/19 17:38:26
+ * @Description: 支持按范围读取对象的存储后端，访问文件时以 instanceof 判断
+ * @Version: 1.0
+ */
+public interface RangeReadableStorage extends FileStorage {
+
+    /**
+     * 按 HTTP Range 规范读取对象的一段内容，范围不可满足时返回 null
+     *
+     * @param byteRange 单段范围，如 bytes=0-1023
+     */
+    RangedStream retrieveRange(String objectKey, String byteRange);
+
+    /**
+     * 范围读取结果，start/end 为闭区间，totalLength 未知时为 -1
+     */
+    record RangedStream(InputStream stream, long start, long end, long totalLength) {
+    }
+}
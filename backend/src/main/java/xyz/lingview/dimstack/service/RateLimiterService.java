@@ -0,0 +1,22 @@
+package xyz.lingview.dimstack.service;
+
+import xyz.lingview.dimstack.annotation.RateLimit;
+
+/**
+ * @Author: lingview
+ * @Date: 2026/10/17 23:05:31
+ * @Description: 限流服务
+ * @Version: 1.0
+ */
+public interface RateLimiterService {
+
+    /**
+     * 尝试获取一次请求许可
+     * @param key 限流键
+     * @param algorithm 限流算法
+     * @param maxRequests 窗口内允许的最大请求数（令牌桶容量）
+     * @param windowMillis 窗口长度（毫秒）
+     * @return true 表示放行，false 表示已被限流
+     */
+    boolean tryAcquire(String key, RateLimit.Algorithm algorithm, int maxRequests, long windowMillis);
+}
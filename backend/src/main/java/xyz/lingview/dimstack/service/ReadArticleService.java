@@ -2,19 +2,15 @@ package xyz.lingview.dimstack.service;
 
 import xyz.lingview.dimstack.domain.ReadArticle;
 
-import java.util.List;
-
 public interface ReadArticleService {
     boolean isArticleNeedPassword(String alias);
     ReadArticle getArticleByAlias(String alias, String password) throws Exception;
+
+    // 供爬虫页面渲染，不计入浏览量；文章不存在或需要密码时返回 null
+    ReadArticle getArticleForCrawler(String alias);
     ReadArticle getRandomArticle();
     void updatePageViews(String alias);
 
-    // seo用
-    List<ReadArticle> listAllArticles();
-    List<String> listAllCategories();
-    List<String> listAllTags();
-
     // 文章点赞
     void likeArticle(String username, String articleAlias);
 
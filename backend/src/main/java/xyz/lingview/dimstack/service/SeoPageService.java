@@ -0,0 +1,34 @@
+package xyz.lingview.dimstack.service;
+
+/**
+ * @Author: lingview
+ * @Date: 2026/10/19 00:12:36
+ * @Description: 搜索引擎爬虫访问的服务端渲染页面，按别名、域名与主题缓存压缩后的 HTML
+ * @Version: 1.0
+ */
+public interface SeoPageService {
+
+    /**
+     * 已 gzip 压缩的页面
+     *
+     * @param etag         页面内容的强校验值
+     * @param lastModified 渲染时间（毫秒）
+     */
+    record RenderedPage(byte[] gzipped, String etag, long lastModified) {
+    }
+
+    /**
+     * 渲染文章页，文章不存在、未发布或需要密码时返回 null；不计入浏览量
+     */
+    RenderedPage article(String alias, String domain);
+
+    /**
+     * 文章编辑、发布状态或别名变化后调用
+     */
+    void articleChanged(String articleId);
+
+    /**
+     * 站点配置或主题变化后调用，丢弃全部已渲染页面
+     */
+    void invalidate();
+}
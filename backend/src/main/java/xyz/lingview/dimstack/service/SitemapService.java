@@ -0,0 +1,47 @@
+package xyz.lingview.dimstack.service;
+
+/**
+ * @Author: lingview
+ * @Date: 2026/10/18 22:08:40
+ * @Description: 站点地图生成，按域名缓存压缩后的 XML，文章按 50000 条分片并随发布状态增量更新
+ * @Version: 1.0
+ */
+public interface SitemapService {
+
+    /**
+     * 已 gzip 压缩的站点地图
+     *
+     * @param etag         内容的弱校验值
+     * @param lastModified 所属分片最近一次变化的时间（毫秒）
+     */
+    record SitemapDocument(byte[] gzipped, String etag, long lastModified) {
+    }
+
+    SitemapDocument index(String domain);
+
+    SitemapDocument home(String domain);
+
+    /**
+     * @param shard 分片序号，从 1 开始，超出范围返回 null
+     */
+    SitemapDocument articles(String domain, int shard);
+
+    SitemapDocument categories(String domain);
+
+    SitemapDocument tags(String domain);
+
+    /**
+     * 文章发布、取消发布、删除或别名变化后调用，只重新生成受影响的分片
+     */
+    void articleChanged(String articleId);
+
+    /**
+     * 分类或标签变化后调用
+     */
+    void taxonomyChanged();
+
+    /**
+     * 丢弃全部数据，下次访问时从数据库重新加载
+     */
+    void invalidate();
+}
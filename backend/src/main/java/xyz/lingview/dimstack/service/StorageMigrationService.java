@@ -0,0 +1,25 @@
+package xyz.lingview.dimstack.service;
+
+import xyz.lingview.dimstack.domain.AttachmentManagement;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @Author: lingview
+ * @Date: 2026/10/18 10:12:36
+ * @Description: 存储迁移任务服务，迁移在后台执行并按附件记录进度
+ * @Version: 1.0
+ */
+public interface StorageMigrationService {
+
+    /**
+     * 创建迁移任务并在后台开始执行，立即返回任务ID
+     */
+    Map<String, Object> startMigration(String sourceStorageId, String targetStorageId, List<AttachmentManagement> attachments);
+
+    /**
+     * 查询迁移进度，运行中的任务包含预计剩余时间
+     */
+    Map<String, Object> getProgress(int migrationId);
+}
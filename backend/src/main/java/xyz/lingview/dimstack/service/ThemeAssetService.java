@@ -0,0 +1,34 @@
+package xyz.lingview.dimstack.service;
+
+import java.nio.file.Path;
+
+/**
+ * @Author: lingview
+ * @Date: 2026/10/18 23:02:19
+ * @Description: 当前主题的静态资源清单，小文件及其压缩版本常驻内存，大文件只记录元数据
+ * @Version: 1.0
+ */
+public interface ThemeAssetService {
+
+    /**
+     * 主题中的一个文件
+     *
+     * @param content   文件内容，大文件为 null，由调用方从 file 直接发送
+     * @param gzip      gzip 压缩后的内容，不可压缩或压缩收益太小时为 null
+     * @param brotli    主题自带的 .br 预压缩内容，没有时为 null
+     * @param etag      强校验值（已带引号）
+     */
+    record ThemeAsset(String path, Path file, String contentType, long length, long lastModified, String etag,
+                      byte[] content, byte[] gzip, byte[] brotli) {
+    }
+
+    /**
+     * 按请求路径（如 /assets/index-3f2a.js）查找资源，不存在时返回 null，不访问磁盘
+     */
+    ThemeAsset lookup(String resourcePath);
+
+    /**
+     * 重新加载当前主题的资源清单，切换或删除主题后调用
+     */
+    void reload();
+}
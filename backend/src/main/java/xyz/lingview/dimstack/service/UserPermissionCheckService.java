@@ -1,5 +1,7 @@
 package xyz.lingview.dimstack.service;
 
+import java.util.Set;
+
 public interface UserPermissionCheckService {
 
     // 检查用户是否拥有所有指定权限
@@ -7,4 +9,13 @@ public interface UserPermissionCheckService {
 
     // 检查用户是否拥有任意一个指定权限
     boolean hasAnyPermission(String username, String[] permissions);
-}
\ No newline at end of file
+
+    // 获取用户拥有的全部权限编码（只读，优先读缓存）
+    Set<String> getUserPermissions(String username);
+
+    // 用户角色变更后清除该用户的权限缓存，在事务中调用时于提交后执行
+    void evictUserPermissions(String username);
+
+    // 角色或角色权限变更后清除所有用户的权限缓存，在事务中调用时于提交后执行
+    void evictAllPermissions();
+}
@@ -1,16 +1,29 @@
 package xyz.lingview.dimstack.service.impl;
 
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import xyz.lingview.dimstack.domain.ApiKey;
 import xyz.lingview.dimstack.dto.response.ApiKeyCreatedResponseDTO;
 import xyz.lingview.dimstack.dto.response.ApiKeyResponseDTO;
 import xyz.lingview.dimstack.mapper.ApiKeyMapper;
+import xyz.lingview.dimstack.mapper.UserInformationMapper;
+import xyz.lingview.dimstack.security.AuthType;
+import xyz.lingview.dimstack.security.AuthenticatedUser;
 import xyz.lingview.dimstack.service.ApiKeyService;
+import xyz.lingview.dimstack.service.CacheService;
 import xyz.lingview.dimstack.util.ApiKeyUtil;
+import xyz.lingview.dimstack.util.MetricsUtil;
+import xyz.lingview.dimstack.util.TransactionUtil;
 
+import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 /**
@@ -26,6 +39,33 @@ public class ApiKeyServiceImpl implements ApiKeyService {
     @Autowired
     private ApiKeyMapper apiKeyMapper;
 
+    @Autowired
+    private UserInformationMapper userInformationMapper;
+
+    // 校验结果放在共享缓存中，禁用或删除密钥时删除缓存，所有节点立即生效（二级缓存模式下通过失效广播清除本地副本）
+    @Autowired
+    private CacheService cacheService;
+
+    private static final String RESOLVED_KEY_PREFIX = "dimstack:api_key:";
+
+    // 每次清除校验缓存时递增，加载期间版本变化则丢弃加载结果；不能以 RESOLVED_KEY_PREFIX 开头
+    private static final String RESOLVED_KEY_VERSION = "dimstack:api_key_version";
+
+    private static final long VALID_KEY_TTL_SECONDS = TimeUnit.MINUTES.toSeconds(2);
+
+    private static final long INVALID_KEY_TTL_SECONDS = 30;
+
+    private static final int LAST_USED_BATCH_SIZE = 500;
+
+    // 缓存值为 "用户uuid|用户名"，空串表示密钥不存在、已禁用或用户不存在
+    private static final String INVALID_KEY = "";
+
+    private record ResolvedKey(String userId, String username) {
+    }
+
+    // 待回写的最近使用时间：密钥哈希 -> 毫秒时间戳
+    private final Map<String, Long> pendingLastUsed = new ConcurrentHashMap<>();
+
     @Override
     public ApiKeyCreatedResponseDTO createApiKey(String userId, String description) {
         String plainKey;
@@ -47,6 +87,7 @@ public class ApiKeyServiceImpl implements ApiKeyService {
         if (result <= 0) {
             throw new IllegalStateException("API Key 创建失败");
         }
+        evictResolvedKey(keyHash);
 
         return new ApiKeyCreatedResponseDTO(apiKey.getId(), description, plainKey);
     }
@@ -62,25 +103,133 @@ public class ApiKeyServiceImpl implements ApiKeyService {
         if (status == null || (status != 0 && status != 1)) {
             return false;
         }
-        return apiKeyMapper.updateStatusByIdAndUserId(id, userId, status) > 0;
+        ApiKey existing = apiKeyMapper.selectByIdAndUserId(id, userId);
+        if (existing == null) {
+            return false;
+        }
+        boolean updated = apiKeyMapper.updateStatusByIdAndUserId(id, userId, status) > 0;
+        evictResolvedKey(existing.getKey_hash());
+        return updated;
     }
 
     @Override
     public boolean deleteApiKey(String userId, Integer id) {
-        return apiKeyMapper.deleteByIdAndUserId(id, userId) > 0;
+        ApiKey existing = apiKeyMapper.selectByIdAndUserId(id, userId);
+        if (existing == null) {
+            return false;
+        }
+        boolean deleted = apiKeyMapper.deleteByIdAndUserId(id, userId) > 0;
+        evictResolvedKey(existing.getKey_hash());
+        pendingLastUsed.remove(existing.getKey_hash());
+        return deleted;
     }
 
     @Override
     public String validateAndGetUserId(String apiKey) {
+        ResolvedKey resolved = resolve(apiKey);
+        return resolved == null ? null : resolved.userId();
+    }
+
+    @Override
+    public AuthenticatedUser authenticate(String apiKey) {
+        ResolvedKey resolved = resolve(apiKey);
+        if (resolved == null) {
+            return null;
+        }
+        return new AuthenticatedUser(resolved.username(), resolved.userId(), AuthType.TOKEN);
+    }
+
+    private ResolvedKey resolve(String apiKey) {
         if (apiKey == null || apiKey.isBlank()) {
             return null;
         }
         String keyHash = ApiKeyUtil.sha256Hex(apiKey.trim());
+        String cacheKey = RESOLVED_KEY_PREFIX + keyHash;
+        String cached = cacheService.get(cacheKey, String.class);
+        if (cached == null) {
+            long version = cacheService.incrementAndGet(RESOLVED_KEY_VERSION, 0);
+            cached = loadResolvedKey(keyHash);
+            if (cacheService.incrementAndGet(RESOLVED_KEY_VERSION, 0) == version) {
+                cacheService.set(cacheKey, cached,
+                        cached.isEmpty() ? INVALID_KEY_TTL_SECONDS : VALID_KEY_TTL_SECONDS, TimeUnit.SECONDS);
+                // 写入前后之间密钥被撤销时，写入的可能是撤销前的结果
+                if (cacheService.incrementAndGet(RESOLVED_KEY_VERSION, 0) != version) {
+                    cacheService.delete(cacheKey);
+                }
+            }
+        }
+
+        int separator = cached.indexOf('|');
+        if (separator < 0) {
+            MetricsUtil.increment("api_key.rejected");
+            return null;
+        }
+        pendingLastUsed.put(keyHash, System.currentTimeMillis());
+        return new ResolvedKey(cached.substring(0, separator), cached.substring(separator + 1));
+    }
+
+    private String loadResolvedKey(String keyHash) {
+        MetricsUtil.increment("api_key.cache.miss");
         ApiKey record = apiKeyMapper.selectByKeyHash(keyHash);
         if (record == null || record.getStatus() == null || record.getStatus() != 1) {
-            return null;
+            return INVALID_KEY;
+        }
+        String username = userInformationMapper.getUsernameByUuid(record.getUser_id());
+        if (username == null) {
+            log.warn("API Key 校验通过但未找到对应用户, uuid={}", record.getUser_id());
+            return INVALID_KEY;
+        }
+        return record.getUser_id() + "|" + username;
+    }
+
+    private void evictResolvedKey(String keyHash) {
+        TransactionUtil.afterCommit(() -> {
+            try {
+                cacheService.incrementAndGet(RESOLVED_KEY_VERSION);
+                cacheService.delete(RESOLVED_KEY_PREFIX + keyHash);
+            } catch (Exception e) {
+                log.error("清除 API Key 校验缓存失败, 撤销可能延迟生效", e);
+            }
+        });
+    }
+
+    /**
+     * 定期把最近使用时间批量写回数据库，鉴权请求本身不产生写操作
+     */
+    @Scheduled(fixedDelay = 60 * 1000)
+    public void flushLastUsedTime() {
+        if (pendingLastUsed.isEmpty()) {
+            return;
+        }
+        Map<String, Date> batch = new HashMap<>();
+        for (String keyHash : pendingLastUsed.keySet()) {
+            Long usedAt = pendingLastUsed.remove(keyHash);
+            if (usedAt == null) {
+                continue;
+            }
+            batch.put(keyHash, new Date(usedAt));
+            if (batch.size() >= LAST_USED_BATCH_SIZE) {
+                writeLastUsedTime(batch);
+                batch = new HashMap<>();
+            }
+        }
+        if (!batch.isEmpty()) {
+            writeLastUsedTime(batch);
+        }
+    }
+
+    @PreDestroy
+    public void destroy() {
+        flushLastUsedTime();
+    }
+
+    private void writeLastUsedTime(Map<String, Date> batch) {
+        try {
+            apiKeyMapper.batchUpdateLastUsedTime(batch);
+        } catch (Exception e) {
+            // 最近使用时间仅用于展示，失败时丢弃本批即可
+            log.error("批量更新 API Key 最近使用时间失败, 数量={}", batch.size(), e);
         }
-        return record.getUser_id();
     }
 
     private ApiKeyResponseDTO toResponseDTO(ApiKey apiKey) {
@@ -90,6 +239,7 @@ public class ApiKeyServiceImpl implements ApiKeyService {
         dto.setCreateTime(apiKey.getCreate_time());
         dto.setUpdateTime(apiKey.getUpdate_time());
         dto.setStatus(apiKey.getStatus());
+        dto.setLastUsedTime(apiKey.getLast_used_time());
         return dto;
     }
 }
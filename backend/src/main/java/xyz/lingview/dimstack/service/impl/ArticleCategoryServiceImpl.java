@@ -10,9 +10,14 @@ import xyz.lingview.dimstack.dto.request.ArticleDTO;
 import xyz.lingview.dimstack.mapper.ArticleCategoryMapper;
 import xyz.lingview.dimstack.mapper.UserInformationMapper;
 import xyz.lingview.dimstack.service.ArticleCategoryService;
+import xyz.lingview.dimstack.service.CacheService;
+import xyz.lingview.dimstack.service.SitemapService;
+import xyz.lingview.dimstack.dto.request.CursorPageResult;
+import xyz.lingview.dimstack.util.ArticleCursorUtil;
 
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 @Service
@@ -25,6 +30,17 @@ public class ArticleCategoryServiceImpl implements ArticleCategoryService {
     @Autowired
     private UserInformationMapper userInformationMapper;
 
+    @Autowired
+    private CacheService cacheService;
+
+    @Autowired
+    private SitemapService sitemapService;
+
+    // 与首页文章列表缓存同一前缀，文章发布状态变化时由 ArticleService.clearArticleCache 一并清除
+    private static final String LISTING_CACHE_PREFIX = "article:home:";
+    private static final long CATEGORY_LIST_CACHE_MINUTES = 10;
+    private static final long ARTICLE_LIST_CACHE_MINUTES = 60;
+
     @Override
     public List<ArticleCategoryDTO> getAllCategories() {
         List<ArticleCategory> categories = articleCategoryMapper.findAll();
@@ -102,6 +118,9 @@ public class ArticleCategoryServiceImpl implements ArticleCategoryService {
             category.setArticle_count(0);
 
             int result = articleCategoryMapper.insert(category);
+            if (result > 0) {
+                clearListingCache();
+            }
             return result > 0;
         } catch (Exception e) {
             log.error("创建分类失败", e);
@@ -133,6 +152,9 @@ public class ArticleCategoryServiceImpl implements ArticleCategoryService {
             category.setCategories_explain(categoryDTO.getCategory_explain());
 
             int result = articleCategoryMapper.update(category);
+            if (result > 0) {
+                clearListingCache();
+            }
             return result > 0;
         } catch (Exception e) {
             log.error("更新分类失败", e);
@@ -145,6 +167,7 @@ public class ArticleCategoryServiceImpl implements ArticleCategoryService {
         try {
             // 级联禁用
             disableCategoryAndChildren(id);
+            clearListingCache();
             return true;
         } catch (Exception e) {
             log.error("禁用分类失败", e);
@@ -168,6 +191,9 @@ public class ArticleCategoryServiceImpl implements ArticleCategoryService {
     public boolean activateCategory(Integer id) {
         try {
             int result = articleCategoryMapper.updateStatus(id, 1);
+            if (result > 0) {
+                clearListingCache();
+            }
             return result > 0;
         } catch (Exception e) {
             log.error("激活分类失败", e);
@@ -177,22 +203,87 @@ public class ArticleCategoryServiceImpl implements ArticleCategoryService {
 
     @Override
     public List<ArticleCategory> findAllEnabledCategories() {
-        return articleCategoryMapper.findAllEnabledCategories();
+        String key = LISTING_CACHE_PREFIX + "categories";
+        @SuppressWarnings("unchecked")
+        List<ArticleCategory> categories = (List<ArticleCategory>) readListingCache(key, List.class);
+        if (categories == null) {
+            categories = articleCategoryMapper.findAllEnabledCategories();
+            writeListingCache(key, categories, CATEGORY_LIST_CACHE_MINUTES);
+        }
+        return categories;
     }
 
     @Override
     public List<ArticleCategoryAndCount> findAllEnabledCategoriesAndCount() {
-        return articleCategoryMapper.findAllEnabledCategoriesAndCount();
+        String key = LISTING_CACHE_PREFIX + "categories_count";
+        @SuppressWarnings("unchecked")
+        List<ArticleCategoryAndCount> categories = (List<ArticleCategoryAndCount>) readListingCache(key, List.class);
+        if (categories == null) {
+            categories = articleCategoryMapper.findAllEnabledCategoriesAndCount();
+            writeListingCache(key, categories, CATEGORY_LIST_CACHE_MINUTES);
+        }
+        return categories;
     }
 
     @Override
     public List<ArticleDTO> findArticlesByCategory(String category, int offset, int size) {
-        return articleCategoryMapper.findArticlesByCategory(category, offset, size);
+        String key = LISTING_CACHE_PREFIX + "category:" + category + ":offset_" + offset + "_size_" + size;
+        @SuppressWarnings("unchecked")
+        List<ArticleDTO> articles = (List<ArticleDTO>) readListingCache(key, List.class);
+        if (articles == null) {
+            articles = articleCategoryMapper.findArticlesByCategory(category, offset, size);
+            writeListingCache(key, articles, ARTICLE_LIST_CACHE_MINUTES);
+        }
+        return articles;
+    }
+
+    @Override
+    public CursorPageResult<ArticleDTO> findArticlesByCategoryAfter(String category, String cursor, int size) {
+        ArticleCursorUtil.Cursor position = ArticleCursorUtil.decode(cursor);
+        int pageSize = ArticleCursorUtil.clampSize(size);
+        List<ArticleDTO> rows = articleCategoryMapper.findArticlesByCategoryAfterCursor(category,
+                position != null ? position.createTime() : null,
+                position != null ? position.id() : null,
+                pageSize + 1);
+        return ArticleCursorUtil.toPage(rows, pageSize, countArticlesByCategory(category));
     }
 
     @Override
     public int countArticlesByCategory(String category) {
-        return articleCategoryMapper.countArticlesByCategory(category);
+        String key = LISTING_CACHE_PREFIX + "count:category:" + category;
+        Integer total = readListingCache(key, Integer.class);
+        if (total == null) {
+            total = articleCategoryMapper.countArticlesByCategory(category);
+            writeListingCache(key, total, ARTICLE_LIST_CACHE_MINUTES);
+        }
+        return total;
+    }
+
+    // 缓存不可用时直接回源数据库，不影响列表查询
+    private <T> T readListingCache(String key, Class<T> type) {
+        try {
+            return cacheService.get(key, type);
+        } catch (Exception e) {
+            log.warn("读取分类列表缓存失败: {}", key, e);
+            return null;
+        }
+    }
+
+    private void writeListingCache(String key, Object value, long minutes) {
+        try {
+            cacheService.set(key, value, minutes, TimeUnit.MINUTES);
+        } catch (Exception e) {
+            log.warn("写入分类列表缓存失败: {}", key, e);
+        }
+    }
+
+    private void clearListingCache() {
+        try {
+            cacheService.deleteByPrefix(LISTING_CACHE_PREFIX);
+        } catch (Exception e) {
+            log.warn("清除分类列表缓存失败", e);
+        }
+        sitemapService.taxonomyChanged();
     }
 
     private List<ArticleCategoryDTO> convertToDTOList(List<ArticleCategory> categories) {
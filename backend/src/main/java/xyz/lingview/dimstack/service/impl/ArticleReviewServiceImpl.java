@@ -15,6 +15,8 @@ import xyz.lingview.dimstack.service.CacheService;
 import xyz.lingview.dimstack.service.MailService;
 import xyz.lingview.dimstack.service.NotificationService;
 import xyz.lingview.dimstack.service.PageViewCounterService;
+import xyz.lingview.dimstack.service.SeoPageService;
+import xyz.lingview.dimstack.service.SitemapService;
 import xyz.lingview.dimstack.util.SiteConfigUtil;
 import org.springframework.stereotype.Service;
 import lombok.extern.slf4j.Slf4j;
@@ -60,6 +62,12 @@ public class ArticleReviewServiceImpl implements ArticleReviewService {
     @Autowired
     private ArticleCategoryMapper articleCategoryMapper;
 
+    @Autowired
+    private SitemapService sitemapService;
+
+    @Autowired
+    private SeoPageService seoPageService;
+
     @Override
     public ArticleReviewListResponseDTO getUnreviewedArticles(Integer page, Integer size) {
         int offset = (page - 1) * size;
@@ -168,6 +176,8 @@ public class ArticleReviewServiceImpl implements ArticleReviewService {
     }
 
     private void invalidateArticleCache(String articleId) {
+        sitemapService.articleChanged(articleId);
+        seoPageService.articleChanged(articleId);
         try {
             xyz.lingview.dimstack.domain.ReadArticle article = readArticleMapper.selectByArticleId(articleId);
             if (article != null && article.getAlias() != null) {
@@ -2,10 +2,14 @@ package xyz.lingview.dimstack.service.impl;
 
 import xyz.lingview.dimstack.mapper.ArticleMapper;
 import xyz.lingview.dimstack.dto.request.ArticleDTO;
+import xyz.lingview.dimstack.dto.request.CursorPageResult;
 import xyz.lingview.dimstack.dto.request.PageRequest;
 import xyz.lingview.dimstack.dto.request.PageResult;
+import xyz.lingview.dimstack.service.ArticleCategoryService;
 import xyz.lingview.dimstack.service.ArticleService;
 import xyz.lingview.dimstack.service.CacheService;
+import xyz.lingview.dimstack.service.RandomArticleService;
+import xyz.lingview.dimstack.util.ArticleCursorUtil;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import lombok.extern.slf4j.Slf4j;
@@ -22,6 +26,12 @@ public class ArticleServiceImpl implements ArticleService {
     @Autowired
     private CacheService cacheService;
 
+    @Autowired
+    private RandomArticleService randomArticleService;
+
+    @Autowired
+    private ArticleCategoryService articleCategoryService;
+
     private static final String ARTICLE_CACHE_PREFIX = "article:home:";
     private static final long CACHE_EXPIRE_HOURS = 1;
 
@@ -49,7 +59,7 @@ public class ArticleServiceImpl implements ArticleService {
                 pageRequest.getCategory()
         );
 
-        int total = articleMapper.countArticles(pageRequest.getCategory());
+        int total = countHomeArticles(pageRequest.getCategory());
 
         PageResult<ArticleDTO> pageResult = new PageResult<>();
         pageResult.setData(articles);
@@ -68,6 +78,42 @@ public class ArticleServiceImpl implements ArticleService {
         return pageResult;
     }
 
+    @Override
+    public CursorPageResult<ArticleDTO> getArticlesForHomePageByCursor(String category, String cursor, int size) {
+        ArticleCursorUtil.Cursor position = ArticleCursorUtil.decode(cursor);
+        int pageSize = ArticleCursorUtil.clampSize(size);
+        List<ArticleDTO> rows = articleMapper.selectArticlesAfterCursor(category,
+                position != null ? position.createTime() : null,
+                position != null ? position.id() : null,
+                pageSize + 1);
+        return ArticleCursorUtil.toPage(rows, pageSize, countHomeArticles(category));
+    }
+
+    /**
+     * 文章总数缓存在列表缓存前缀下，发布、下架、删除时随 clearArticleCache 一起失效
+     */
+    private int countHomeArticles(String category) {
+        if (category != null && !category.isEmpty()) {
+            return articleCategoryService.countArticlesByCategory(category);
+        }
+        String cacheKey = ARTICLE_CACHE_PREFIX + "count:all";
+        try {
+            Integer cached = cacheService.get(cacheKey, Integer.class);
+            if (cached != null) {
+                return cached;
+            }
+        } catch (Exception e) {
+            log.warn("读取文章总数缓存失败: {}", cacheKey, e);
+        }
+        int total = articleMapper.countArticles(null);
+        try {
+            cacheService.set(cacheKey, total, CACHE_EXPIRE_HOURS, TimeUnit.HOURS);
+        } catch (Exception e) {
+            log.warn("写入文章总数缓存失败: {}", cacheKey, e);
+        }
+        return total;
+    }
+
     private String buildCacheKey(PageRequest pageRequest) {
         StringBuilder key = new StringBuilder(ARTICLE_CACHE_PREFIX);
         key.append("page_").append(pageRequest.getPage());
@@ -80,9 +126,11 @@ public class ArticleServiceImpl implements ArticleService {
 
     @Override
     public void clearArticleCache() {
+        // 列表变化意味着已发布文章集合可能变化
+        randomArticleService.markStale();
         try {
-            cacheService.deleteByPrefix(ARTICLE_CACHE_PREFIX);
-            log.info("已清除所有文章列表缓存");
+            long removed = cacheService.deleteByPrefix(ARTICLE_CACHE_PREFIX);
+            log.info("已清除所有文章列表缓存，共 {} 个", removed);
         } catch (Exception e) {
             log.error("清除文章列表缓存失败", e);
         }
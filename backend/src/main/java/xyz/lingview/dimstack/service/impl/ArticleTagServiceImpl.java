@@ -9,9 +9,14 @@ import xyz.lingview.dimstack.dto.request.ArticleTagDTO;
 import xyz.lingview.dimstack.mapper.ArticleTagMapper;
 import xyz.lingview.dimstack.mapper.UserInformationMapper;
 import xyz.lingview.dimstack.service.ArticleTagService;
+import xyz.lingview.dimstack.service.CacheService;
+import xyz.lingview.dimstack.service.SitemapService;
+import xyz.lingview.dimstack.dto.request.CursorPageResult;
+import xyz.lingview.dimstack.util.ArticleCursorUtil;
 
 import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 @Service
@@ -24,6 +29,17 @@ public class ArticleTagServiceImpl implements ArticleTagService {
     @Autowired
     private UserInformationMapper userInformationMapper;
 
+    @Autowired
+    private CacheService cacheService;
+
+    @Autowired
+    private SitemapService sitemapService;
+
+    // 与首页文章列表缓存同一前缀，文章发布状态变化时由 ArticleService.clearArticleCache 一并清除
+    private static final String LISTING_CACHE_PREFIX = "article:home:";
+    private static final long TAG_LIST_CACHE_MINUTES = 10;
+    private static final long ARTICLE_LIST_CACHE_MINUTES = 60;
+
     @Override
     public List<ArticleTagDTO> getAllTags() {
         List<ArticleTag> tags = articleTagMapper.findAll();
@@ -64,6 +80,9 @@ public class ArticleTagServiceImpl implements ArticleTagService {
             tag.setStatus(1);
 
             int result = articleTagMapper.insert(tag);
+            if (result > 0) {
+                clearListingCache();
+            }
             return result > 0;
         } catch (Exception e) {
             log.error("创建标签失败", e);
@@ -90,6 +109,9 @@ public class ArticleTagServiceImpl implements ArticleTagService {
             tag.setTag_explain(tagDTO.getTag_explain());
 
             int result = articleTagMapper.update(tag);
+            if (result > 0) {
+                clearListingCache();
+            }
             return result > 0;
         } catch (Exception e) {
             log.error("更新标签失败", e);
@@ -101,6 +123,9 @@ public class ArticleTagServiceImpl implements ArticleTagService {
     public boolean deleteTag(Integer id) {
         try {
             int result = articleTagMapper.updateStatus(id, 0);
+            if (result > 0) {
+                clearListingCache();
+            }
             return result > 0;
         } catch (Exception e) {
             log.error("删除标签失败", e);
@@ -112,6 +137,9 @@ public class ArticleTagServiceImpl implements ArticleTagService {
     public boolean activateTag(Integer id) {
         try {
             int result = articleTagMapper.updateStatus(id, 1);
+            if (result > 0) {
+                clearListingCache();
+            }
             return result > 0;
         } catch (Exception e) {
             log.error("激活标签失败", e);
@@ -125,17 +153,75 @@ public class ArticleTagServiceImpl implements ArticleTagService {
 
     @Override
     public List<ArticleTag> findAllEnabledTags() {
-        return articleTagMapper.findAllEnabledTags();
+        String key = LISTING_CACHE_PREFIX + "tags";
+        @SuppressWarnings("unchecked")
+        List<ArticleTag> tags = (List<ArticleTag>) readListingCache(key, List.class);
+        if (tags == null) {
+            tags = articleTagMapper.findAllEnabledTags();
+            writeListingCache(key, tags, TAG_LIST_CACHE_MINUTES);
+        }
+        return tags;
     }
 
     @Override
     public List<ArticleDTO> findArticlesByTag(String tagName, int offset, int size) {
-        return articleTagMapper.findArticlesByTag(tagName, offset, size);
+        String key = LISTING_CACHE_PREFIX + "tag:" + tagName + ":offset_" + offset + "_size_" + size;
+        @SuppressWarnings("unchecked")
+        List<ArticleDTO> articles = (List<ArticleDTO>) readListingCache(key, List.class);
+        if (articles == null) {
+            articles = articleTagMapper.findArticlesByTag(tagName, offset, size);
+            writeListingCache(key, articles, ARTICLE_LIST_CACHE_MINUTES);
+        }
+        return articles;
+    }
+
+    @Override
+    public CursorPageResult<ArticleDTO> findArticlesByTagAfter(String tagName, String cursor, int size) {
+        ArticleCursorUtil.Cursor position = ArticleCursorUtil.decode(cursor);
+        int pageSize = ArticleCursorUtil.clampSize(size);
+        List<ArticleDTO> rows = articleTagMapper.findArticlesByTagAfterCursor(tagName,
+                position != null ? position.createTime() : null,
+                position != null ? position.id() : null,
+                pageSize + 1);
+        return ArticleCursorUtil.toPage(rows, pageSize, countArticlesByTag(tagName));
     }
 
     @Override
     public int countArticlesByTag(String tagName) {
-        return articleTagMapper.countArticlesByTag(tagName);
+        String key = LISTING_CACHE_PREFIX + "count:tag:" + tagName;
+        Integer total = readListingCache(key, Integer.class);
+        if (total == null) {
+            total = articleTagMapper.countArticlesByTag(tagName);
+            writeListingCache(key, total, ARTICLE_LIST_CACHE_MINUTES);
+        }
+        return total;
+    }
+
+    // 缓存不可用时直接回源数据库，不影响列表查询
+    private <T> T readListingCache(String key, Class<T> type) {
+        try {
+            return cacheService.get(key, type);
+        } catch (Exception e) {
+            log.warn("读取标签列表缓存失败: {}", key, e);
+            return null;
+        }
+    }
+
+    private void writeListingCache(String key, Object value, long minutes) {
+        try {
+            cacheService.set(key, value, minutes, TimeUnit.MINUTES);
+        } catch (Exception e) {
+            log.warn("写入标签列表缓存失败: {}", key, e);
+        }
+    }
+
+    private void clearListingCache() {
+        try {
+            cacheService.deleteByPrefix(LISTING_CACHE_PREFIX);
+        } catch (Exception e) {
+            log.warn("清除标签列表缓存失败", e);
+        }
+        sitemapService.taxonomyChanged();
     }
 
     private ArticleTagDTO convertToDTO(ArticleTag tag) {
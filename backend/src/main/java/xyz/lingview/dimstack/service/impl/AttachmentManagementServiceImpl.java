@@ -6,24 +6,35 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import xyz.lingview.dimstack.domain.AttachmentManagement;
 import xyz.lingview.dimstack.domain.StorageMethod;
-import xyz.lingview.dimstack.domain.StorageMigrationFailedItem;
 import xyz.lingview.dimstack.domain.StorageMigrationLog;
 import xyz.lingview.dimstack.mapper.AttachmentManagementMapper;
 import xyz.lingview.dimstack.mapper.StorageMethodMapper;
 import xyz.lingview.dimstack.mapper.StorageMigrationLogMapper;
-import xyz.lingview.dimstack.mapper.UserInformationMapper;
 import xyz.lingview.dimstack.service.AttachmentManagementService;
+import xyz.lingview.dimstack.service.CacheService;
+import xyz.lingview.dimstack.service.FileAccessService;
 import xyz.lingview.dimstack.service.FileStorage;
 import xyz.lingview.dimstack.service.StorageFacadeService;
+import xyz.lingview.dimstack.service.StorageMigrationService;
+import xyz.lingview.dimstack.util.MetricsUtil;
 
 import java.io.File;
-import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 /**
  * @Author: lingview
@@ -39,7 +50,7 @@ public class AttachmentManagementServiceImpl implements AttachmentManagementServ
     private AttachmentManagementMapper attachmentManagementMapper;
     
     @Autowired
-    private UserInformationMapper userInformationMapper;
+    private CacheService cacheService;
 
     @Autowired
     private StorageFacadeService storageFacadeService;
@@ -50,202 +61,147 @@ public class AttachmentManagementServiceImpl implements AttachmentManagementServ
     @Autowired
     private StorageMigrationLogMapper storageMigrationLogMapper;
 
+    @Autowired
+    private StorageMigrationService storageMigrationService;
+
+    @Autowired
+    private FileAccessService fileAccessService;
+
     @Value("${file.data-root:.}")
     private String dataRoot;
+
+    // 不支持批量删除的存储同时发出的删除请求数
+    @Value("${app.attachment.cleanup.parallelism:8}")
+    private int cleanupParallelism;
+
+    private static final int CLEANUP_PAGE_SIZE = 1000;
+
+    private static final String LOCAL_STORAGE_KEY = "";
+
+    // 附件总数只用于分页展示，短时间内的误差可以接受
+    private static final String COUNT_CACHE_PREFIX = "dimstack:attachment_count:";
+    private static final long COUNT_CACHE_SECONDS = 60;
     
     @Override
     public Map<String, Object> getPage(int page, int size) {
         int offset = (page - 1) * size;
         List<AttachmentManagement> attachments = attachmentManagementMapper.selectPage(offset, size);
-        int total = attachmentManagementMapper.countAll();
-
-        for (AttachmentManagement attachment : attachments) {
-            String username = userInformationMapper.getUsernameByUuid(attachment.getUuid());
-            attachment.setUsername(username != null ? username : "未知用户");
-        }
-        
-        Map<String, Object> result = new HashMap<>();
-        result.put("data", attachments);
-        result.put("total", total);
-        result.put("page", page);
-        result.put("size", size);
-        result.put("totalPages", (int) Math.ceil((double) total / size));
-        
-        return result;
+        int total = cachedCount("countAll", attachmentManagementMapper::countAll);
+        return buildPage(attachments, total, page, size);
     }
     
     @Override
     public Map<String, Object> getPageByUuid(String uuid, int page, int size) {
         int offset = (page - 1) * size;
         List<AttachmentManagement> attachments = attachmentManagementMapper.selectPageByUuid(uuid, offset, size);
-        int total = attachmentManagementMapper.countByUuid(uuid);
-
-        for (AttachmentManagement attachment : attachments) {
-            String username = userInformationMapper.getUsernameByUuid(attachment.getUuid());
-            attachment.setUsername(username != null ? username : "未知用户");
-        }
-        
-        Map<String, Object> result = new HashMap<>();
-        result.put("data", attachments);
-        result.put("total", total);
-        result.put("page", page);
-        result.put("size", size);
-        result.put("totalPages", (int) Math.ceil((double) total / size));
-        
-        return result;
+        int total = cachedCount("countByUuid:" + uuid, () -> attachmentManagementMapper.countByUuid(uuid));
+        return buildPage(attachments, total, page, size);
     }
     
     @Override
     public Map<String, Object> getPageWithRecentDeleted(int page, int size) {
         int offset = (page - 1) * size;
         List<AttachmentManagement> attachments = attachmentManagementMapper.selectAllPageWithRecentDeleted(offset, size);
-        int total = attachmentManagementMapper.countAllWithRecentDeleted();
-
-        for (AttachmentManagement attachment : attachments) {
-            String username = userInformationMapper.getUsernameByUuid(attachment.getUuid());
-            attachment.setUsername(username != null ? username : "未知用户");
-        }
-        
-        Map<String, Object> result = new HashMap<>();
-        result.put("data", attachments);
-        result.put("total", total);
-        result.put("page", page);
-        result.put("size", size);
-        result.put("totalPages", (int) Math.ceil((double) total / size));
-        
-        return result;
+        int total = cachedCount("countAllWithRecentDeleted", attachmentManagementMapper::countAllWithRecentDeleted);
+        return buildPage(attachments, total, page, size);
     }
     
     @Override
     public Map<String, Object> getDeletedPageOnly(int page, int size) {
         int offset = (page - 1) * size;
         List<AttachmentManagement> attachments = attachmentManagementMapper.selectDeletedOnlyPage(offset, size);
-        int total = attachmentManagementMapper.countDeletedOnly();
-
-        for (AttachmentManagement attachment : attachments) {
-            String username = userInformationMapper.getUsernameByUuid(attachment.getUuid());
-            attachment.setUsername(username != null ? username : "未知用户");
-        }
-        
-        Map<String, Object> result = new HashMap<>();
-        result.put("data", attachments);
-        result.put("total", total);
-        result.put("page", page);
-        result.put("size", size);
-        result.put("totalPages", (int) Math.ceil((double) total / size));
-        
-        return result;
+        int total = cachedCount("countDeletedOnly", attachmentManagementMapper::countDeletedOnly);
+        return buildPage(attachments, total, page, size);
     }
     
     @Override
     public Map<String, Object> getPageByUuidWithRecentDeleted(String uuid, int page, int size) {
         int offset = (page - 1) * size;
         List<AttachmentManagement> attachments = attachmentManagementMapper.selectPageByUuidWithRecentDeleted(uuid, offset, size);
-        int total = attachmentManagementMapper.countByUuidWithRecentDeleted(uuid);
-
-        for (AttachmentManagement attachment : attachments) {
-            String username = userInformationMapper.getUsernameByUuid(attachment.getUuid());
-            attachment.setUsername(username != null ? username : "未知用户");
-        }
-        
-        Map<String, Object> result = new HashMap<>();
-        result.put("data", attachments);
-        result.put("total", total);
-        result.put("page", page);
-        result.put("size", size);
-        result.put("totalPages", (int) Math.ceil((double) total / size));
-        
-        return result;
+        int total = cachedCount("countByUuidWithRecentDeleted:" + uuid, () -> attachmentManagementMapper.countByUuidWithRecentDeleted(uuid));
+        return buildPage(attachments, total, page, size);
     }
     
     @Override
     public Map<String, Object> getDeletedPageByUuidOnly(String uuid, int page, int size) {
         int offset = (page - 1) * size;
         List<AttachmentManagement> attachments = attachmentManagementMapper.selectDeletedOnlyPageByUuid(uuid, offset, size);
-        int total = attachmentManagementMapper.countDeletedOnlyByUuid(uuid);
-
-        for (AttachmentManagement attachment : attachments) {
-            String username = userInformationMapper.getUsernameByUuid(attachment.getUuid());
-            attachment.setUsername(username != null ? username : "未知用户");
-        }
-        
-        Map<String, Object> result = new HashMap<>();
-        result.put("data", attachments);
-        result.put("total", total);
-        result.put("page", page);
-        result.put("size", size);
-        result.put("totalPages", (int) Math.ceil((double) total / size));
-        
-        return result;
+        int total = cachedCount("countDeletedOnlyByUuid:" + uuid, () -> attachmentManagementMapper.countDeletedOnlyByUuid(uuid));
+        return buildPage(attachments, total, page, size);
     }
     
     @Override
     public Map<String, Object> getPageByUserUuid(String userUuid, int page, int size) {
         int offset = (page - 1) * size;
         List<AttachmentManagement> attachments = attachmentManagementMapper.selectPageByUserUuid(userUuid, offset, size);
-        int total = attachmentManagementMapper.countByUserUuid(userUuid);
-
-        for (AttachmentManagement attachment : attachments) {
-            String username = userInformationMapper.getUsernameByUuid(attachment.getUuid());
-            attachment.setUsername(username != null ? username : "未知用户");
-        }
-        
-        Map<String, Object> result = new HashMap<>();
-        result.put("data", attachments);
-        result.put("total", total);
-        result.put("page", page);
-        result.put("size", size);
-        result.put("totalPages", (int) Math.ceil((double) total / size));
-        
-        return result;
+        int total = cachedCount("countByUserUuid:" + userUuid, () -> attachmentManagementMapper.countByUserUuid(userUuid));
+        return buildPage(attachments, total, page, size);
     }
     
     @Override
     public Map<String, Object> getPageByUserUuidWithDeleted(String userUuid, int page, int size) {
         int offset = (page - 1) * size;
         List<AttachmentManagement> attachments = attachmentManagementMapper.selectPageByUserUuidWithDeleted(userUuid, offset, size);
-        int total = attachmentManagementMapper.countByUserUuidWithDeleted(userUuid);
-
-        for (AttachmentManagement attachment : attachments) {
-            String username = userInformationMapper.getUsernameByUuid(attachment.getUuid());
-            attachment.setUsername(username != null ? username : "未知用户");
-        }
-        
-        Map<String, Object> result = new HashMap<>();
-        result.put("data", attachments);
-        result.put("total", total);
-        result.put("page", page);
-        result.put("size", size);
-        result.put("totalPages", (int) Math.ceil((double) total / size));
-        
-        return result;
+        int total = cachedCount("countByUserUuidWithDeleted:" + userUuid, () -> attachmentManagementMapper.countByUserUuidWithDeleted(userUuid));
+        return buildPage(attachments, total, page, size);
     }
     
     @Override
     public Map<String, Object> getDeletedPageByUserUuidOnly(String userUuid, int page, int size) {
         int offset = (page - 1) * size;
         List<AttachmentManagement> attachments = attachmentManagementMapper.selectDeletedOnlyPageByUserUuid(userUuid, offset, size);
-        int total = attachmentManagementMapper.countDeletedOnlyByUserUuid(userUuid);
-
+        int total = cachedCount("countDeletedOnlyByUserUuid:" + userUuid, () -> attachmentManagementMapper.countDeletedOnlyByUserUuid(userUuid));
+        return buildPage(attachments, total, page, size);
+    }
+    
+    /**
+     * 用户名已由分页查询关联 user_information 得出，无需逐条查询
+     */
+    private Map<String, Object> buildPage(List<AttachmentManagement> attachments, int total, int page, int size) {
         for (AttachmentManagement attachment : attachments) {
-            String username = userInformationMapper.getUsernameByUuid(attachment.getUuid());
-            attachment.setUsername(username != null ? username : "未知用户");
+            if (attachment.getUsername() == null) {
+                attachment.setUsername("未知用户");
+            }
         }
-        
+
         Map<String, Object> result = new HashMap<>();
         result.put("data", attachments);
         result.put("total", total);
         result.put("page", page);
         result.put("size", size);
         result.put("totalPages", (int) Math.ceil((double) total / size));
-        
+
         return result;
     }
-    
+
+    /**
+     * 附件较多时计数查询需要扫描大量索引，翻页期间复用同一结果
+     */
+    private int cachedCount(String key, Supplier<Integer> counter) {
+        String cacheKey = COUNT_CACHE_PREFIX + key;
+        Integer total = cacheService.get(cacheKey, Integer.class);
+        if (total != null) {
+            return total;
+        }
+        total = counter.get();
+        cacheService.set(cacheKey, total, COUNT_CACHE_SECONDS, TimeUnit.SECONDS);
+        return total;
+    }
+
+    private void invalidateCounts() {
+        try {
+            cacheService.deleteByPrefix(COUNT_CACHE_PREFIX);
+        } catch (Exception e) {
+            log.warn("清除附件计数缓存失败: {}", e.getMessage());
+        }
+    }
+
     @Override
     public boolean deleteAttachment(String attachmentId) {
         LocalDateTime deletedTime = LocalDateTime.now();
         int result = attachmentManagementMapper.deleteByAttachmentId(attachmentId, deletedTime);
+        fileAccessService.evictAttachments(List.of(attachmentId));
+        invalidateCounts();
         return result > 0;
     }
 
@@ -255,7 +211,10 @@ public class AttachmentManagementServiceImpl implements AttachmentManagementServ
             return 0;
         }
         LocalDateTime deletedTime = LocalDateTime.now();
-        return attachmentManagementMapper.batchDeleteByAttachmentIds(attachmentIds, deletedTime);
+        int deleted = attachmentManagementMapper.batchDeleteByAttachmentIds(attachmentIds, deletedTime);
+        fileAccessService.evictAttachments(attachmentIds);
+        invalidateCounts();
+        return deleted;
     }
 
     @Override
@@ -263,12 +222,15 @@ public class AttachmentManagementServiceImpl implements AttachmentManagementServ
         if (attachmentIds == null || attachmentIds.isEmpty()) {
             return 0;
         }
-        return attachmentManagementMapper.batchRestoreByAttachmentIds(attachmentIds);
+        int restored = attachmentManagementMapper.batchRestoreByAttachmentIds(attachmentIds);
+        invalidateCounts();
+        return restored;
     }
     
     @Override
     public boolean restoreAttachment(String attachmentId) {
         int result = attachmentManagementMapper.restoreAttachment(attachmentId);
+        invalidateCounts();
         return result > 0;
     }
     
@@ -285,6 +247,9 @@ public class AttachmentManagementServiceImpl implements AttachmentManagementServ
             return false;
         }
 
+        // 行删除后无法再查到访问键，先清缓存
+        fileAccessService.evictAttachments(List.of(attachmentId));
+
         try {
             String filePath = attachment.getAttachment_path();
             String storageId = attachment.getStorage_id();
@@ -301,6 +266,7 @@ public class AttachmentManagementServiceImpl implements AttachmentManagementServ
             deleteCompressedFile(filePath);
 
             int result = attachmentManagementMapper.physicallyDeleteAttachment(attachmentId);
+            invalidateCounts();
             return result > 0;
         } catch (Exception e) {
             log.error("彻底删除附件失败: {}", attachmentId, e);
@@ -326,46 +292,171 @@ public class AttachmentManagementServiceImpl implements AttachmentManagementServ
     
     @Override
     public int cleanupExpiredDeletedAttachments() {
-        List<AttachmentManagement> expiredAttachments = attachmentManagementMapper.selectExpiredDeletedAttachments();
-        
-        int cleanedCount = 0;
-        
-        for (AttachmentManagement attachment : expiredAttachments) {
-            try {
-                String filePath = attachment.getAttachment_path();
-                String storageId = attachment.getStorage_id();
-                log.debug("准备清理过期附件: {}, storage_id: {}", filePath, storageId);
+        long start = System.nanoTime();
+        Map<String, Optional<StorageMethod>> storageMethods = new HashMap<>();
+        CleanupStats stats = new CleanupStats();
+        String afterId = "";
+
+        while (true) {
+            List<AttachmentManagement> expired = attachmentManagementMapper.selectExpiredDeletedPage(afterId, CLEANUP_PAGE_SIZE);
+            if (expired.isEmpty()) {
+                break;
+            }
+            afterId = expired.get(expired.size() - 1).getAttachment_id();
+
+            // 同一存储的附件一起删除，每种存储只查询一次存储方式
+            Map<String, List<AttachmentManagement>> byStorage = new LinkedHashMap<>();
+            for (AttachmentManagement attachment : expired) {
+                String storageId = attachment.getStorage_id() != null ? attachment.getStorage_id() : LOCAL_STORAGE_KEY;
+                byStorage.computeIfAbsent(storageId, k -> new ArrayList<>()).add(attachment);
+            }
+
+            List<String> reclaimed = new ArrayList<>();
+            for (Map.Entry<String, List<AttachmentManagement>> group : byStorage.entrySet()) {
+                try {
+                    reclaimed.addAll(reclaimGroup(group.getKey(), group.getValue(), storageMethods, stats));
+                } catch (Exception e) {
+                    log.error("清理存储 {} 中的过期附件失败: {}", group.getKey(), e.getMessage(), e);
+                    stats.failed += group.getValue().size();
+                }
+            }
+
+            if (!reclaimed.isEmpty()) {
+                fileAccessService.evictAttachments(reclaimed);
+                stats.cleaned += attachmentManagementMapper.batchPhysicallyDeleteAttachments(reclaimed);
+                invalidateCounts();
+            }
+
+            if (expired.size() < CLEANUP_PAGE_SIZE) {
+                break;
+            }
+        }
+
+        MetricsUtil.increment("attachment.cleanup.count", stats.cleaned);
+        MetricsUtil.increment("attachment.cleanup.failed", stats.failed);
+        MetricsUtil.increment("attachment.cleanup.local_bytes", stats.localBytes);
+        MetricsUtil.increment("attachment.cleanup.remote_objects", stats.remoteObjects);
+        MetricsUtil.recordNanos("attachment.cleanup.time", System.nanoTime() - start);
+        log.info("附件清理任务完成，共清理 {} 个附件，失败 {} 个，释放本地空间 {} KB，删除外部存储对象 {} 个",
+                stats.cleaned, stats.failed, stats.localBytes / 1024, stats.remoteObjects);
+        return stats.cleaned;
+    }
 
-                boolean fileDeleted;
+    private static class CleanupStats {
+        int cleaned;
+        int failed;
+        long localBytes;
+        long remoteObjects;
+    }
+
+    /**
+     * 删除同一存储中的一批附件文件，返回文件已删除、可以更新记录的附件ID
+     */
+    private List<String> reclaimGroup(String storageId, List<AttachmentManagement> attachments,
+                                      Map<String, Optional<StorageMethod>> storageMethods, CleanupStats stats) {
+        List<String> reclaimed = new ArrayList<>();
+
+        StorageMethod method = null;
+        if (!LOCAL_STORAGE_KEY.equals(storageId)) {
+            method = storageMethods.computeIfAbsent(storageId,
+                    id -> Optional.ofNullable(storageMethodMapper.selectByUuid(id))).orElse(null);
+        }
 
-                if (storageId != null && !isLocalStorage(storageId)) {
-                    // 删 S3
-                    deleteFromStorage(attachment, filePath);
-                    // 同时删本地（兼容旧回退逻辑遗留的本地文件）
-                    deletePhysicalFile(filePath);
-                    fileDeleted = true;
+        if (method == null || "local".equals(method.getType())) {
+            if (method == null && !LOCAL_STORAGE_KEY.equals(storageId)) {
+                // 存储方式已被删除，远端文件无法再访问，只清理本地残留
+                log.warn("存储方式 {} 已不存在，仅清理本地残留文件", storageId);
+            }
+            for (AttachmentManagement attachment : attachments) {
+                String filePath = attachment.getAttachment_path();
+                long size = localFileSize(filePath);
+                if (deletePhysicalFile(filePath)) {
+                    deleteCompressedFile(filePath);
+                    stats.localBytes += size;
+                    reclaimed.add(attachment.getAttachment_id());
                 } else {
-                    fileDeleted = deletePhysicalFile(filePath);
+                    stats.failed++;
                 }
+            }
+            return reclaimed;
+        }
 
-                if (fileDeleted) {
-                    if (storageId == null || isLocalStorage(storageId)) {
-                        deleteCompressedFile(filePath);
-                    }
+        FileStorage storage;
+        try {
+            storage = storageFacadeService.getStorage(storageId);
+        } catch (Exception e) {
+            // 存储方式被禁用时保留记录，启用后下次任务继续清理
+            log.warn("存储方式 {} 不可用，跳过 {} 个过期附件: {}", storageId, attachments.size(), e.getMessage());
+            stats.failed += attachments.size();
+            return reclaimed;
+        }
 
-                    int result = attachmentManagementMapper.physicallyDeleteAttachment(attachment.getAttachment_id());
-                    if (result > 0) {
-                        cleanedCount++;
-                        log.info("成功清理过期附件: {}", attachment.getAttachment_id());
+        List<String> objectKeys = attachments.stream().map(AttachmentManagement::getAttachment_path).toList();
+        Set<String> failedKeys = new HashSet<>(storage.supportsBatchDelete()
+                ? storage.deleteBatch(objectKeys)
+                : deleteConcurrently(storage, objectKeys));
+
+        for (AttachmentManagement attachment : attachments) {
+            if (failedKeys.contains(attachment.getAttachment_path())) {
+                stats.failed++;
+                continue;
+            }
+            // 兼容旧回退逻辑遗留的本地文件
+            deletePhysicalFile(attachment.getAttachment_path());
+            stats.remoteObjects++;
+            reclaimed.add(attachment.getAttachment_id());
+        }
+        log.info("已从存储 {} 删除 {} 个过期附件，失败 {} 个", storageId,
+                attachments.size() - failedKeys.size(), failedKeys.size());
+        return reclaimed;
+    }
+
+    /**
+     * 不支持批量删除的存储（如 WebDAV）并发逐个删除
+     */
+    private List<String> deleteConcurrently(FileStorage storage, List<String> objectKeys) {
+        // 超时未执行的删除同样算作失败，因此只记录成功的键
+        Set<String> deleted = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, cleanupParallelism));
+        try {
+            for (String objectKey : objectKeys) {
+                executor.execute(() -> {
+                    try {
+                        storage.delete(objectKey);
+                        deleted.add(objectKey);
+                    } catch (Exception e) {
+                        log.warn("从存储删除文件失败: {}, 错误: {}", objectKey, e.getMessage());
                     }
+                });
+            }
+        } finally {
+            executor.shutdown();
+            try {
+                if (!executor.awaitTermination(10, TimeUnit.MINUTES)) {
+                    log.warn("并发删除文件超时，仍有未完成的删除");
+                    executor.shutdownNow();
                 }
-            } catch (Exception e) {
-                log.error("清理附件失败: {}, 错误: {}", attachment.getAttachment_id(), e.getMessage(), e);
+            } catch (InterruptedException e) {
+                executor.shutdownNow();
+                Thread.currentThread().interrupt();
+            }
+        }
+        List<String> failed = new ArrayList<>();
+        for (String objectKey : objectKeys) {
+            if (!deleted.contains(objectKey)) {
+                failed.add(objectKey);
             }
         }
-        
-        log.info("附件清理任务完成，共清理 {} 个附件", cleanedCount);
-        return cleanedCount;
+        return failed;
+    }
+
+    private long localFileSize(String filePath) {
+        try {
+            Path fullPath = Path.of(dataRoot, filePath.replace('\\', '/')).toAbsolutePath().normalize();
+            return Files.isRegularFile(fullPath) ? Files.size(fullPath) : 0L;
+        } catch (Exception e) {
+            return 0L;
+        }
     }
 
     private boolean isLocalStorage(String storageId) {
@@ -455,7 +546,7 @@ public class AttachmentManagementServiceImpl implements AttachmentManagementServ
     @Override
     public Map<String, Object> migrateStorage(String sourceStorageId, String targetStorageId) {
         List<AttachmentManagement> attachments = attachmentManagementMapper.selectByStorageId(sourceStorageId);
-        return doMigrate(attachments, sourceStorageId, targetStorageId);
+        return storageMigrationService.startMigration(sourceStorageId, targetStorageId, attachments);
     }
 
     @Override
@@ -464,96 +555,12 @@ public class AttachmentManagementServiceImpl implements AttachmentManagementServ
                 .map(attachmentManagementMapper::selectByAttachmentId)
                 .filter(a -> a != null && sourceStorageId.equals(a.getStorage_id()))
                 .toList();
-        return doMigrate(attachments, sourceStorageId, targetStorageId);
+        return storageMigrationService.startMigration(sourceStorageId, targetStorageId, attachments);
     }
 
-    private Map<String, Object> doMigrate(List<AttachmentManagement> attachments, String sourceStorageId, String targetStorageId) {
-        int total = attachments.size();
-        int success = 0;
-        List<Map<String, String>> failedItems = new java.util.ArrayList<>();
-
-        FileStorage sourceStorage;
-        FileStorage targetStorage;
-        try {
-            sourceStorage = storageFacadeService.getStorage(sourceStorageId);
-            targetStorage = storageFacadeService.getStorage(targetStorageId);
-        } catch (Exception e) {
-            return Map.of("error", "存储方式不可用: " + e.getMessage());
-        }
-
-        // 创建迁移记录
-        StorageMigrationLog migrationLog = new StorageMigrationLog();
-        migrationLog.setSource_storage_id(sourceStorageId);
-        migrationLog.setTarget_storage_id(targetStorageId);
-        migrationLog.setTotal(total);
-        migrationLog.setStatus(0);
-        storageMigrationLogMapper.insertLog(migrationLog);
-        int logId = migrationLog.getId();
-
-        for (AttachmentManagement attachment : attachments) {
-            String filePath = attachment.getAttachment_path();
-            try {
-                if (!sourceStorage.exists(filePath)) {
-                    failedItems.add(Map.of(
-                        "attachmentId", attachment.getAttachment_id(),
-                        "filePath", filePath,
-                        "error", "源文件不存在，无法迁移"));
-                    continue;
-                }
-
-                byte[] fileData;
-                try (InputStream in = sourceStorage.retrieve(filePath)) {
-                    fileData = in.readAllBytes();
-                }
-
-                try (InputStream in = new java.io.ByteArrayInputStream(fileData)) {
-                    targetStorage.store(filePath, in, fileData.length, null);
-                }
-
-                try {
-                    sourceStorage.delete(filePath);
-                } catch (Exception e) {
-                    log.warn("迁移后删除源文件失败（不影响迁移结果）: {}", filePath);
-                }
-
-                attachmentManagementMapper.updateStorageId(attachment.getAttachment_id(), targetStorageId);
-                success++;
-                log.info("迁移成功: {} -> {}", filePath, targetStorageId);
-            } catch (Exception e) {
-                log.error("迁移失败: {}, 错误: {}", filePath, e.getMessage());
-                failedItems.add(Map.of(
-                        "attachmentId", attachment.getAttachment_id(),
-                        "filePath", filePath,
-                        "error", e.getMessage() != null ? e.getMessage() : "未知错误"
-                ));
-            }
-        }
-
-        // 更新迁移记录
-        migrationLog.setSuccess(success);
-        migrationLog.setFailed(failedItems.size());
-        migrationLog.setStatus(1);
-        storageMigrationLogMapper.updateLog(migrationLog);
-
-        // 写入失败明细
-        if (!failedItems.isEmpty()) {
-            List<StorageMigrationFailedItem> items = failedItems.stream().map(f -> {
-                StorageMigrationFailedItem item = new StorageMigrationFailedItem();
-                item.setMigration_id(logId);
-                item.setAttachment_id(f.get("attachmentId"));
-                item.setFile_path(f.get("filePath"));
-                item.setError_msg(f.get("error"));
-                return item;
-            }).toList();
-            storageMigrationLogMapper.insertFailedItems(items);
-        }
-
-        Map<String, Object> result = new HashMap<>();
-        result.put("total", total);
-        result.put("success", success);
-        result.put("failed", failedItems.size());
-        result.put("failedItems", failedItems);
-        return result;
+    @Override
+    public Map<String, Object> getMigrateProgress(int id) {
+        return storageMigrationService.getProgress(id);
     }
 
     @Override
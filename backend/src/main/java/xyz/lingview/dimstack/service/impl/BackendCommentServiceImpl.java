@@ -11,6 +11,7 @@ import xyz.lingview.dimstack.mapper.ArticleMapper;
 import xyz.lingview.dimstack.mapper.BackendCommentMapper;
 import xyz.lingview.dimstack.mapper.UserInformationMapper;
 import xyz.lingview.dimstack.service.BackendCommentService;
+import xyz.lingview.dimstack.service.CommentService;
 import xyz.lingview.dimstack.service.MailService;
 import xyz.lingview.dimstack.service.NotificationService;
 import xyz.lingview.dimstack.util.SiteConfigUtil;
@@ -39,6 +40,9 @@ public class BackendCommentServiceImpl implements BackendCommentService {
     @Autowired
     private SiteConfigUtil siteConfigUtil;
 
+    @Autowired
+    private CommentService commentService;
+
     @Override
     public List<CommentDTO> getCommentsByArticleId(String article_id) {
         log.info("查询文章评论，article_id = {}", article_id);
@@ -75,12 +79,27 @@ public class BackendCommentServiceImpl implements BackendCommentService {
 
     @Override
     public boolean updateCommentContent(String comment_id, String content) {
-        return backendCommentMapper.updateCommentContent(comment_id, content) > 0;
+        boolean result = backendCommentMapper.updateCommentContent(comment_id, content) > 0;
+        if (result) {
+            evictCommentTree(comment_id);
+        }
+        return result;
     }
 
     @Override
     public boolean deleteComment(String comment_id) {
-        return backendCommentMapper.deleteComment(comment_id) > 0;
+        boolean result = backendCommentMapper.deleteComment(comment_id) > 0;
+        if (result) {
+            evictCommentTree(comment_id);
+        }
+        return result;
+    }
+
+    private void evictCommentTree(String comment_id) {
+        Comment comment = backendCommentMapper.selectCommentByCommentId(comment_id);
+        if (comment != null) {
+            commentService.evictCommentTree(comment.getArticle_id());
+        }
     }
 
     private List<CommentDTO> buildCommentTree(List<CommentDTO> comments) {
@@ -129,7 +148,11 @@ public class BackendCommentServiceImpl implements BackendCommentService {
 
     @Override
     public boolean updateCommentTime(String comment_id, String create_time) {
-        return backendCommentMapper.updateCommentTime(comment_id, create_time) > 0;
+        boolean result = backendCommentMapper.updateCommentTime(comment_id, create_time) > 0;
+        if (result) {
+            evictCommentTree(comment_id);
+        }
+        return result;
     }
 
     @Override
@@ -138,7 +161,11 @@ public class BackendCommentServiceImpl implements BackendCommentService {
         if (user_id == null) {
             return false;
         }
-        return backendCommentMapper.updateCommentUser(comment_id, user_id) > 0;
+        boolean result = backendCommentMapper.updateCommentUser(comment_id, user_id) > 0;
+        if (result) {
+            evictCommentTree(comment_id);
+        }
+        return result;
     }
 
     @Override
@@ -171,6 +198,9 @@ public class BackendCommentServiceImpl implements BackendCommentService {
     @Override
     public boolean updateCommentReviewStatus(String comment_id, int status) {
         boolean result = backendCommentMapper.updateCommentStatus(comment_id, status) > 0;
+        if (result) {
+            evictCommentTree(comment_id);
+        }
         if (result && (status == 1 || status == 4)) {
             sendReviewResultNotification(comment_id, status);
         }
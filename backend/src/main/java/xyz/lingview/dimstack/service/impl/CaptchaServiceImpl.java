@@ -0,0 +1,114 @@
+package xyz.lingview.dimstack.service.impl;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import xyz.lingview.dimstack.service.CaptchaService;
+import xyz.lingview.dimstack.util.CaptchaUtil;
+import xyz.lingview.dimstack.util.MetricsUtil;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Base64;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @Author: lingview
+ * @Date: 2026/10/19 01:31:44
+ * @Description: 验证码池：低优先级后台线程持续渲染验证码直到池满，每取走一张补一张；
+ *               突发请求耗尽池时退回请求线程渲染，每张验证码只发放一次
+ * @Version: 1.0
+ */
+@Slf4j
+@Service
+public class CaptchaServiceImpl implements CaptchaService {
+
+    private static final int CODE_LENGTH = 4;
+
+    @Value("${app.captcha.pool-size:256}")
+    private int poolSize;
+
+    // png 或 webp，webp 需要在类路径中提供 ImageIO 编码插件
+    @Value("${app.captcha.format:png}")
+    private String format;
+
+    private BlockingQueue<Captcha> pool;
+    private String imageFormat;
+    private String dataUriPrefix;
+
+    private final ExecutorService filler = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "captcha-filler");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        return thread;
+    });
+
+    @PostConstruct
+    public void init() {
+        imageFormat = format.toLowerCase();
+        if (!CaptchaUtil.supportsFormat(imageFormat)) {
+            log.warn("当前环境没有 {} 图片编码器，验证码改用 png 格式", imageFormat);
+            imageFormat = "png";
+        }
+        dataUriPrefix = "data:image/" + imageFormat + ";base64,";
+
+        pool = new ArrayBlockingQueue<>(Math.max(1, poolSize));
+        MetricsUtil.gauge("captcha.pool.size", () -> pool.size());
+        filler.execute(this::fill);
+    }
+
+    @Override
+    public Captcha next() {
+        Captcha captcha = pool.poll();
+        if (captcha != null) {
+            MetricsUtil.increment("captcha.pool.hit");
+            return captcha;
+        }
+        MetricsUtil.increment("captcha.pool.miss");
+        return render();
+    }
+
+    private void fill() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                // 池满时阻塞，直到有验证码被取走
+                pool.put(render());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                log.error("预生成验证码失败", e);
+                try {
+                    TimeUnit.SECONDS.sleep(1);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+
+    private Captcha render() {
+        long start = System.nanoTime();
+        String code = CaptchaUtil.generateCaptcha(CODE_LENGTH);
+        byte[] image;
+        try {
+            image = CaptchaUtil.renderCaptcha(code, imageFormat);
+        } catch (IOException e) {
+            throw new UncheckedIOException("验证码图片编码失败", e);
+        }
+        String dataUri = dataUriPrefix + Base64.getEncoder().encodeToString(image);
+        MetricsUtil.increment("captcha.rendered");
+        MetricsUtil.recordNanos("captcha.render.time", System.nanoTime() - start);
+        return new Captcha(code, dataUri);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        filler.shutdownNow();
+    }
+}
@@ -1,5 +1,6 @@
 package xyz.lingview.dimstack.service.impl;
 
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -13,15 +14,20 @@ import xyz.lingview.dimstack.mapper.ArticleMapper;
 import xyz.lingview.dimstack.mapper.CommentLikeMapper;
 import xyz.lingview.dimstack.mapper.CommentMapper;
 import xyz.lingview.dimstack.mapper.UserInformationMapper;
-import xyz.lingview.dimstack.mapper.UserPermissionMapper;
+import xyz.lingview.dimstack.service.CacheService;
 import xyz.lingview.dimstack.service.CommentService;
 import xyz.lingview.dimstack.service.LLMService;
+import xyz.lingview.dimstack.service.LikeCounterService;
+import xyz.lingview.dimstack.service.LlmReviewQueueService;
 import xyz.lingview.dimstack.service.MailService;
 import xyz.lingview.dimstack.service.NotificationService;
+import xyz.lingview.dimstack.service.UserPermissionCheckService;
 import xyz.lingview.dimstack.util.SiteConfigUtil;
+import xyz.lingview.dimstack.util.StripedLock;
 
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 
 @Service
 @Slf4j
@@ -37,7 +43,7 @@ public class CommentServiceImpl implements CommentService {
     private UserInformationMapper userInformationMapper;
 
     @Autowired
-    private UserPermissionMapper userPermissionMapper;
+    private UserPermissionCheckService userPermissionCheckService;
 
     @Autowired
     private CommentLikeMapper commentLikeMapper;
@@ -54,6 +60,26 @@ public class CommentServiceImpl implements CommentService {
     @Autowired
     private LLMService llmService;
 
+    @Autowired
+    private CacheService cacheService;
+
+    @Autowired
+    private LikeCounterService likeCounterService;
+
+    @Autowired
+    private LlmReviewQueueService llmReviewQueueService;
+
+    // 评论树快照，不含当前用户的点赞状态；用户名与头像变更最多滞后一个过期周期，点赞只修改快照中的计数
+    private static final String COMMENT_TREE_CACHE_PREFIX = "dimstack:comment:tree:";
+    private static final long COMMENT_TREE_CACHE_MINUTES = 10;
+
+    private static final StripedLock LIKE_PATCH_LOCKS = new StripedLock(64);
+
+    @PostConstruct
+    public void registerLlmReviewHandler() {
+        llmReviewQueueService.registerHandler(LlmReviewQueueService.Target.COMMENT, this::reviewCommentWithLlm);
+    }
+
     @Override
     public List<CommentDTO> getCommentsByArticleAlias(String articleAlias, String username) {
         Article article = articleMapper.selectArticleByAlias(articleAlias);
@@ -68,14 +94,104 @@ public class CommentServiceImpl implements CommentService {
             return new ArrayList<>();
         }
 
-        List<Comment> comments = commentMapper.selectCommentsByArticleId(article.getArticle_id());
+        List<CommentDTO> snapshot = getCommentTreeSnapshot(article.getArticle_id());
+        if (snapshot.isEmpty()) {
+            return new ArrayList<>();
+        }
 
-        String currentUserUuid = null;
+        Set<String> likedCommentIds = Collections.emptySet();
         if (username != null) {
-            currentUserUuid = userInformationMapper.selectUserUUID(username);
+            String currentUserUuid = userInformationMapper.selectUserUUID(username);
+            if (currentUserUuid != null) {
+                likedCommentIds = new HashSet<>(
+                        commentLikeMapper.selectLikedCommentIdsByArticle(currentUserUuid, article.getArticle_id()));
+            }
         }
 
-        return buildCommentTree(comments, currentUserUuid);
+        // 快照可能被多个请求共享，复制后再叠加当前用户的点赞状态
+        return copyWithLikes(snapshot, likedCommentIds);
+    }
+
+    @Override
+    public void evictCommentTree(String articleId) {
+        if (articleId == null) {
+            return;
+        }
+        try {
+            cacheService.delete(COMMENT_TREE_CACHE_PREFIX + articleId);
+        } catch (Exception e) {
+            log.warn("清除评论树缓存失败，articleId: {}", articleId, e);
+        }
+    }
+
+    private List<CommentDTO> getCommentTreeSnapshot(String articleId) {
+        String cacheKey = COMMENT_TREE_CACHE_PREFIX + articleId;
+        @SuppressWarnings("unchecked")
+        List<CommentDTO> snapshot = (List<CommentDTO>) cacheService.get(cacheKey, List.class);
+        if (snapshot != null) {
+            return snapshot;
+        }
+
+        List<Comment> comments = commentMapper.selectCommentsByArticleId(articleId);
+        snapshot = buildCommentTree(comments);
+        cacheService.set(cacheKey, snapshot, COMMENT_TREE_CACHE_MINUTES, TimeUnit.MINUTES);
+        return snapshot;
+    }
+
+    /**
+     * 直接修改评论树快照中的点赞数，点赞不再使整棵树重建
+     */
+    private void patchCommentTreeLikeCount(String articleId, String commentId, long delta) {
+        String cacheKey = COMMENT_TREE_CACHE_PREFIX + articleId;
+        // 同一节点上同一篇文章的修改串行执行，避免读改写互相覆盖
+        synchronized (LIKE_PATCH_LOCKS.lockFor(articleId)) {
+            try {
+                @SuppressWarnings("unchecked")
+                List<CommentDTO> snapshot = (List<CommentDTO>) cacheService.get(cacheKey, List.class);
+                if (snapshot == null) {
+                    return;
+                }
+                CommentDTO node = findComment(snapshot, commentId);
+                if (node == null) {
+                    return;
+                }
+                long likeCount = node.getComment_like_count() != null ? node.getComment_like_count() : 0L;
+                node.setComment_like_count(Math.max(0L, likeCount + delta));
+                cacheService.set(cacheKey, snapshot, COMMENT_TREE_CACHE_MINUTES, TimeUnit.MINUTES);
+            } catch (Exception e) {
+                log.warn("更新评论树缓存点赞数失败，清除缓存，articleId: {}", articleId, e);
+                evictCommentTree(articleId);
+            }
+        }
+    }
+
+    private CommentDTO findComment(List<CommentDTO> nodes, String commentId) {
+        for (CommentDTO node : nodes) {
+            if (commentId.equals(node.getComment_id())) {
+                return node;
+            }
+            if (node.getChildren() != null && !node.getChildren().isEmpty()) {
+                CommentDTO found = findComment(node.getChildren(), commentId);
+                if (found != null) {
+                    return found;
+                }
+            }
+        }
+        return null;
+    }
+
+    private List<CommentDTO> copyWithLikes(List<CommentDTO> nodes, Set<String> likedCommentIds) {
+        List<CommentDTO> copies = new ArrayList<>(nodes.size());
+        for (CommentDTO node : nodes) {
+            CommentDTO copy = new CommentDTO();
+            org.springframework.beans.BeanUtils.copyProperties(node, copy, "children", "is_liked");
+            copy.setIs_liked(likedCommentIds.contains(node.getComment_id()));
+            copy.setChildren(node.getChildren() == null || node.getChildren().isEmpty()
+                    ? new ArrayList<>()
+                    : copyWithLikes(node.getChildren(), likedCommentIds));
+            copies.add(copy);
+        }
+        return copies;
     }
     @Override
     public int addComment(String username, AddCommentRequestDTO request) {
@@ -102,7 +218,7 @@ public class CommentServiceImpl implements CommentService {
         comment.setComment_like_count(0L);
         int commentStatus;
 
-        List<String> userPermissions = userPermissionMapper.findPermissionCodesByUserName(username);
+        Set<String> userPermissions = userPermissionCheckService.getUserPermissions(username);
         if (userPermissions.contains("system:comments:review") && siteConfigUtil.adminCommentNoReview()) {
             commentStatus = 1;
         } else {
@@ -126,11 +242,14 @@ public class CommentServiceImpl implements CommentService {
         }
 
         commentMapper.insertComment(comment);
+        if (commentStatus == 1) {
+            evictCommentTree(article.getArticle_id());
+        }
 
         // AI审核
         if (commentStatus == 3 && siteConfigUtil.isLlmCommentReviewEnabled()) {
             log.info("评论 {}（用户：{}）进入大模型审核", comment.getComment_id(), username);
-            triggerLlmCommentReview(comment, article, username);
+            llmReviewQueueService.submit(LlmReviewQueueService.Target.COMMENT, comment.getComment_id(), username);
         } else if (commentStatus == 3) {
             sendCommentReviewNotification(comment, article, username);
         } else {
@@ -157,26 +276,27 @@ public class CommentServiceImpl implements CommentService {
             throw new RuntimeException("该文章评论区已关闭");
         }
 
-        // 检查用户是否已经点赞过该评论
-        if (commentLikeMapper.existsLike(userId, commentId)) {
-            // 如果已点赞，则取消点赞
-            commentLikeMapper.deleteLike(userId, commentId);
-            Long newLikeCount = comment.getComment_like_count() - 1;
-            commentMapper.updateCommentLikeCount(commentId, newLikeCount);
+        // 点赞记录有唯一约束，按实际影响行数决定增量，重复提交不会重复计数
+        long delta;
+        if (commentLikeMapper.deleteLike(userId, commentId) > 0) {
+            delta = -1;
         } else {
             CommentLike like = new CommentLike();
             like.setUser_id(userId);
             like.setComment_id(commentId);
             like.setCreate_time(LocalDateTime.now());
-            commentLikeMapper.insertLike(like);
-
-            Long newLikeCount = comment.getComment_like_count() + 1;
-            commentMapper.updateCommentLikeCount(commentId, newLikeCount);
-
-            sendLikeNotification(comment, username);
+            delta = commentLikeMapper.insertLikeIgnore(like) > 0 ? 1 : 0;
+            if (delta > 0) {
+                sendLikeNotification(comment, username);
+            }
+        }
+        if (delta == 0) {
+            return;
         }
-    }
 
+        likeCounterService.add(LikeCounterService.Target.COMMENT, commentId, delta);
+        patchCommentTreeLikeCount(comment.getArticle_id(), commentId, delta);
+    }
 
     @Override
     public void deleteComment(String username, String commentId) {
@@ -192,21 +312,24 @@ public class CommentServiceImpl implements CommentService {
         }
 
         commentMapper.deleteComment(commentId);
+        evictCommentTree(comment.getArticle_id());
     }
 
-    private List<CommentDTO> buildCommentTree(List<Comment> comments, String currentUserUuid) {
+    private List<CommentDTO> buildCommentTree(List<Comment> comments) {
         if (comments == null || comments.isEmpty()) {
             return new ArrayList<>();
         }
 
-        Map<String, UserInformation> userMap = new HashMap<>();
+        Set<String> userIds = new HashSet<>();
         for (Comment comment : comments) {
-            String userId = comment.getUser_id();
-            if (userId != null && !userMap.containsKey(userId)) {
-                UserInformation user = userInformationMapper.selectUserByUUID(userId);
-                if (user != null) {
-                    userMap.put(userId, user);
-                }
+            if (comment.getUser_id() != null) {
+                userIds.add(comment.getUser_id());
+            }
+        }
+        Map<String, UserInformation> userMap = new HashMap<>();
+        if (!userIds.isEmpty()) {
+            for (UserInformation user : userInformationMapper.selectUserProfilesByUuids(userIds)) {
+                userMap.put(user.getUuid(), user);
             }
         }
 
@@ -214,7 +337,7 @@ public class CommentServiceImpl implements CommentService {
         Map<String, CommentDTO> dtoMap = new HashMap<>();
 
         for (Comment comment : comments) {
-            CommentDTO dto = convertToDTO(comment, userMap, currentUserUuid);
+            CommentDTO dto = convertToDTO(comment, userMap);
             allCommentDTOs.add(dto);
             dtoMap.put(comment.getComment_id(), dto);
         }
@@ -238,13 +361,16 @@ public class CommentServiceImpl implements CommentService {
         return rootComments;
     }
 
-    private CommentDTO convertToDTO(Comment comment, Map<String, UserInformation> userMap, String currentUserUuid) {
+    private CommentDTO convertToDTO(Comment comment, Map<String, UserInformation> userMap) {
         CommentDTO dto = new CommentDTO();
         dto.setComment_id(comment.getComment_id());
         dto.setUser_id(comment.getUser_id());
         dto.setContent(comment.getContent());
         dto.setCreate_time(comment.getCreate_time());
-        dto.setComment_like_count(comment.getComment_like_count());
+        // 叠加本节点尚未落库的点赞数增量
+        long likeCount = comment.getComment_like_count() != null ? comment.getComment_like_count() : 0L;
+        long pendingLikes = likeCounterService.pending(LikeCounterService.Target.COMMENT, comment.getComment_id());
+        dto.setComment_like_count(Math.max(0L, likeCount + pendingLikes));
         dto.setTo_comment_id(comment.getTo_comment_id());
 
         String userId = comment.getUser_id();
@@ -262,11 +388,6 @@ public class CommentServiceImpl implements CommentService {
             dto.setAvatar(null);
         }
 
-        // 检查当前用户是否已点赞该评论
-        if (currentUserUuid != null) {
-            dto.setIs_liked(commentLikeMapper.existsLike(currentUserUuid, comment.getComment_id()));
-        }
-
         dto.setChildren(new ArrayList<>());
 
         return dto;
@@ -365,38 +486,52 @@ public class CommentServiceImpl implements CommentService {
 
             List<String> reviewerEmails = userInformationMapper.getEmailsByPermissionCode("system:comments:review");
             if (reviewerEmails != null) {
-                for (String email : reviewerEmails) {
-                    mailService.sendSimpleMail(email, subject, content);
-                }
+                mailService.sendBulkSimpleMail(reviewerEmails, subject, content);
             }
         } catch (Exception e) {
             log.warn("评论审核通知发送失败{}", String.valueOf(e));
         }
     }
 
-    private void triggerLlmCommentReview(Comment comment, Article article, String commenterName) {
-        new Thread(() -> {
-            log.info("评论 {} 开始执行大模型审核（文章：{}）", comment.getComment_id(), article.getArticle_name());
-            try {
-                String result = llmService.reviewComment(comment.getContent());
-                if ("PASS".equals(result)) {
-                    log.info("评论 {} 大模型审核通过，自动发布", comment.getComment_id());
-                    commentMapper.updateCommentStatus(comment.getComment_id(), 1);
-                    sendReviewResultToAuthor(comment, true);
-                    sendCommentNotification(comment, article, commenterName);
-                } else if ("REJECT".equals(result)) {
-                    log.warn("评论 {} 大模型审核不通过，标记为违规", comment.getComment_id());
-                    commentMapper.updateCommentStatus(comment.getComment_id(), 4);
-                    sendReviewResultToAuthor(comment, false);
-                } else {
-                    log.warn("评论 {} 大模型审核异常，保持待审核状态，等待人工审核", comment.getComment_id());
-                    sendCommentReviewNotification(comment, article, commenterName);
+    private void reviewCommentWithLlm(String commentId, String commenterName) {
+        Comment comment = commentMapper.selectCommentForReview(commentId);
+        if (comment == null || comment.getStatus() == null || comment.getStatus() != 3) {
+            log.info("评论 {} 已不处于待审核状态，跳过大模型审核", commentId);
+            return;
+        }
+        Article article = articleMapper.selectArticleByArticleId(comment.getArticle_id());
+        if (article == null) {
+            log.warn("评论 {} 所属文章不存在或未发布，跳过大模型审核", commentId);
+            return;
+        }
+
+        log.info("评论 {} 开始执行大模型审核（文章：{}）", comment.getComment_id(), article.getArticle_name());
+        try {
+            String result = llmService.reviewComment(comment.getContent());
+            if ("PASS".equals(result)) {
+                if (commentMapper.updateCommentStatusIfCurrent(comment.getComment_id(), 3, 1) == 0) {
+                    log.info("评论 {} 审核期间状态已变更，忽略大模型审核结果", comment.getComment_id());
+                    return;
                 }
-            } catch (Exception e) {
-                log.error("评论 {} 大模型审核发生未预期异常，保持待审核状态，等待人工审核", comment.getComment_id(), e);
+                log.info("评论 {} 大模型审核通过，自动发布", comment.getComment_id());
+                evictCommentTree(comment.getArticle_id());
+                sendReviewResultToAuthor(comment, true);
+                sendCommentNotification(comment, article, commenterName);
+            } else if ("REJECT".equals(result)) {
+                if (commentMapper.updateCommentStatusIfCurrent(comment.getComment_id(), 3, 4) == 0) {
+                    log.info("评论 {} 审核期间状态已变更，忽略大模型审核结果", comment.getComment_id());
+                    return;
+                }
+                log.warn("评论 {} 大模型审核不通过，标记为违规", comment.getComment_id());
+                sendReviewResultToAuthor(comment, false);
+            } else {
+                log.warn("评论 {} 大模型审核异常，保持待审核状态，等待人工审核", comment.getComment_id());
                 sendCommentReviewNotification(comment, article, commenterName);
             }
-        }).start();
+        } catch (Exception e) {
+            log.error("评论 {} 大模型审核发生未预期异常，保持待审核状态，等待人工审核", comment.getComment_id(), e);
+            sendCommentReviewNotification(comment, article, commenterName);
+        }
     }
 
     private void sendReviewResultToAuthor(Comment comment, boolean passed) {
@@ -6,8 +6,8 @@ import org.springframework.stereotype.Service;
 import xyz.lingview.dimstack.domain.DashboardMenu;
 import xyz.lingview.dimstack.dto.request.DashboardMenuDTO;
 import xyz.lingview.dimstack.mapper.DashboardMenuMapper;
-import xyz.lingview.dimstack.mapper.UserPermissionMapper;
 import xyz.lingview.dimstack.service.DashboardMenuService;
+import xyz.lingview.dimstack.service.UserPermissionCheckService;
 
 import java.util.*;
 import java.util.stream.Collectors;
@@ -19,13 +19,13 @@ public class DashboardMenuServiceImpl implements DashboardMenuService {
     private DashboardMenuMapper dashboardMenuMapper;
 
     @Autowired
-    private UserPermissionMapper userPermissionMapper;
+    private UserPermissionCheckService userPermissionCheckService;
 
     @Override
     public DashboardMenuDTO getDashboardMenus(String username) {
         DashboardMenuDTO responseDTO = new DashboardMenuDTO();
 
-        List<String> userPermissions = userPermissionMapper.findPermissionCodesByUserName(username);
+        Set<String> userPermissions = new HashSet<>(userPermissionCheckService.getUserPermissions(username));
         userPermissions.add(null);
 
         List<DashboardMenu> allMenus = dashboardMenuMapper.findAll();
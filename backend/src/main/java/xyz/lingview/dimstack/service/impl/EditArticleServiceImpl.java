@@ -1,5 +1,6 @@
 package xyz.lingview.dimstack.service.impl;
 
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.mindrot.jbcrypt.BCrypt;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -59,7 +60,7 @@ public class EditArticleServiceImpl implements EditArticleService {
     private ArticleMapper articleMapper;
 
     @Autowired
-    private UserPermissionMapper userPermissionMapper;
+    private UserPermissionCheckService userPermissionCheckService;
 
     @Autowired
     private ReadArticleMapper readArticleMapper;
@@ -73,6 +74,20 @@ public class EditArticleServiceImpl implements EditArticleService {
     @Autowired
     private PageViewCounterService pageViewCounterService;
 
+    @Autowired
+    private LlmReviewQueueService llmReviewQueueService;
+
+    @Autowired
+    private SitemapService sitemapService;
+
+    @Autowired
+    private SeoPageService seoPageService;
+
+    @PostConstruct
+    public void registerLlmReviewHandler() {
+        llmReviewQueueService.registerHandler(LlmReviewQueueService.Target.ARTICLE, this::reviewArticleWithLlm);
+    }
+
     @Override
     public Map<String, Object> getArticleListByUsername(String username, Integer page, Integer size) {
         Map<String, Object> result = new HashMap<>();
@@ -239,6 +254,8 @@ public class EditArticleServiceImpl implements EditArticleService {
             }
 
             articleService.clearArticleCache();
+            sitemapService.articleChanged(updateArticleDTO.getArticle_id());
+            seoPageService.articleChanged(updateArticleDTO.getArticle_id());
             return true;
 
         } catch (Exception e) {
@@ -270,6 +287,8 @@ public class EditArticleServiceImpl implements EditArticleService {
             
             if (result > 0) {
                 articleService.clearArticleCache();
+                sitemapService.articleChanged(articleId);
+                seoPageService.articleChanged(articleId);
             }
             
             return result > 0;
@@ -301,6 +320,8 @@ public class EditArticleServiceImpl implements EditArticleService {
             
             if (result > 0) {
                 articleService.clearArticleCache();
+                sitemapService.articleChanged(articleId);
+                seoPageService.articleChanged(articleId);
             }
             
             return result > 0;
@@ -332,6 +353,8 @@ public class EditArticleServiceImpl implements EditArticleService {
             
             if (result > 0) {
                 articleService.clearArticleCache();
+                sitemapService.articleChanged(articleId);
+                seoPageService.articleChanged(articleId);
             }
             
             return result > 0;
@@ -491,7 +514,7 @@ public class EditArticleServiceImpl implements EditArticleService {
             boolean adminPostNoReview = siteConfigUtil.adminPostNoReview();
             boolean noReviewNotice = false;
             int articleDefault;
-            List<String> userPermission = userPermissionMapper.findPermissionCodesByUserName(sessionUsername);
+            Set<String> userPermission = userPermissionCheckService.getUserPermissions(sessionUsername);
             if (userPermission.contains("system:post:review")){
                 if (adminPostNoReview) {
                     noReviewNotice = true;
@@ -507,14 +530,14 @@ public class EditArticleServiceImpl implements EditArticleService {
             Integer enableLlmArticleReview = siteConfigService.getEnableLlmArticleReview();
             boolean aiReviewEnabled = (enableLlm != null && enableLlm == 1 && enableLlmArticleReview != null && enableLlmArticleReview == 1);
             
+            boolean submitAiReview = false;
             if (!noReviewNotice && aiReviewEnabled) {
                 log.info("文章 {} 使用大模型审核，设为待审核状态", articleId);
                 articleDefault = 3;
 
                 String articleContent = getArticleContent(articleId);
                 if (articleContent != null && !articleContent.trim().isEmpty()) {
-                    ReviewContext context = buildReviewContext(articleId, sessionUsername);
-                    asyncAiReview(context);
+                    submitAiReview = true;
                 } else {
                     log.warn("文章 {} 内容为空，跳过大模型审核，保持待审核状态", articleId);
                 }
@@ -539,7 +562,10 @@ public class EditArticleServiceImpl implements EditArticleService {
 
             if (result > 0) {
                 invalidateArticleCache(articleId);
-                articleService.clearArticleCache();
+                // 状态写入待审核后再入队，审核结果不会被发布操作覆盖
+                if (submitAiReview) {
+                    llmReviewQueueService.submit(LlmReviewQueueService.Target.ARTICLE, articleId, sessionUsername);
+                }
                 return ArticleOperationResult.builder()
                     .success(true)
                     .message("文章已发布")
@@ -750,17 +776,15 @@ public class EditArticleServiceImpl implements EditArticleService {
             if (reviewerEmails == null || reviewerEmails.isEmpty()) {
                 log.warn("未找到拥有 'system:post:review' 权限的用户，跳过发送审核通知邮件");
             } else {
-                for (String email : reviewerEmails) {
-                    try {
-                        mailService.sendSimpleMail(
-                            email,
-                            siteName + " 文章审核",
-                            "用户：" + authorUsername + " 于 " + formattedDate + " 发布了新文章：《" + articleName + "》可能需要您审核"
-                        );
-                        log.info("已发送审核通知邮件至: {}", email);
-                    } catch (Exception e) {
-                        log.error("发送审核通知邮件失败，目标邮箱: {}", email, e);
-                    }
+                try {
+                    mailService.sendBulkSimpleMail(
+                        reviewerEmails,
+                        siteName + " 文章审核",
+                        "用户：" + authorUsername + " 于 " + formattedDate + " 发布了新文章：《" + articleName + "》可能需要您审核"
+                    );
+                    log.info("已发送审核通知邮件至: {}", reviewerEmails);
+                } catch (Exception e) {
+                    log.error("发送审核通知邮件失败，目标邮箱: {}", reviewerEmails, e);
                 }
             }
         } catch (Exception e) {
@@ -794,32 +818,46 @@ public class EditArticleServiceImpl implements EditArticleService {
         String articleContent;
     }
 
-    private void asyncAiReview(ReviewContext context) {
-        new Thread(() -> {
-            log.info("文章 {}《{}》（作者：{}）进入大模型审核", context.articleId, context.articleName, context.authorUsername);
-            try {
-                AiReviewResult reviewResult = llmService.reviewArticle(context.articleContent);
-                
-                if (reviewResult == AiReviewResult.PASS) {
-                    log.info("文章 {} 大模型审核通过，自动发布", context.articleId);
-                    editArticleMapper.updateArticleStatus(context.articleId, 1);
-                    invalidateArticleCache(context.articleId);
-                    articleService.clearArticleCache();
-                    sendAutoApprovalNotificationWithInfo(context);
-                } else if (reviewResult == AiReviewResult.REJECT) {
-                    log.warn("文章 {} 大模型审核不通过，标记为违规", context.articleId);
-                    editArticleMapper.updateArticleStatus(context.articleId, 4);
-                    invalidateArticleCache(context.articleId);
-                    sendViolationNotificationWithInfo(context);
-                } else {
-                    log.warn("文章 {} 大模型审核异常，保持待审核状态，等待人工审核", context.articleId);
-                    sendReviewNotificationWithInfo(context);
+    private void reviewArticleWithLlm(String articleId, String username) {
+        Integer status = editArticleMapper.getArticleStatusById(articleId);
+        if (status == null || status != 3) {
+            log.info("文章 {} 已不处于待审核状态，跳过大模型审核", articleId);
+            return;
+        }
+        ReviewContext context = buildReviewContext(articleId, username);
+        if (context.articleContent == null || context.articleContent.trim().isEmpty()) {
+            log.warn("文章 {} 内容为空，跳过大模型审核，保持待审核状态", articleId);
+            return;
+        }
+
+        log.info("文章 {}《{}》（作者：{}）进入大模型审核", context.articleId, context.articleName, context.authorUsername);
+        try {
+            AiReviewResult reviewResult = llmService.reviewArticle(context.articleContent);
+
+            if (reviewResult == AiReviewResult.PASS) {
+                if (editArticleMapper.updateArticleStatusIfCurrent(context.articleId, 3, 1) == 0) {
+                    log.info("文章 {} 审核期间状态已变更，忽略大模型审核结果", context.articleId);
+                    return;
+                }
+                log.info("文章 {} 大模型审核通过，自动发布", context.articleId);
+                invalidateArticleCache(context.articleId);
+                sendAutoApprovalNotificationWithInfo(context);
+            } else if (reviewResult == AiReviewResult.REJECT) {
+                if (editArticleMapper.updateArticleStatusIfCurrent(context.articleId, 3, 4) == 0) {
+                    log.info("文章 {} 审核期间状态已变更，忽略大模型审核结果", context.articleId);
+                    return;
                 }
-            } catch (Exception e) {
-                log.error("文章 {} 大模型审核发生未预期异常，保持待审核状态，等待人工审核", context.articleId, e);
+                log.warn("文章 {} 大模型审核不通过，标记为违规", context.articleId);
+                invalidateArticleCache(context.articleId);
+                sendViolationNotificationWithInfo(context);
+            } else {
+                log.warn("文章 {} 大模型审核异常，保持待审核状态，等待人工审核", context.articleId);
                 sendReviewNotificationWithInfo(context);
             }
-        }).start();
+        } catch (Exception e) {
+            log.error("文章 {} 大模型审核发生未预期异常，保持待审核状态，等待人工审核", context.articleId, e);
+            sendReviewNotificationWithInfo(context);
+        }
     }
 
     private void sendAutoApprovalNotificationWithInfo(ReviewContext context) {
@@ -908,17 +946,15 @@ public class EditArticleServiceImpl implements EditArticleService {
             if (context.reviewerEmails == null || context.reviewerEmails.isEmpty()) {
                 log.warn("未找到拥有 'system:post:review' 权限的用户，跳过发送审核通知邮件");
             } else {
-                for (String email : context.reviewerEmails) {
-                    try {
-                        mailService.sendSimpleMail(
-                            email,
-                            context.siteName + " 文章审核",
-                            "用户：" + context.authorUsername + " 于 " + formattedDate + " 发布了新文章：《" + context.articleName + "》可能需要您审核"
-                        );
-                        log.info("已发送审核通知邮件至: {}", email);
-                    } catch (Exception e) {
-                        log.error("发送审核通知邮件失败，目标邮箱: {}", email, e);
-                    }
+                try {
+                    mailService.sendBulkSimpleMail(
+                        context.reviewerEmails,
+                        context.siteName + " 文章审核",
+                        "用户：" + context.authorUsername + " 于 " + formattedDate + " 发布了新文章：《" + context.articleName + "》可能需要您审核"
+                    );
+                    log.info("已发送审核通知邮件至: {}", context.reviewerEmails);
+                } catch (Exception e) {
+                    log.error("发送审核通知邮件失败，目标邮箱: {}", context.reviewerEmails, e);
                 }
             }
         } catch (Exception e) {
@@ -927,6 +963,10 @@ public class EditArticleServiceImpl implements EditArticleService {
     }
 
     private void invalidateArticleCache(String articleId) {
+        // 发布状态、密码等变化都会影响列表与计数，一并清除列表缓存
+        articleService.clearArticleCache();
+        sitemapService.articleChanged(articleId);
+        seoPageService.articleChanged(articleId);
         try {
             ReadArticle article = readArticleMapper.selectByArticleId(articleId);
             if (article != null && article.getAlias() != null) {
@@ -8,20 +8,28 @@ import org.springframework.core.io.InputStreamResource;
 import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Service;
 import xyz.lingview.dimstack.domain.UploadAttachment;
+import xyz.lingview.dimstack.mapper.AttachmentManagementMapper;
+import xyz.lingview.dimstack.service.CacheService;
 import xyz.lingview.dimstack.service.FileAccessService;
 import xyz.lingview.dimstack.service.FileStorage;
 import xyz.lingview.dimstack.service.ImageCompressionService;
+import xyz.lingview.dimstack.service.RangeReadableStorage;
 import xyz.lingview.dimstack.service.SiteConfigService;
 import xyz.lingview.dimstack.service.StorageFacadeService;
 import xyz.lingview.dimstack.service.UploadService;
+import xyz.lingview.dimstack.util.MetricsUtil;
 import xyz.lingview.dimstack.util.MimeTypeUtil;
 
-import java.io.InputStream;
+import java.io.IOException;
 import java.io.UnsupportedEncodingException;
 import java.net.URLEncoder;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 @Slf4j
 @Service
@@ -39,15 +47,31 @@ public class FileAccessServiceImpl implements FileAccessService {
     @Autowired
     private StorageFacadeService storageFacadeService;
 
+    @Autowired
+    private CacheService cacheService;
+
+    @Autowired
+    private AttachmentManagementMapper attachmentManagementMapper;
+
     @Value("${file.data-root:.}")
     private String dataRoot;
 
+    private static final String ATTACHMENT_CACHE_PREFIX = "dimstack:attachment:";
+    private static final long ATTACHMENT_CACHE_MINUTES = 30;
+
+    private static final Duration INLINE_URL_EXPIRATION = Duration.ofHours(6);
+    private static final Duration DOWNLOAD_URL_EXPIRATION = Duration.ofHours(1);
+    // 访问键对应的对象内容不会变化，浏览器可一直缓存预签名链接返回的内容
+    private static final String OBJECT_CACHE_CONTROL = "public, max-age=31536000, immutable";
+    // 跳转只允许浏览器短期缓存，附件删除或迁移后几分钟内即不再指向旧对象
+    private static final long REDIRECT_MAX_AGE_SECONDS = 300;
+
     @Override
     public FileAccessResult getFile(String accessKey, boolean download) {
-        UploadAttachment attachment = uploadService.selectByAccessKey(accessKey);
+        UploadAttachment attachment = loadAttachment(accessKey);
         if (attachment == null) {
             log.warn("未找到访问键对应的文件: {}", accessKey);
-            return new FileAccessResult(null, null, null, false, null);
+            return FileAccessResult.notFound();
         }
 
         String storageId = attachment.getStorage_id();
@@ -59,26 +83,72 @@ public class FileAccessServiceImpl implements FileAccessService {
             return handleExternalStorage(attachment, download, storage);
         } catch (Exception e) {
             log.warn("存储方式不可用，文件无法访问: {}", e.getMessage());
-            return new FileAccessResult(null, null, null, false, null);
+            return FileAccessResult.notFound();
+        }
+    }
+
+    @Override
+    public void evictAttachments(Collection<String> attachmentIds) {
+        if (attachmentIds == null || attachmentIds.isEmpty()) {
+            return;
+        }
+        try {
+            List<String> accessKeys = attachmentManagementMapper.selectAccessKeysByAttachmentIds(attachmentIds);
+            for (String accessKey : accessKeys) {
+                cacheService.delete(ATTACHMENT_CACHE_PREFIX + accessKey);
+            }
+        } catch (Exception e) {
+            log.warn("清除附件访问缓存失败: {}", e.getMessage());
         }
     }
 
+    /**
+     * 附件元数据按访问键缓存，图片较多的页面无需逐个查库
+     */
+    private UploadAttachment loadAttachment(String accessKey) {
+        String cacheKey = ATTACHMENT_CACHE_PREFIX + accessKey;
+        UploadAttachment attachment = cacheService.get(cacheKey, UploadAttachment.class);
+        if (attachment != null) {
+            MetricsUtil.increment("file.attachment.cache.hit");
+            return attachment;
+        }
+        MetricsUtil.increment("file.attachment.cache.miss");
+        attachment = uploadService.selectByAccessKey(accessKey);
+        if (attachment != null) {
+            cacheService.set(cacheKey, attachment, ATTACHMENT_CACHE_MINUTES, TimeUnit.MINUTES);
+        }
+        return attachment;
+    }
+
     private FileAccessResult handleLocalStorage(UploadAttachment attachment, boolean download) {
         Path basePath = Path.of(dataRoot).toAbsolutePath().normalize();
         Path filePath = basePath.resolve(attachment.getAttachment_path()).normalize();
 
         if (!Files.exists(filePath)) {
             log.warn("文件不存在: {}", filePath);
-            return new FileAccessResult(null, null, null, false, null);
+            return FileAccessResult.notFound();
         }
 
         String contentType = detectContentType(filePath);
-        Resource resource = resolveResource(filePath, contentType, download);
+        Path servedPath = resolveServedPath(filePath, contentType, download);
+
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(servedPath, BasicFileAttributes.class);
+        } catch (IOException e) {
+            log.warn("读取文件属性失败: {}", servedPath, e);
+            return FileAccessResult.notFound();
+        }
+        long lastModified = attributes.lastModifiedTime().toMillis();
+        // 原图与压缩图的大小、修改时间不同，ETag 随实际返回的文件变化
+        String etag = "\"" + attachment.getAttachment_id() + "-" + Long.toHexString(attributes.size())
+                + "-" + Long.toHexString(lastModified) + "\"";
 
         String filename = filePath.getFileName().toString();
         String disposition = buildDisposition(filename, download);
 
-        return new FileAccessResult(resource, contentType, disposition, true, null);
+        return new FileAccessResult(new FileSystemResource(servedPath), contentType, disposition, true, null,
+                etag, lastModified, null, null, 0L, !mayServeCompressed(contentType, download));
     }
 
     private FileAccessResult handleExternalStorage(UploadAttachment attachment, boolean download, FileStorage storage) {
@@ -92,17 +162,18 @@ public class FileAccessServiceImpl implements FileAccessService {
         try {
             String objectKey = attachment.getAttachment_path();
             S3FileStorageImpl s3Storage = (S3FileStorageImpl) storageFacadeService.getStorage(attachment.getStorage_id());
-            Duration expiration = download ? Duration.ofMinutes(5) : Duration.ofHours(1);
-            String presignedUrl = s3Storage.generatePresignedUrl(objectKey, expiration);
-
-            if (download) {
-                presignedUrl += "&response-content-disposition=attachment";
-            }
-
             String filename = Path.of(attachment.getAttachment_path()).getFileName().toString();
             String disposition = buildDisposition(filename, download);
 
-            return new FileAccessResult(null, null, disposition, true, presignedUrl);
+            // 下载参数参与签名，追加到已签名的链接上会导致签名校验失败
+            S3FileStorageImpl.PresignedUrl presignedUrl = s3Storage.generatePresignedUrl(objectKey,
+                    download ? DOWNLOAD_URL_EXPIRATION : INLINE_URL_EXPIRATION,
+                    download ? disposition : null, OBJECT_CACHE_CONTROL);
+
+            // 跳转只在签名复用期内缓存，客户端拿到的链接始终有足够的剩余有效期
+            long maxAge = Math.max(0L, Math.min(REDIRECT_MAX_AGE_SECONDS,
+                    (presignedUrl.reuseUntil() - System.currentTimeMillis()) / 1000));
+            return FileAccessResult.redirect(presignedUrl.url(), disposition, maxAge);
         } catch (Exception e) {
             log.error("生成Presigned URL失败，回退到本地存储: {}", attachment.getAttachment_id(), e);
             return handleLocalStorage(attachment, download);
@@ -113,15 +184,17 @@ public class FileAccessServiceImpl implements FileAccessService {
         try {
             FileStorage storage = storageFacadeService.getStorage(attachment.getStorage_id());
             String objectKey = attachment.getAttachment_path();
-            InputStream data = storage.retrieve(objectKey);
             String contentType = resolveContentType(attachment);
             String filename = Path.of(objectKey).getFileName().toString();
             String disposition = buildDisposition(filename, download);
-            Resource resource = new InputStreamResource(data);
-            return new FileAccessResult(resource, contentType, disposition, true, null);
+            // 延迟到写响应时才读取，条件请求命中 304 时不访问存储
+            Resource resource = new InputStreamResource(() -> storage.retrieve(objectKey));
+            String etag = "\"" + attachment.getAttachment_id() + "\"";
+            return new FileAccessResult(resource, contentType, disposition, true, null, etag, -1L,
+                    storage instanceof RangeReadableStorage ranged ? ranged : null, objectKey, 0L, true);
         } catch (Exception e) {
             log.error("流式读取文件失败: {}", attachment.getAttachment_id(), e);
-            return new FileAccessResult(null, null, null, false, null);
+            return FileAccessResult.notFound();
         }
     }
 
@@ -150,10 +223,15 @@ public class FileAccessServiceImpl implements FileAccessService {
         }
     }
 
-    private Resource resolveResource(Path filePath, String contentType, boolean download) {
-        boolean isImage = contentType.startsWith("image/");
+    /**
+     * 在线查看的图片会随压缩开关与压缩进度在原图和压缩图之间切换
+     */
+    private boolean mayServeCompressed(String contentType, boolean download) {
+        return contentType.startsWith("image/") && !download;
+    }
 
-        if (isImage && !download) {
+    private Path resolveServedPath(Path filePath, String contentType, boolean download) {
+        if (mayServeCompressed(contentType, download)) {
             Integer enableCompression = siteConfigService.getEnableImageCompression();
             boolean shouldCompress = enableCompression != null && enableCompression == 1;
 
@@ -161,7 +239,7 @@ public class FileAccessServiceImpl implements FileAccessService {
                 Path compressedPath = getCompressedImagePath(filePath);
                 if (Files.exists(compressedPath)) {
                     log.debug("使用压缩图片: {}", compressedPath);
-                    return new FileSystemResource(compressedPath.toFile());
+                    return compressedPath;
                 } else {
                     log.debug("压缩图片不存在，使用原图并触发异步压缩: {}", filePath);
                     imageCompressionService.compressImageAsync(filePath.toString());
@@ -169,7 +247,7 @@ public class FileAccessServiceImpl implements FileAccessService {
             }
         }
 
-        return new FileSystemResource(filePath.toFile());
+        return filePath;
     }
 
     private String buildDisposition(String filename, boolean download) {
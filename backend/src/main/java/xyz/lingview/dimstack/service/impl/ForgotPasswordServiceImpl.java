@@ -18,6 +18,7 @@ import xyz.lingview.dimstack.common.ApiResponse;
 import xyz.lingview.dimstack.domain.UserInformation;
 import xyz.lingview.dimstack.util.SiteConfigUtil;
 
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
@@ -160,8 +161,9 @@ public class ForgotPasswordServiceImpl implements ForgotPasswordService {
 
             // 发送验证码到邮箱
             String siteName = siteConfigUtil.getSiteName();
-            mailService.sendSimpleMail(email, "【" + siteName + "】密码重置验证码",
-                    "您正在重置密码，验证码是：" + captcha + "，有效期10分钟。如果不是本人操作，请忽略。");
+            mailService.sendVerificationMail(email, "【" + siteName + "】密码重置验证码",
+                    "您正在重置密码，验证码是：" + captcha + "，有效期10分钟。如果不是本人操作，请忽略。",
+                    Duration.ofMinutes(10));
             notificationService.sendSystemNotification(username, "系统通知", "用户 " + username + " 尝试重置密码");
             cacheService.set(rateLimitKey, "1", SEND_CAPTCHA_COOLDOWN_SECONDS, TimeUnit.SECONDS);
 
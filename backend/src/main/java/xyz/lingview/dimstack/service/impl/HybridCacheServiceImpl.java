@@ -0,0 +1,276 @@
+package xyz.lingview.dimstack.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import xyz.lingview.dimstack.service.CacheService;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @Author: lingview
+ * @Date: 2026/10/17 21:40:12
+ * @Description: 二级缓存实现（Caffeine 本地 L1 + Redis L2），通过 Redis 发布订阅在节点间同步失效
+ * @Version: 1.0
+ */
+@Slf4j
+public class HybridCacheServiceImpl implements CacheService, MessageListener, DisposableBean {
+
+    public static final String INVALIDATION_CHANNEL = "dimstack:cache:invalidate";
+
+    private static final String KEY_MESSAGE = "K";
+    private static final String PREFIX_MESSAGE = "P";
+
+    private final RedisCacheServiceImpl redisCache;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final Cache<String, LocalEntry> localCache;
+    private final long localTtlNanos;
+    private final List<String> localKeyPrefixes;
+    private final List<String> localExcludePrefixes;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    /**
+     * 本地缓存条目，携带该条目在本地允许存活的截止时间
+     */
+    private record LocalEntry(Object value, long expireAtNanos) {
+    }
+
+    public HybridCacheServiceImpl(RedisCacheServiceImpl redisCache,
+                                  StringRedisTemplate stringRedisTemplate,
+                                  long maximumSize,
+                                  long localTtlSeconds,
+                                  List<String> localKeyPrefixes,
+                                  List<String> localExcludePrefixes) {
+        this.redisCache = redisCache;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.localTtlNanos = TimeUnit.SECONDS.toNanos(localTtlSeconds);
+        this.localKeyPrefixes = List.copyOf(localKeyPrefixes);
+        this.localExcludePrefixes = List.copyOf(localExcludePrefixes);
+        this.localCache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new Expiry<String, LocalEntry>() {
+                    @Override
+                    public long expireAfterCreate(String key, LocalEntry entry, long currentTime) {
+                        return Math.max(0L, entry.expireAtNanos() - currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, LocalEntry entry, long currentTime, long currentDuration) {
+                        return Math.max(0L, entry.expireAtNanos() - currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, LocalEntry entry, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+
+        this.listenerContainer = new RedisMessageListenerContainer();
+        this.listenerContainer.setConnectionFactory(stringRedisTemplate.getConnectionFactory());
+
+        log.info("二级缓存已启用，本地容量: {}，本地TTL: {}s，本地缓存前缀: {}，排除前缀: {}",
+                maximumSize, localTtlSeconds, this.localKeyPrefixes, this.localExcludePrefixes);
+    }
+
+    /**
+     * 对象构造完成后再订阅失效频道，避免监听器在构造期间拿到未初始化完的实例
+     */
+    @PostConstruct
+    public void subscribeInvalidation() {
+        listenerContainer.addMessageListener(this, new ChannelTopic(INVALIDATION_CHANNEL));
+        listenerContainer.afterPropertiesSet();
+        listenerContainer.start();
+    }
+
+    @Override
+    public void set(String key, Object value) {
+        redisCache.set(key, value);
+        publishKeyInvalidation(key);
+        putLocal(key, value, localTtlNanos);
+    }
+
+    @Override
+    public void set(String key, Object value, long timeout, TimeUnit unit) {
+        redisCache.set(key, value, timeout, unit);
+        publishKeyInvalidation(key);
+        putLocal(key, value, Math.min(localTtlNanos, unit.toNanos(timeout)));
+    }
+
+    @Override
+    public <T> T get(String key, Class<T> type) {
+        // 计数器类数值会被 increment 直接修改，不进入本地缓存
+        if (!isLocallyCacheable(key) || Number.class.isAssignableFrom(type)) {
+            return redisCache.get(key, type);
+        }
+
+        LocalEntry entry = localCache.getIfPresent(key);
+        if (entry != null) {
+            try {
+                return type.cast(entry.value());
+            } catch (ClassCastException e) {
+                localCache.invalidate(key);
+            }
+        }
+
+        RedisCacheServiceImpl.ValueWithTtl<T> loaded = redisCache.getWithTtl(key, type);
+        if (loaded == null || loaded.value() == null) {
+            return null;
+        }
+        long ttlNanos = loaded.ttlMillis() > 0
+                ? Math.min(localTtlNanos, TimeUnit.MILLISECONDS.toNanos(loaded.ttlMillis()))
+                : localTtlNanos;
+        putLocal(key, loaded.value(), ttlNanos);
+        return loaded.value();
+    }
+
+    @Override
+    public void delete(String key) {
+        redisCache.delete(key);
+        localCache.invalidate(key);
+        publishKeyInvalidation(key);
+    }
+
+    @Override
+    public long deleteByPrefix(String prefix) {
+        long removed = redisCache.deleteByPrefix(prefix);
+        evictLocalByPrefix(prefix);
+        publishInvalidation(PREFIX_MESSAGE, prefix);
+        return removed;
+    }
+
+    @Override
+    public void addToSet(String key, Object value) {
+        redisCache.addToSet(key, value);
+    }
+
+    @Override
+    public void removeFromSet(String key, Object value) {
+        redisCache.removeFromSet(key, value);
+    }
+
+    @Override
+    public boolean isMemberOfSet(String key, Object value) {
+        return redisCache.isMemberOfSet(key, value);
+    }
+
+    @Override
+    public void deleteSet(String key) {
+        redisCache.deleteSet(key);
+    }
+
+    @Override
+    public <T> Set<T> getSetMembers(String key, Class<T> type) {
+        return redisCache.getSetMembers(key, type);
+    }
+
+    @Override
+    public long incrementAndGet(String key) {
+        return redisCache.incrementAndGet(key);
+    }
+
+    @Override
+    public long incrementAndGet(String key, long delta) {
+        return redisCache.incrementAndGet(key, delta);
+    }
+
+    @Override
+    public long decrementAndGet(String key) {
+        return redisCache.decrementAndGet(key);
+    }
+
+    @Override
+    public long getAndIncrement(String key) {
+        return redisCache.getAndIncrement(key);
+    }
+
+    @Override
+    public long getAndDecrement(String key) {
+        return redisCache.getAndDecrement(key);
+    }
+
+    @Override
+    public void incrementHashFields(String key, Map<String, Long> deltas) {
+        redisCache.incrementHashFields(key, deltas);
+    }
+
+    @Override
+    public Map<String, Long> drainHash(String key) {
+        return redisCache.drainHash(key);
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        // 消息格式: <类型>|<节点ID>|<键或前缀>
+        String[] parts = body.split("\\|", 3);
+        if (parts.length != 3 || nodeId.equals(parts[1])) {
+            return;
+        }
+        if (KEY_MESSAGE.equals(parts[0])) {
+            localCache.invalidate(parts[2]);
+        } else if (PREFIX_MESSAGE.equals(parts[0])) {
+            evictLocalByPrefix(parts[2]);
+        }
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        listenerContainer.destroy();
+    }
+
+    private boolean isLocallyCacheable(String key) {
+        for (String prefix : localExcludePrefixes) {
+            if (key.startsWith(prefix)) {
+                return false;
+            }
+        }
+        for (String prefix : localKeyPrefixes) {
+            if (key.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void putLocal(String key, Object value, long ttlNanos) {
+        if (value == null || ttlNanos <= 0 || !isLocallyCacheable(key) || value instanceof Number) {
+            localCache.invalidate(key);
+            return;
+        }
+        localCache.put(key, new LocalEntry(value, System.nanoTime() + ttlNanos));
+    }
+
+    private void evictLocalByPrefix(String prefix) {
+        localCache.asMap().keySet().removeIf(key -> key.startsWith(prefix));
+    }
+
+    // 不进入本地缓存的键在其他节点上也不会有本地副本，无需广播
+    private void publishKeyInvalidation(String key) {
+        if (isLocallyCacheable(key)) {
+            publishInvalidation(KEY_MESSAGE, key);
+        }
+    }
+
+    private void publishInvalidation(String type, String target) {
+        try {
+            stringRedisTemplate.convertAndSend(INVALIDATION_CHANNEL, type + "|" + nodeId + "|" + target);
+        } catch (Exception e) {
+            log.warn("发布缓存失效消息失败: {}", target, e);
+        }
+    }
+}
@@ -14,6 +14,16 @@ import xyz.lingview.dimstack.service.LlmConfigService;
 import xyz.lingview.dimstack.service.LlmPromptConfigService;
 import xyz.lingview.dimstack.service.SiteConfigService;
 import xyz.lingview.dimstack.util.LargeLanguageModelsUtil;
+import xyz.lingview.dimstack.util.MetricsUtil;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 
 /**
  * @Author: lingview
@@ -39,6 +49,13 @@ public class LLMServiceImpl implements LLMService {
 
     private static final ObjectMapper objectMapper = new ObjectMapper();
 
+    // 审核结果缓存：提示词、模型与内容都相同时直接复用结论
+    private static final String REVIEW_CACHE_PREFIX = "dimstack:llm:review:";
+    private static final long REVIEW_CACHE_HOURS = 24;
+
+    // 正在进行的审核，相同内容的并发请求共用一次大模型调用
+    private final ConcurrentHashMap<String, CompletableFuture<Boolean>> inFlightReviews = new ConcurrentHashMap<>();
+
     @Override
     public AiReviewResult reviewArticle(String articleContent) {
         try {
@@ -54,17 +71,7 @@ public class LLMServiceImpl implements LLMService {
                 return AiReviewResult.ERROR;
             }
 
-            String systemContent = promptConfig.getPrompt_content();
-
-            String response = LargeLanguageModelsUtil.callOpenAICompatibleAPI(
-                    llmConfig.getApi_key(),
-                    llmConfig.getApi_url(),
-                    llmConfig.getModel(),
-                    systemContent,
-                    articleContent
-            );
-
-            Boolean result = parseReviewResult(response);
+            Boolean result = moderate("article", llmConfig, promptConfig.getPrompt_content(), articleContent);
             if (result == null) {
                 log.warn("AI审核结果不明确，转为人工审核");
                 return AiReviewResult.ERROR;
@@ -90,15 +97,7 @@ public class LLMServiceImpl implements LLMService {
                 return "ERROR";
             }
 
-            String response = LargeLanguageModelsUtil.callOpenAICompatibleAPI(
-                    llmConfig.getApi_key(),
-                    llmConfig.getApi_url(),
-                    llmConfig.getModel(),
-                    promptConfig.getPrompt_content(),
-                    commentContent
-            );
-
-            Boolean result = parseReviewResult(response);
+            Boolean result = moderate("comment", llmConfig, promptConfig.getPrompt_content(), commentContent);
             if (result == null) return "ERROR";
             return result ? "PASS" : "REJECT";
         } catch (Exception e) {
@@ -106,6 +105,86 @@ public class LLMServiceImpl implements LLMService {
             return "ERROR";
         }
     }
+
+    /**
+     * 调用大模型审核内容，先查结果缓存，相同内容正在审核时等待同一次调用的结果
+     *
+     * @return true 合规，false 违规，null 结果不明确（不缓存）
+     */
+    private Boolean moderate(String kind, LlmConfig llmConfig, String systemContent, String content) throws Exception {
+        String cacheKey = REVIEW_CACHE_PREFIX + kind + ":" + reviewHash(systemContent, llmConfig.getModel(), content);
+        Boolean cached = getCachedReview(cacheKey);
+        if (cached != null) {
+            MetricsUtil.increment("llm.review.cache.hit");
+            return cached;
+        }
+
+        CompletableFuture<Boolean> future = new CompletableFuture<>();
+        CompletableFuture<Boolean> existing = inFlightReviews.putIfAbsent(cacheKey, future);
+        if (existing != null) {
+            MetricsUtil.increment("llm.review.coalesced");
+            try {
+                return existing.get();
+            } catch (ExecutionException e) {
+                throw e.getCause() instanceof Exception cause ? cause : e;
+            }
+        }
+
+        try {
+            // 抢到调用权前可能刚有相同请求完成并写入缓存
+            Boolean result = getCachedReview(cacheKey);
+            if (result == null) {
+                MetricsUtil.increment("llm.review.cache.miss");
+                String response = LargeLanguageModelsUtil.callOpenAICompatibleAPI(
+                        llmConfig.getApi_key(),
+                        llmConfig.getApi_url(),
+                        llmConfig.getModel(),
+                        systemContent,
+                        content
+                );
+                result = parseReviewResult(response);
+                if (result != null) {
+                    cacheService.set(cacheKey, result ? "PASS" : "REJECT", REVIEW_CACHE_HOURS, TimeUnit.HOURS);
+                }
+            }
+            future.complete(result);
+            return result;
+        } catch (Exception e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlightReviews.remove(cacheKey, future);
+        }
+    }
+
+    private Boolean getCachedReview(String cacheKey) {
+        try {
+            String cached = cacheService.get(cacheKey, String.class);
+            return cached == null ? null : "PASS".equals(cached);
+        } catch (Exception e) {
+            log.warn("读取审核结果缓存失败: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 提示词变更或切换模型后哈希随之变化，旧结论不再命中
+     */
+    private static String reviewHash(String systemContent, String model, String content) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            // 各部分带长度前缀，避免拼接边界不同的输入得到相同的哈希
+            for (String part : new String[]{systemContent, model, content}) {
+                byte[] bytes = (part == null ? "" : part).getBytes(StandardCharsets.UTF_8);
+                digest.update((bytes.length + ":").getBytes(StandardCharsets.UTF_8));
+                digest.update(bytes);
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 算法不可用", e);
+        }
+    }
+
     private Boolean parseReviewResult(String response) {
         try {
             JsonNode rootNode = objectMapper.readTree(response);
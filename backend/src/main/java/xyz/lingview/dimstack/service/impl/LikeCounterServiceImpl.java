@@ -0,0 +1,147 @@
+package xyz.lingview.dimstack.service.impl;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import xyz.lingview.dimstack.mapper.ArticleMapper;
+import xyz.lingview.dimstack.mapper.CommentMapper;
+import xyz.lingview.dimstack.service.CacheService;
+import xyz.lingview.dimstack.service.LikeCounterService;
+import xyz.lingview.dimstack.util.MetricsUtil;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * @Author: lingview
+ * @Date: 2026/10/18 19:12:08
+ * @Description: 点赞数写回：请求线程只合并本地增量，定时任务汇总到共享哈希后批量写库，与浏览量同步方式一致
+ * @Version: 1.0
+ */
+@Slf4j
+@Service
+public class LikeCounterServiceImpl implements LikeCounterService {
+
+    private static final int DB_BATCH_SIZE = 500;
+
+    // Redis 模式下各节点共享的待落库增量哈希：id -> 增量
+    private static final Map<Target, String> PENDING_HASH_KEYS = Map.of(
+            Target.ARTICLE, "dimstack:likes:article:pending",
+            Target.COMMENT, "dimstack:likes:comment:pending");
+
+    @Autowired
+    private ArticleMapper articleMapper;
+
+    @Autowired
+    private CommentMapper commentMapper;
+
+    @Autowired
+    private CacheService cacheService;
+
+    private final Map<Target, ConcurrentHashMap<String, Long>> pendingDeltas = new EnumMap<>(Target.class);
+
+    public LikeCounterServiceImpl() {
+        for (Target target : Target.values()) {
+            pendingDeltas.put(target, new ConcurrentHashMap<>());
+        }
+    }
+
+    @PostConstruct
+    public void init() {
+        MetricsUtil.gauge("likes.pending", () ->
+                pendingDeltas.values().stream().mapToInt(Map::size).sum());
+    }
+
+    @Override
+    public void add(Target target, String id, long delta) {
+        if (delta == 0) {
+            return;
+        }
+        // merge 对单个键是原子的，增减相互抵消为 0 时移除
+        pendingDeltas.get(target).merge(id, delta, (a, b) -> a + b == 0 ? null : a + b);
+    }
+
+    @Override
+    public long pending(Target target, String id) {
+        return pendingDeltas.get(target).getOrDefault(id, 0L);
+    }
+
+    @Scheduled(fixedDelay = 5 * 1000)
+    public void flushPendingLikes() {
+        for (Target target : Target.values()) {
+            flush(target);
+        }
+    }
+
+    @PreDestroy
+    public void destroy() {
+        flushPendingLikes();
+    }
+
+    private synchronized void flush(Target target) {
+        long start = System.nanoTime();
+        String hashKey = PENDING_HASH_KEYS.get(target);
+        try {
+            ConcurrentHashMap<String, Long> local = pendingDeltas.get(target);
+            Map<String, Long> deltas = new HashMap<>();
+            for (String id : new ArrayList<>(local.keySet())) {
+                // remove 返回值与并发的 merge 互斥，取走的增量不会重复也不会丢失
+                Long delta = local.remove(id);
+                if (delta != null && delta != 0) {
+                    deltas.put(id, delta);
+                }
+            }
+            if (!deltas.isEmpty()) {
+                try {
+                    cacheService.incrementHashFields(hashKey, deltas);
+                } catch (Exception e) {
+                    // 汇总失败时把增量合并回本地，下个周期重试
+                    deltas.forEach((id, delta) -> add(target, id, delta));
+                    throw e;
+                }
+            }
+
+            Map<String, Long> drained = cacheService.drainHash(hashKey);
+            if (drained.isEmpty()) {
+                return;
+            }
+            Map<String, Long> batch = new HashMap<>();
+            for (Map.Entry<String, Long> entry : drained.entrySet()) {
+                if (entry.getValue() == 0) {
+                    continue;
+                }
+                batch.put(entry.getKey(), entry.getValue());
+                if (batch.size() >= DB_BATCH_SIZE) {
+                    writeBatch(target, batch);
+                    batch = new HashMap<>();
+                }
+            }
+            if (!batch.isEmpty()) {
+                writeBatch(target, batch);
+            }
+            MetricsUtil.recordNanos("likes.sync.time", System.nanoTime() - start);
+        } catch (Exception e) {
+            log.error("同步点赞数失败: {}", target, e);
+        }
+    }
+
+    private void writeBatch(Target target, Map<String, Long> batch) {
+        try {
+            int updated = target == Target.ARTICLE
+                    ? articleMapper.batchIncrementLikeCount(batch)
+                    : commentMapper.batchIncrementCommentLikeCount(batch);
+            MetricsUtil.increment("likes.flushed", batch.size());
+            log.debug("点赞数同步完成: 类型={}, 数量={}, 更新行数={}", target, batch.size(), updated);
+        } catch (Exception e) {
+            // 写库失败时放回共享哈希，下个周期重试
+            log.error("批量写入点赞数失败，{} 条增量将在下次同步重试: {}", batch.size(), target, e);
+            cacheService.incrementHashFields(PENDING_HASH_KEYS.get(target), batch);
+        }
+    }
+}
@@ -0,0 +1,277 @@
+package xyz.lingview.dimstack.service.impl;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import xyz.lingview.dimstack.domain.LlmReviewTask;
+import xyz.lingview.dimstack.mapper.LlmReviewTaskMapper;
+import xyz.lingview.dimstack.service.LlmReviewQueueService;
+import xyz.lingview.dimstack.util.MetricsUtil;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @Author: lingview
+ * @Date: 2026/10/18 21:11:42
+ * @Description: 大模型审核队列：任务表持久化待审核对象，虚拟线程执行并由信号量限制并发，每个节点只领取能立即执行的任务，其余留在表中按序领取
+ * @Version: 1.0
+ */
+@Slf4j
+@Service
+public class LlmReviewQueueServiceImpl implements LlmReviewQueueService {
+
+    // 同时调用大模型的任务数
+    private static final int MAX_CONCURRENT_REVIEWS = 4;
+
+    // 领取后超过该时间仍未完成，视为处理节点已宕机，其他节点可重新领取
+    private static final int CLAIM_STALE_MINUTES = 15;
+
+    // 任务在执行中反复因宕机中断时，超过该次数不再自动审核，留给人工处理
+    private static final int MAX_ATTEMPTS = 3;
+
+    @Autowired
+    private LlmReviewTaskMapper llmReviewTaskMapper;
+
+    private final Map<Target, ReviewHandler> handlers = new ConcurrentHashMap<>();
+
+    // 并发由 reviewPermits 限制，线程池只负责按需创建命名线程
+    private final AtomicInteger workerCounter = new AtomicInteger();
+    private final ExecutorService workers = Executors.newCachedThreadPool(r -> {
+        Thread thread = new Thread(r, "llm-review-" + workerCounter.getAndIncrement());
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Semaphore reviewPermits = new Semaphore(MAX_CONCURRENT_REVIEWS);
+
+    private final Set<Long> claimedIds = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger runningCount = new AtomicInteger();
+    private final AtomicBoolean pollQueued = new AtomicBoolean();
+    private final Object claimLock = new Object();
+
+    // 上次领取时是否取满，取满说明表中可能还有积压
+    private volatile boolean backlogRemaining;
+    private volatile long pendingInTable;
+    private volatile boolean shuttingDown;
+    private volatile boolean forcedStop;
+
+    @PostConstruct
+    public void init() {
+        MetricsUtil.gauge("llm.review.queue.depth", () -> claimedIds.size() - runningCount.get());
+        MetricsUtil.gauge("llm.review.running", runningCount::get);
+        MetricsUtil.gauge("llm.review.pending", () -> pendingInTable);
+    }
+
+    @Override
+    public void registerHandler(Target target, ReviewHandler handler) {
+        handlers.put(target, handler);
+    }
+
+    @Override
+    public void submit(Target target, String targetId, String username) {
+        try {
+            llmReviewTaskMapper.insertOrMarkResubmitted(target.name(), targetId, username);
+            MetricsUtil.increment("llm.review.submitted");
+        } catch (Exception e) {
+            // 写入失败时内容保持待审核状态，由人工处理
+            log.error("大模型审核任务写入失败: target={}, id={}", target, targetId, e);
+            return;
+        }
+        triggerPoll();
+    }
+
+    /**
+     * 启动后继续执行上次未完成的审核
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumePendingReviews() {
+        triggerPoll();
+    }
+
+    @Scheduled(fixedDelay = 30 * 1000)
+    public void pollPendingReviews() {
+        try {
+            pendingInTable = llmReviewTaskMapper.countPending();
+        } catch (Exception e) {
+            log.debug("统计待执行的大模型审核任务失败: {}", e.getMessage());
+            return;
+        }
+        if (pendingInTable > claimedIds.size()) {
+            triggerPoll();
+        }
+    }
+
+    @PreDestroy
+    public void destroy() {
+        shuttingDown = true;
+        workers.shutdown();
+        try {
+            if (!workers.awaitTermination(10, TimeUnit.SECONDS)) {
+                forcedStop = true;
+                workers.shutdownNow();
+                workers.awaitTermination(5, TimeUnit.SECONDS);
+            }
+        } catch (InterruptedException e) {
+            forcedStop = true;
+            workers.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+
+        List<Long> unfinished = new ArrayList<>(claimedIds);
+        if (!unfinished.isEmpty()) {
+            try {
+                llmReviewTaskMapper.releaseClaims(unfinished);
+                log.info("已放回 {} 个未完成的大模型审核任务，重启后继续执行", unfinished.size());
+            } catch (Exception e) {
+                log.warn("放回未完成的大模型审核任务失败，将在领取超时后重新执行", e);
+            }
+        }
+    }
+
+    private void triggerPoll() {
+        // 已有排队中的领取任务时不再重复提交
+        if (shuttingDown || !pollQueued.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            workers.execute(() -> {
+                pollQueued.set(false);
+                claimAndDispatch();
+            });
+        } catch (RejectedExecutionException e) {
+            pollQueued.set(false);
+        }
+    }
+
+    private void claimAndDispatch() {
+        synchronized (claimLock) {
+            // 只领取能立即执行的数量，领取后排队等待会让任务超过领取超时而被其他节点重复领取
+            int capacity = MAX_CONCURRENT_REVIEWS - claimedIds.size();
+            if (capacity <= 0) {
+                backlogRemaining = true;
+                return;
+            }
+
+            List<LlmReviewTask> tasks;
+            try {
+                String claimToken = UUID.randomUUID().toString();
+                int claimed = llmReviewTaskMapper.claimPending(claimToken, capacity, CLAIM_STALE_MINUTES);
+                backlogRemaining = claimed >= capacity;
+                if (claimed == 0) {
+                    return;
+                }
+                tasks = llmReviewTaskMapper.selectClaimed(claimToken);
+            } catch (Exception e) {
+                log.error("领取大模型审核任务失败", e);
+                return;
+            }
+
+            for (LlmReviewTask task : tasks) {
+                dispatch(task);
+            }
+        }
+    }
+
+    private void dispatch(LlmReviewTask task) {
+        ReviewHandler handler = resolveHandler(task.getTarget_type());
+        if (handler == null || task.getAttempts() > MAX_ATTEMPTS) {
+            log.warn("大模型审核任务无法执行，保持待审核状态等待人工审核: type={}, id={}, attempts={}",
+                    task.getTarget_type(), task.getTarget_id(), task.getAttempts());
+            MetricsUtil.increment("llm.review.abandoned");
+            deleteTask(task);
+            return;
+        }
+        if (!claimedIds.add(task.getId())) {
+            return;
+        }
+
+        long enqueuedAt = System.nanoTime();
+        try {
+            workers.execute(() -> runTask(task, handler, enqueuedAt));
+        } catch (RejectedExecutionException e) {
+            // 停机中，任务留在表中由 destroy 放回
+        }
+    }
+
+    private void runTask(LlmReviewTask task, ReviewHandler handler, long enqueuedAt) {
+        try {
+            reviewPermits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+
+        MetricsUtil.recordNanos("llm.review.wait.time", System.nanoTime() - enqueuedAt);
+        runningCount.incrementAndGet();
+        long start = System.nanoTime();
+        try {
+            handler.review(task.getTarget_id(), task.getUsername());
+            MetricsUtil.increment("llm.review.completed");
+        } catch (Exception e) {
+            log.error("大模型审核任务执行异常: type={}, id={}", task.getTarget_type(), task.getTarget_id(), e);
+            MetricsUtil.increment("llm.review.failed");
+        } finally {
+            MetricsUtil.recordNanos("llm.review.time", System.nanoTime() - start);
+            runningCount.decrementAndGet();
+            reviewPermits.release();
+            // 停机时被强制打断的任务保留在表中，重启后重新审核
+            if (!forcedStop) {
+                finishTask(task);
+                claimedIds.remove(task.getId());
+            }
+        }
+
+        if (backlogRemaining) {
+            triggerPoll();
+        }
+    }
+
+    private ReviewHandler resolveHandler(String targetType) {
+        try {
+            return handlers.get(Target.valueOf(targetType));
+        } catch (IllegalArgumentException | NullPointerException e) {
+            return null;
+        }
+    }
+
+    private void deleteTask(LlmReviewTask task) {
+        try {
+            llmReviewTaskMapper.deleteClaimed(task.getId(), task.getClaim_token());
+        } catch (Exception e) {
+            log.warn("删除已完成的大模型审核任务失败: id={}", task.getId(), e);
+        }
+    }
+
+    /**
+     * 审核期间内容被再次提交时，本次结果针对的是旧内容，放回队列重新审核
+     */
+    private void finishTask(LlmReviewTask task) {
+        try {
+            if (llmReviewTaskMapper.deleteClaimed(task.getId(), task.getClaim_token()) > 0) {
+                return;
+            }
+            if (llmReviewTaskMapper.requeueResubmitted(task.getId(), task.getClaim_token()) > 0) {
+                MetricsUtil.increment("llm.review.resubmitted");
+                backlogRemaining = true;
+            }
+        } catch (Exception e) {
+            log.warn("完成大模型审核任务失败: id={}", task.getId(), e);
+        }
+    }
+}
@@ -73,6 +73,15 @@ public class LocalFileStorageImpl implements FileStorage {
         return Files.exists(resolvePath(objectKey));
     }
 
+    @Override
+    public long size(String objectKey) {
+        try {
+            return Files.size(resolvePath(objectKey));
+        } catch (IOException e) {
+            return -1L;
+        }
+    }
+
     @Override
     public void copy(String sourceKey, String destKey) {
         Path sourcePath = resolvePath(sourceKey);
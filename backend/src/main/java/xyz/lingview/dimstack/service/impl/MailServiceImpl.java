@@ -1,186 +1,443 @@
 package xyz.lingview.dimstack.service.impl;
 
+import jakarta.annotation.PreDestroy;
 import jakarta.mail.MessagingException;
+import jakarta.mail.Session;
+import jakarta.mail.Transport;
 import jakarta.mail.internet.MimeMessage;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.mail.javamail.JavaMailSenderImpl;
 import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
+import xyz.lingview.dimstack.domain.MailOutbox;
 import xyz.lingview.dimstack.domain.SiteConfig;
+import xyz.lingview.dimstack.mapper.MailOutboxMapper;
 import xyz.lingview.dimstack.mapper.SiteConfigMapper;
 import xyz.lingview.dimstack.service.MailService;
 import xyz.lingview.dimstack.service.SiteConfigService;
+import xyz.lingview.dimstack.util.MetricsUtil;
 
 import java.io.File;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.Properties;
-
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * @Author: lingview
+ * @Date: 2026/10/18 20:16:45
+ * @Description: 邮件发送：邮件先写入发件箱表，由单线程投递器复用同一个 SMTP 连接批量发送，失败按指数退避重试
+ * @Version: 1.0
+ */
 @Slf4j
 @Service
 public class MailServiceImpl implements MailService {
 
+    // 每次领取的邮件数，单轮投递最多领取的批次数
+    private static final int CLAIM_BATCH_SIZE = 50;
+    private static final int MAX_BATCHES_PER_RUN = 20;
+
+    private static final int MAX_ATTEMPTS = 8;
+    private static final Duration BASE_RETRY_DELAY = Duration.ofSeconds(30);
+    private static final Duration MAX_RETRY_DELAY = Duration.ofHours(1);
+
+    // 连接空闲超过该时间后主动断开，SMTP 服务器通常几分钟后也会断开空闲连接
+    private static final long TRANSPORT_IDLE_NANOS = TimeUnit.SECONDS.toNanos(60);
+
+    private static final int STALE_CLAIM_MINUTES = 10;
+    private static final int SENT_RETENTION_DAYS = 7;
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
     @Autowired
     private SiteConfigService siteConfigService;
 
     @Autowired
     private SiteConfigMapper siteConfigMapper;
+
+    @Autowired
+    private MailOutboxMapper mailOutboxMapper;
+
     /**
-     * 获取邮件发送器
-     * @return JavaMailSender
+     * 决定 SMTP 连接的配置，任一字段变化时重建连接
      */
-    private JavaMailSender getMailSender() {
-        SiteConfig config = siteConfigService.getSiteConfig();
-        // 从数据库查询邮件密码（因为内存模式进入邮箱配置页面会导致邮箱密码被污染）
-        String emailPassword = siteConfigMapper.getSiteConfig().getMail_password();
-        if (config == null ||
-                !StringUtils.hasText(config.getMail_username()) ||
-                !StringUtils.hasText(emailPassword) ||
-                !StringUtils.hasText(config.getSmtp_host())) {
-            log.warn("邮件配置不完整，无法发送邮件");
-            return null;
-        }
+    private record MailSettings(String host, int port, String username, String password,
+                                String protocol, boolean tls, boolean ssl, String from) {
+    }
 
-        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
-        mailSender.setHost(config.getSmtp_host());
-        mailSender.setPort(config.getSmtp_port() != null ? config.getSmtp_port() : 25);
-        mailSender.setUsername(config.getMail_username());
+    // 投递器线程独占 SMTP 连接，以下字段只在该线程中访问
+    private final ExecutorService dispatcher = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "mail-outbox");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean dispatchQueued = new AtomicBoolean();
 
-        mailSender.setPassword(emailPassword);
+    private MailSettings transportSettings;
+    private Session session;
+    private Transport transport;
+    private long transportLastUsed;
 
-        Properties props = mailSender.getJavaMailProperties();
-        props.put("mail.transport.protocol", config.getMail_protocol() != null ? config.getMail_protocol() : "smtp");
-        props.put("mail.smtp.auth", "true");
+    @Override
+    public void sendSimpleMail(String to, String subject, String content) {
+        enqueue(List.of(to), subject, content, false);
+    }
 
-        if (config.getMail_enable_tls() != null && config.getMail_enable_tls()) {
-            props.put("mail.smtp.starttls.enable", "true");
-        } else if (config.getMail_enable_ssl() != null && config.getMail_enable_ssl()) {
-            props.put("mail.smtp.ssl.enable", "true");
+    @Override
+    public void sendBulkSimpleMail(List<String> to, String subject, String content) {
+        enqueue(to, subject, content, false);
+    }
+
+    @Override
+    public void sendVerificationMail(String to, String subject, String content, Duration validity) {
+        if (!StringUtils.hasText(to)) {
+            return;
         }
+        sendDirect(to.trim(), subject, validity, (helper) -> helper.setText(content, false));
+    }
+
+    @Override
+    public void sendHtmlMail(String to, String subject, String content) throws MessagingException {
+        enqueue(List.of(to), subject, content, true);
+    }
 
-        props.put("mail.debug", "false");
+    @Override
+    public void sendAttachmentsMail(String to, String subject, String content, String filePath) throws MessagingException {
+        // 附件依赖本机文件，不进入发件箱，直接在投递器线程上发送
+        sendDirect(to, subject, null, (helper) -> {
+            helper.setText(content, true);
+            File file = new File(filePath);
+            if (file.exists()) {
+                helper.addAttachment(file.getName(), file);
+            }
+        });
+    }
 
-        return mailSender;
+    @Override
+    public void sendInlineResourceMail(String to, String subject, String content, String rscPath, String rscId) throws MessagingException {
+        sendDirect(to, subject, null, (helper) -> {
+            helper.setText(content, true);
+            File file = new File(rscPath);
+            if (file.exists()) {
+                helper.addInline(rscId, file);
+            }
+        });
     }
 
     @Override
-    public void sendSimpleMail(String to, String subject, String content) {
-        JavaMailSender mailSender = getMailSender();
-        if (mailSender == null) {
+    public void sendTemplateMail(String to, String subject, String templateName, Map<String, Object> model) throws MessagingException {
+        // 暂时用不到先不开发（
+        String content = "模板邮件内容";
+        sendHtmlMail(to, subject, content);
+    }
+
+    private void enqueue(List<String> to, String subject, String content, boolean html) {
+        List<String> recipients = new ArrayList<>();
+        for (String address : to) {
+            if (StringUtils.hasText(address) && !recipients.contains(address.trim())) {
+                recipients.add(address.trim());
+            }
+        }
+        if (recipients.isEmpty()) {
+            return;
+        }
+        // 未配置邮件时直接丢弃，不在发件箱中堆积注定失败的邮件
+        if (loadSettings() == null) {
             return;
         }
-
-        SiteConfig config = siteConfigService.getSiteConfig();
 
         try {
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setFrom(config.getMail_sender_email());
-            message.setTo(to);
-            message.setSubject(subject);
-            message.setText(content);
-
-            mailSender.send(message);
-            log.info("简单邮件发送成功: to={}, subject={}", to, subject);
+            MailOutbox mail = new MailOutbox();
+            mail.setRecipients(String.join(",", recipients));
+            mail.setSubject(subject);
+            mail.setContent(content);
+            mail.setHtml(html);
+            mailOutboxMapper.insert(mail);
+            MetricsUtil.increment("mail.enqueued", recipients.size());
+            log.info("邮件已加入发件箱: id={}, 收件人数={}, subject={}", mail.getId(), recipients.size(), subject);
         } catch (Exception e) {
-            log.error("发送简单邮件时发生异常: to={}, subject={}", to, subject, e);
+            log.error("邮件写入发件箱失败: to={}, subject={}", recipients, subject, e);
+            return;
         }
+        triggerDispatch();
     }
 
-    @Override
-    public void sendHtmlMail(String to, String subject, String content) throws MessagingException {
-        JavaMailSender mailSender = getMailSender();
-        if (mailSender == null) {
-            return;
+    /**
+     * 定时投递兜底：处理退避到期的重试、其他节点写入的邮件以及空闲连接回收
+     */
+    @Scheduled(fixedDelay = 15 * 1000)
+    public void scheduledDispatch() {
+        triggerDispatch();
+    }
+
+    @Scheduled(fixedDelay = 60 * 60 * 1000)
+    public void cleanupOutbox() {
+        try {
+            int released = mailOutboxMapper.releaseStale(STALE_CLAIM_MINUTES);
+            int deleted = mailOutboxMapper.deleteSentBefore(SENT_RETENTION_DAYS);
+            if (released > 0 || deleted > 0) {
+                log.info("发件箱清理完成: 重新放回待发送 {} 封，删除已发送 {} 封", released, deleted);
+            }
+        } catch (Exception e) {
+            log.error("清理发件箱失败", e);
         }
+    }
 
-        SiteConfig config = siteConfigService.getSiteConfig();
+    @PreDestroy
+    public void destroy() {
+        dispatcher.shutdown();
+        try {
+            if (!dispatcher.awaitTermination(10, TimeUnit.SECONDS)) {
+                dispatcher.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            dispatcher.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        // 未发送完的邮件留在发件箱中，下次启动后继续投递
+        closeTransport();
+    }
 
+    private void triggerDispatch() {
+        // 已有排队中的投递任务时不再重复提交
+        if (!dispatchQueued.compareAndSet(false, true)) {
+            return;
+        }
         try {
-            MimeMessage message = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(message, true);
+            dispatcher.execute(() -> {
+                dispatchQueued.set(false);
+                dispatchOutbox();
+            });
+        } catch (RejectedExecutionException e) {
+            dispatchQueued.set(false);
+        }
+    }
 
-            helper.setFrom(config.getMail_sender_email());
-            helper.setTo(to);
-            helper.setSubject(subject);
-            helper.setText(content, true);
+    private void dispatchOutbox() {
+        try {
+            for (int batch = 0; batch < MAX_BATCHES_PER_RUN; batch++) {
+                String claimToken = UUID.randomUUID().toString();
+                if (mailOutboxMapper.claimDue(claimToken, CLAIM_BATCH_SIZE) == 0) {
+                    break;
+                }
+                List<MailOutbox> mails = mailOutboxMapper.selectClaimed(claimToken);
+                if (mails.isEmpty()) {
+                    break;
+                }
+                deliver(mails);
+            }
+        } catch (Exception e) {
+            log.error("投递发件箱邮件失败", e);
+        }
 
-            mailSender.send(message);
-            log.info("HTML邮件发送成功: to={}, subject={}", to, subject);
-        } catch (MessagingException e) {
-            log.error("发送HTML邮件时发生异常: to={}, subject={}", to, subject, e);
-            throw e;
+        if (transport != null && System.nanoTime() - transportLastUsed > TRANSPORT_IDLE_NANOS) {
+            closeTransport();
         }
     }
 
-    @Override
-    public void sendAttachmentsMail(String to, String subject, String content, String filePath) throws MessagingException {
-        JavaMailSender mailSender = getMailSender();
-        if (mailSender == null) {
+    private void deliver(List<MailOutbox> mails) {
+        MailSettings settings = loadSettings();
+        if (settings == null) {
+            for (MailOutbox mail : mails) {
+                scheduleRetry(mail, mail.getRecipients(), "邮件配置不完整");
+            }
             return;
         }
 
-        SiteConfig config = siteConfigService.getSiteConfig();
-
         try {
-            MimeMessage message = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(message, true);
-
-            helper.setFrom(config.getMail_sender_email());
-            helper.setTo(to);
-            helper.setSubject(subject);
-            helper.setText(content, true);
+            ensureConnected(settings);
+        } catch (MessagingException e) {
+            log.error("连接SMTP服务器失败: host={}, port={}", settings.host(), settings.port(), e);
+            closeTransport();
+            for (MailOutbox mail : mails) {
+                scheduleRetry(mail, mail.getRecipients(), "连接SMTP服务器失败: " + e.getMessage());
+            }
+            return;
+        }
 
-            File file = new File(filePath);
-            if (file.exists()) {
-                helper.addAttachment(file.getName(), file);
+        // 同一批邮件在同一个 SMTP 会话中发送，每位收件人单独一封，互相看不到地址
+        for (MailOutbox mail : mails) {
+            List<String> failedRecipients = new ArrayList<>();
+            String lastError = null;
+            for (String recipient : mail.getRecipients().split(",")) {
+                long start = System.nanoTime();
+                try {
+                    if (!transport.isConnected()) {
+                        ensureConnected(settings);
+                    }
+                    MimeMessage message = new MimeMessage(session);
+                    MimeMessageHelper helper = new MimeMessageHelper(message, "UTF-8");
+                    helper.setFrom(settings.from());
+                    helper.setTo(recipient);
+                    helper.setSubject(mail.getSubject());
+                    helper.setText(mail.getContent(), mail.isHtml());
+                    message.saveChanges();
+                    transport.sendMessage(message, message.getAllRecipients());
+                    transportLastUsed = System.nanoTime();
+                    MetricsUtil.recordNanos("mail.send.time", System.nanoTime() - start);
+                    MetricsUtil.increment("mail.sent");
+                } catch (Exception e) {
+                    log.warn("邮件发送失败: id={}, to={}, subject={}", mail.getId(), recipient, mail.getSubject(), e);
+                    MetricsUtil.increment("mail.send.failed");
+                    failedRecipients.add(recipient);
+                    lastError = e.getMessage();
+                }
             }
 
-            mailSender.send(message);
-            log.info("带附件邮件发送成功: to={}, subject={}", to, subject);
-        } catch (MessagingException e) {
-            log.error("发送带附件邮件时发生异常: to={}, subject={}", to, subject, e);
-            throw e;
+            if (failedRecipients.isEmpty()) {
+                mailOutboxMapper.markSent(mail.getId());
+                log.info("邮件发送成功: id={}, to={}, subject={}", mail.getId(), mail.getRecipients(), mail.getSubject());
+            } else {
+                // 只对失败的收件人重试，已送达的不重复发送
+                scheduleRetry(mail, String.join(",", failedRecipients), lastError);
+            }
         }
     }
 
-    @Override
-    public void sendInlineResourceMail(String to, String subject, String content, String rscPath, String rscId) throws MessagingException {
-        JavaMailSender mailSender = getMailSender();
-        if (mailSender == null) {
+    private void scheduleRetry(MailOutbox mail, String recipients, String error) {
+        int attempts = mail.getAttempts() + 1;
+        String lastError = error != null && error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error;
+        if (attempts >= MAX_ATTEMPTS) {
+            mailOutboxMapper.markFailed(mail.getId(), recipients, attempts, lastError);
+            MetricsUtil.increment("mail.dead");
+            log.error("邮件重试 {} 次后仍发送失败，不再重试: id={}, to={}", attempts, mail.getId(), recipients);
             return;
         }
+        Duration delay = BASE_RETRY_DELAY.multipliedBy(1L << Math.min(attempts - 1, 16));
+        if (delay.compareTo(MAX_RETRY_DELAY) > 0) {
+            delay = MAX_RETRY_DELAY;
+        }
+        mailOutboxMapper.markRetry(mail.getId(), recipients, attempts, LocalDateTime.now().plus(delay), lastError);
+        log.info("邮件将在 {} 秒后重试: id={}, 第 {} 次失败", delay.toSeconds(), mail.getId(), attempts);
+    }
 
+    /**
+     * 读取当前邮件配置，每批邮件读取一次
+     */
+    private MailSettings loadSettings() {
         SiteConfig config = siteConfigService.getSiteConfig();
+        // 从数据库查询邮件密码（因为内存模式进入邮箱配置页面会导致邮箱密码被污染）
+        SiteConfig dbConfig = siteConfigMapper.getSiteConfig();
+        String emailPassword = dbConfig != null ? dbConfig.getMail_password() : null;
+        if (config == null ||
+                !StringUtils.hasText(config.getMail_username()) ||
+                !StringUtils.hasText(emailPassword) ||
+                !StringUtils.hasText(config.getSmtp_host())) {
+            log.warn("邮件配置不完整，无法发送邮件");
+            return null;
+        }
+        return new MailSettings(
+                config.getSmtp_host(),
+                config.getSmtp_port() != null ? config.getSmtp_port() : 25,
+                config.getMail_username(),
+                emailPassword,
+                config.getMail_protocol() != null ? config.getMail_protocol() : "smtp",
+                config.getMail_enable_tls() != null && config.getMail_enable_tls(),
+                config.getMail_enable_ssl() != null && config.getMail_enable_ssl(),
+                config.getMail_sender_email());
+    }
 
-        try {
-            MimeMessage message = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(message, true);
-
-            helper.setFrom(config.getMail_sender_email());
-            helper.setTo(to);
-            helper.setSubject(subject);
-            helper.setText(content, true);
-
-            File file = new File(rscPath);
-            if (file.exists()) {
-                helper.addInline(rscId, file);
+    /**
+     * 复用已建立的 SMTP 连接，配置变化或连接断开时重建
+     */
+    private void ensureConnected(MailSettings settings) throws MessagingException {
+        if (!settings.equals(transportSettings)) {
+            closeTransport();
+            Properties props = new Properties();
+            props.put("mail.transport.protocol", settings.protocol());
+            props.put("mail.smtp.auth", "true");
+            if (settings.tls()) {
+                props.put("mail.smtp.starttls.enable", "true");
+            } else if (settings.ssl()) {
+                props.put("mail.smtp.ssl.enable", "true");
             }
+            props.put("mail.smtp.connectiontimeout", "10000");
+            props.put("mail.smtp.timeout", "30000");
+            props.put("mail.smtp.writetimeout", "30000");
+            props.put("mail.debug", "false");
+
+            session = Session.getInstance(props);
+            transport = session.getTransport(settings.protocol());
+            transportSettings = settings;
+            log.info("已按新的邮件配置创建SMTP连接: host={}, port={}", settings.host(), settings.port());
+        }
+        // SMTP 的 isConnected 会发送 NOOP 探测连接是否仍然可用
+        if (!transport.isConnected()) {
+            transport.connect(settings.host(), settings.port(), settings.username(), settings.password());
+            transportLastUsed = System.nanoTime();
+            MetricsUtil.increment("mail.transport.connect");
+        }
+    }
 
-            mailSender.send(message);
-            log.info("带静态资源邮件发送成功: to={}, subject={}", to, subject);
-        } catch (MessagingException e) {
-            log.error("发送带静态资源邮件时发生异常: to={}, subject={}", to, subject, e);
-            throw e;
+    private void closeTransport() {
+        if (transport != null) {
+            try {
+                transport.close();
+            } catch (Exception e) {
+                log.debug("关闭SMTP连接失败", e);
+            }
         }
+        transport = null;
+        session = null;
+        transportSettings = null;
     }
 
-    @Override
-    public void sendTemplateMail(String to, String subject, String templateName, Map<String, Object> model) throws MessagingException {
-        // 暂时用不到先不开发（
-        String content = "模板邮件内容";
-        sendHtmlMail(to, subject, content);
+    @FunctionalInterface
+    private interface MessageContent {
+        void apply(MimeMessageHelper helper) throws MessagingException;
+    }
+
+    /**
+     * 不经过发件箱，在投递器线程上发送一封邮件，只尝试一次，调用方不等待结果
+     *
+     * @param validity 邮件内容的有效期，排队超过该时间后不再发送；为 null 时不限
+     */
+    private void sendDirect(String to, String subject, Duration validity, MessageContent content) {
+        long deadline = validity != null ? System.nanoTime() + validity.toNanos() : 0L;
+        try {
+            dispatcher.execute(() -> {
+                if (validity != null && System.nanoTime() - deadline > 0) {
+                    MetricsUtil.increment("mail.expired");
+                    log.warn("邮件已超过有效期，放弃发送: to={}, subject={}", to, subject);
+                    return;
+                }
+                MailSettings settings = loadSettings();
+                if (settings == null) {
+                    return;
+                }
+                long start = System.nanoTime();
+                try {
+                    ensureConnected(settings);
+                    MimeMessage message = new MimeMessage(session);
+                    MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+                    helper.setFrom(settings.from());
+                    helper.setTo(to);
+                    helper.setSubject(subject);
+                    content.apply(helper);
+                    message.saveChanges();
+                    transport.sendMessage(message, message.getAllRecipients());
+                    transportLastUsed = System.nanoTime();
+                    MetricsUtil.recordNanos("mail.send.time", System.nanoTime() - start);
+                    MetricsUtil.increment("mail.sent");
+                    log.info("邮件发送成功: to={}, subject={}", to, subject);
+                } catch (Exception e) {
+                    MetricsUtil.increment("mail.send.failed");
+                    log.error("发送邮件时发生异常: to={}, subject={}", to, subject, e);
+                    closeTransport();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            log.warn("邮件投递器已停止，邮件未发送: to={}, subject={}", to, subject);
+        }
     }
-}
\ No newline at end of file
+}
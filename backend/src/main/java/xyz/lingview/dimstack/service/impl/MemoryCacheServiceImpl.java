@@ -2,12 +2,24 @@ package xyz.lingview.dimstack.service.impl;
 
 import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
-import org.springframework.stereotype.Service;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import lombok.extern.slf4j.Slf4j;
 import xyz.lingview.dimstack.service.CacheService;
+import xyz.lingview.dimstack.util.MetricsUtil;
 
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.NavigableSet;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 
@@ -18,101 +30,180 @@ import java.util.concurrent.atomic.AtomicLong;
  * @Version: 1.0
  */
 //@Service
+@Slf4j
 public class MemoryCacheServiceImpl implements CacheService {
-    private final Cache<String, Object> cache;
-    private final Cache<String, AtomicLong> atomicCounters;
-    
+
+    public static final long DEFAULT_MAXIMUM_WEIGHT_BYTES = 64L * 1024 * 1024;
+    public static final Set<String> DEFAULT_PINNED_KEYS = Set.of("dimstack:site_config", "dimstack:llm_config");
+
+    private static final long NO_EXPIRE = Long.MAX_VALUE;
+    private static final int OBJECT_OVERHEAD = 16;
+    private static final int MAX_ESTIMATE_DEPTH = 3;
+    private static final Map<Class<?>, List<Field>> FIELD_CACHE = new ConcurrentHashMap<>();
+
+    private final Cache<String, CacheEntry> cache;
+    private final Set<String> pinnedKeys;
+    // 有序键索引，按前缀删除时只遍历命中的区间
+    // 写入时先写缓存再加索引，移除时在条目锁内删索引，索引只可能多出已失效的键，不会遗漏存活的键
+    private final NavigableSet<String> keyIndex = new ConcurrentSkipListSet<>();
+
+    /**
+     * 缓存条目，expireAtNanos 为该条目自身的过期时间点（System.nanoTime 基准）
+     * 计数器以 AtomicLong 形式保存在 value 中，只在 increment 时转换，set 写入的值原样保存
+     */
+    private record CacheEntry(Object value, long expireAtNanos) {
+    }
+
+    /**
+     * 计数哈希，作为待落库增量的缓冲，不参与容量淘汰
+     */
+    private static final class CounterHash extends ConcurrentHashMap<String, Long> {
+        private static final long serialVersionUID = 1L;
+    }
+
     public MemoryCacheServiceImpl() {
+        this(DEFAULT_MAXIMUM_WEIGHT_BYTES, DEFAULT_PINNED_KEYS);
+    }
+
+    public MemoryCacheServiceImpl(long maximumWeightBytes, Set<String> pinnedKeys) {
+        this.pinnedKeys = Set.copyOf(pinnedKeys);
         this.cache = Caffeine.newBuilder()
-                .maximumSize(1000)
-                .expireAfterWrite(1, TimeUnit.HOURS)
-                .build();
-                
-        this.atomicCounters = Caffeine.newBuilder()
-                .maximumSize(1000)
-                .expireAfterWrite(1, TimeUnit.HOURS)
+                .maximumWeight(maximumWeightBytes)
+                // 权重为 0 的条目不参与容量淘汰，用于固定关键键
+                .weigher((String key, CacheEntry entry) ->
+                        this.pinnedKeys.contains(key) || entry.value() instanceof CounterHash
+                                ? 0 : estimateWeight(key, entry.value()))
+                // 过期与容量淘汰在条目锁内同步回调，保证索引与缓存一致
+                .evictionListener((String key, CacheEntry entry, RemovalCause cause) -> {
+                    if (key != null) {
+                        keyIndex.remove(key);
+                    }
+                })
+                .expireAfter(new Expiry<String, CacheEntry>() {
+                    @Override
+                    public long expireAfterCreate(String key, CacheEntry entry, long currentTime) {
+                        return remaining(entry, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, CacheEntry entry, long currentTime, long currentDuration) {
+                        return remaining(entry, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, CacheEntry entry, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
                 .build();
+        log.info("内存缓存容量上限: {} bytes，固定键: {}", maximumWeightBytes, this.pinnedKeys);
     }
 
     @Override
     public void set(String key, Object value) {
-        cache.put(key, value);
+        put(key, value, NO_EXPIRE);
     }
 
     @Override
     public void set(String key, Object value, long timeout, TimeUnit unit) {
-        cache.put(key, value);
-        if (value instanceof Number) {
-            atomicCounters.get(key, k -> new AtomicLong()).set(((Number) value).longValue());
+        if (timeout <= 0) {
+            put(key, value, NO_EXPIRE);
+            return;
         }
+        put(key, value, System.nanoTime() + unit.toNanos(timeout));
     }
 
     @SuppressWarnings("unchecked")
     @Override
     public <T> T get(String key, Class<T> type) {
-        Object value = cache.getIfPresent(key);
-        if (type == Long.class && atomicCounters.getIfPresent(key) != null) {
-            return (T) Long.valueOf(atomicCounters.getIfPresent(key).get());
+        CacheEntry entry = cache.getIfPresent(key);
+        if (entry == null || entry.value() == null) {
+            return null;
+        }
+        Object value = entry.value();
+        if (value instanceof AtomicLong counter) {
+            return (T) convertCounter(counter.get(), type);
+        }
+        // 与 Redis 反序列化一致，整数可以按 Long 或 Integer 读取
+        if (isIntegral(value) && !type.isInstance(value) && (type == Long.class || type == Integer.class)) {
+            return (T) convertCounter(((Number) value).longValue(), type);
+        }
+        if (type == Long.class && value instanceof String str) {
+            try {
+                return (T) Long.valueOf(str.trim());
+            } catch (NumberFormatException e) {
+                return null;
+            }
         }
         return (T) value;
     }
 
     @Override
     public void delete(String key) {
-        cache.invalidate(key);
-        atomicCounters.invalidate(key);
+        remove(key);
     }
 
     @Override
-    public void deleteByPrefix(String prefix) {
+    public long deleteByPrefix(String prefix) {
+        long start = System.nanoTime();
+        long removed = 0L;
         try {
-            cache.asMap().keySet().stream()
-                .filter(key -> key.startsWith(prefix))
-                .forEach(key -> {
-                    cache.invalidate(key);
-                    atomicCounters.invalidate(key);
-                });
+            // 前缀区间 [prefix, prefix + '\uffff')
+            for (String key : keyIndex.subSet(prefix, true, prefix + Character.MAX_VALUE, false)) {
+                if (remove(key)) {
+                    removed++;
+                }
+            }
         } catch (Exception e) {
-
+            log.error("按前缀清除缓存失败: {}", prefix, e);
+        } finally {
+            MetricsUtil.increment("cache.prefix_delete.keys", removed);
+            MetricsUtil.recordNanos("cache.prefix_delete.time", System.nanoTime() - start);
         }
+        return removed;
     }
 
     @Override
     public void addToSet(String key, Object value) {
-        @SuppressWarnings("unchecked")
-        Set<Object> set = (Set<Object>) cache.get(key, k -> ConcurrentHashMap.newKeySet());
-        set.add(value);
+        // 通过 compute 写回，使集合增长后重新计算权重
+        cache.asMap().compute(key, (k, existing) -> {
+            CacheEntry entry = existing != null && existing.value() instanceof Set
+                    ? existing
+                    : new CacheEntry(ConcurrentHashMap.newKeySet(), NO_EXPIRE);
+            setOf(entry).add(value);
+            return entry;
+        });
+        keyIndex.add(key);
     }
 
     @Override
     public void removeFromSet(String key, Object value) {
-        @SuppressWarnings("unchecked")
-        Set<Object> set = (Set<Object>) cache.getIfPresent(key);
-        if (set != null) {
-            set.remove(value);
-        }
+        cache.asMap().computeIfPresent(key, (k, existing) -> {
+            if (existing.value() instanceof Set) {
+                setOf(existing).remove(value);
+            }
+            return existing;
+        });
     }
 
     @Override
     public boolean isMemberOfSet(String key, Object value) {
-        @SuppressWarnings("unchecked")
-        Set<Object> set = (Set<Object>) cache.getIfPresent(key);
-        return set != null && set.contains(value);
+        CacheEntry entry = cache.getIfPresent(key);
+        return entry != null && entry.value() instanceof Set && setOf(entry).contains(value);
     }
 
     @Override
     public void deleteSet(String key) {
-        cache.invalidate(key);
+        remove(key);
     }
 
     @Override
     public <T> Set<T> getSetMembers(String key, Class<T> type) {
-        @SuppressWarnings("unchecked")
-        Set<Object> set = (Set<Object>) cache.getIfPresent(key);
-        if (set == null) return new java.util.HashSet<>();
-        
-        Set<T> result = new java.util.HashSet<>();
-        for (Object member : set) {
+        CacheEntry entry = cache.getIfPresent(key);
+        if (entry == null || !(entry.value() instanceof Set)) return new HashSet<>();
+
+        Set<T> result = new HashSet<>();
+        for (Object member : setOf(entry)) {
             if (member != null) {
                 result.add(type.cast(member));
             }
@@ -122,26 +213,209 @@ public class MemoryCacheServiceImpl implements CacheService {
 
     @Override
     public long incrementAndGet(String key) {
-        return atomicCounters.get(key, k -> new AtomicLong()).incrementAndGet();
+        return counter(key).incrementAndGet();
     }
 
     @Override
     public long incrementAndGet(String key, long delta) {
-        return atomicCounters.get(key, k -> new AtomicLong()).addAndGet(delta);
+        return counter(key).addAndGet(delta);
     }
 
     @Override
     public long decrementAndGet(String key) {
-        return atomicCounters.get(key, k -> new AtomicLong()).decrementAndGet();
+        return counter(key).decrementAndGet();
     }
 
     @Override
     public long getAndIncrement(String key) {
-        return atomicCounters.get(key, k -> new AtomicLong()).getAndIncrement();
+        return counter(key).getAndIncrement();
     }
 
     @Override
     public long getAndDecrement(String key) {
-        return atomicCounters.get(key, k -> new AtomicLong()).getAndDecrement();
+        return counter(key).getAndDecrement();
+    }
+
+    @Override
+    public void incrementHashFields(String key, Map<String, Long> deltas) {
+        if (deltas.isEmpty()) return;
+        // 在条目锁内累加，与 drainHash 互斥，不会丢失增量
+        cache.asMap().compute(key, (k, existing) -> {
+            CacheEntry entry = existing != null && existing.value() instanceof CounterHash
+                    ? existing
+                    : new CacheEntry(new CounterHash(), NO_EXPIRE);
+            CounterHash hash = (CounterHash) entry.value();
+            deltas.forEach((field, delta) -> hash.merge(field, delta, Long::sum));
+            return entry;
+        });
+        keyIndex.add(key);
+    }
+
+    @Override
+    public Map<String, Long> drainHash(String key) {
+        Map<String, Long> result = new HashMap<>();
+        cache.asMap().computeIfPresent(key, (k, existing) -> {
+            if (existing.value() instanceof CounterHash hash) {
+                result.putAll(hash);
+            }
+            keyIndex.remove(k);
+            return null;
+        });
+        return result;
+    }
+
+    private void put(String key, Object value, long expireAtNanos) {
+        if (value == null) {
+            remove(key);
+            return;
+        }
+        cache.put(key, new CacheEntry(value, expireAtNanos));
+        keyIndex.add(key);
+    }
+
+    /**
+     * 在条目锁内同时移除缓存和索引，避免与并发写入交错导致索引遗漏存活的键
+     */
+    private boolean remove(String key) {
+        boolean[] removed = {false};
+        cache.asMap().compute(key, (k, existing) -> {
+            keyIndex.remove(k);
+            removed[0] = existing != null;
+            return null;
+        });
+        return removed[0];
+    }
+
+    /**
+     * 获取计数器，与 Redis INCR 一致：保留已有过期时间，整数与数字字符串会被转换为计数器
+     */
+    private AtomicLong counter(String key) {
+        CacheEntry entry = cache.getIfPresent(key);
+        if (entry != null && entry.value() instanceof AtomicLong counter) {
+            return counter;
+        }
+        CacheEntry updated = cache.asMap().compute(key, (k, existing) -> {
+            if (existing == null) {
+                return new CacheEntry(new AtomicLong(), NO_EXPIRE);
+            }
+            if (existing.value() instanceof AtomicLong) {
+                return existing;
+            }
+            long initial = 0L;
+            if (isIntegral(existing.value())) {
+                initial = ((Number) existing.value()).longValue();
+            } else if (existing.value() instanceof String str) {
+                try {
+                    initial = Long.parseLong(str.trim());
+                } catch (NumberFormatException ignored) {
+                }
+            }
+            return new CacheEntry(new AtomicLong(initial), existing.expireAtNanos());
+        });
+        keyIndex.add(key);
+        return (AtomicLong) updated.value();
+    }
+
+    private static Object convertCounter(long value, Class<?> type) {
+        if (type == String.class) {
+            return String.valueOf(value);
+        }
+        if (type == Integer.class) {
+            return (int) value;
+        }
+        return value;
+    }
+
+    private static boolean isIntegral(Object value) {
+        return value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Set<Object> setOf(CacheEntry entry) {
+        return (Set<Object>) entry.value();
+    }
+
+    private static long remaining(CacheEntry entry, long currentTime) {
+        if (entry.expireAtNanos() == NO_EXPIRE) {
+            return NO_EXPIRE;
+        }
+        return Math.max(0L, entry.expireAtNanos() - currentTime);
+    }
+
+    private static int estimateWeight(String key, Object value) {
+        long size = OBJECT_OVERHEAD + estimateSize(key, 0) + estimateSize(value, 0);
+        return (int) Math.min(Integer.MAX_VALUE, Math.max(1L, size));
+    }
+
+    /**
+     * 粗略估算对象占用的内存字节数，只用于容量控制
+     */
+    private static long estimateSize(Object value, int depth) {
+        if (value == null) {
+            return 0L;
+        }
+        if (value instanceof CharSequence cs) {
+            return 40L + 2L * cs.length();
+        }
+        if (value instanceof Number || value instanceof Boolean || value instanceof Character
+                || value instanceof Enum<?> || value instanceof AtomicLong) {
+            return OBJECT_OVERHEAD + 8L;
+        }
+        if (value instanceof byte[] bytes) {
+            return OBJECT_OVERHEAD + bytes.length;
+        }
+        if (depth >= MAX_ESTIMATE_DEPTH) {
+            return 64L;
+        }
+        if (value instanceof Collection<?> collection) {
+            long size = OBJECT_OVERHEAD + 8L * collection.size();
+            for (Object element : collection) {
+                size += estimateSize(element, depth + 1);
+            }
+            return size;
+        }
+        if (value instanceof Map<?, ?> map) {
+            long size = OBJECT_OVERHEAD + 32L * map.size();
+            for (Map.Entry<?, ?> e : map.entrySet()) {
+                size += estimateSize(e.getKey(), depth + 1) + estimateSize(e.getValue(), depth + 1);
+            }
+            return size;
+        }
+        if (value.getClass().getName().startsWith("java.")) {
+            return 64L;
+        }
+
+        long size = OBJECT_OVERHEAD;
+        for (Field field : fieldsOf(value.getClass())) {
+            if (field.getType().isPrimitive()) {
+                size += 8L;
+                continue;
+            }
+            size += 8L;
+            try {
+                size += estimateSize(field.get(value), depth + 1);
+            } catch (IllegalAccessException ignored) {
+            }
+        }
+        return size;
+    }
+
+    private static List<Field> fieldsOf(Class<?> type) {
+        return FIELD_CACHE.computeIfAbsent(type, t -> {
+            List<Field> fields = new ArrayList<>();
+            for (Class<?> c = t; c != null && c != Object.class; c = c.getSuperclass()) {
+                for (Field field : c.getDeclaredFields()) {
+                    if (Modifier.isStatic(field.getModifiers())) {
+                        continue;
+                    }
+                    try {
+                        field.setAccessible(true);
+                        fields.add(field);
+                    } catch (RuntimeException ignored) {
+                    }
+                }
+            }
+            return List.copyOf(fields);
+        });
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,140 @@
+package xyz.lingview.dimstack.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import xyz.lingview.dimstack.annotation.RateLimit;
+import xyz.lingview.dimstack.service.RateLimiterService;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * @Author: lingview
+ * @Date: 2026/10/17 23:07:12
+ * @Description: 内存限流实现，每个键的状态保存在 AtomicReference 中通过 CAS 更新，无锁
+ * @Version: 1.0
+ */
+public class MemoryRateLimiterServiceImpl implements RateLimiterService {
+
+    private static final long MAXIMUM_KEYS = 100_000;
+
+    private final Cache<String, Limiter> limiters = Caffeine.newBuilder()
+            .maximumSize(MAXIMUM_KEYS)
+            // 空闲超过两个窗口的状态已无意义，直接回收
+            .expireAfter(new Expiry<String, Limiter>() {
+                @Override
+                public long expireAfterCreate(String key, Limiter limiter, long currentTime) {
+                    return limiter.idleNanos;
+                }
+
+                @Override
+                public long expireAfterUpdate(String key, Limiter limiter, long currentTime, long currentDuration) {
+                    return limiter.idleNanos;
+                }
+
+                @Override
+                public long expireAfterRead(String key, Limiter limiter, long currentTime, long currentDuration) {
+                    return limiter.idleNanos;
+                }
+            })
+            .build();
+
+    private record FixedWindow(long windowStart, int count) {
+    }
+
+    private record SlidingWindow(long currentStart, int currentCount, int previousCount) {
+    }
+
+    private record TokenBucket(double tokens, long lastRefill) {
+    }
+
+    private static final class Limiter {
+        private final long idleNanos;
+        private final AtomicReference<Object> state = new AtomicReference<>();
+
+        private Limiter(long windowNanos) {
+            this.idleNanos = Math.max(windowNanos, 1L) * 2;
+        }
+    }
+
+    @Override
+    public boolean tryAcquire(String key, RateLimit.Algorithm algorithm, int maxRequests, long windowMillis) {
+        long windowNanos = windowMillis * 1_000_000L;
+        Limiter limiter = limiters.get(key + ":" + algorithm, k -> new Limiter(windowNanos));
+        long now = System.nanoTime();
+        return switch (algorithm) {
+            case FIXED_WINDOW -> fixedWindow(limiter, maxRequests, windowNanos, now);
+            case SLIDING_WINDOW -> slidingWindow(limiter, maxRequests, windowNanos, now);
+            case TOKEN_BUCKET -> tokenBucket(limiter, maxRequests, windowNanos, now);
+        };
+    }
+
+    private boolean fixedWindow(Limiter limiter, int maxRequests, long windowNanos, long now) {
+        while (true) {
+            FixedWindow current = (FixedWindow) limiter.state.get();
+            FixedWindow next;
+            if (current == null || now - current.windowStart() >= windowNanos) {
+                next = new FixedWindow(now, 1);
+            } else if (current.count() >= maxRequests) {
+                return false;
+            } else {
+                next = new FixedWindow(current.windowStart(), current.count() + 1);
+            }
+            if (limiter.state.compareAndSet(current, next)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * 滑动窗口计数：上一窗口的请求数按剩余重叠比例折算，加上当前窗口请求数
+     */
+    private boolean slidingWindow(Limiter limiter, int maxRequests, long windowNanos, long now) {
+        while (true) {
+            SlidingWindow current = (SlidingWindow) limiter.state.get();
+            SlidingWindow rolled;
+            if (current == null) {
+                rolled = new SlidingWindow(now, 0, 0);
+            } else {
+                long elapsedWindows = (now - current.currentStart()) / windowNanos;
+                if (elapsedWindows == 0) {
+                    rolled = current;
+                } else if (elapsedWindows == 1) {
+                    rolled = new SlidingWindow(current.currentStart() + windowNanos, 0, current.currentCount());
+                } else {
+                    rolled = new SlidingWindow(now, 0, 0);
+                }
+            }
+
+            double overlap = 1.0 - (double) (now - rolled.currentStart()) / windowNanos;
+            double estimated = rolled.previousCount() * Math.max(0.0, overlap) + rolled.currentCount();
+            if (estimated >= maxRequests) {
+                if (rolled != current) {
+                    limiter.state.compareAndSet(current, rolled);
+                }
+                return false;
+            }
+
+            SlidingWindow next = new SlidingWindow(rolled.currentStart(), rolled.currentCount() + 1, rolled.previousCount());
+            if (limiter.state.compareAndSet(current, next)) {
+                return true;
+            }
+        }
+    }
+
+    private boolean tokenBucket(Limiter limiter, int maxRequests, long windowNanos, long now) {
+        double refillPerNano = (double) maxRequests / windowNanos;
+        while (true) {
+            TokenBucket current = (TokenBucket) limiter.state.get();
+            double tokens = current == null
+                    ? maxRequests
+                    : Math.min(maxRequests, current.tokens() + (now - current.lastRefill()) * refillPerNano);
+            if (tokens < 1.0) {
+                return false;
+            }
+            if (limiter.state.compareAndSet(current, new TokenBucket(tokens - 1.0, now))) {
+                return true;
+            }
+        }
+    }
+}
@@ -3,18 +3,25 @@ package xyz.lingview.dimstack.service.impl;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
-import xyz.lingview.dimstack.domain.ReadArticle;
 import xyz.lingview.dimstack.mapper.ReadArticleMapper;
+import xyz.lingview.dimstack.service.CacheService;
 import xyz.lingview.dimstack.service.PageViewCounterService;
+import xyz.lingview.dimstack.util.MetricsUtil;
 
 import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 
+/**
+ * 浏览量写回：请求线程只累加本地增量，定时任务把增量汇总到共享哈希后批量写库
+ */
 @Slf4j
 @Service
 public class PageViewCounterServiceImpl implements PageViewCounterService {
@@ -22,12 +29,36 @@ public class PageViewCounterServiceImpl implements PageViewCounterService {
     @Autowired
     private ReadArticleMapper readArticleMapper;
 
-    private final Map<String, Long> pageViewCounters = new ConcurrentHashMap<>();
+    @Autowired
+    private CacheService cacheService;
+
+    private final Map<String, Counter> pageViewCounters = new ConcurrentHashMap<>();
 
     private ScheduledExecutorService scheduler;
 
     private static final long SYNC_INTERVAL_SECONDS = 10;
 
+    // 连续多少个同步周期没有新增浏览量后移除计数器（约5分钟）
+    private static final int IDLE_SYNC_ROUNDS = 30;
+
+    private static final int DB_BATCH_SIZE = 500;
+
+    // Redis 模式下各节点共享的待落库增量哈希：别名 -> 增量
+    private static final String PENDING_HASH_KEY = "dimstack:page_views:pending";
+
+    private static final long UNKNOWN_BASE = -1L;
+
+    /**
+     * 单篇文章的计数器
+     * base 为已知的已落库浏览量，pending 为尚未汇总出去的本地增量
+     */
+    private static final class Counter {
+        private final LongAdder pending = new LongAdder();
+        private volatile long base = UNKNOWN_BASE;
+        private volatile boolean retired;
+        private int idleRounds;
+    }
+
     @PostConstruct
     public void init() {
         scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
@@ -43,6 +74,7 @@ public class PageViewCounterServiceImpl implements PageViewCounterService {
             TimeUnit.SECONDS
         );
 
+        MetricsUtil.gauge("page_views.counters", pageViewCounters::size);
         log.info("浏览量同步定时器已启动，每{}秒同步一次", SYNC_INTERVAL_SECONDS);
     }
 
@@ -66,60 +98,139 @@ public class PageViewCounterServiceImpl implements PageViewCounterService {
 
     @Override
     public void initializePageView(String alias, Long dbPageViews) {
-        pageViewCounters.put(alias, dbPageViews);
+        if (dbPageViews == null) {
+            return;
+        }
+        Counter counter = pageViewCounters.computeIfAbsent(alias, k -> new Counter());
+        // 已落库的增量已体现在 base 中，只接受更新的数据库值
+        if (counter.base < dbPageViews) {
+            counter.base = dbPageViews;
+        }
     }
 
     @Override
     public void incrementPageView(String alias) {
-        pageViewCounters.merge(alias, 1L, Long::sum);
+        while (true) {
+            Counter counter = pageViewCounters.computeIfAbsent(alias, k -> new Counter());
+            counter.pending.increment();
+            if (!counter.retired) {
+                return;
+            }
+            // 计数器正被回收，撤销后重新获取
+            counter.pending.decrement();
+        }
     }
 
     @Override
     public Long getPageView(String alias) {
-        return pageViewCounters.get(alias);
+        Counter counter = pageViewCounters.get(alias);
+        if (counter == null || counter.base == UNKNOWN_BASE) {
+            return null;
+        }
+        return counter.base + counter.pending.sum();
     }
 
     @Override
     public void removePageView(String alias) {
-        pageViewCounters.remove(alias);
+        // 只丢弃已知的数据库值，未落库的增量保留到下次同步
+        Counter counter = pageViewCounters.get(alias);
+        if (counter != null) {
+            counter.base = UNKNOWN_BASE;
+        }
         log.debug("已清除文章浏览量计数器: {}", alias);
     }
 
-    private void syncPageViewsToDatabase() {
-        if (pageViewCounters.isEmpty()) {
-            return;
-        }
+    private synchronized void syncPageViewsToDatabase() {
+        long start = System.nanoTime();
+        try {
+            Map<String, Long> localDeltas = collectLocalDeltas();
+            if (!localDeltas.isEmpty()) {
+                try {
+                    cacheService.incrementHashFields(PENDING_HASH_KEY, localDeltas);
+                } catch (Exception e) {
+                    // 汇总失败时把增量放回本地计数器，下个周期重试
+                    restoreLocalDeltas(localDeltas);
+                    throw e;
+                }
+            }
 
-        Map<String, Long> snapshot = new ConcurrentHashMap<>(pageViewCounters);
+            Map<String, Long> drained = cacheService.drainHash(PENDING_HASH_KEY);
+            if (drained.isEmpty()) {
+                return;
+            }
+            writeToDatabase(drained);
+            MetricsUtil.recordNanos("page_views.sync.time", System.nanoTime() - start);
+        } catch (Exception e) {
+            log.error("同步文章浏览量失败", e);
+        }
+    }
 
-        int successCount = 0;
-        int failCount = 0;
+    /**
+     * 取出本地增量并计入 base，同时回收长时间无访问的计数器
+     */
+    private Map<String, Long> collectLocalDeltas() {
+        Map<String, Long> deltas = new HashMap<>();
+        Iterator<Map.Entry<String, Counter>> iterator = pageViewCounters.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, Counter> entry = iterator.next();
+            Counter counter = entry.getValue();
+            long delta = counter.pending.sum();
+            if (delta > 0) {
+                counter.pending.add(-delta);
+                if (counter.base != UNKNOWN_BASE) {
+                    counter.base += delta;
+                }
+                counter.idleRounds = 0;
+                deltas.put(entry.getKey(), delta);
+                continue;
+            }
+            if (++counter.idleRounds >= IDLE_SYNC_ROUNDS) {
+                // 先标记再复查，与 incrementPageView 配合保证回收时不丢增量
+                counter.retired = true;
+                if (counter.pending.sum() == 0) {
+                    iterator.remove();
+                } else {
+                    counter.retired = false;
+                }
+            }
+        }
+        return deltas;
+    }
 
-        for (Map.Entry<String, Long> entry : snapshot.entrySet()) {
-            String alias = entry.getKey();
-            Long currentValue = entry.getValue();
+    private void restoreLocalDeltas(Map<String, Long> deltas) {
+        deltas.forEach((alias, delta) -> {
+            Counter counter = pageViewCounters.computeIfAbsent(alias, k -> new Counter());
+            counter.pending.add(delta);
+            if (counter.base != UNKNOWN_BASE) {
+                counter.base -= delta;
+            }
+        });
+    }
 
-            try {
-                ReadArticle article = readArticleMapper.selectByAlias(alias);
-                if (article != null) {
-                    Long dbValue = article.getPage_views();
-                    Long increment = currentValue - dbValue;
-
-                    if (increment > 0) {
-                        readArticleMapper.batchUpdatePageViews(alias, increment);
-                        pageViewCounters.put(alias, currentValue);
-                        successCount++;
-                    }
-                }
-            } catch (Exception e) {
-                failCount++;
-                log.error("同步文章浏览量失败: alias={}, currentValue={}", alias, currentValue, e);
+    private void writeToDatabase(Map<String, Long> drained) {
+        Map<String, Long> batch = new HashMap<>();
+        for (Map.Entry<String, Long> entry : drained.entrySet()) {
+            batch.put(entry.getKey(), entry.getValue());
+            if (batch.size() >= DB_BATCH_SIZE) {
+                flushBatch(batch);
+                batch = new HashMap<>();
             }
         }
+        if (!batch.isEmpty()) {
+            flushBatch(batch);
+        }
+    }
 
-        if (successCount > 0 || failCount > 0) {
-            log.debug("浏览量同步完成: 成功={}, 失败={}, 总计数器={}",
-                successCount, failCount, pageViewCounters.size());
+    private void flushBatch(Map<String, Long> batch) {
+        try {
+            int updated = readArticleMapper.batchIncrementPageViews(batch);
+            long total = batch.values().stream().mapToLong(Long::longValue).sum();
+            MetricsUtil.increment("page_views.flushed", total);
+            log.debug("浏览量同步完成: 文章数={}, 更新行数={}, 增量合计={}", batch.size(), updated, total);
+        } catch (Exception e) {
+            // 写库失败时放回共享哈希，下个周期重试
+            log.error("批量写入文章浏览量失败，{} 篇文章的增量将在下次同步重试", batch.size(), e);
+            cacheService.incrementHashFields(PENDING_HASH_KEY, batch);
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,81 @@
+package xyz.lingview.dimstack.service.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import xyz.lingview.dimstack.mapper.ReadArticleMapper;
+import xyz.lingview.dimstack.service.RandomArticleService;
+import xyz.lingview.dimstack.util.MetricsUtil;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * @Author: lingview
+ * @Date: 2026/10/18 16:45:37
+ * @Description: 已发布文章别名池，在内存数组中随机取下标，替代 ORDER BY RAND() 全表排序
+ * @Version: 1.0
+ */
+@Slf4j
+@Service
+public class RandomArticleServiceImpl implements RandomArticleService {
+
+    private static final String[] EMPTY = new String[0];
+
+    @Autowired
+    private ReadArticleMapper readArticleMapper;
+
+    private volatile String[] aliases = EMPTY;
+
+    // 初始为 true，首次抽取时加载
+    private volatile boolean stale = true;
+
+    private final Object rebuildLock = new Object();
+
+    @Override
+    public String pickAlias() {
+        if (stale) {
+            rebuild();
+        }
+        String[] pool = aliases;
+        if (pool.length == 0) {
+            return null;
+        }
+        return pool[ThreadLocalRandom.current().nextInt(pool.length)];
+    }
+
+    @Override
+    public void markStale() {
+        stale = true;
+    }
+
+    /**
+     * 其他节点上的文章变更不会通知本节点，定时重建兜底
+     */
+    @Scheduled(fixedDelay = 5 * 60 * 1000)
+    public void refreshPeriodically() {
+        stale = true;
+        rebuild();
+    }
+
+    private void rebuild() {
+        synchronized (rebuildLock) {
+            // 并发的抽取请求只需一个线程重建
+            if (!stale) {
+                return;
+            }
+            stale = false;
+            try {
+                List<String> published = readArticleMapper.listPublishedAliases();
+                aliases = published.toArray(EMPTY);
+                MetricsUtil.increment("random_article.pool.rebuild");
+                log.debug("随机文章别名池已重建，共 {} 篇", aliases.length);
+            } catch (Exception e) {
+                // 保留旧的别名池，下次抽取时重试
+                stale = true;
+                log.error("重建随机文章别名池失败", e);
+            }
+        }
+    }
+}
@@ -11,18 +11,19 @@ import xyz.lingview.dimstack.mapper.ArticleMapper;
 import xyz.lingview.dimstack.mapper.ReadArticleMapper;
 import xyz.lingview.dimstack.mapper.UserInformationMapper;
 import xyz.lingview.dimstack.service.CacheService;
+import xyz.lingview.dimstack.service.LikeCounterService;
 import xyz.lingview.dimstack.service.MailService;
 import xyz.lingview.dimstack.service.NotificationService;
+import xyz.lingview.dimstack.service.RandomArticleService;
 import xyz.lingview.dimstack.service.ReadArticleService;
 import xyz.lingview.dimstack.service.PageViewCounterService;
 import xyz.lingview.dimstack.util.SiteConfigUtil;
+import xyz.lingview.dimstack.util.StripedLock;
 import org.mindrot.jbcrypt.BCrypt;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
-import java.util.Collections;
-import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 @Slf4j
@@ -57,6 +58,17 @@ public class ReadArticleServiceImpl implements ReadArticleService {
     @Autowired
     private PageViewCounterService pageViewCounterService;
 
+    @Autowired
+    private RandomArticleService randomArticleService;
+
+    @Autowired
+    private LikeCounterService likeCounterService;
+
+    private static final StripedLock LIKE_PATCH_LOCKS = new StripedLock(64);
+
+    // 别名池可能滞后于其他节点的下架操作，抽中失效别名时重抽的次数
+    private static final int RANDOM_PICK_ATTEMPTS = 3;
+
     @Override
     public boolean isArticleNeedPassword(String alias) {
         return readArticleMapper.isArticleNeedPassword(alias);
@@ -64,7 +76,65 @@ public class ReadArticleServiceImpl implements ReadArticleService {
 
     @Override
     public ReadArticle getRandomArticle() {
-        return readArticleMapper.selectRandomArticle();
+        for (int attempt = 0; attempt < RANDOM_PICK_ATTEMPTS; attempt++) {
+            String alias = randomArticleService.pickAlias();
+            if (alias == null) {
+                return null;
+            }
+            ReadArticle article = loadCachedArticle(alias);
+            if (article != null) {
+                // 返回副本，调用方会改写密码字段；随机抽取不计入浏览量
+                ReadArticle result = new ReadArticle();
+                org.springframework.beans.BeanUtils.copyProperties(article, result);
+                Long pageViews = pageViewCounterService.getPageView(alias);
+                if (pageViews != null) {
+                    result.setPage_views(pageViews);
+                }
+                return result;
+            }
+            randomArticleService.markStale();
+        }
+        return null;
+    }
+
+    @Override
+    public ReadArticle getArticleForCrawler(String alias) {
+        ReadArticle article = loadCachedArticle(alias);
+        if (article == null || (article.getPassword() != null && !article.getPassword().isEmpty())) {
+            return null;
+        }
+        return article;
+    }
+
+    /**
+     * 通过文章缓存读取已发布文章，未命中时回源并写入缓存
+     */
+    private ReadArticle loadCachedArticle(String alias) {
+        String cacheKey = "dimstack:article:" + alias;
+        ReadArticle article = cacheService.get(cacheKey, ReadArticle.class);
+        if (article != null) {
+            return article;
+        }
+        article = selectArticleWithPendingLikes(alias);
+        if (article != null) {
+            cacheService.set(cacheKey, article, 30, TimeUnit.MINUTES);
+        }
+        return article;
+    }
+
+    /**
+     * 从数据库加载文章，叠加本节点尚未落库的点赞数增量
+     */
+    private ReadArticle selectArticleWithPendingLikes(String alias) {
+        ReadArticle article = readArticleMapper.selectByAlias(alias);
+        if (article != null) {
+            long pendingLikes = likeCounterService.pending(LikeCounterService.Target.ARTICLE, article.getArticle_id());
+            if (pendingLikes != 0) {
+                long likeCount = article.getLike_count() != null ? article.getLike_count() : 0L;
+                article.setLike_count(Math.max(0L, likeCount + pendingLikes));
+            }
+        }
+        return article;
     }
 
     @Override
@@ -99,7 +169,7 @@ public class ReadArticleServiceImpl implements ReadArticleService {
         }
         
         log.info("文章缓存未命中，从数据库加载: {}", alias);
-        article = readArticleMapper.selectByAlias(alias);
+        article = selectArticleWithPendingLikes(alias);
         if (article == null) {
             throw new Exception("文章不存在");
         }
@@ -135,71 +205,6 @@ public class ReadArticleServiceImpl implements ReadArticleService {
     }
 
 
-    @Override
-    public List<ReadArticle> listAllArticles() {
-        String key = "dimstack:sitemap:articles";
-
-        @SuppressWarnings("unchecked")
-        List<ReadArticle> articles = (List<ReadArticle>) cacheService.get(key, List.class);
-
-        if (articles == null || articles.isEmpty()) {
-            log.info("文章sitemap缓存未命中，从数据库加载");
-            articles = readArticleMapper.listAllArticles();
-
-            if (articles == null) {
-                articles = Collections.emptyList();
-            }
-
-            cacheService.set(key, articles, 1, TimeUnit.HOURS);
-            log.info("已将{}篇文章缓存，键为: {}", articles.size(), key);
-        } else {
-            log.info("文章sitemap缓存命中，从缓存返回{}篇文章", articles.size());
-        }
-        return articles;
-    }
-
-    @Override
-    public List<String> listAllCategories() {
-        String key = "dimstack:sitemap:categories";
-
-        @SuppressWarnings("unchecked")
-        List<String> categories = (List<String>) cacheService.get(key, List.class);
-
-        if (categories == null || categories.isEmpty()) {
-            log.info("分类sitemap缓存未命中，从数据库加载");
-            categories = readArticleMapper.listAllCategories();
-            if (categories == null) {
-                categories = Collections.emptyList();
-            }
-            cacheService.set(key, categories, 1, TimeUnit.HOURS);
-            log.info("已将{}个分类缓存，键为: {}", categories.size(), key);
-        } else {
-            log.info("分类sitemap缓存命中，从缓存返回{}个分类", categories.size());
-        }
-        return categories;
-    }
-
-    @Override
-    public List<String> listAllTags() {
-        String key = "dimstack:sitemap:tags";
-
-        @SuppressWarnings("unchecked")
-        List<String> tags = (List<String>) cacheService.get(key, List.class);
-
-        if (tags == null || tags.isEmpty()) {
-            log.info("标签sitemap缓存未命中，从数据库加载");
-            tags = readArticleMapper.listAllTags();
-            if (tags == null) {
-                tags = Collections.emptyList();
-            }
-            cacheService.set(key, tags, 1, TimeUnit.HOURS);
-            log.info("已将{}个标签缓存，键为: {}", tags.size(), key);
-        } else {
-            log.info("标签sitemap缓存命中，从缓存返回{}个标签", tags.size());
-        }
-        return tags;
-    }
-
     @Override
     public void likeArticle(String username, String articleAlias) {
         String userId = userInformationMapper.selectUserUUID(username);
@@ -209,26 +214,43 @@ public class ReadArticleServiceImpl implements ReadArticleService {
             throw new RuntimeException("文章不存在");
         }
 
-        if (articleLikeMapper.existsLike(userId, article.getArticle_id())) {
-            articleLikeMapper.deleteLike(userId, article.getArticle_id());
-            Long newLikeCount = article.getLike_count() - 1;
-            articleMapper.updateArticleLikeCount(article.getArticle_id(), newLikeCount);
+        // 点赞记录有唯一约束，按实际影响行数决定增量，重复提交不会重复计数
+        long delta;
+        if (articleLikeMapper.deleteLike(userId, article.getArticle_id()) > 0) {
+            delta = -1;
         } else {
             ArticleLike like = new ArticleLike();
             like.setUser_id(userId);
             like.setArticle_id(article.getArticle_id());
             like.setCreate_time(LocalDateTime.now());
-            articleLikeMapper.insertLike(like);
+            delta = articleLikeMapper.insertLikeIgnore(like) > 0 ? 1 : 0;
+            if (delta > 0) {
+                sendLikeNotification(article, username);
+            }
+        }
+        if (delta == 0) {
+            return;
+        }
+
+        likeCounterService.add(LikeCounterService.Target.ARTICLE, article.getArticle_id(), delta);
+        patchCachedLikeCount(articleAlias, delta);
+    }
 
-            Long newLikeCount = article.getLike_count() + 1;
-            articleMapper.updateArticleLikeCount(article.getArticle_id(), newLikeCount);
-            sendLikeNotification(article, username);
+    /**
+     * 直接修改缓存中的点赞数，避免点赞导致整篇文章重新加载
+     */
+    private void patchCachedLikeCount(String alias, long delta) {
+        String cacheKey = "dimstack:article:" + alias;
+        // 同一节点上同一篇文章的修改串行执行，避免读改写互相覆盖
+        synchronized (LIKE_PATCH_LOCKS.lockFor(alias)) {
+            ReadArticle cached = cacheService.get(cacheKey, ReadArticle.class);
+            if (cached == null) {
+                return;
+            }
+            long likeCount = cached.getLike_count() != null ? cached.getLike_count() : 0L;
+            cached.setLike_count(Math.max(0L, likeCount + delta));
+            cacheService.set(cacheKey, cached, 30, TimeUnit.MINUTES);
         }
-        
-        String cacheKey = "dimstack:article:" + articleAlias;
-        cacheService.delete(cacheKey);
-        pageViewCounterService.removePageView(articleAlias);
-        log.info("点赞操作已清除文章缓存和浏览量计数器: {}", cacheKey);
     }
 
     @Override
@@ -1,10 +1,24 @@
 package xyz.lingview.dimstack.service.impl;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.RedisOperations;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.stereotype.Service;
 import xyz.lingview.dimstack.service.CacheService;
+import xyz.lingview.dimstack.util.MetricsUtil;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -17,6 +31,13 @@ import java.util.concurrent.TimeUnit;
 @Slf4j
 public class RedisCacheServiceImpl implements CacheService {
 
+    private static final int SCAN_BATCH_SIZE = 500;
+
+    // HGETALL 与 DEL 在脚本内原子执行，返回 [field1, value1, field2, value2, ...]
+    private static final byte[] DRAIN_HASH_SCRIPT =
+            "local v = redis.call('HGETALL', KEYS[1]); redis.call('DEL', KEYS[1]); return v"
+                    .getBytes(StandardCharsets.UTF_8);
+
     private final RedisTemplate<String, Object> redisTemplate;
     private final boolean redisAvailable;
 
@@ -59,6 +80,34 @@ public class RedisCacheServiceImpl implements CacheService {
         }
     }
 
+    /**
+     * 在一次管道往返中同时读取值和剩余过期时间，供本地缓存对齐TTL
+     */
+    public <T> ValueWithTtl<T> getWithTtl(String key, Class<T> type) {
+        if (!redisAvailable) return null;
+        try {
+            List<Object> results = redisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public <K, V> Object execute(RedisOperations<K, V> operations) {
+                    RedisOperations<String, Object> ops = (RedisOperations<String, Object>) operations;
+                    ops.opsForValue().get(key);
+                    ops.getExpire(key, TimeUnit.MILLISECONDS);
+                    return null;
+                }
+            });
+            Object obj = results.get(0);
+            if (obj == null) return null;
+            long ttl = results.get(1) instanceof Number n ? n.longValue() : -1L;
+            return new ValueWithTtl<>(type.cast(obj), ttl);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    public record ValueWithTtl<T>(T value, long ttlMillis) {
+    }
+
     @Override
     public void delete(String key) {
         if (redisAvailable) {
@@ -66,18 +115,56 @@ public class RedisCacheServiceImpl implements CacheService {
         }
     }
 
+    /**
+     * 使用 SCAN 游标分批查找并以 UNLINK 异步删除，避免 KEYS 阻塞 Redis
+     */
     @Override
-    public void deleteByPrefix(String prefix) {
-        if (!redisAvailable) return;
-        try {
-            java.util.Set<String> keys = redisTemplate.keys(prefix + "*");
-            if (keys != null && !keys.isEmpty()) {
-                redisTemplate.delete(keys);
-                log.info("已清除 {} 个以 {} 开头的缓存键", keys.size(), prefix);
+    public long deleteByPrefix(String prefix) {
+        if (!redisAvailable) return 0L;
+        long start = System.nanoTime();
+        long removed = 0L;
+        ScanOptions options = ScanOptions.scanOptions()
+                .match(escapeGlob(prefix) + "*")
+                .count(SCAN_BATCH_SIZE)
+                .build();
+        try (Cursor<String> cursor = redisTemplate.scan(options)) {
+            List<String> batch = new ArrayList<>(SCAN_BATCH_SIZE);
+            while (cursor.hasNext()) {
+                batch.add(cursor.next());
+                if (batch.size() >= SCAN_BATCH_SIZE) {
+                    removed += unlink(batch);
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                removed += unlink(batch);
+            }
+            if (removed > 0) {
+                log.info("已清除 {} 个以 {} 开头的缓存键", removed, prefix);
             }
         } catch (Exception e) {
             log.error("按前缀清除缓存失败: {}", prefix, e);
+        } finally {
+            MetricsUtil.increment("cache.prefix_delete.keys", removed);
+            MetricsUtil.recordNanos("cache.prefix_delete.time", System.nanoTime() - start);
+        }
+        return removed;
+    }
+
+    private long unlink(List<String> keys) {
+        Long count = redisTemplate.unlink(keys);
+        return count != null ? count : 0L;
+    }
+
+    private static String escapeGlob(String prefix) {
+        StringBuilder sb = new StringBuilder(prefix.length() + 8);
+        for (char c : prefix.toCharArray()) {
+            if (c == '*' || c == '?' || c == '[' || c == ']' || c == '\\') {
+                sb.append('\\');
+            }
+            sb.append(c);
         }
+        return sb.toString();
     }
 
     @Override
@@ -130,6 +217,41 @@ public class RedisCacheServiceImpl implements CacheService {
         }
     }
 
+    @Override
+    public void incrementHashFields(String key, Map<String, Long> deltas) {
+        if (!redisAvailable || deltas.isEmpty()) return;
+        redisTemplate.executePipelined(new SessionCallback<List<Object>>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> List<Object> execute(RedisOperations<K, V> operations) {
+                RedisOperations<String, Object> ops = (RedisOperations<String, Object>) operations;
+                HashOperations<String, String, Object> hashOps = ops.opsForHash();
+                deltas.forEach((field, delta) -> hashOps.increment(key, field, delta));
+                return null;
+            }
+        });
+    }
+
+    @Override
+    public Map<String, Long> drainHash(String key) {
+        if (!redisAvailable) return new HashMap<>();
+        byte[] rawKey = RedisSerializer.string().serialize(key);
+        List<byte[]> flat = redisTemplate.execute((RedisCallback<List<byte[]>>) connection ->
+                connection.scriptingCommands().eval(DRAIN_HASH_SCRIPT, ReturnType.MULTI, 1, rawKey));
+        Map<String, Long> result = new HashMap<>();
+        if (flat == null) return result;
+        for (int i = 0; i + 1 < flat.size(); i += 2) {
+            String field = new String(flat.get(i), StandardCharsets.UTF_8);
+            String value = new String(flat.get(i + 1), StandardCharsets.UTF_8);
+            try {
+                result.put(field, Long.parseLong(value));
+            } catch (NumberFormatException e) {
+                log.warn("哈希字段值无法解析为数字: {}.{}={}", key, field, value);
+            }
+        }
+        return result;
+    }
+
     public boolean isRedisAvailable() {
         return redisAvailable;
     }
@@ -0,0 +1,83 @@
+package xyz.lingview.dimstack.service.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import xyz.lingview.dimstack.annotation.RateLimit;
+import xyz.lingview.dimstack.service.RateLimiterService;
+
+import java.util.Collections;
+import java.util.UUID;
+
+/**
+ * @Author: lingview
+ * @Date: 2026/10/17 23:12:48
+ * @Description: Redis限流实现，判断与计数在 Lua 脚本中原子完成，多节点共享同一限流状态
+ * @Version: 1.0
+ */
+@Slf4j
+public class RedisRateLimiterServiceImpl implements RateLimiterService {
+
+    // 统一使用 Redis 服务器时间，避免各节点时钟不一致
+    private static final String NOW_MILLIS =
+            "local t = redis.call('TIME'); local now = tonumber(t[1]) * 1000 + math.floor(tonumber(t[2]) / 1000); ";
+
+    private static final RedisScript<Long> FIXED_WINDOW_SCRIPT = RedisScript.of(
+            "local c = redis.call('INCR', KEYS[1]) " +
+            "if c == 1 then redis.call('PEXPIRE', KEYS[1], ARGV[1]) end " +
+            "if c > tonumber(ARGV[2]) then return 0 end " +
+            "return 1", Long.class);
+
+    // 有序集合记录窗口内每次请求的时间
+    private static final RedisScript<Long> SLIDING_WINDOW_SCRIPT = RedisScript.of(
+            NOW_MILLIS +
+            "local window = tonumber(ARGV[1]) " +
+            "redis.call('ZREMRANGEBYSCORE', KEYS[1], '-inf', now - window) " +
+            "if redis.call('ZCARD', KEYS[1]) >= tonumber(ARGV[2]) then return 0 end " +
+            "redis.call('ZADD', KEYS[1], now, ARGV[3]) " +
+            "redis.call('PEXPIRE', KEYS[1], window) " +
+            "return 1", Long.class);
+
+    private static final RedisScript<Long> TOKEN_BUCKET_SCRIPT = RedisScript.of(
+            NOW_MILLIS +
+            "local window = tonumber(ARGV[1]) " +
+            "local capacity = tonumber(ARGV[2]) " +
+            "local state = redis.call('HMGET', KEYS[1], 'tokens', 'ts') " +
+            "local tokens = tonumber(state[1]) " +
+            "local ts = tonumber(state[2]) " +
+            "if tokens == nil then tokens = capacity; ts = now end " +
+            "tokens = math.min(capacity, tokens + (now - ts) * capacity / window) " +
+            "local allowed = 0 " +
+            "if tokens >= 1 then tokens = tokens - 1; allowed = 1 end " +
+            "redis.call('HSET', KEYS[1], 'tokens', tostring(tokens), 'ts', now) " +
+            "redis.call('PEXPIRE', KEYS[1], window * 2) " +
+            "return allowed", Long.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    public RedisRateLimiterServiceImpl(StringRedisTemplate stringRedisTemplate) {
+        this.stringRedisTemplate = stringRedisTemplate;
+    }
+
+    @Override
+    public boolean tryAcquire(String key, RateLimit.Algorithm algorithm, int maxRequests, long windowMillis) {
+        String redisKey = key + ":" + algorithm;
+        String window = String.valueOf(windowMillis);
+        String limit = String.valueOf(maxRequests);
+        try {
+            Long result = switch (algorithm) {
+                case FIXED_WINDOW -> stringRedisTemplate.execute(FIXED_WINDOW_SCRIPT,
+                        Collections.singletonList(redisKey), window, limit);
+                case SLIDING_WINDOW -> stringRedisTemplate.execute(SLIDING_WINDOW_SCRIPT,
+                        Collections.singletonList(redisKey), window, limit, UUID.randomUUID().toString());
+                case TOKEN_BUCKET -> stringRedisTemplate.execute(TOKEN_BUCKET_SCRIPT,
+                        Collections.singletonList(redisKey), window, limit);
+            };
+            return result == null || result == 1L;
+        } catch (Exception e) {
+            // Redis 异常时放行，避免限流故障导致接口不可用
+            log.error("限流脚本执行失败，本次请求放行: key={}", redisKey, e);
+            return true;
+        }
+    }
+}
@@ -7,6 +7,7 @@ import xyz.lingview.dimstack.domain.Permission;
 import xyz.lingview.dimstack.domain.Role;
 import xyz.lingview.dimstack.mapper.RoleMapper;
 import xyz.lingview.dimstack.service.RoleService;
+import xyz.lingview.dimstack.service.UserPermissionCheckService;
 
 import java.sql.Timestamp;
 import java.util.ArrayList;
@@ -18,6 +19,9 @@ public class RoleServiceImpl implements RoleService {
     @Autowired
     private RoleMapper roleMapper;
 
+    @Autowired
+    private UserPermissionCheckService userPermissionCheckService;
+
     @Override
     public List<Role> getAllRoles() {
         return roleMapper.selectAllRoles();
@@ -65,6 +69,7 @@ public class RoleServiceImpl implements RoleService {
         if (result <= 0) {
             return ApiResponse.error(500, "更新角色失败");
         }
+        userPermissionCheckService.evictAllPermissions();
 
         return ApiResponse.success("更新成功");
     }
@@ -80,6 +85,7 @@ public class RoleServiceImpl implements RoleService {
         if (result <= 0) {
             return ApiResponse.error(500, "删除角色失败");
         }
+        userPermissionCheckService.evictAllPermissions();
 
         return ApiResponse.success("删除成功");
     }
@@ -116,6 +122,7 @@ public class RoleServiceImpl implements RoleService {
         if (result <= 0) {
             return ApiResponse.error(500, "添加权限失败");
         }
+        userPermissionCheckService.evictAllPermissions();
 
         return ApiResponse.success("添加权限成功");
     }
@@ -136,6 +143,7 @@ public class RoleServiceImpl implements RoleService {
         if (result <= 0) {
             return ApiResponse.error(500, "移除权限失败");
         }
+        userPermissionCheckService.evictAllPermissions();
 
         return ApiResponse.success("移除权限成功");
     }
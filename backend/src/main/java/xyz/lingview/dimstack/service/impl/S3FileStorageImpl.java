@@ -1,5 +1,7 @@
 package xyz.lingview.dimstack.service.impl;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import lombok.extern.slf4j.Slf4j;
 import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
 import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
@@ -10,11 +12,14 @@ import software.amazon.awssdk.services.s3.model.*;
 import software.amazon.awssdk.services.s3.presigner.S3Presigner;
 import software.amazon.awssdk.services.s3.presigner.model.GetObjectPresignRequest;
 import software.amazon.awssdk.services.s3.presigner.model.PresignedGetObjectRequest;
-import xyz.lingview.dimstack.service.FileStorage;
+import xyz.lingview.dimstack.service.MultipartUploadStorage;
+import xyz.lingview.dimstack.util.MetricsUtil;
 
 import java.io.InputStream;
 import java.net.URI;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * @Author: lingview
@@ -23,12 +28,31 @@ import java.time.Duration;
  * @Version: 1.0
  */
 @Slf4j
-public class S3FileStorageImpl implements FileStorage {
+public class S3FileStorageImpl implements MultipartUploadStorage {
 
     private final S3Client s3Client;
     private final S3Presigner s3Presigner;
     private final String bucket;
 
+    // 签名结果在剩余有效期不足四分之一前复用，同一文件在这段时间内返回相同的链接，浏览器缓存得以命中
+    private static final int PRESIGNED_URL_CACHE_SIZE = 10_000;
+
+    private static final int MAX_DELETE_OBJECTS = 1000;
+
+    // S3 要求除最后一个分片外每个分片不小于 5 MiB，否则合并时才报 EntityTooSmall
+    private static final long MIN_PART_SIZE = 5L * 1024 * 1024;
+
+    /**
+     * @param expiresAt 签名过期时间（毫秒）
+     * @param reuseUntil 超过该时间不再复用（毫秒）
+     */
+    public record PresignedUrl(String url, long expiresAt, long reuseUntil) {
+    }
+
+    private final Cache<String, PresignedUrl> presignedUrls = Caffeine.newBuilder()
+            .maximumSize(PRESIGNED_URL_CACHE_SIZE)
+            .build();
+
     public S3FileStorageImpl(String endpoint, String region, String bucket,
                          String accessKey, String secretKey, boolean pathStyleAccess) {
         this.bucket = bucket;
@@ -53,6 +77,14 @@ public class S3FileStorageImpl implements FileStorage {
         ensureBucketExists();
     }
 
+    /**
+     * 使用已创建的客户端，不检查桶是否存在
+     */
+    public S3FileStorageImpl(S3Client s3Client, S3Presigner s3Presigner, String bucket) {
+        this.s3Client = s3Client;
+        this.s3Presigner = s3Presigner;
+        this.bucket = bucket;
+    }
 
     private static Region parseRegion(String region) {
         return Region.US_EAST_1;
@@ -108,6 +140,41 @@ public class S3FileStorageImpl implements FileStorage {
         log.debug("S3存储删除成功: {}/{}", bucket, objectKey);
     }
 
+    @Override
+    public boolean supportsBatchDelete() {
+        return true;
+    }
+
+    /**
+     * 使用 DeleteObjects 每次最多删除 1000 个对象
+     */
+    @Override
+    public List<String> deleteBatch(List<String> objectKeys) {
+        List<String> failed = new ArrayList<>();
+        for (int from = 0; from < objectKeys.size(); from += MAX_DELETE_OBJECTS) {
+            List<String> chunk = objectKeys.subList(from, Math.min(from + MAX_DELETE_OBJECTS, objectKeys.size()));
+            List<ObjectIdentifier> identifiers = chunk.stream()
+                    .map(key -> ObjectIdentifier.builder().key(key).build())
+                    .toList();
+            try {
+                DeleteObjectsResponse response = s3Client.deleteObjects(DeleteObjectsRequest.builder()
+                        .bucket(bucket)
+                        // 安静模式只返回失败的对象
+                        .delete(Delete.builder().objects(identifiers).quiet(true).build())
+                        .build());
+                for (S3Error error : response.errors()) {
+                    log.warn("S3批量删除失败: {}/{}, {}", bucket, error.key(), error.message());
+                    failed.add(error.key());
+                }
+            } catch (Exception e) {
+                log.error("S3批量删除请求失败: {}, 共 {} 个对象", bucket, chunk.size(), e);
+                failed.addAll(chunk);
+            }
+        }
+        log.debug("S3批量删除完成: {}, 成功 {} 个", bucket, objectKeys.size() - failed.size());
+        return failed;
+    }
+
     @Override
     public boolean exists(String objectKey) {
         try {
@@ -122,6 +189,20 @@ public class S3FileStorageImpl implements FileStorage {
         }
     }
 
+    @Override
+    public long size(String objectKey) {
+        try {
+            HeadObjectRequest request = HeadObjectRequest.builder()
+                    .bucket(bucket)
+                    .key(objectKey)
+                    .build();
+            Long contentLength = s3Client.headObject(request).contentLength();
+            return contentLength != null ? contentLength : -1L;
+        } catch (NoSuchKeyException e) {
+            return -1L;
+        }
+    }
+
     @Override
     public void copy(String sourceKey, String destKey) {
         CopyObjectRequest request = CopyObjectRequest.builder()
@@ -145,22 +226,111 @@ public class S3FileStorageImpl implements FileStorage {
         return true;
     }
 
-    /**
-     * 生成预签名URL（用于文件访问）
-     */
-    public String generatePresignedUrl(String objectKey, Duration expiration) {
-        GetObjectRequest getObjectRequest = GetObjectRequest.builder()
+    @Override
+    public long minPartSize() {
+        return MIN_PART_SIZE;
+    }
+
+    @Override
+    public String initMultipartUpload(String objectKey, String contentType) {
+        CreateMultipartUploadRequest request = CreateMultipartUploadRequest.builder()
                 .bucket(bucket)
                 .key(objectKey)
+                .contentType(contentType)
+                .build();
+
+        String uploadId = s3Client.createMultipartUpload(request).uploadId();
+        log.debug("S3分片上传已创建: {}/{}, uploadId={}", bucket, objectKey, uploadId);
+        return uploadId;
+    }
+
+    @Override
+    public String uploadPart(String objectKey, String uploadId, int partNumber, InputStream data, long contentLength) {
+        UploadPartRequest request = UploadPartRequest.builder()
+                .bucket(bucket)
+                .key(objectKey)
+                .uploadId(uploadId)
+                .partNumber(partNumber)
+                .contentLength(contentLength)
                 .build();
 
-        GetObjectPresignRequest presignRequest = GetObjectPresignRequest.builder()
-                .signatureDuration(expiration)
-                .getObjectRequest(getObjectRequest)
+        return s3Client.uploadPart(request, RequestBody.fromInputStream(data, contentLength)).eTag();
+    }
+
+    @Override
+    public void completeMultipartUpload(String objectKey, String uploadId, List<UploadedPart> parts) {
+        List<CompletedPart> completedParts = parts.stream()
+                .map(part -> CompletedPart.builder().partNumber(part.partNumber()).eTag(part.etag()).build())
+                .toList();
+
+        CompleteMultipartUploadRequest request = CompleteMultipartUploadRequest.builder()
+                .bucket(bucket)
+                .key(objectKey)
+                .uploadId(uploadId)
+                .multipartUpload(CompletedMultipartUpload.builder().parts(completedParts).build())
+                .build();
+
+        s3Client.completeMultipartUpload(request);
+        log.debug("S3分片上传已完成: {}/{}, 共 {} 个分片", bucket, objectKey, parts.size());
+    }
+
+    @Override
+    public void abortMultipartUpload(String objectKey, String uploadId) {
+        AbortMultipartUploadRequest request = AbortMultipartUploadRequest.builder()
+                .bucket(bucket)
+                .key(objectKey)
+                .uploadId(uploadId)
                 .build();
 
-        PresignedGetObjectRequest presignedRequest = s3Presigner.presignGetObject(presignRequest);
-        return presignedRequest.url().toString();
+        try {
+            s3Client.abortMultipartUpload(request);
+            log.debug("S3分片上传已取消: {}/{}", bucket, objectKey);
+        } catch (NoSuchUploadException e) {
+            log.debug("S3分片上传不存在或已结束: {}/{}", bucket, objectKey);
+        }
+    }
+
+    /**
+     * 生成预签名URL（用于文件访问），同一对象与参数在复用期内返回同一个链接
+     *
+     * @param contentDisposition 覆盖响应的 Content-Disposition，为 null 时使用对象自身的元数据
+     * @param cacheControl       覆盖响应的 Cache-Control，为 null 时使用对象自身的元数据
+     */
+    public PresignedUrl generatePresignedUrl(String objectKey, Duration expiration,
+                                             String contentDisposition, String cacheControl) {
+        String cacheKey = objectKey + '\n' + expiration.toSeconds() + '\n'
+                + (contentDisposition != null ? contentDisposition : "") + '\n'
+                + (cacheControl != null ? cacheControl : "");
+
+        PresignedUrl cached = presignedUrls.getIfPresent(cacheKey);
+        if (cached != null && cached.reuseUntil() > System.currentTimeMillis()) {
+            MetricsUtil.increment("s3.presign.cache.hit");
+            return cached;
+        }
+
+        return presignedUrls.asMap().compute(cacheKey, (key, existing) -> {
+            long now = System.currentTimeMillis();
+            if (existing != null && existing.reuseUntil() > now) {
+                return existing;
+            }
+            MetricsUtil.increment("s3.presign.cache.miss");
+            GetObjectRequest getObjectRequest = GetObjectRequest.builder()
+                    .bucket(bucket)
+                    .key(objectKey)
+                    .responseContentDisposition(contentDisposition)
+                    .responseCacheControl(cacheControl)
+                    .build();
+
+            GetObjectPresignRequest presignRequest = GetObjectPresignRequest.builder()
+                    .signatureDuration(expiration)
+                    .getObjectRequest(getObjectRequest)
+                    .build();
+
+            PresignedGetObjectRequest presignedRequest = s3Presigner.presignGetObject(presignRequest);
+            long expiresAt = presignedRequest.expiration().toEpochMilli();
+            long reuseUntil = expiresAt - expiration.toMillis() / 4;
+            return new PresignedUrl(presignedRequest.url().toString(), expiresAt, reuseUntil);
+        });
     }
 
     public void shutdown() {
@@ -0,0 +1,153 @@
+package xyz.lingview.dimstack.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.thymeleaf.ITemplateEngine;
+import org.thymeleaf.context.Context;
+import xyz.lingview.dimstack.config.ThemeProperties;
+import xyz.lingview.dimstack.domain.ReadArticle;
+import xyz.lingview.dimstack.domain.SiteConfig;
+import xyz.lingview.dimstack.service.CacheService;
+import xyz.lingview.dimstack.service.ReadArticleService;
+import xyz.lingview.dimstack.service.SeoPageService;
+import xyz.lingview.dimstack.service.SiteConfigService;
+import xyz.lingview.dimstack.util.ClusterVersion;
+import xyz.lingview.dimstack.util.MetricsUtil;
+import xyz.lingview.dimstack.util.UrlUtil;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * @Author: lingview
+ * @Date: 2026/10/19 00:20:04
+ * @Description: 爬虫页面渲染缓存，同一页面的并发渲染只执行一次；本节点修改时精确失效，
+ *               其他节点通过共享版本号感知后整体丢弃
+ * @Version: 1.0
+ */
+@Slf4j
+@Service
+public class SeoPageServiceImpl implements SeoPageService {
+
+    // 其他节点修改文章或站点配置后递增
+    private static final String VERSION_KEY = "dimstack:seo:version";
+    private static final long CLUSTER_CHECK_INTERVAL_MILLIS = 10_000;
+
+    // 按域名区分的页面数量上限，防止伪造 Host 头占满内存
+    private static final int MAX_RENDERED_PAGES = 2048;
+    // 与文章缓存的有效期一致，兜底未经过业务接口的数据变化
+    private static final Duration RENDERED_PAGE_TTL = Duration.ofMinutes(30);
+
+    @Autowired
+    private ReadArticleService readArticleService;
+
+    @Autowired
+    private SiteConfigService siteConfigService;
+
+    @Autowired
+    private ThemeProperties themeProperties;
+
+    @Autowired
+    private ITemplateEngine templateEngine;
+
+    @Autowired
+    private CacheService cacheService;
+
+    private record Rendered(String articleId, RenderedPage page) {
+    }
+
+    private final Cache<String, Rendered> rendered = Caffeine.newBuilder()
+            .maximumSize(MAX_RENDERED_PAGES)
+            .expireAfterWrite(RENDERED_PAGE_TTL)
+            .build();
+
+    private final ClusterVersion clusterVersion = new ClusterVersion(VERSION_KEY, CLUSTER_CHECK_INTERVAL_MILLIS);
+
+    @Override
+    public RenderedPage article(String alias, String domain) {
+        if (clusterVersion.sync(cacheService)) {
+            log.info("爬虫页面版本已被其他节点更新，丢弃已渲染页面");
+            rendered.invalidateAll();
+        }
+        String key = themeProperties.getActiveTheme() + "|" + domain + "|" + alias;
+        Rendered cached = rendered.getIfPresent(key);
+        if (cached != null) {
+            MetricsUtil.increment("seo.page.cache.hit");
+            return cached.page();
+        }
+        MetricsUtil.increment("seo.page.cache.miss");
+        // 不存在的文章不缓存，避免随意构造的别名占用缓存
+        Rendered result = rendered.get(key, k -> renderArticle(alias, domain));
+        return result != null ? result.page() : null;
+    }
+
+    @Override
+    public void articleChanged(String articleId) {
+        if (articleId == null) {
+            return;
+        }
+        rendered.asMap().values().removeIf(entry -> articleId.equals(entry.articleId()));
+        clusterVersion.publish(cacheService);
+    }
+
+    @Override
+    public void invalidate() {
+        rendered.invalidateAll();
+        clusterVersion.publish(cacheService);
+        log.info("已清除爬虫页面缓存");
+    }
+
+    private Rendered renderArticle(String alias, String domain) {
+        ReadArticle article = readArticleService.getArticleForCrawler(alias);
+        if (article == null) {
+            return null;
+        }
+        long start = System.nanoTime();
+        SiteConfig siteConfig = siteConfigService.getSiteConfig();
+
+        Context context = new Context();
+        context.setVariable("title", article.getArticle_name());
+        context.setVariable("excerpt", article.getExcerpt());
+        context.setVariable("content", article.getArticle_content());
+        context.setVariable("date", article.getCreate_time());
+        context.setVariable("tag", article.getTag());
+
+        context.setVariable("url", domain + "/article/" + alias);
+        context.setVariable("domain", domain);
+        context.setVariable("siteIcon", UrlUtil.getFullUrl(domain, siteConfig != null ? siteConfig.getSite_icon() : null));
+
+        byte[] html = templateEngine.process("seo_article", context).getBytes(StandardCharsets.UTF_8);
+        RenderedPage page = new RenderedPage(gzip(html), contentEtag(html), System.currentTimeMillis());
+        MetricsUtil.recordNanos("seo.page.render.time", System.nanoTime() - start);
+        return new Rendered(article.getArticle_id(), page);
+    }
+
+    private static byte[] gzip(byte[] content) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(content.length / 3 + 64);
+        try (GZIPOutputStream out = new GZIPOutputStream(buffer)) {
+            out.write(content);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return buffer.toByteArray();
+    }
+
+    private static String contentEtag(byte[] content) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(content);
+            return "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 算法不可用", e);
+        }
+    }
+}
@@ -0,0 +1,452 @@
+package xyz.lingview.dimstack.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import xyz.lingview.dimstack.domain.SitemapArticle;
+import xyz.lingview.dimstack.mapper.ReadArticleMapper;
+import xyz.lingview.dimstack.service.CacheService;
+import xyz.lingview.dimstack.service.SitemapService;
+import xyz.lingview.dimstack.util.ClusterVersion;
+import xyz.lingview.dimstack.util.MetricsUtil;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * @Author: lingview
+ * @Date: 2026/10/18 22:16:27
+ * @Description: 站点地图生成：文章只加载别名与时间的投影，按 50000 条分片，每个分片带版本号，
+ *               文章变化时只提升受影响分片的版本；渲染结果按域名与分片缓存为 gzip 字节，版本未变时直接复用
+ * @Version: 1.0
+ */
+@Slf4j
+@Service
+public class SitemapServiceImpl implements SitemapService {
+
+    // 单个站点地图文件最多 50000 个 URL（sitemaps.org 协议）
+    private static final int SHARD_SIZE = 50_000;
+
+    // 其他节点修改文章后递增，各节点据此判断是否需要重新加载
+    private static final String VERSION_KEY = "dimstack:sitemap:version";
+    private static final long CLUSTER_CHECK_INTERVAL_MILLIS = 10_000;
+
+    private static final long TAXONOMY_TTL_MILLIS = TimeUnit.HOURS.toMillis(1);
+
+    // 按域名区分的渲染结果数量上限，防止伪造 Host 头占满内存
+    private static final int MAX_RENDERED_DOCUMENTS = 512;
+
+    private static final String URLSET_OPEN = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+            + "<urlset xmlns=\"http://www.sitemaps.org/schemas/sitemap/0.9\">\n";
+    private static final String URLSET_CLOSE = "</urlset>";
+
+    private static final DateTimeFormatter LASTMOD_FORMAT = DateTimeFormatter.ISO_OFFSET_DATE_TIME;
+    private static final ZoneOffset LASTMOD_OFFSET = ZoneOffset.ofHours(8);
+
+    @Autowired
+    private ReadArticleMapper readArticleMapper;
+
+    @Autowired
+    private CacheService cacheService;
+
+    /**
+     * 文章条目按 id 排序，shardVersions / shardChangedAt 与分片一一对应，整体不可变，修改时整体替换
+     */
+    private record ArticleState(List<SitemapArticle> entries, long[] shardVersions, long[] shardChangedAt,
+                                long indexChangedAt) {
+        int shardCount() {
+            return Math.max(1, (entries.size() + SHARD_SIZE - 1) / SHARD_SIZE);
+        }
+
+        List<SitemapArticle> shard(int index) {
+            int from = index * SHARD_SIZE;
+            return entries.subList(Math.min(from, entries.size()), Math.min(from + SHARD_SIZE, entries.size()));
+        }
+    }
+
+    private record TaxonomyState(List<String> categories, List<String> tags, long version, long changedAt,
+                                 long loadedAt) {
+    }
+
+    private record Rendered(long version, SitemapDocument document) {
+    }
+
+    @FunctionalInterface
+    private interface BodyWriter {
+        void write(Writer writer) throws IOException;
+    }
+
+    private final long startedAt = System.currentTimeMillis();
+    private final AtomicLong versionSequence = new AtomicLong();
+    private final Object articleLock = new Object();
+    private final Object taxonomyLock = new Object();
+
+    private final Cache<String, Rendered> rendered = Caffeine.newBuilder()
+            .maximumSize(MAX_RENDERED_DOCUMENTS)
+            .build();
+
+    private volatile ArticleState articleState;
+    private volatile TaxonomyState taxonomyState;
+
+    private final ClusterVersion clusterVersion = new ClusterVersion(VERSION_KEY, CLUSTER_CHECK_INTERVAL_MILLIS);
+
+    @Override
+    public SitemapDocument index(String domain) {
+        ArticleState state = articleState();
+        int shardCount = state.shardCount();
+        return render("index@" + domain, shardCount, state.indexChangedAt(), writer -> {
+            writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+            writer.write("<sitemapindex xmlns=\"http://www.sitemaps.org/schemas/sitemap/0.9\">\n");
+            writeSitemapLoc(writer, domain + "/sitemap.xml");
+            writeSitemapLoc(writer, domain + "/sitemap-article.xml");
+            for (int shard = 2; shard <= shardCount; shard++) {
+                writeSitemapLoc(writer, domain + "/sitemap-article-" + shard + ".xml");
+            }
+            writeSitemapLoc(writer, domain + "/sitemap-category.xml");
+            writeSitemapLoc(writer, domain + "/sitemap-tag.xml");
+            writer.write("</sitemapindex>");
+        });
+    }
+
+    @Override
+    public SitemapDocument home(String domain) {
+        return render("home@" + domain, 0, startedAt, writer -> {
+            writer.write(URLSET_OPEN);
+            writeUrl(writer, domain + "/", "daily", "1.0", null);
+            writer.write(URLSET_CLOSE);
+        });
+    }
+
+    @Override
+    public SitemapDocument articles(String domain, int shard) {
+        ArticleState state = articleState();
+        if (shard < 1 || shard > state.shardCount()) {
+            return null;
+        }
+        int index = shard - 1;
+        List<SitemapArticle> entries = state.shard(index);
+        return render("article:" + shard + "@" + domain, state.shardVersions()[index], state.shardChangedAt()[index], writer -> {
+            writer.write(URLSET_OPEN);
+            for (SitemapArticle article : entries) {
+                writeUrl(writer, domain + "/article/" + url(article.getAlias()), "weekly", "0.9", article.getCreate_time());
+            }
+            writer.write(URLSET_CLOSE);
+        });
+    }
+
+    @Override
+    public SitemapDocument categories(String domain) {
+        TaxonomyState state = taxonomyState();
+        return render("category@" + domain, state.version(), state.changedAt(), writer -> {
+            writer.write(URLSET_OPEN);
+            for (String category : state.categories()) {
+                writeUrl(writer, domain + "/category/" + url(category), "weekly", "0.6", null);
+            }
+            writer.write(URLSET_CLOSE);
+        });
+    }
+
+    @Override
+    public SitemapDocument tags(String domain) {
+        TaxonomyState state = taxonomyState();
+        return render("tag@" + domain, state.version(), state.changedAt(), writer -> {
+            writer.write(URLSET_OPEN);
+            for (String tag : state.tags()) {
+                writeUrl(writer, domain + "/tag/" + url(tag), "weekly", "0.5", null);
+            }
+            writer.write(URLSET_CLOSE);
+        });
+    }
+
+    @Override
+    public void articleChanged(String articleId) {
+        if (articleId == null) {
+            return;
+        }
+        SitemapArticle current;
+        try {
+            current = readArticleMapper.selectSitemapArticle(articleId);
+        } catch (Exception e) {
+            log.warn("查询文章站点地图条目失败，下次访问时重新加载: articleId={}", articleId, e);
+            articleState = null;
+            return;
+        }
+
+        synchronized (articleLock) {
+            ArticleState state = articleState;
+            if (state != null) {
+                articleState = applyChange(state, articleId, current);
+            }
+        }
+        clusterVersion.publish(cacheService);
+    }
+
+    @Override
+    public void taxonomyChanged() {
+        taxonomyState = null;
+        clusterVersion.publish(cacheService);
+    }
+
+    @Override
+    public void invalidate() {
+        articleState = null;
+        taxonomyState = null;
+        rendered.invalidateAll();
+        clusterVersion.publish(cacheService);
+        log.info("已清除站点地图缓存");
+    }
+
+    /**
+     * 定期与数据库全量对比一次，兜底未经过业务接口的状态变化；内容未变的分片保持原版本
+     */
+    @Scheduled(fixedDelay = 60 * 60 * 1000, initialDelay = 60 * 60 * 1000)
+    public void reconcile() {
+        if (articleState == null) {
+            return;
+        }
+        try {
+            synchronized (articleLock) {
+                articleState = loadArticles(articleState);
+            }
+        } catch (Exception e) {
+            log.warn("站点地图定期校对失败", e);
+        }
+    }
+
+    private ArticleState articleState() {
+        syncWithCluster();
+        ArticleState state = articleState;
+        if (state != null) {
+            return state;
+        }
+        synchronized (articleLock) {
+            if (articleState == null) {
+                articleState = loadArticles(null);
+            }
+            return articleState;
+        }
+    }
+
+    private TaxonomyState taxonomyState() {
+        syncWithCluster();
+        TaxonomyState state = taxonomyState;
+        if (state != null && System.currentTimeMillis() - state.loadedAt() < TAXONOMY_TTL_MILLIS) {
+            return state;
+        }
+        synchronized (taxonomyLock) {
+            state = taxonomyState;
+            if (state != null && System.currentTimeMillis() - state.loadedAt() < TAXONOMY_TTL_MILLIS) {
+                return state;
+            }
+            List<String> categories = nullToEmpty(readArticleMapper.listAllCategories());
+            List<String> tags = nullToEmpty(readArticleMapper.listAllTags());
+            long now = System.currentTimeMillis();
+            if (state != null && state.categories().equals(categories) && state.tags().equals(tags)) {
+                state = new TaxonomyState(state.categories(), state.tags(), state.version(), state.changedAt(), now);
+            } else {
+                state = new TaxonomyState(categories, tags, versionSequence.incrementAndGet(), now, now);
+                log.info("站点地图分类与标签已加载: 分类 {} 个，标签 {} 个", categories.size(), tags.size());
+            }
+            taxonomyState = state;
+            return state;
+        }
+    }
+
+    /**
+     * 全量加载文章投影，传入旧状态时内容相同的分片沿用原版本号，避免无谓的重新渲染
+     */
+    private ArticleState loadArticles(ArticleState previous) {
+        long start = System.nanoTime();
+        List<SitemapArticle> entries = nullToEmpty(readArticleMapper.listSitemapArticles());
+        long now = System.currentTimeMillis();
+
+        ArticleState fresh = new ArticleState(entries, new long[0], new long[0], now);
+        int shardCount = fresh.shardCount();
+        long[] versions = new long[shardCount];
+        long[] changedAt = new long[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            if (previous != null && i < previous.shardCount() && previous.shard(i).equals(fresh.shard(i))) {
+                versions[i] = previous.shardVersions()[i];
+                changedAt[i] = previous.shardChangedAt()[i];
+            } else {
+                versions[i] = versionSequence.incrementAndGet();
+                changedAt[i] = now;
+            }
+        }
+        long indexChangedAt = previous != null && previous.shardCount() == shardCount ? previous.indexChangedAt() : now;
+
+        MetricsUtil.recordNanos("sitemap.load.time", System.nanoTime() - start);
+        log.info("站点地图文章已加载: {} 篇，{} 个分片", entries.size(), shardCount);
+        return new ArticleState(entries, versions, changedAt, indexChangedAt);
+    }
+
+    /**
+     * 在旧状态上应用单篇文章的变化，只提升受影响分片的版本
+     */
+    private ArticleState applyChange(ArticleState state, String articleId, SitemapArticle current) {
+        List<SitemapArticle> entries = new ArrayList<>(state.entries());
+        int existing = -1;
+        for (int i = 0; i < entries.size(); i++) {
+            if (articleId.equals(entries.get(i).getArticle_id())) {
+                existing = i;
+                break;
+            }
+        }
+
+        int firstChanged;
+        boolean positionsShifted;
+        if (existing >= 0 && current != null) {
+            if (entries.get(existing).equals(current)) {
+                return state;
+            }
+            entries.set(existing, current);
+            firstChanged = existing;
+            positionsShifted = false;
+        } else if (existing >= 0) {
+            entries.remove(existing);
+            firstChanged = existing;
+            positionsShifted = true;
+        } else if (current != null) {
+            int position = insertionPoint(entries, current.getId());
+            entries.add(position, current);
+            firstChanged = position;
+            positionsShifted = true;
+        } else {
+            return state;
+        }
+
+        long now = System.currentTimeMillis();
+        ArticleState updated = new ArticleState(entries, new long[0], new long[0], state.indexChangedAt());
+        int shardCount = updated.shardCount();
+        long[] versions = Arrays.copyOf(state.shardVersions(), shardCount);
+        long[] changedAt = Arrays.copyOf(state.shardChangedAt(), shardCount);
+        int firstShard = firstChanged / SHARD_SIZE;
+        // 插入或删除会让后续条目整体移位，之后的分片都需要重新生成
+        int lastShard = positionsShifted ? shardCount - 1 : firstShard;
+        for (int i = firstShard; i <= lastShard && i < shardCount; i++) {
+            versions[i] = versionSequence.incrementAndGet();
+            changedAt[i] = now;
+        }
+        long indexChangedAt = shardCount != state.shardCount() ? now : state.indexChangedAt();
+        MetricsUtil.increment("sitemap.incremental_update");
+        return new ArticleState(entries, versions, changedAt, indexChangedAt);
+    }
+
+    private static int insertionPoint(List<SitemapArticle> entries, Integer id) {
+        int low = 0;
+        int high = entries.size();
+        int key = id != null ? id : Integer.MAX_VALUE;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            Integer midId = entries.get(mid).getId();
+            if ((midId != null ? midId : Integer.MAX_VALUE) < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private void syncWithCluster() {
+        if (!clusterVersion.sync(cacheService)) {
+            return;
+        }
+        log.info("站点地图版本已被其他节点更新，重新校对");
+        synchronized (articleLock) {
+            if (articleState != null) {
+                articleState = loadArticles(articleState);
+            }
+        }
+        taxonomyState = null;
+    }
+
+    /**
+     * 版本号未变时复用已渲染的结果，同一文档的并发渲染只执行一次
+     */
+    private SitemapDocument render(String key, long version, long lastModified, BodyWriter body) {
+        Rendered result = rendered.asMap().compute(key, (k, existing) -> {
+            if (existing != null && existing.version() == version) {
+                return existing;
+            }
+            long start = System.nanoTime();
+            SitemapDocument document = buildDocument(body, lastModified);
+            MetricsUtil.recordNanos("sitemap.render.time", System.nanoTime() - start);
+            return new Rendered(version, document);
+        });
+        return result.document();
+    }
+
+    private SitemapDocument buildDocument(BodyWriter body, long lastModified) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(8192);
+        CRC32 crc = new CRC32();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(buffer, 8192);
+             Writer writer = new OutputStreamWriter(new CheckedOutputStream(gzip, crc), StandardCharsets.UTF_8)) {
+            body.write(writer);
+        } catch (IOException e) {
+            throw new UncheckedIOException("生成站点地图失败", e);
+        }
+        String etag = "W/\"" + Long.toHexString(crc.getValue()) + "\"";
+        // HTTP 日期精度为秒
+        return new SitemapDocument(buffer.toByteArray(), etag, lastModified / 1000 * 1000);
+    }
+
+    private static void writeSitemapLoc(Writer writer, String loc) throws IOException {
+        writer.write("<sitemap><loc>");
+        writer.write(escapeXml10(loc));
+        writer.write("</loc></sitemap>\n");
+    }
+
+    private static void writeUrl(Writer writer, String loc, String changefreq, String priority, Date lastmod) throws IOException {
+        writer.write("<url><loc>");
+        writer.write(escapeXml10(loc));
+        writer.write("</loc><changefreq>");
+        writer.write(changefreq);
+        writer.write("</changefreq><priority>");
+        writer.write(priority);
+        writer.write("</priority>");
+        if (lastmod != null) {
+            writer.write("<lastmod>");
+            writer.write(lastmod.toInstant().atOffset(LASTMOD_OFFSET).format(LASTMOD_FORMAT));
+            writer.write("</lastmod>");
+        }
+        writer.write("</url>\n");
+    }
+
+    private static String escapeXml10(String input) {
+        if (input == null) return "";
+        return input.replace("&", "&amp;")
+                .replace("<", "&lt;")
+                .replace(">", "&gt;")
+                .replace("\"", "&quot;")
+                .replace("'", "&apos;");
+    }
+
+    private static String url(String s) {
+        if (s == null) return "";
+        return URLEncoder.encode(s, StandardCharsets.UTF_8).replace("+", "%20");
+    }
+
+    private static <T> List<T> nullToEmpty(List<T> list) {
+        return list != null ? list : List.of();
+    }
+}
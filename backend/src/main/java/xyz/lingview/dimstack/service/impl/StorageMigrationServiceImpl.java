@@ -0,0 +1,513 @@
+package xyz.lingview.dimstack.service.impl;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import xyz.lingview.dimstack.domain.AttachmentManagement;
+import xyz.lingview.dimstack.domain.StorageMigrationFailedItem;
+import xyz.lingview.dimstack.domain.StorageMigrationItem;
+import xyz.lingview.dimstack.domain.StorageMigrationLog;
+import xyz.lingview.dimstack.mapper.AttachmentManagementMapper;
+import xyz.lingview.dimstack.mapper.StorageMigrationLogMapper;
+import xyz.lingview.dimstack.service.FileAccessService;
+import xyz.lingview.dimstack.service.FileStorage;
+import xyz.lingview.dimstack.service.StorageFacadeService;
+import xyz.lingview.dimstack.service.StorageMigrationService;
+import xyz.lingview.dimstack.util.MetricsUtil;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @Author: lingview
+ * @Date: 2026/10/18 10:18:05
+ * @Description: 存储迁移任务实现，文件以流的方式从源存储直接写入目标存储，
+ *               并发数由信号量限制，每个附件的迁移结果写入 storage_migration_item，重启后从未完成的附件继续
+ * @Version: 1.0
+ */
+@Slf4j
+@Service
+public class StorageMigrationServiceImpl implements StorageMigrationService {
+
+    private static final int STATUS_RUNNING = 0;
+    private static final int STATUS_COMPLETED = 1;
+    private static final int STATUS_FAILED = 2;
+
+    private static final int ITEM_SUCCESS = 1;
+    private static final int ITEM_FAILED = 2;
+
+    private static final int ITEM_BATCH_SIZE = 500;
+
+    @Autowired
+    private AttachmentManagementMapper attachmentManagementMapper;
+
+    @Autowired
+    private StorageMigrationLogMapper storageMigrationLogMapper;
+
+    @Autowired
+    private StorageFacadeService storageFacadeService;
+
+    @Autowired
+    private FileAccessService fileAccessService;
+
+    @Value("${app.storage.migration.parallelism:4}")
+    private int parallelism;
+
+    private final Map<Integer, MigrationJob> runningJobs = new ConcurrentHashMap<>();
+
+    // 运行中的任务涉及的存储 -> 任务数，检查与占用在同一把锁内完成
+    private final Map<String, Integer> busyStorages = new HashMap<>();
+
+    // 每个任务占用一个线程调度，附件并发由任务自身的信号量限制，线程数不会超过 任务数 * (parallelism + 1)
+    private final AtomicInteger threadCounter = new AtomicInteger();
+    private final ExecutorService executor = Executors.newCachedThreadPool(r -> {
+        Thread thread = new Thread(r, "storage-migration-" + threadCounter.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile boolean shuttingDown;
+
+    /**
+     * 运行中的迁移任务，计数只在内存中实时累加，数据库中的汇总按批次刷新
+     */
+    private static final class MigrationJob {
+        private final StorageMigrationLog migrationLog;
+        private final int parallelism;
+        private final Semaphore permits;
+        private final AtomicInteger success;
+        private final AtomicInteger failed;
+        private final AtomicLong bytes;
+        // 本次运行开始前已处理的数量，用于计算本次运行的速率
+        private final int processedAtStart;
+        private final long startNanos = System.nanoTime();
+
+        private MigrationJob(StorageMigrationLog migrationLog, int parallelism, int success, int failed, long bytes) {
+            this.migrationLog = migrationLog;
+            this.parallelism = parallelism;
+            this.permits = new Semaphore(parallelism);
+            this.success = new AtomicInteger(success);
+            this.failed = new AtomicInteger(failed);
+            this.bytes = new AtomicLong(bytes);
+            this.processedAtStart = success + failed;
+        }
+
+        private int processed() {
+            return success.get() + failed.get();
+        }
+    }
+
+    @Override
+    public Map<String, Object> startMigration(String sourceStorageId, String targetStorageId, List<AttachmentManagement> attachments) {
+        if (!reserveStorages(sourceStorageId, targetStorageId)) {
+            return Map.of("error", "该存储已有迁移任务正在进行，请等待完成后再试");
+        }
+
+        StorageMigrationLog migrationLog = new StorageMigrationLog();
+        try {
+            storageFacadeService.getStorage(sourceStorageId);
+            storageFacadeService.getStorage(targetStorageId);
+        } catch (Exception e) {
+            releaseStorages(sourceStorageId, targetStorageId);
+            return Map.of("error", "存储方式不可用: " + e.getMessage());
+        }
+
+        try {
+            migrationLog.setSource_storage_id(sourceStorageId);
+            migrationLog.setTarget_storage_id(targetStorageId);
+            migrationLog.setTotal(attachments.size());
+            migrationLog.setStatus(STATUS_RUNNING);
+            storageMigrationLogMapper.insertLog(migrationLog);
+            insertItems(migrationLog, attachments);
+        } catch (RuntimeException e) {
+            releaseStorages(sourceStorageId, targetStorageId);
+            throw e;
+        }
+
+        launch(new MigrationJob(migrationLog, effectiveParallelism(), 0, 0, 0L));
+        log.info("存储迁移任务已创建: id={}, {} -> {}, 附件数={}",
+                migrationLog.getId(), sourceStorageId, targetStorageId, attachments.size());
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("migrationId", migrationLog.getId());
+        result.put("total", attachments.size());
+        result.put("status", STATUS_RUNNING);
+        return result;
+    }
+
+    private void insertItems(StorageMigrationLog migrationLog, List<AttachmentManagement> attachments) {
+
+        List<StorageMigrationItem> batch = new ArrayList<>(Math.min(attachments.size(), ITEM_BATCH_SIZE));
+        for (AttachmentManagement attachment : attachments) {
+            StorageMigrationItem item = new StorageMigrationItem();
+            item.setMigration_id(migrationLog.getId());
+            item.setAttachment_id(attachment.getAttachment_id());
+            item.setFile_path(attachment.getAttachment_path());
+            batch.add(item);
+            if (batch.size() >= ITEM_BATCH_SIZE) {
+                storageMigrationLogMapper.insertItems(batch);
+                batch = new ArrayList<>(ITEM_BATCH_SIZE);
+            }
+        }
+        if (!batch.isEmpty()) {
+            storageMigrationLogMapper.insertItems(batch);
+        }
+    }
+
+    /**
+     * 源存储不能同时参与其他迁移任务（作为源或目标），检查通过后立即占用，避免并发请求同时通过检查
+     */
+    private boolean reserveStorages(String sourceStorageId, String targetStorageId) {
+        synchronized (busyStorages) {
+            if (busyStorages.containsKey(sourceStorageId)) {
+                return false;
+            }
+            busyStorages.merge(sourceStorageId, 1, Integer::sum);
+            busyStorages.merge(targetStorageId, 1, Integer::sum);
+            return true;
+        }
+    }
+
+    private void releaseStorages(String sourceStorageId, String targetStorageId) {
+        synchronized (busyStorages) {
+            busyStorages.computeIfPresent(sourceStorageId, (id, count) -> count > 1 ? count - 1 : null);
+            busyStorages.computeIfPresent(targetStorageId, (id, count) -> count > 1 ? count - 1 : null);
+        }
+    }
+
+    private int effectiveParallelism() {
+        return Math.max(1, parallelism);
+    }
+
+    @Override
+    public Map<String, Object> getProgress(int migrationId) {
+        MigrationJob job = runningJobs.get(migrationId);
+        if (job != null) {
+            return buildProgress(job);
+        }
+
+        StorageMigrationLog migrationLog = storageMigrationLogMapper.selectById(migrationId);
+        if (migrationLog == null) {
+            return null;
+        }
+        Map<String, Object> result = new HashMap<>();
+        result.put("migrationId", migrationLog.getId());
+        result.put("status", migrationLog.getStatus());
+        result.put("running", false);
+        result.put("total", migrationLog.getTotal());
+        result.put("success", migrationLog.getSuccess());
+        result.put("failed", migrationLog.getFailed());
+        result.put("bytesMigrated", migrationLog.getBytes_migrated());
+        result.put("finishedAt", migrationLog.getFinished_at());
+        List<Map<String, String>> failedItems = new ArrayList<>();
+        if (migrationLog.getFailedItems() != null) {
+            for (StorageMigrationFailedItem item : migrationLog.getFailedItems()) {
+                failedItems.add(Map.of(
+                        "attachmentId", item.getAttachment_id(),
+                        "filePath", item.getFile_path(),
+                        "error", item.getError_msg() != null ? item.getError_msg() : "未知错误"));
+            }
+        }
+        result.put("failedItems", failedItems);
+        return result;
+    }
+
+    /**
+     * 应用启动后继续执行上次未完成的迁移任务
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeInterruptedMigrations() {
+        List<StorageMigrationLog> interrupted;
+        try {
+            interrupted = storageMigrationLogMapper.selectRunning();
+        } catch (Exception e) {
+            log.info("迁移任务恢复跳过（数据库可能尚未就绪）: {}", e.getMessage());
+            return;
+        }
+
+        for (StorageMigrationLog migrationLog : interrupted) {
+            Map<String, Object> stats = storageMigrationLogMapper.selectItemStats(migrationLog.getId());
+            int itemTotal = toInt(stats.get("total"));
+            if (itemTotal == 0 && migrationLog.getTotal() > 0) {
+                // 旧版本创建的任务没有明细记录，无法恢复
+                migrationLog.setStatus(STATUS_FAILED);
+                migrationLog.setFinished_at(LocalDateTime.now());
+                storageMigrationLogMapper.updateLog(migrationLog);
+                log.warn("迁移任务 {} 缺少明细记录，已标记为失败", migrationLog.getId());
+                continue;
+            }
+            MigrationJob job = new MigrationJob(migrationLog, effectiveParallelism(),
+                    toInt(stats.get("success")), toInt(stats.get("failed")), toLong(stats.get("bytes")));
+            // 上次运行时已通过检查，恢复时直接占用
+            synchronized (busyStorages) {
+                busyStorages.merge(migrationLog.getSource_storage_id(), 1, Integer::sum);
+                busyStorages.merge(migrationLog.getTarget_storage_id(), 1, Integer::sum);
+            }
+            launch(job);
+            log.info("恢复迁移任务: id={}, 已完成 {}/{}", migrationLog.getId(), job.processed(), migrationLog.getTotal());
+        }
+    }
+
+    @PreDestroy
+    public void destroy() {
+        // 未完成的附件保持待迁移状态，下次启动时继续
+        shuttingDown = true;
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        for (MigrationJob job : runningJobs.values()) {
+            persistProgress(job, STATUS_RUNNING);
+        }
+    }
+
+    private void launch(MigrationJob job) {
+        runningJobs.put(job.migrationLog.getId(), job);
+        executor.execute(() -> runJob(job));
+    }
+
+    private void runJob(MigrationJob job) {
+        StorageMigrationLog migrationLog = job.migrationLog;
+        int migrationId = migrationLog.getId();
+        try {
+            FileStorage sourceStorage;
+            FileStorage targetStorage;
+            try {
+                sourceStorage = storageFacadeService.getStorage(migrationLog.getSource_storage_id());
+                targetStorage = storageFacadeService.getStorage(migrationLog.getTarget_storage_id());
+            } catch (Exception e) {
+                log.error("迁移任务 {} 无法获取存储方式: {}", migrationId, e.getMessage());
+                persistProgress(job, STATUS_FAILED);
+                return;
+            }
+
+            int afterId = 0;
+            while (!shuttingDown) {
+                List<StorageMigrationItem> items =
+                        storageMigrationLogMapper.selectPendingItems(migrationId, afterId, ITEM_BATCH_SIZE);
+                if (items.isEmpty()) {
+                    break;
+                }
+                for (StorageMigrationItem item : items) {
+                    job.permits.acquire();
+                    if (shuttingDown) {
+                        job.permits.release();
+                        break;
+                    }
+                    try {
+                        executor.execute(() -> {
+                            try {
+                                migrateItem(job, sourceStorage, targetStorage, item);
+                            } finally {
+                                job.permits.release();
+                            }
+                        });
+                    } catch (RejectedExecutionException e) {
+                        job.permits.release();
+                        break;
+                    }
+                }
+                afterId = items.get(items.size() - 1).getId();
+                persistProgress(job, STATUS_RUNNING);
+            }
+
+            // 等待所有在途附件结束
+            job.permits.acquire(job.parallelism);
+            job.permits.release(job.parallelism);
+
+            if (shuttingDown) {
+                return;
+            }
+            persistProgress(job, STATUS_COMPLETED);
+            log.info("存储迁移任务完成: id={}, 成功 {}, 失败 {}, 迁移 {} 字节",
+                    migrationId, job.success.get(), job.failed.get(), job.bytes.get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.error("存储迁移任务 {} 执行异常", migrationId, e);
+            persistProgress(job, STATUS_FAILED);
+        } finally {
+            if (!shuttingDown) {
+                runningJobs.remove(migrationId);
+                releaseStorages(migrationLog.getSource_storage_id(), migrationLog.getTarget_storage_id());
+            }
+        }
+    }
+
+    private void migrateItem(MigrationJob job, FileStorage sourceStorage, FileStorage targetStorage, StorageMigrationItem item) {
+        String sourceStorageId = job.migrationLog.getSource_storage_id();
+        String targetStorageId = job.migrationLog.getTarget_storage_id();
+        String filePath = item.getFile_path();
+        long start = System.nanoTime();
+        try {
+            AttachmentManagement attachment = attachmentManagementMapper.selectByAttachmentId(item.getAttachment_id());
+            if (attachment == null) {
+                markFailed(job, item, "附件不存在");
+                return;
+            }
+            if (targetStorageId.equals(attachment.getStorage_id())) {
+                // 上次运行已切换存储但未来得及记录结果
+                markSucceeded(job, item, 0L);
+                return;
+            }
+            if (!sourceStorageId.equals(attachment.getStorage_id())) {
+                markFailed(job, item, "附件已不在源存储中");
+                return;
+            }
+
+            long size = sourceStorage.size(filePath);
+            if (size < 0 && !sourceStorage.exists(filePath)) {
+                markFailed(job, item, "源文件不存在，无法迁移");
+                return;
+            }
+
+            size = transfer(sourceStorage, targetStorage, filePath, size, attachment.getContent_type());
+
+            // 先切换附件存储再删源文件，中途中断时附件始终指向一份完整的文件
+            attachmentManagementMapper.updateStorageId(item.getAttachment_id(), targetStorageId);
+            fileAccessService.evictAttachments(List.of(item.getAttachment_id()));
+            markSucceeded(job, item, size);
+
+            try {
+                sourceStorage.delete(filePath);
+            } catch (Exception e) {
+                log.warn("迁移后删除源文件失败（不影响迁移结果）: {}", filePath);
+            }
+            MetricsUtil.recordNanos("storage.migration.item.time", System.nanoTime() - start);
+            log.debug("迁移成功: {} -> {}", filePath, targetStorageId);
+        } catch (Exception e) {
+            if (shuttingDown) {
+                // 停机中断的附件保持待迁移状态
+                log.info("应用关闭，附件迁移中断，将在下次启动时重试: {}", filePath);
+                return;
+            }
+            log.error("迁移失败: {}, 错误: {}", filePath, e.getMessage());
+            markFailed(job, item, e.getMessage() != null ? e.getMessage() : "未知错误");
+        }
+    }
+
+    /**
+     * 源存储能给出大小时直接流式写入目标存储；否则先落到临时文件取得长度，不占用堆内存
+     */
+    private long transfer(FileStorage sourceStorage, FileStorage targetStorage, String filePath,
+                          long size, String contentType) throws Exception {
+        if (size >= 0) {
+            try (InputStream in = sourceStorage.retrieve(filePath)) {
+                targetStorage.store(filePath, in, size, contentType);
+            }
+            return size;
+        }
+
+        Path tempFile = Files.createTempFile("dimstack-migrate-", ".tmp");
+        try {
+            try (InputStream in = sourceStorage.retrieve(filePath)) {
+                Files.copy(in, tempFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+            long spooledSize = Files.size(tempFile);
+            try (InputStream in = Files.newInputStream(tempFile)) {
+                targetStorage.store(filePath, in, spooledSize, contentType);
+            }
+            return spooledSize;
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    private void markSucceeded(MigrationJob job, StorageMigrationItem item, long bytes) {
+        storageMigrationLogMapper.updateItemStatus(item.getId(), ITEM_SUCCESS, bytes);
+        job.success.incrementAndGet();
+        job.bytes.addAndGet(bytes);
+        MetricsUtil.increment("storage.migration.bytes", bytes);
+    }
+
+    private void markFailed(MigrationJob job, StorageMigrationItem item, String error) {
+        try {
+            storageMigrationLogMapper.updateItemStatus(item.getId(), ITEM_FAILED, 0L);
+            StorageMigrationFailedItem failedItem = new StorageMigrationFailedItem();
+            failedItem.setMigration_id(item.getMigration_id());
+            failedItem.setAttachment_id(item.getAttachment_id());
+            failedItem.setFile_path(item.getFile_path());
+            failedItem.setError_msg(error);
+            storageMigrationLogMapper.insertFailedItem(failedItem);
+        } catch (Exception e) {
+            log.error("记录迁移失败明细失败: {}", item.getAttachment_id(), e);
+        }
+        job.failed.incrementAndGet();
+        MetricsUtil.increment("storage.migration.failed");
+    }
+
+    private void persistProgress(MigrationJob job, int status) {
+        StorageMigrationLog migrationLog = job.migrationLog;
+        try {
+            synchronized (migrationLog) {
+                migrationLog.setSuccess(job.success.get());
+                migrationLog.setFailed(job.failed.get());
+                migrationLog.setBytes_migrated(job.bytes.get());
+                migrationLog.setStatus(status);
+                if (status != STATUS_RUNNING) {
+                    migrationLog.setFinished_at(LocalDateTime.now());
+                }
+                storageMigrationLogMapper.updateLog(migrationLog);
+            }
+        } catch (Exception e) {
+            log.error("更新迁移进度失败: {}", migrationLog.getId(), e);
+        }
+    }
+
+    private Map<String, Object> buildProgress(MigrationJob job) {
+        StorageMigrationLog migrationLog = job.migrationLog;
+        int total = migrationLog.getTotal();
+        int processed = job.processed();
+        long elapsedNanos = System.nanoTime() - job.startNanos;
+        int processedThisRun = processed - job.processedAtStart;
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("migrationId", migrationLog.getId());
+        result.put("status", STATUS_RUNNING);
+        result.put("running", true);
+        result.put("total", total);
+        result.put("success", job.success.get());
+        result.put("failed", job.failed.get());
+        result.put("bytesMigrated", job.bytes.get());
+        result.put("elapsedSeconds", TimeUnit.NANOSECONDS.toSeconds(elapsedNanos));
+        if (processedThisRun > 0) {
+            long remaining = Math.max(0, total - processed);
+            result.put("etaSeconds", TimeUnit.NANOSECONDS.toSeconds(elapsedNanos / processedThisRun * remaining));
+        } else {
+            result.put("etaSeconds", null);
+        }
+        return result;
+    }
+
+    private static int toInt(Object value) {
+        return value instanceof Number number ? number.intValue() : 0;
+    }
+
+    private static long toLong(Object value) {
+        return value instanceof Number number ? number.longValue() : 0L;
+    }
+}
@@ -0,0 +1,271 @@
+package xyz.lingview.dimstack.service.impl;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import xyz.lingview.dimstack.config.ThemeProperties;
+import xyz.lingview.dimstack.service.ThemeAssetService;
+import xyz.lingview.dimstack.util.MetricsUtil;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * @Author: lingview
+ * @Date: 2026/10/18 23:10:52
+ * @Description: 主题资源清单：启动与切换主题时扫描主题目录，小文件连同 gzip 版本读入内存，
+ *               大文件只记录元数据交给 sendfile 发送；定时比对文件大小与修改时间，主题文件被替换后自动重建
+ * @Version: 1.0
+ */
+@Slf4j
+@Service
+public class ThemeAssetServiceImpl implements ThemeAssetService {
+
+    // 不超过该大小的文件常驻内存
+    private static final long MAX_IN_MEMORY_FILE_SIZE = 512 * 1024;
+    // 常驻内存的文件总大小上限（不含压缩版本），超出部分按大文件处理
+    private static final long MAX_IN_MEMORY_TOTAL_SIZE = 64L * 1024 * 1024;
+    // 小于该大小的文件压缩收益不明显
+    private static final int MIN_COMPRESS_SIZE = 1024;
+
+    private static final Map<String, String> CONTENT_TYPES = new HashMap<>();
+
+    private static final Set<String> COMPRESSIBLE_TYPES = Set.of(
+            "text/html", "text/css", "text/plain", "text/javascript", "application/javascript",
+            "application/json", "application/xml", "image/svg+xml", "application/wasm", "font/ttf",
+            "application/vnd.ms-fontobject", "image/x-icon", "image/bmp");
+
+    static {
+        CONTENT_TYPES.put(".html", "text/html");
+        CONTENT_TYPES.put(".htm", "text/html");
+        CONTENT_TYPES.put(".css", "text/css");
+        CONTENT_TYPES.put(".js", "application/javascript");
+        CONTENT_TYPES.put(".mjs", "text/javascript");
+        CONTENT_TYPES.put(".wasm", "application/wasm");
+        CONTENT_TYPES.put(".json", "application/json");
+        CONTENT_TYPES.put(".xml", "application/xml");
+        CONTENT_TYPES.put(".png", "image/png");
+        CONTENT_TYPES.put(".jpg", "image/jpeg");
+        CONTENT_TYPES.put(".jpeg", "image/jpeg");
+        CONTENT_TYPES.put(".gif", "image/gif");
+        CONTENT_TYPES.put(".bmp", "image/bmp");
+        CONTENT_TYPES.put(".ico", "image/x-icon");
+        CONTENT_TYPES.put(".svg", "image/svg+xml");
+        CONTENT_TYPES.put(".woff", "font/woff");
+        CONTENT_TYPES.put(".woff2", "font/woff2");
+        CONTENT_TYPES.put(".ttf", "font/ttf");
+        CONTENT_TYPES.put(".eot", "application/vnd.ms-fontobject");
+        CONTENT_TYPES.put(".txt", "text/plain");
+        CONTENT_TYPES.put(".pdf", "application/pdf");
+    }
+
+    @Autowired
+    private ThemeProperties themeProperties;
+
+    /**
+     * @param signatures 路径 -> 大小与修改时间，用于判断主题目录是否变化
+     */
+    private record Manifest(String theme, Map<String, ThemeAsset> assets, Map<String, String> signatures,
+                            long memoryBytes) {
+    }
+
+    private volatile Manifest manifest;
+
+    @PostConstruct
+    public void init() {
+        MetricsUtil.gauge("theme.assets.count", () -> manifest != null ? manifest.assets().size() : 0);
+        MetricsUtil.gauge("theme.assets.memory_bytes", () -> manifest != null ? manifest.memoryBytes() : 0);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        current();
+    }
+
+    @Override
+    public ThemeAsset lookup(String resourcePath) {
+        return current().assets().get(resourcePath);
+    }
+
+    @Override
+    public synchronized void reload() {
+        manifest = build(themeProperties.getActiveTheme());
+    }
+
+    /**
+     * 主题文件可能被直接覆盖更新，只比对元数据，有变化时重建清单
+     */
+    @Scheduled(fixedDelay = 60 * 1000, initialDelay = 60 * 1000)
+    public void detectChanges() {
+        Manifest loaded = manifest;
+        if (loaded == null) {
+            return;
+        }
+        try {
+            Path root = themeRoot(loaded.theme());
+            Map<String, String> signatures = new HashMap<>();
+            if (Files.isDirectory(root)) {
+                for (Path file : listFiles(root)) {
+                    BasicFileAttributes attrs = Files.readAttributes(file, BasicFileAttributes.class);
+                    signatures.put(relativePath(root, file), signature(attrs));
+                }
+            }
+            if (!signatures.equals(loaded.signatures())) {
+                log.info("主题 {} 的文件已变化，重新加载资源清单", loaded.theme());
+                synchronized (this) {
+                    if (manifest == loaded) {
+                        manifest = build(loaded.theme());
+                    }
+                }
+            }
+        } catch (IOException e) {
+            log.warn("检查主题文件变化失败: {}", e.getMessage());
+        }
+    }
+
+    private Manifest current() {
+        Manifest loaded = manifest;
+        String activeTheme = themeProperties.getActiveTheme();
+        if (loaded != null && loaded.theme().equals(activeTheme)) {
+            return loaded;
+        }
+        synchronized (this) {
+            if (manifest == null || !manifest.theme().equals(activeTheme)) {
+                manifest = build(activeTheme);
+            }
+            return manifest;
+        }
+    }
+
+    private Manifest build(String theme) {
+        long start = System.nanoTime();
+        Path root = themeRoot(theme);
+        Map<String, ThemeAsset> assets = new HashMap<>();
+        Map<String, String> signatures = new HashMap<>();
+        long memoryBytes = 0;
+
+        if (!Files.isDirectory(root)) {
+            log.warn("主题目录不存在: {}", root);
+            return new Manifest(theme, assets, signatures, 0);
+        }
+
+        try {
+            for (Path file : listFiles(root)) {
+                BasicFileAttributes attrs = Files.readAttributes(file, BasicFileAttributes.class);
+                String path = relativePath(root, file);
+                signatures.put(path, signature(attrs));
+
+                long size = attrs.size();
+                long lastModified = attrs.lastModifiedTime().toMillis();
+                String contentType = contentType(path);
+
+                if (size <= MAX_IN_MEMORY_FILE_SIZE && memoryBytes + size <= MAX_IN_MEMORY_TOTAL_SIZE) {
+                    byte[] content = Files.readAllBytes(file);
+                    byte[] gzip = null;
+                    byte[] brotli = null;
+                    if (COMPRESSIBLE_TYPES.contains(contentType) && content.length >= MIN_COMPRESS_SIZE) {
+                        gzip = readVariant(file, ".gz", content.length);
+                        if (gzip == null) {
+                            gzip = gzip(content);
+                        }
+                        brotli = readVariant(file, ".br", content.length);
+                    }
+                    assets.put(path, new ThemeAsset(path, file, contentType, content.length, lastModified,
+                            contentEtag(content), content, gzip, brotli));
+                    memoryBytes += content.length
+                            + (gzip != null ? gzip.length : 0)
+                            + (brotli != null ? brotli.length : 0);
+                } else {
+                    // 大文件不读取内容，校验值由大小与修改时间生成
+                    String etag = "\"" + Long.toHexString(size) + "-" + Long.toHexString(lastModified) + "\"";
+                    assets.put(path, new ThemeAsset(path, file, contentType, size, lastModified, etag,
+                            null, null, null));
+                }
+            }
+        } catch (IOException e) {
+            log.error("加载主题 {} 资源清单失败", theme, e);
+        }
+
+        MetricsUtil.recordNanos("theme.assets.load.time", System.nanoTime() - start);
+        log.info("主题 {} 资源清单已加载: {} 个文件，常驻内存 {} KB", theme, assets.size(), memoryBytes / 1024);
+        return new Manifest(theme, assets, signatures, memoryBytes);
+    }
+
+    private Path themeRoot(String theme) {
+        return Path.of(themeProperties.getThemesPath(), theme).toAbsolutePath().normalize();
+    }
+
+    private static List<Path> listFiles(Path root) throws IOException {
+        try (Stream<Path> stream = Files.walk(root)) {
+            return stream.filter(Files::isRegularFile).toList();
+        }
+    }
+
+    private static String relativePath(Path root, Path file) {
+        return "/" + root.relativize(file).toString().replace('\\', '/');
+    }
+
+    private static String signature(BasicFileAttributes attrs) {
+        return attrs.size() + ":" + attrs.lastModifiedTime().toMillis();
+    }
+
+    /**
+     * 读取主题构建时生成的 .gz / .br 预压缩文件，比原文件大时忽略
+     */
+    private static byte[] readVariant(Path file, String suffix, int originalLength) throws IOException {
+        Path variant = file.resolveSibling(file.getFileName() + suffix);
+        if (!Files.isRegularFile(variant) || Files.size(variant) >= originalLength) {
+            return null;
+        }
+        return Files.readAllBytes(variant);
+    }
+
+    private static byte[] gzip(byte[] content) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(content.length / 3 + 64);
+        try (GZIPOutputStream out = new GZIPOutputStream(buffer) {
+            {
+                def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        }) {
+            out.write(content);
+        }
+        byte[] compressed = buffer.toByteArray();
+        // 压缩后节省不到一成时直接发送原文件
+        return compressed.length < content.length * 0.9 ? compressed : null;
+    }
+
+    private static String contentEtag(byte[] content) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(content);
+            return "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 算法不可用", e);
+        }
+    }
+
+    private static String contentType(String path) {
+        String extension = "";
+        int lastDot = path.lastIndexOf('.');
+        if (lastDot > path.lastIndexOf('/') + 1) {
+            extension = path.substring(lastDot).toLowerCase();
+        }
+        return CONTENT_TYPES.getOrDefault(extension, "application/octet-stream");
+    }
+}
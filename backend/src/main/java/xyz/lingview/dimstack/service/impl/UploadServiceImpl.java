@@ -6,26 +6,32 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
+import xyz.lingview.dimstack.domain.MultipartUpload;
+import xyz.lingview.dimstack.domain.MultipartUploadPart;
 import xyz.lingview.dimstack.domain.UploadArticle;
 import xyz.lingview.dimstack.domain.UploadAttachment;
 import xyz.lingview.dimstack.domain.UserInformation;
 import xyz.lingview.dimstack.mapper.ArticleCategoryMapper;
+import xyz.lingview.dimstack.mapper.MultipartUploadMapper;
 import xyz.lingview.dimstack.mapper.UploadMapper;
 import xyz.lingview.dimstack.mapper.UserInformationMapper;
 import xyz.lingview.dimstack.service.CacheService;
 import xyz.lingview.dimstack.service.CurrentUserService;
 import xyz.lingview.dimstack.service.FileStorage;
+import xyz.lingview.dimstack.service.MultipartUploadStorage;
 import xyz.lingview.dimstack.service.SiteConfigService;
 import xyz.lingview.dimstack.service.StorageFacadeService;
 import xyz.lingview.dimstack.service.UploadService;
 import xyz.lingview.dimstack.mapper.StorageMethodMapper;
 import xyz.lingview.dimstack.util.CategoryPathUtil;
+import xyz.lingview.dimstack.util.MetricsUtil;
 import xyz.lingview.dimstack.util.RandomUtil;
 
 import jakarta.servlet.http.HttpServletRequest;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.SequenceInputStream;
 import java.net.HttpURLConnection;
 import java.net.InetAddress;
 import java.net.URI;
@@ -37,6 +43,7 @@ import java.nio.file.StandardOpenOption;
 import java.time.Instant;
 import java.util.*;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static java.net.InetAddress.getByName;
 
@@ -78,6 +85,9 @@ public class UploadServiceImpl implements UploadService {
     @Autowired
     private StorageMethodMapper storageMethodMapper;
 
+    @Autowired
+    private MultipartUploadMapper multipartUploadMapper;
+
     // 注入配置属性
     @Value("${file.data-root:.}")
     private String dataRoot;
@@ -87,6 +97,9 @@ public class UploadServiceImpl implements UploadService {
 
     private static final long MAX_FILE_SIZE = 100 * 1024 * 1024;
 
+    // S3 协议单次分片上传最多 10000 个分片
+    private static final int MAX_CHUNK_COUNT = 10_000;
+
     private static final Map<String, List<String>> SUPPORTED_FILE_TYPES = Map.of(
             "image", List.of(
                     "image/jpeg", "image/jpg", "image/png", "image/gif",
@@ -357,14 +370,76 @@ public class UploadServiceImpl implements UploadService {
             return Map.of("error", "文件扩展名不被允许");
         }
 
+        // 客户端带回之前的上传ID时续传，返回已上传的分片序号
+        String resumeUploadId = payload.get("uploadId");
+        if (resumeUploadId != null && !resumeUploadId.isEmpty()) {
+            MultipartUpload existing = multipartUploadMapper.selectByUploadId(resumeUploadId);
+            if (existing != null && username.equals(existing.getUsername())
+                    && filename.equals(existing.getOriginal_filename())) {
+                String uploadedChunks = multipartUploadMapper.selectParts(resumeUploadId).stream()
+                        .map(part -> String.valueOf(part.getPart_number() - 1))
+                        .collect(Collectors.joining(","));
+                multipartUploadMapper.touch(resumeUploadId);
+                log.info("继续分片上传。上传ID: {}，已上传分片: [{}]", resumeUploadId, uploadedChunks);
+                return Map.of("uploadId", resumeUploadId, "uploadedChunks", uploadedChunks);
+            }
+        }
+
+        String mimeType = getMimeTypeByExtension(extension);
+        if (!isMimeAllowed(mimeType)) {
+            log.warn("分片上传初始化时文件类型不被允许: {}", mimeType);
+            return Map.of("error", "文件类型不被允许: " + mimeType);
+        }
+
+        String fileUUID = RandomUtil.generateUUID();
+        String objectKey = buildDatabasePath(username, "attachment", getFolderByMime(mimeType), fileUUID + extension);
+
+        String defaultStorageUuid = siteConfigService.getSiteConfig().getDefault_storage();
+        String storageId = defaultStorageUuid != null ? defaultStorageUuid : storageMethodMapper.selectByType("local").getUuid();
+        FileStorage storage;
+        try {
+            storage = storageFacadeService.getDefaultStorage(defaultStorageUuid);
+        } catch (Exception e) {
+            log.error("默认存储方式不可用: {}", e.getMessage());
+            return Map.of("error", "默认存储方式不可用，请检查存储配置");
+        }
+
+        // 存储支持原生分片上传时分片直接写入存储，否则暂存在本地，完成时再合并
+        String storageUploadId = null;
+        if (storage instanceof MultipartUploadStorage multipartStorage) {
+            try {
+                storageUploadId = multipartStorage.initMultipartUpload(objectKey, mimeType);
+            } catch (Exception e) {
+                log.error("创建存储分片上传失败: {}", objectKey, e);
+                return Map.of("error", "初始化存储分片上传失败");
+            }
+        }
+
         String uploadId = UUID.randomUUID().toString();
-        log.info("分片上传初始化成功。上传ID: {}", uploadId);
+        MultipartUpload upload = new MultipartUpload();
+        upload.setUpload_id(uploadId);
+        upload.setUsername(username);
+        upload.setOriginal_filename(filename);
+        upload.setAttachment_id(fileUUID);
+        upload.setStorage_id(storageId);
+        upload.setObject_key(objectKey);
+        upload.setStorage_upload_id(storageUploadId);
+        upload.setContent_type(mimeType);
+        if (multipartUploadMapper.insert(upload) != 1) {
+            log.error("保存分片上传记录失败: {}", objectKey);
+            if (storageUploadId != null && storage instanceof MultipartUploadStorage multipartStorage) {
+                abortQuietly(multipartStorage, objectKey, storageUploadId);
+            }
+            return Map.of("error", "初始化上传失败");
+        }
+
+        log.info("分片上传初始化成功。上传ID: {}，存储: {}", uploadId, storage.getType());
         return Map.of("uploadId", uploadId);
     }
 
     @Override
     public Map<String, String> uploadChunk(HttpServletRequest request, String uploadId, int chunkIndex, byte[] chunkData) {
-        log.debug("上传分片 {}/{}，上传ID: {}", chunkIndex, uploadId);
+        log.debug("上传分片 {}，上传ID: {}", chunkIndex, uploadId);
 
         String username = getUsername(request);
         if (username == null) {
@@ -372,24 +447,57 @@ public class UploadServiceImpl implements UploadService {
             return Map.of("error", "用户未登录或用户名无效");
         }
 
-        Path uploadPath = buildFileSystemPath(username, "temp", uploadId);
-        Path allowedRoot = getBasePath();
+        if (chunkIndex < 0 || chunkIndex >= MAX_CHUNK_COUNT) {
+            log.warn("分片序号无效: {}", chunkIndex);
+            return Map.of("error", "分片序号无效");
+        }
 
-        if (!uploadPath.startsWith(allowedRoot)) {
-            log.error("分片的上传路径无效: {}", uploadPath);
-            return Map.of("error", "上传路径无效");
+        MultipartUpload upload = multipartUploadMapper.selectByUploadId(uploadId);
+        if (upload == null || !username.equals(upload.getUsername())) {
+            log.warn("分片上传记录不存在或不属于当前用户: {}", uploadId);
+            return Map.of("error", "上传任务不存在或已过期");
         }
 
-        try {
-            Files.createDirectories(uploadPath);
-            Path chunkFile = uploadPath.resolve("%05d.part".formatted(chunkIndex));
-            Files.write(chunkFile, chunkData, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
-            log.debug("分片 {}/{} 上传成功", chunkIndex, uploadId);
-        } catch (IOException e) {
-            log.error("保存分片 {}/{} 失败", chunkIndex, uploadId, e);
-            return Map.of("error", "保存分片失败");
+        long start = System.nanoTime();
+        String etag = null;
+        if (upload.getStorage_upload_id() != null) {
+            try {
+                if (!(storageFacadeService.getStorage(upload.getStorage_id()) instanceof MultipartUploadStorage storage)) {
+                    log.error("上传ID {} 使用的存储已不支持分片上传", uploadId);
+                    return Map.of("error", "存储方式已不支持分片上传");
+                }
+                etag = storage.uploadPart(upload.getObject_key(), upload.getStorage_upload_id(), chunkIndex + 1,
+                        new ByteArrayInputStream(chunkData), chunkData.length);
+            } catch (Exception e) {
+                log.error("上传分片 {}/{} 到存储失败", chunkIndex, uploadId, e);
+                return Map.of("error", "保存分片失败");
+            }
+        } else {
+            Path uploadPath = buildFileSystemPath(username, "temp", uploadId);
+            Path allowedRoot = getBasePath();
+
+            if (!uploadPath.startsWith(allowedRoot)) {
+                log.error("分片的上传路径无效: {}", uploadPath);
+                return Map.of("error", "上传路径无效");
+            }
+
+            try {
+                Files.createDirectories(uploadPath);
+                Path chunkFile = uploadPath.resolve("%05d.part".formatted(chunkIndex));
+                Files.write(chunkFile, chunkData, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                        StandardOpenOption.TRUNCATE_EXISTING);
+            } catch (IOException e) {
+                log.error("保存分片 {}/{} 失败", chunkIndex, uploadId, e);
+                return Map.of("error", "保存分片失败");
+            }
         }
 
+        multipartUploadMapper.upsertPart(uploadId, chunkIndex + 1, etag, chunkData.length);
+        multipartUploadMapper.touch(uploadId);
+        MetricsUtil.recordNanos("upload.part.time", System.nanoTime() - start);
+        MetricsUtil.increment("upload.part.bytes", chunkData.length);
+        log.debug("分片 {}/{} 上传成功", chunkIndex, uploadId);
+
         return Map.of("message", "分片上传成功");
     }
 
@@ -417,183 +525,239 @@ public class UploadServiceImpl implements UploadService {
             return Map.of("error", "未找到用户");
         }
 
-        String extension = "";
-        if (filename.contains(".")) {
-            extension = filename.substring(filename.lastIndexOf(".")).toLowerCase();
+        MultipartUpload upload = multipartUploadMapper.selectByUploadId(uploadId);
+        if (upload == null || !username.equals(upload.getUsername())) {
+            log.warn("分片上传记录不存在或不属于当前用户: {}", uploadId);
+            return Map.of("error", "上传任务不存在或已过期");
         }
 
-        if (!isExtensionAllowed(extension)) {
-            log.warn("分片上传完成时使用了被禁止的扩展名: {}", extension);
-            return Map.of("error", "文件扩展名不被允许");
+        List<MultipartUploadPart> parts = multipartUploadMapper.selectParts(uploadId);
+        if (parts.isEmpty()) {
+            log.warn("上传ID {} 未找到任何分片", uploadId);
+            return Map.of("error", "未找到任何分片文件");
+        }
+        for (int i = 0; i < parts.size(); i++) {
+            if (parts.get(i).getPart_number() != i + 1) {
+                log.warn("上传ID {} 的分片不完整，缺少第 {} 个分片", uploadId, i);
+                return Map.of("error", "分片不完整，缺少第 " + i + " 个分片");
+            }
         }
 
-        Path tempDir = buildFileSystemPath(username, "temp", uploadId);
-        Path allowedRoot = getBasePath();
-        if (!tempDir.startsWith(allowedRoot)) {
-            log.error("完成操作的上传路径无效: {}", tempDir);
-            return Map.of("error", "上传路径无效");
+        FileStorage storage;
+        try {
+            storage = storageFacadeService.getStorage(upload.getStorage_id());
+        } catch (Exception e) {
+            log.error("上传使用的存储方式不可用: {}", e.getMessage());
+            return Map.of("error", "存储方式不可用，请检查存储配置");
         }
 
-        if (!Files.exists(tempDir)) {
-            log.error("临时目录不存在: {}", tempDir);
-            return Map.of("error", "临时目录不存在");
+        String objectKey = upload.getObject_key();
+        String contentType = upload.getContent_type();
+        long totalSize = parts.stream().mapToLong(MultipartUploadPart::getSize).sum();
+        long start = System.nanoTime();
+
+        if (upload.getStorage_upload_id() != null) {
+            // 分片已在存储中，只需通知存储按序合并；失败时保留上传记录，客户端可重试
+            if (!(storage instanceof MultipartUploadStorage multipartStorage)) {
+                log.error("上传ID {} 使用的存储已不支持分片上传", uploadId);
+                return Map.of("error", "存储方式已不支持分片上传");
+            }
+            long minPartSize = multipartStorage.minPartSize();
+            for (int i = 0; i < parts.size() - 1; i++) {
+                if (parts.get(i).getSize() < minPartSize) {
+                    log.warn("上传ID {} 的第 {} 个分片只有 {} 字节，小于存储要求的 {} 字节", uploadId, i,
+                            parts.get(i).getSize(), minPartSize);
+                    return Map.of("error", "除最后一个分片外，每个分片不能小于 " + minPartSize + " 字节，请重新上传第 " + i + " 个分片");
+                }
+            }
+            try {
+                multipartStorage.completeMultipartUpload(objectKey, upload.getStorage_upload_id(), parts.stream()
+                        .map(part -> new MultipartUploadStorage.UploadedPart(part.getPart_number(), part.getEtag()))
+                        .toList());
+                log.info("存储分片合并完成。Key: {}，共 {} 个分片", objectKey, parts.size());
+            } catch (Exception e) {
+                log.error("存储合并上传ID为 {} 的分片失败", uploadId, e);
+                return Map.of("error", "合并分片失败: " + e.getMessage());
+            }
+        } else {
+            Map<String, String> error = mergeLocalChunks(upload, parts, storage, totalSize);
+            if (error != null) {
+                return error;
+            }
+            if (storage instanceof LocalFileStorageImpl) {
+                contentType = detectMimeTypeFromFile(localAttachmentPath(upload));
+            }
         }
 
-        String fileUUID = RandomUtil.generateUUID();
-        String newFileName = fileUUID + extension;
+        multipartUploadMapper.deleteParts(uploadId);
+        multipartUploadMapper.deleteByUploadId(uploadId);
+        MetricsUtil.recordNanos("upload.complete.time", System.nanoTime() - start);
 
-        String mimeType = getMimeTypeByExtension(extension);
-        String subFolder = getFolderByMime(mimeType);
+        if (!isMimeAllowed(contentType)) {
+            deleteStoredQuietly(storage, objectKey);
+            log.warn("检测后发现文件类型不被允许: {}", contentType);
+            return Map.of("error", "文件类型不被允许: " + contentType);
+        }
 
-        Path finalDir = buildFileSystemPath(username, "attachment", subFolder);
-        Path finalFilePath = finalDir.resolve(newFileName);
+        String accessKey = UUID.randomUUID().toString().replace("-", "");
 
-        try {
-            Files.createDirectories(finalDir);
-            log.debug("为最终文件创建目录: {}", finalDir);
+        UploadAttachment uploadFile = new UploadAttachment();
+        uploadFile.setUuid(userUUID);
+        uploadFile.setAttachment_id(upload.getAttachment_id());
+        uploadFile.setOriginal_filename(upload.getOriginal_filename());
+        uploadFile.setAttachment_path(objectKey);
+        uploadFile.setAccess_key(accessKey);
+        uploadFile.setStorage_id(upload.getStorage_id());
+        uploadFile.setContent_type(contentType);
 
-            List<Path> chunks = Files.list(tempDir)
-                    .filter(p -> p.getFileName().toString().endsWith(".part"))
-                    .sorted(Comparator.comparing(Path::getFileName))
-                    .toList();
+        int insertResult = uploadMapper.insertUploadAttachment(uploadFile);
+        if (insertResult != 1) {
+            log.error("保存文件信息到数据库失败。文件: {}", objectKey);
+            deleteStoredQuietly(storage, objectKey);
+            return Map.of("error", "保存文件信息失败");
+        }
 
-            if (chunks.isEmpty()) {
-                log.warn("未找到任何分片文件在目录: {}", tempDir);
-                return Map.of("error", "未找到任何分片文件");
-            }
+        String fileUrl = "/file/" + accessKey;
+        log.info("分片上传完成。大小: {} 字节，URL: {}", totalSize, fileUrl);
+        return Map.of("fileUrl", fileUrl);
+    }
 
-            log.debug("找到 {} 个分片文件准备合并", chunks.size());
+    /**
+     * 合并暂存在本地的分片：本地存储零拷贝合并到最终位置，其他存储依次读取分片直接写入，不生成完整的本地副本
+     *
+     * @return 失败时返回错误信息
+     */
+    private Map<String, String> mergeLocalChunks(MultipartUpload upload, List<MultipartUploadPart> parts,
+                                                 FileStorage storage, long totalSize) {
+        String uploadId = upload.getUpload_id();
+        Path tempDir = buildFileSystemPath(upload.getUsername(), "temp", uploadId);
+        Path allowedRoot = getBasePath();
+        if (!tempDir.startsWith(allowedRoot)) {
+            log.error("完成操作的上传路径无效: {}", tempDir);
+            return Map.of("error", "上传路径无效");
+        }
 
-            try (FileChannel outChannel = FileChannel.open(finalFilePath,
-                    StandardOpenOption.CREATE,
-                    StandardOpenOption.WRITE,
-                    StandardOpenOption.TRUNCATE_EXISTING)) {
+        List<Path> chunks = parts.stream()
+                .map(part -> tempDir.resolve("%05d.part".formatted(part.getPart_number() - 1)))
+                .toList();
+        for (Path chunk : chunks) {
+            if (!Files.exists(chunk)) {
+                log.error("分片文件不存在: {}", chunk);
+                return Map.of("error", "分片文件不存在，请重新上传");
+            }
+        }
 
-                for (Path chunk : chunks) {
-                    log.debug("正在处理分片: {}", chunk.getFileName());
-                    try (FileChannel inChannel = FileChannel.open(chunk, StandardOpenOption.READ)) {
-                        inChannel.transferTo(0, inChannel.size(), outChannel);
-                    } catch (IOException e) {
-                        log.error("处理分片文件 {} 时出错", chunk, e);
-                        throw e;
+        if (storage instanceof LocalFileStorageImpl) {
+            Path finalFilePath = localAttachmentPath(upload);
+            try {
+                Files.createDirectories(finalFilePath.getParent());
+                try (FileChannel outChannel = FileChannel.open(finalFilePath,
+                        StandardOpenOption.CREATE,
+                        StandardOpenOption.WRITE,
+                        StandardOpenOption.TRUNCATE_EXISTING)) {
+                    for (Path chunk : chunks) {
+                        try (FileChannel inChannel = FileChannel.open(chunk, StandardOpenOption.READ)) {
+                            long position = 0;
+                            long size = inChannel.size();
+                            while (position < size) {
+                                position += inChannel.transferTo(position, size - position, outChannel);
+                            }
+                        }
                     }
                 }
-            }
-
-            log.debug("分片合并完成，开始清理临时文件");
-
-            for (Path chunk : chunks) {
+                log.info("分片合并成功。最终文件: {}", finalFilePath);
+            } catch (IOException e) {
+                log.error("合并上传ID为 {} 的分片失败，临时目录: {}", uploadId, tempDir, e);
                 try {
-                    Files.deleteIfExists(chunk);
-                    log.debug("已删除分片文件: {}", chunk.getFileName());
-                } catch (IOException e) {
-                    log.warn("删除分片文件 {} 失败", chunk, e);
+                    Files.deleteIfExists(finalFilePath);
+                } catch (IOException cleanupEx) {
+                    log.warn("清理不完整的文件 {} 失败", finalFilePath, cleanupEx);
                 }
+                return Map.of("error", "合并分片失败: " + e.getMessage());
             }
-
-            try {
-                Files.deleteIfExists(tempDir);
-                log.debug("已删除临时目录: {}", tempDir.getFileName());
-            } catch (IOException e) {
-                log.warn("删除临时目录 {} 失败", tempDir, e);
+        } else {
+            try (InputStream in = new SequenceInputStream(Collections.enumeration(chunks.stream()
+                    .map(UploadServiceImpl::openChunk)
+                    .toList()))) {
+                storage.store(upload.getObject_key(), in, totalSize, upload.getContent_type());
+                log.info("分片已依次写入存储。Key: {}", upload.getObject_key());
+            } catch (Exception e) {
+                log.error("分片写入存储失败: {}", upload.getObject_key(), e);
+                return Map.of("error", "保存文件到存储失败");
             }
+        }
 
-            log.info("分片合并成功。最终文件: {}", finalFilePath);
+        deleteRecursively(tempDir);
+        return null;
+    }
 
-        } catch (IOException e) {
-            log.error("合并上传ID为 {} 的分片失败，临时目录: {}", uploadId, tempDir, e);
+    /**
+     * 延迟打开分片文件，SequenceInputStream 读到该分片时才占用文件句柄
+     */
+    private static InputStream openChunk(Path chunk) {
+        return new InputStream() {
+            private InputStream delegate;
 
-            try {
-                Files.deleteIfExists(finalFilePath);
-            } catch (IOException cleanupEx) {
-                log.warn("清理不完整的文件 {} 失败", finalFilePath, cleanupEx);
+            private InputStream delegate() throws IOException {
+                if (delegate == null) {
+                    delegate = Files.newInputStream(chunk, StandardOpenOption.READ);
+                }
+                return delegate;
             }
 
-            return Map.of("error", "合并分片失败: " + e.getMessage());
-        } catch (Exception e) {
-            log.error("合并上传ID为 {} 的分片时发生未预期错误", uploadId, e);
-
-            try {
-                Files.deleteIfExists(finalFilePath);
-            } catch (IOException cleanupEx) {
-                log.warn("清理不完整的文件 {} 失败", finalFilePath, cleanupEx);
+            @Override
+            public int read() throws IOException {
+                return delegate().read();
             }
 
-            return Map.of("error", "合并分片时发生错误: " + e.getMessage());
-        }
-
-        String detectedMimeType = detectMimeTypeFromFile(finalFilePath);
-
-        if (!isMimeAllowed(detectedMimeType)) {
-            try {
-                Files.deleteIfExists(finalFilePath);
-            } catch (IOException e) {
-                log.warn("删除MIME类型被禁止的文件失败: {}", finalFilePath, e);
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                return delegate().read(b, off, len);
             }
 
-            log.warn("检测后发现文件类型不被允许: {}", detectedMimeType);
-            return Map.of("error", "文件类型不被允许: " + detectedMimeType);
-        }
+            @Override
+            public void close() throws IOException {
+                if (delegate != null) {
+                    delegate.close();
+                }
+            }
+        };
+    }
 
-        // 通过存储抽象层写入目标存储
-        String databasePath = buildDatabasePath(username, "attachment", subFolder, newFileName);
-        String objectKey = databasePath;
-        String defaultStorageUuid = siteConfigService.getSiteConfig().getDefault_storage();
-        String storageId = defaultStorageUuid != null ? defaultStorageUuid : storageMethodMapper.selectByType("local").getUuid();
-        FileStorage storage;
-        try {
-            storage = storageFacadeService.getDefaultStorage(defaultStorageUuid);
-        } catch (Exception e) {
-            log.error("默认存储方式不可用: {}", e.getMessage());
-            try {
-                Files.deleteIfExists(finalFilePath);
-            } catch (IOException ignored) {}
-            return Map.of("error", "默认存储方式不可用，请检查存储配置");
-        }
+    private Path localAttachmentPath(MultipartUpload upload) {
+        String objectKey = upload.getObject_key();
+        String fileName = objectKey.substring(objectKey.lastIndexOf('/') + 1);
+        return buildFileSystemPath(upload.getUsername(), "attachment", getFolderByMime(upload.getContent_type()), fileName);
+    }
 
-        if (storage instanceof LocalFileStorageImpl) {
-            log.info("本地存储合并完成，文件路径: {}", finalFilePath);
-        } else {
-            try (InputStream fileIn = Files.newInputStream(finalFilePath, StandardOpenOption.READ)) {
-                storage.store(objectKey, fileIn, Files.size(finalFilePath), detectedMimeType);
-                log.info("分片合并文件已上传到存储。Key: {}", objectKey);
-            } catch (Exception e) {
-                log.error("分片合并文件上传到存储失败: {}", objectKey, e);
-                return Map.of("error", "保存文件到存储失败");
-            } finally {
+    private void deleteRecursively(Path dir) {
+        try (Stream<Path> walk = Files.walk(dir)) {
+            walk.sorted(Comparator.reverseOrder()).forEach(path -> {
                 try {
-                    Files.deleteIfExists(finalFilePath);
+                    Files.deleteIfExists(path);
                 } catch (IOException e) {
-                    log.warn("清理本地临时文件失败: {}", finalFilePath, e);
+                    log.warn("删除临时文件 {} 失败", path, e);
                 }
-            }
+            });
+        } catch (IOException e) {
+            log.warn("删除临时目录 {} 失败", dir, e);
         }
+    }
 
-        String accessKey = UUID.randomUUID().toString().replace("-", "");
-
-        UploadAttachment uploadFile = new UploadAttachment();
-        uploadFile.setUuid(userUUID);
-        uploadFile.setAttachment_id(fileUUID);
-        uploadFile.setOriginal_filename(filename);
-        uploadFile.setAttachment_path(databasePath);
-        uploadFile.setAccess_key(accessKey);
-        uploadFile.setStorage_id(storageId);
-        uploadFile.setContent_type(detectedMimeType);
-
-        int insertResult = uploadMapper.insertUploadAttachment(uploadFile);
-        if (insertResult != 1) {
-            log.error("保存文件信息到数据库失败。文件: {}", newFileName);
-            try {
-                Files.deleteIfExists(finalFilePath);
-            } catch (IOException e) {
-                log.warn("清理文件 {} 失败", finalFilePath, e);
-            }
-            return Map.of("error", "保存文件信息失败");
+    private void deleteStoredQuietly(FileStorage storage, String objectKey) {
+        try {
+            storage.delete(objectKey);
+        } catch (Exception e) {
+            log.warn("清理文件 {} 失败", objectKey, e);
         }
+    }
 
-        String fileUrl = "/file/" + accessKey;
-        log.info("分片上传完成。URL: {}", fileUrl);
-        return Map.of("fileUrl", fileUrl);
+    private void abortQuietly(MultipartUploadStorage storage, String objectKey, String storageUploadId) {
+        try {
+            storage.abortMultipartUpload(objectKey, storageUploadId);
+        } catch (Exception e) {
+            log.warn("取消存储分片上传失败: {}", objectKey, e);
+        }
     }
 
     private boolean isAliasExists(String alias, String uuid) {
@@ -1,18 +1,35 @@
 package xyz.lingview.dimstack.service.impl;
 
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import xyz.lingview.dimstack.mapper.UserPermissionMapper;
+import xyz.lingview.dimstack.service.CacheService;
 import xyz.lingview.dimstack.service.UserPermissionCheckService;
+import xyz.lingview.dimstack.util.TransactionUtil;
 
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
+@Slf4j
 @Service
 public class UserPermissionCheckServiceImpl implements UserPermissionCheckService {
 
+    private static final String PERMISSION_CACHE_PREFIX = "dimstack:permission:user:";
+
+    // 权限版本号放在共享缓存中，任一节点清除缓存都会递增，不能以 PERMISSION_CACHE_PREFIX 开头
+    private static final String PERMISSION_VERSION_KEY = "dimstack:permission:version";
+
+    private static final long PERMISSION_CACHE_MINUTES = 30;
+
     @Autowired
     private UserPermissionMapper userPermissionMapper;
 
+    @Autowired
+    private CacheService cacheService;
+
     @Override
     // 检查用户是否拥有所有指定权限
     public boolean hasAllPermissions(String username, String[] permissions) {
@@ -37,10 +54,53 @@ public class UserPermissionCheckServiceImpl implements UserPermissionCheckServic
         return false;
     }
 
+    @Override
+    @SuppressWarnings("unchecked")
+    public Set<String> getUserPermissions(String username) {
+        if (username == null) {
+            return Collections.emptySet();
+        }
+        String cacheKey = PERMISSION_CACHE_PREFIX + username;
+        Set<String> cached = cacheService.get(cacheKey, Set.class);
+        if (cached != null) {
+            return Collections.unmodifiableSet(cached);
+        }
 
-    private Set<String> getUserPermissions(String username) {
-        return Set.copyOf(userPermissionMapper.findPermissionCodesByUserName(username));
+        long version = currentVersion();
+        Set<String> permissions = new HashSet<>(userPermissionMapper.findPermissionCodesByUserName(username));
+        if (currentVersion() == version) {
+            cacheService.set(cacheKey, permissions, PERMISSION_CACHE_MINUTES, TimeUnit.MINUTES);
+            // 写入前后之间若有节点清除过缓存，写入的可能是旧权限，删掉交给下次重新加载
+            if (currentVersion() != version) {
+                cacheService.delete(cacheKey);
+            }
+        }
+        return Collections.unmodifiableSet(permissions);
+    }
+
+    @Override
+    public void evictUserPermissions(String username) {
+        if (username == null) {
+            return;
+        }
+        // 调用方通常在事务中修改角色，提交前清除会让并发请求把旧权限重新写回缓存
+        TransactionUtil.afterCommit(() -> {
+            cacheService.incrementAndGet(PERMISSION_VERSION_KEY);
+            cacheService.delete(PERMISSION_CACHE_PREFIX + username);
+            log.debug("已清除用户权限缓存: {}", username);
+        });
     }
 
+    @Override
+    public void evictAllPermissions() {
+        TransactionUtil.afterCommit(() -> {
+            cacheService.incrementAndGet(PERMISSION_VERSION_KEY);
+            long removed = cacheService.deleteByPrefix(PERMISSION_CACHE_PREFIX);
+            log.info("已清除全部用户权限缓存，共 {} 个", removed);
+        });
+    }
 
-}
\ No newline at end of file
+    private long currentVersion() {
+        return cacheService.incrementAndGet(PERMISSION_VERSION_KEY, 0);
+    }
+}
@@ -5,7 +5,10 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import xyz.lingview.dimstack.common.ApiResponse;
 import xyz.lingview.dimstack.domain.Role;
+import xyz.lingview.dimstack.dto.request.UserDTO;
+import xyz.lingview.dimstack.mapper.UserInformationMapper;
 import xyz.lingview.dimstack.mapper.UserRoleMapper;
+import xyz.lingview.dimstack.service.UserPermissionCheckService;
 import xyz.lingview.dimstack.service.UserRoleService;
 
 import java.util.List;
@@ -16,6 +19,12 @@ public class UserRoleServiceImpl implements UserRoleService {
     @Autowired
     private UserRoleMapper userRoleMapper;
 
+    @Autowired
+    private UserInformationMapper userInformationMapper;
+
+    @Autowired
+    private UserPermissionCheckService userPermissionCheckService;
+
     @Override
     public List<Role> getUserRoles(Integer userId) {
         return userRoleMapper.selectRolesByUserId(userId);
@@ -34,6 +43,7 @@ public class UserRoleServiceImpl implements UserRoleService {
         if (result <= 0) {
             return ApiResponse.error(500, "添加角色失败");
         }
+        evictPermissions(userId);
 
         return ApiResponse.success("添加角色成功");
     }
@@ -45,6 +55,7 @@ public class UserRoleServiceImpl implements UserRoleService {
         if (result <= 0) {
             return ApiResponse.error(500, "移除角色失败");
         }
+        evictPermissions(userId);
 
         return ApiResponse.success("移除角色成功");
     }
@@ -66,6 +77,16 @@ public class UserRoleServiceImpl implements UserRoleService {
             }
         }
 
+        evictPermissions(userId);
         return ApiResponse.success("设置角色成功");
     }
+
+    private void evictPermissions(Integer userId) {
+        UserDTO user = userInformationMapper.selectUserById(userId);
+        if (user != null) {
+            userPermissionCheckService.evictUserPermissions(user.getUsername());
+        } else {
+            userPermissionCheckService.evictAllPermissions();
+        }
+    }
 }
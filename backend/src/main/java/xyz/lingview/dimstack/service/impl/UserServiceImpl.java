@@ -11,14 +11,15 @@ import xyz.lingview.dimstack.dto.request.UserDTO;
 import xyz.lingview.dimstack.dto.request.UserUpdateDTO;
 import xyz.lingview.dimstack.mapper.SiteConfigMapper;
 import xyz.lingview.dimstack.mapper.UserInformationMapper;
-import xyz.lingview.dimstack.mapper.UserPermissionMapper;
 import xyz.lingview.dimstack.mapper.UserRoleMapper;
+import xyz.lingview.dimstack.service.UserPermissionCheckService;
 import xyz.lingview.dimstack.service.UserService;
 import xyz.lingview.dimstack.service.UserBlacklistService;
 import xyz.lingview.dimstack.util.RandomUtil;
 
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 
@@ -36,7 +37,7 @@ public class UserServiceImpl implements UserService {
     private SiteConfigMapper siteConfigMapper;
 
     @Autowired
-    private UserPermissionMapper userPermissionMapper;
+    private UserPermissionCheckService userPermissionCheckService;
 
     @Autowired
     private UserRoleMapper userRoleMapper;
@@ -146,13 +147,14 @@ public class UserServiceImpl implements UserService {
     public boolean updateUserRole(Integer userId, Integer roleId) {
         try {
             int count = userRoleMapper.countUserRole(userId, roleId);
-            if (count > 0) {
-                int result = userRoleMapper.deleteUserRole(userId, roleId);
-                return result > 0;
-            } else {
-                int result = userRoleMapper.insertUserRole(userId, roleId);
-                return result > 0;
+            int result = count > 0
+                    ? userRoleMapper.deleteUserRole(userId, roleId)
+                    : userRoleMapper.insertUserRole(userId, roleId);
+            UserDTO user = userInformationMapper.selectUserById(userId);
+            if (user != null) {
+                userPermissionCheckService.evictUserPermissions(user.getUsername());
             }
+            return result > 0;
         } catch (Exception e) {
             log.error("更新用户角色失败", e);
             return false;
@@ -264,7 +266,7 @@ public class UserServiceImpl implements UserService {
 
     @Override
     public List<String> getPermissionCodesByUsername(String username) {
-        return userPermissionMapper.findPermissionCodesByUserName(username);
+        return new ArrayList<>(userPermissionCheckService.getUserPermissions(username));
     }
 
     @Override
@@ -5,32 +5,55 @@ import org.springframework.core.io.InputStreamResource;
 import org.springframework.core.io.Resource;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.client.ClientHttpResponse;
 import org.springframework.http.client.JdkClientHttpRequestFactory;
 import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestClient;
-import xyz.lingview.dimstack.service.FileStorage;
+import xyz.lingview.dimstack.service.RangeReadableStorage;
+import xyz.lingview.dimstack.util.HttpRangeUtil;
 
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.PipedInputStream;
-import java.io.PipedOutputStream;
 import java.net.URLEncoder;
+import java.net.http.HttpClient;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.Base64;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 
 @Slf4j
-public class WebDavFileStorageImpl implements FileStorage {
+public class WebDavFileStorageImpl implements RangeReadableStorage {
+
+    private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(10);
+
+    private static final Duration READ_TIMEOUT = Duration.ofSeconds(60);
+
+    // 下载流占用连接的时间最长，限制同时打开的下载数即限制了到该服务器的连接数
+    private static final int MAX_CONCURRENT_DOWNLOADS = 32;
+
+    private static final long DOWNLOAD_PERMIT_TIMEOUT_SECONDS = 30;
 
     private final RestClient restClient;
     private final String baseUrl;
+    private final Semaphore downloadPermits = new Semaphore(MAX_CONCURRENT_DOWNLOADS);
 
     public WebDavFileStorageImpl(String url, String username, String password) {
         this.baseUrl = stripTrailingSlash(url);
+        // 每个存储实例共用一个客户端，连接保持长连接并复用
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(CONNECT_TIMEOUT)
+                .build();
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(READ_TIMEOUT);
         this.restClient = RestClient.builder()
-                .requestFactory(new JdkClientHttpRequestFactory())
+                .requestFactory(requestFactory)
                 .defaultHeader(HttpHeaders.AUTHORIZATION, basicAuth(username, password))
                 .build();
         verifyConnection();
@@ -80,44 +103,83 @@ public class WebDavFileStorageImpl implements FileStorage {
     @Override
     public InputStream retrieve(String objectKey) {
         String url = resolveUrl(objectKey);
+        DownloadPermit permit = acquireDownloadPermit(url);
         try {
-            if (!exists(objectKey)) {
-                throw new RuntimeException("WebDAV文件不存在: " + objectKey);
-            }
-
-            PipedInputStream in = new PipedInputStream();
-            PipedOutputStream out = new PipedOutputStream(in);
-
-            Thread runner = new Thread(() -> {
-                try {
-                    restClient.get()
-                            .uri(url)
-                            .exchange((request, response) -> {
-                                // exchange 不抛 4xx/5xx，由我们手动检查
-                                if (response.getStatusCode().isError()) {
-                                    throw new HttpClientErrorException(
-                                            response.getStatusCode(),
-                                            response.getStatusText());
-                                }
-                                response.getBody().transferTo(out);
-                                return null;
-                            });
-                } catch (Exception e) {
-                    log.error("WebDAV流式读取失败: {}", url, e);
-                } finally {
-                    try { out.close(); } catch (IOException ignored) { }
-                }
-            });
-            runner.setDaemon(true);
-            runner.start();
-
-            return in;
+            // 直接返回响应体，不存在时由 GET 的 404 判断，无需预先 PROPFIND
+            return restClient.get()
+                    .uri(url)
+                    .exchange((request, response) -> {
+                        if (response.getStatusCode().value() == 404) {
+                            response.close();
+                            throw new RuntimeException("WebDAV文件不存在: " + objectKey);
+                        }
+                        if (response.getStatusCode().isError()) {
+                            response.close();
+                            throw new HttpClientErrorException(response.getStatusCode(), response.getStatusText());
+                        }
+                        return new ResponseBodyInputStream(response, permit);
+                    }, false);
         } catch (Exception e) {
+            permit.release();
             log.error("WebDAV读取失败: {}", url, e);
             throw new RuntimeException("WebDAV文件读取失败", e);
         }
     }
 
+    @Override
+    public RangedStream retrieveRange(String objectKey, String byteRange) {
+        String url = resolveUrl(objectKey);
+        DownloadPermit permit = acquireDownloadPermit(url);
+        try {
+            RangedStream ranged = restClient.get()
+                    .uri(url)
+                    .header(HttpHeaders.RANGE, byteRange)
+                    .exchange((request, response) -> {
+                        int status = response.getStatusCode().value();
+                        if (status == 416) {
+                            response.close();
+                            return null;
+                        }
+                        if (response.getStatusCode().isError()) {
+                            response.close();
+                            throw new HttpClientErrorException(response.getStatusCode(), response.getStatusText());
+                        }
+                        InputStream body = new ResponseBodyInputStream(response, permit);
+                        if (status == 206) {
+                            long[] range = HttpRangeUtil.parseContentRange(
+                                    response.getHeaders().getFirst(HttpHeaders.CONTENT_RANGE));
+                            if (range == null) {
+                                body.close();
+                                throw new IllegalStateException("WebDAV 206 响应缺少 Content-Range");
+                            }
+                            return new RangedStream(body, range[0], range[1], range[2]);
+                        }
+                        // 服务器忽略了 Range，自行跳过前面的字节
+                        long total = response.getHeaders().getContentLength();
+                        HttpRangeUtil.ByteRange resolved = total >= 0 ? HttpRangeUtil.resolve(byteRange, total) : null;
+                        if (resolved == null || resolved == HttpRangeUtil.UNSATISFIABLE) {
+                            body.close();
+                            return null;
+                        }
+                        try {
+                            body.skipNBytes(resolved.start());
+                        } catch (IOException e) {
+                            body.close();
+                            throw e;
+                        }
+                        return new RangedStream(body, resolved.start(), resolved.end(), total);
+                    }, false);
+            if (ranged == null) {
+                permit.release();
+            }
+            return ranged;
+        } catch (Exception e) {
+            permit.release();
+            log.error("WebDAV范围读取失败: {} {}", url, byteRange, e);
+            throw new RuntimeException("WebDAV文件读取失败", e);
+        }
+    }
+
     @Override
     public void delete(String objectKey) {
         String url = resolveUrl(objectKey);
@@ -153,6 +215,24 @@ public class WebDavFileStorageImpl implements FileStorage {
         }
     }
 
+    @Override
+    public long size(String objectKey) {
+        String url = resolveUrl(objectKey);
+        try {
+            return restClient.head()
+                    .uri(url)
+                    .retrieve()
+                    .toBodilessEntity()
+                    .getHeaders()
+                    .getContentLength();
+        } catch (HttpClientErrorException.NotFound e) {
+            return -1L;
+        } catch (Exception e) {
+            log.warn("WebDAV获取文件大小失败: {}", url, e);
+            return -1L;
+        }
+    }
+
     @Override
     public void copy(String sourceKey, String destKey) {
         String sourceUrl = resolveUrl(sourceKey);
@@ -177,6 +257,59 @@ public class WebDavFileStorageImpl implements FileStorage {
         return "webdav";
     }
 
+    private DownloadPermit acquireDownloadPermit(String url) {
+        try {
+            if (!downloadPermits.tryAcquire(DOWNLOAD_PERMIT_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                throw new RuntimeException("WebDAV并发下载数已满，请稍后重试: " + url);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("等待WebDAV下载连接时被中断", e);
+        }
+        return new DownloadPermit(downloadPermits);
+    }
+
+    /**
+     * 下载许可，可重复释放但只归还一次
+     */
+    private static final class DownloadPermit {
+        private final Semaphore semaphore;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private DownloadPermit(Semaphore semaphore) {
+            this.semaphore = semaphore;
+        }
+
+        private void release() {
+            if (released.compareAndSet(false, true)) {
+                semaphore.release();
+            }
+        }
+    }
+
+    /**
+     * 响应体输入流，关闭时关闭 HTTP 响应并归还下载许可
+     */
+    private static final class ResponseBodyInputStream extends FilterInputStream {
+        private final ClientHttpResponse response;
+        private final DownloadPermit permit;
+
+        private ResponseBodyInputStream(ClientHttpResponse response, DownloadPermit permit) throws IOException {
+            super(response.getBody());
+            this.response = response;
+            this.permit = permit;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                response.close();
+            } finally {
+                permit.release();
+            }
+        }
+    }
+
 
     private void ensureParentCollections(String objectKey) {
         String[] segments = objectKey.split("/");
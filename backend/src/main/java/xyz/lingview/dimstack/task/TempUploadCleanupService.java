@@ -1,9 +1,14 @@
 package xyz.lingview.dimstack.task;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import xyz.lingview.dimstack.domain.MultipartUpload;
+import xyz.lingview.dimstack.mapper.MultipartUploadMapper;
+import xyz.lingview.dimstack.service.MultipartUploadStorage;
+import xyz.lingview.dimstack.service.StorageFacadeService;
 
 import java.io.IOException;
 import java.nio.file.Files;
@@ -11,12 +16,13 @@ import java.nio.file.Path;
 import java.nio.file.attribute.FileTime;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.List;
 import java.util.stream.Stream;
 
 /**
  * @Author: lingview
  * @Date: 2025/12/18 15:43:44
- * @Description: 定时清理用户过期的分片上传目录
+ * @Description: 定时清理用户过期的分片上传目录及未完成的存储分片上传
  * @Version: 1.0
  */
 @Slf4j
@@ -29,6 +35,15 @@ public class TempUploadCleanupService {
     @Value("${file.upload-dir:upload}")
     private String uploadDir;
 
+    private static final int EXPIRE_HOURS = 24;
+    private static final int CLEANUP_BATCH_SIZE = 100;
+
+    @Autowired
+    private MultipartUploadMapper multipartUploadMapper;
+
+    @Autowired
+    private StorageFacadeService storageFacadeService;
+
 
     @Scheduled(cron = "0 0 */6 * * ?")
     public void cleanupExpiredTempUploads() {
@@ -52,6 +67,36 @@ public class TempUploadCleanupService {
         log.info("临时上传目录清理完成。");
     }
 
+    /**
+     * 客户端放弃的分片上传在 S3 中会一直占用空间，超过时限没有活动后取消并删除上传记录
+     */
+    @Scheduled(cron = "0 30 */6 * * ?")
+    public void cleanupExpiredMultipartUploads() {
+        int cleaned = 0;
+        List<MultipartUpload> expired;
+        do {
+            expired = multipartUploadMapper.selectExpired(EXPIRE_HOURS, CLEANUP_BATCH_SIZE);
+            for (MultipartUpload upload : expired) {
+                if (upload.getStorage_upload_id() != null) {
+                    try {
+                        if (storageFacadeService.getStorage(upload.getStorage_id()) instanceof MultipartUploadStorage storage) {
+                            storage.abortMultipartUpload(upload.getObject_key(), upload.getStorage_upload_id());
+                        }
+                    } catch (Exception e) {
+                        log.warn("取消过期的存储分片上传失败: {}", upload.getObject_key(), e);
+                    }
+                }
+                multipartUploadMapper.deleteParts(upload.getUpload_id());
+                multipartUploadMapper.deleteByUploadId(upload.getUpload_id());
+                cleaned++;
+            }
+        } while (expired.size() == CLEANUP_BATCH_SIZE);
+
+        if (cleaned > 0) {
+            log.info("已清理 {} 个超过{}小时没有活动的分片上传", cleaned, EXPIRE_HOURS);
+        }
+    }
+
     private void cleanupUserTempDirs(Path userDir) {
         String username = userDir.getFileName().toString();
         Path userTempDir = userDir.resolve("temp");
@@ -73,7 +118,7 @@ public class TempUploadCleanupService {
                             FileTime lastModified = Files.getLastModifiedTime(uploadIdDir);
                             long hoursOld = ChronoUnit.HOURS.between(lastModified.toInstant(), Instant.now());
 
-                            if (hoursOld >= 24) {
+                            if (hoursOld >= EXPIRE_HOURS) {
                                 deleteRecursively(uploadIdDir);
                                 log.info("已清理用户 {} 的过期临时上传目录（{} 小时前）: {}",
                                         username, hoursOld, uploadIdDir.getFileName());
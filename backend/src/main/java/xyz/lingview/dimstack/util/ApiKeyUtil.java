@@ -4,6 +4,7 @@ import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
 import java.security.SecureRandom;
 import java.util.Base64;
+import java.util.HexFormat;
 
 public class ApiKeyUtil {
 
@@ -13,6 +14,8 @@ public class ApiKeyUtil {
 
     private static final Base64.Encoder URL_ENCODER = Base64.getUrlEncoder().withoutPadding();
 
+    private static final HexFormat HEX = HexFormat.of();
+
     public static String generateApiKey() {
         byte[] randomBytes = new byte[32];
         SECURE_RANDOM.nextBytes(randomBytes);
@@ -23,11 +26,7 @@ public class ApiKeyUtil {
         try {
             MessageDigest digest = MessageDigest.getInstance("SHA-256");
             byte[] hashBytes = digest.digest(apiKey.getBytes(StandardCharsets.UTF_8));
-            StringBuilder sb = new StringBuilder(hashBytes.length * 2);
-            for (byte b : hashBytes) {
-                sb.append("%02x".formatted(b));
-            }
-            return sb.toString();
+            return HEX.formatHex(hashBytes);
         } catch (Exception e) {
             throw new IllegalStateException("SHA-256 算法不可用", e);
         }
@@ -0,0 +1,76 @@
+package xyz.lingview.dimstack.util;
+
+import xyz.lingview.dimstack.dto.request.ArticleDTO;
+import xyz.lingview.dimstack.dto.request.CursorPageResult;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * @Author: lingview
+ * @Date: 2026/10/18 17:20:44
+ * @Description: 文章列表游标分页工具，按 (create_time, id) 倒序定位，游标对客户端不透明
+ * @Version: 1.0
+ */
+public class ArticleCursorUtil {
+
+    public static final int MAX_PAGE_SIZE = 50;
+
+    /**
+     * 上一页最后一篇文章的位置
+     */
+    public record Cursor(Date createTime, int id) {
+    }
+
+    /**
+     * 解析游标，空游标表示第一页返回 null
+     *
+     * @throws IllegalArgumentException 游标格式不正确
+     */
+    public static Cursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = value.indexOf('_');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("无效的分页游标");
+            }
+            long millis = Long.parseLong(value.substring(0, separator));
+            int id = Integer.parseInt(value.substring(separator + 1));
+            return new Cursor(new Date(millis), id);
+        } catch (IllegalArgumentException e) {
+            // NumberFormatException 与 Base64 解码异常都属于 IllegalArgumentException
+            throw new IllegalArgumentException("无效的分页游标", e);
+        }
+    }
+
+    public static String encode(ArticleDTO article) {
+        String value = article.getDate().getTime() + "_" + article.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static int clampSize(int size) {
+        return Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+    }
+
+    /**
+     * 由多查询一条的结果构造分页结果，rows 最多 size + 1 条
+     */
+    public static CursorPageResult<ArticleDTO> toPage(List<ArticleDTO> rows, int size, int total) {
+        boolean hasMore = rows.size() > size;
+        List<ArticleDTO> data = hasMore ? new ArrayList<>(rows.subList(0, size)) : rows;
+
+        CursorPageResult<ArticleDTO> result = new CursorPageResult<>();
+        result.setData(data);
+        result.setTotal(total);
+        result.setSize(size);
+        result.setHas_more(hasMore);
+        result.setNext_cursor(hasMore ? encode(data.get(data.size() - 1)) : null);
+        return result;
+    }
+}
@@ -1,22 +1,39 @@
 package xyz.lingview.dimstack.util;
 
+import javax.imageio.IIOImage;
 import javax.imageio.ImageIO;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import javax.imageio.stream.MemoryCacheImageOutputStream;
 import java.awt.*;
 import java.awt.image.BufferedImage;
 import java.io.ByteArrayOutputStream;
-import java.util.Base64;
-import java.util.Random;
+import java.io.IOException;
+import java.util.Iterator;
 import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
 
 public class CaptchaUtil {
 
     private static final String CHARACTERS = "ABCDEFGHJKLMNPQRSTUVWXYZ23456789";
-    private static final Random RANDOM = new Random();
+
+    private static final int WIDTH = 120;
+    private static final int HEIGHT = 40;
+    private static final Font FONT = new Font("Arial", Font.BOLD, 24);
+
+    // 每个线程复用自己的画布与输出缓冲区，避免每张验证码都重新分配
+    private static final ThreadLocal<Canvas> CANVAS = ThreadLocal.withInitial(Canvas::new);
+
+    private static final class Canvas {
+        private final BufferedImage image = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+        private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(4096);
+    }
 
     public static String generateCaptcha(int length) {
-        StringBuilder sb = new StringBuilder();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        StringBuilder sb = new StringBuilder(length);
         for (int i = 0; i < length; i++) {
-            sb.append(CHARACTERS.charAt(RANDOM.nextInt(CHARACTERS.length())));
+            sb.append(CHARACTERS.charAt(random.nextInt(CHARACTERS.length())));
         }
         return sb.toString();
     }
@@ -26,46 +43,68 @@ public class CaptchaUtil {
         return UUID.randomUUID().toString().replace("-", "").substring(0, 16);
     }
 
-    // 生成验证码图片
-    public static String generateCaptchaImage(String captcha) {
-        int width = 120;
-        int height = 40;
-
-        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+    /**
+     * 绘制验证码并按指定格式编码
+     *
+     * @param format ImageIO 格式名，如 png、webp，需有对应的 ImageWriter
+     */
+    public static byte[] renderCaptcha(String captcha, String format) throws IOException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Canvas canvas = CANVAS.get();
+        BufferedImage image = canvas.image;
         Graphics2D g = image.createGraphics();
 
-        g.setColor(Color.WHITE);
-        g.fillRect(0, 0, width, height);
+        try {
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, WIDTH, HEIGHT);
+
+            g.setColor(Color.LIGHT_GRAY);
+            for (int i = 0; i < 5; i++) {
+                int x1 = random.nextInt(WIDTH);
+                int y1 = random.nextInt(HEIGHT);
+                int x2 = random.nextInt(WIDTH);
+                int y2 = random.nextInt(HEIGHT);
+                g.drawLine(x1, y1, x2, y2);
+            }
 
-        g.setColor(Color.LIGHT_GRAY);
-        for (int i = 0; i < 5; i++) {
-            int x1 = RANDOM.nextInt(width);
-            int y1 = RANDOM.nextInt(height);
-            int x2 = RANDOM.nextInt(width);
-            int y2 = RANDOM.nextInt(height);
-            g.drawLine(x1, y1, x2, y2);
-        }
+            g.setFont(FONT);
 
-        g.setFont(new Font("Arial", Font.BOLD, 24));
+            for (int i = 0; i < captcha.length(); i++) {
+                g.setColor(new Color(random.nextInt(150), random.nextInt(150), random.nextInt(150)));
+                int x = 20 + i * 20;
+                int y = 30;
+                g.drawString(String.valueOf(captcha.charAt(i)), x, y);
+            }
+        } finally {
+            g.dispose();
+        }
 
-        for (int i = 0; i < captcha.length(); i++) {
-            g.setColor(new Color(RANDOM.nextInt(150), RANDOM.nextInt(150), RANDOM.nextInt(150)));
-            int x = 20 + i * 20;
-            int y = 30;
-            g.drawString(String.valueOf(captcha.charAt(i)), x, y);
+        ByteArrayOutputStream buffer = canvas.buffer;
+        buffer.reset();
+        ImageWriter writer = imageWriter(format);
+        // 直接写入内存，不经过 ImageIO 的磁盘缓存
+        try (ImageOutputStream out = new MemoryCacheImageOutputStream(buffer)) {
+            writer.setOutput(out);
+            writer.write(null, new IIOImage(image, null, null), writer.getDefaultWriteParam());
+        } finally {
+            writer.dispose();
         }
+        return buffer.toByteArray();
+    }
 
-        g.dispose();
+    /**
+     * 当前运行环境是否能编码该格式，JDK 自带 png，webp 需要额外的 ImageIO 插件
+     */
+    public static boolean supportsFormat(String format) {
+        return ImageIO.getImageWritersByFormatName(format).hasNext();
+    }
 
-        try {
-            ByteArrayOutputStream baos = new ByteArrayOutputStream();
-            ImageIO.write(image, "png", baos);
-            byte[] bytes = baos.toByteArray();
-            return Base64.getEncoder().encodeToString(bytes);
-        } catch (Exception e) {
-            e.printStackTrace();
-            return "";
+    private static ImageWriter imageWriter(String format) throws IOException {
+        Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName(format);
+        if (!writers.hasNext()) {
+            throw new IOException("不支持的验证码图片格式: " + format);
         }
+        return writers.next();
     }
 
     // 检查验证码是否正确
@@ -0,0 +1,69 @@
+package xyz.lingview.dimstack.util;
+
+import lombok.extern.slf4j.Slf4j;
+import xyz.lingview.dimstack.service.CacheService;
+
+/**
+ * @Author: lingview
+ * @Date: 2026/10/19 16:42:10
+ * @Description: 多节点共享版本号，节点修改本地渲染结果后递增，其他节点定期比对以发现变化
+ * @Version: 1.0
+ */
+@Slf4j
+public class ClusterVersion {
+
+    private final String key;
+    private final long checkIntervalMillis;
+
+    private volatile long knownVersion = -1;
+    private volatile long lastCheck;
+
+    public ClusterVersion(String key, long checkIntervalMillis) {
+        this.key = key;
+        this.checkIntervalMillis = checkIntervalMillis;
+    }
+
+    /**
+     * 本节点修改后递增共享版本号；若递增前版本已被其他节点改动，下次 sync 时立即比对
+     */
+    public void publish(CacheService cacheService) {
+        try {
+            long version = cacheService.incrementAndGet(key);
+            if (version <= 0) {
+                return;
+            }
+            if (knownVersion >= 0 && version != knownVersion + 1) {
+                lastCheck = 0;
+                return;
+            }
+            knownVersion = version;
+        } catch (Exception e) {
+            log.debug("更新共享版本号 {} 失败: {}", key, e.getMessage());
+        }
+    }
+
+    /**
+     * 距上次比对超过间隔时读取共享版本号
+     *
+     * @return 版本已被其他节点更新时返回 true，首次比对只记录版本
+     */
+    public boolean sync(CacheService cacheService) {
+        long now = System.currentTimeMillis();
+        if (now - lastCheck < checkIntervalMillis) {
+            return false;
+        }
+        lastCheck = now;
+        long version;
+        try {
+            version = cacheService.incrementAndGet(key, 0);
+        } catch (Exception e) {
+            return false;
+        }
+        if (version <= 0 || version == knownVersion) {
+            return false;
+        }
+        boolean firstCheck = knownVersion < 0;
+        knownVersion = version;
+        return !firstCheck;
+    }
+}
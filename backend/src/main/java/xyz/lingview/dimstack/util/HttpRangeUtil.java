@@ -0,0 +1,156 @@
+package xyz.lingview.dimstack.util;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * @Author: lingview
+ * @Date: 2026/10/18 14:06:21
+ * @Description: HTTP Range 请求解析与文件分段输出，只支持单段范围，多段范围按完整内容返回
+ * @Version: 1.0
+ */
+public class HttpRangeUtil {
+
+    private static final String BYTES_UNIT = "bytes=";
+
+    // Tomcat NIO 连接器的 sendfile 约定属性
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    /**
+     * 闭区间字节范围 [start, end]
+     */
+    public record ByteRange(long start, long end) {
+        public long length() {
+            return end - start + 1;
+        }
+
+        public String contentRange(long totalLength) {
+            return "bytes " + start + "-" + end + "/" + totalLength;
+        }
+    }
+
+    /**
+     * 范围不可满足（416）
+     */
+    public static final ByteRange UNSATISFIABLE = new ByteRange(-1, -2);
+
+    /**
+     * 判断 Range 头是否为可处理的单段字节范围
+     */
+    public static boolean isSingleRange(String rangeHeader) {
+        if (rangeHeader == null || !rangeHeader.startsWith(BYTES_UNIT) || rangeHeader.indexOf(',') >= 0) {
+            return false;
+        }
+        String spec = rangeHeader.substring(BYTES_UNIT.length()).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0 || (dash == 0 && spec.length() == 1)) {
+            return false;
+        }
+        return isDigits(spec, 0, dash) && isDigits(spec, dash + 1, spec.length());
+    }
+
+    /**
+     * 按文件总长度解析 Range 头
+     *
+     * @return 无 Range 头或格式不支持时返回 null（按完整内容响应），范围越界时返回 UNSATISFIABLE
+     */
+    public static ByteRange resolve(String rangeHeader, long totalLength) {
+        if (!isSingleRange(rangeHeader)) {
+            return null;
+        }
+        String spec = rangeHeader.substring(BYTES_UNIT.length()).trim();
+        int dash = spec.indexOf('-');
+        try {
+            if (dash == 0) {
+                // bytes=-N 表示最后 N 个字节
+                long suffix = Long.parseLong(spec.substring(1));
+                if (suffix == 0 || totalLength == 0) {
+                    return UNSATISFIABLE;
+                }
+                return new ByteRange(Math.max(0, totalLength - suffix), totalLength - 1);
+            }
+            long start = Long.parseLong(spec.substring(0, dash));
+            long end = dash == spec.length() - 1 ? totalLength - 1 : Long.parseLong(spec.substring(dash + 1));
+            if (start >= totalLength || end < start) {
+                return UNSATISFIABLE;
+            }
+            return new ByteRange(start, Math.min(end, totalLength - 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 解析响应头 Content-Range: bytes start-end/total，total 未知时为 -1
+     */
+    public static long[] parseContentRange(String contentRange) {
+        if (contentRange == null || !contentRange.startsWith("bytes ")) {
+            return null;
+        }
+        try {
+            String value = contentRange.substring(6).trim();
+            int dash = value.indexOf('-');
+            int slash = value.indexOf('/');
+            if (dash < 0 || slash < dash) {
+                return null;
+            }
+            long start = Long.parseLong(value.substring(0, dash));
+            long end = Long.parseLong(value.substring(dash + 1, slash));
+            String total = value.substring(slash + 1);
+            return new long[]{start, end, "*".equals(total) ? -1 : Long.parseLong(total)};
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 输出文件的一段内容，容器支持 sendfile 时交由内核直接发送，否则通过 FileChannel.transferTo 输出
+     * 调用前需已设置状态码与 Content-Length
+     */
+    public static void transferFile(HttpServletRequest request, HttpServletResponse response,
+                                    Path file, long start, long length) throws IOException {
+        if (length <= 0) {
+            return;
+        }
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, file.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, start + length);
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            long remaining = length;
+            while (remaining > 0) {
+                long written = channel.transferTo(position, remaining, out);
+                if (written <= 0) {
+                    break;
+                }
+                position += written;
+                remaining -= written;
+            }
+        }
+    }
+
+    private static boolean isDigits(String value, int from, int to) {
+        for (int i = from; i < to; i++) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -3,12 +3,19 @@ package xyz.lingview.dimstack.util;
 import lombok.extern.slf4j.Slf4j;
 import tools.jackson.databind.ObjectMapper;
 
-import java.io.*;
-import java.net.HttpURLConnection;
-import java.net.URL;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.Arrays;
 import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * @Author: lingview
@@ -21,98 +28,115 @@ public class LargeLanguageModelsUtil {
 
     private static final ObjectMapper objectMapper = new ObjectMapper();
 
+    private static final int MAX_RETRIES = 3;
+    private static final long BASE_RETRY_DELAY_MILLIS = 1000;
+    private static final long MAX_RETRY_DELAY_MILLIS = 30_000;
+    // 服务端 Retry-After 过大时不再等待，直接交给上层转人工
+    private static final long MAX_RETRY_AFTER_MILLIS = 60_000;
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(60);
+
+    // 所有调用共用一个客户端，连接保持长连接并复用
+    private static final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+
     public static String callOpenAICompatibleAPI(String apiKey, String apiUrl, String model, String systemContent, String userQuestion)
             throws IOException, InterruptedException {
-        int retryCount = 0;
-        int maxRetries = 3;
-        long delayBetweenRetries = 2000;
-
-        while (retryCount <= maxRetries) {
+        Map<String, Object> payload = Map.of(
+                "model", model,
+                "stream", false,
+                "messages", Arrays.asList(
+                        Map.of("role", "system", "content", systemContent),
+                        Map.of("role", "user", "content", userQuestion)
+                )
+        );
+
+        HttpRequest request = HttpRequest.newBuilder(URI.create(apiUrl))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Authorization", "Bearer " + apiKey)
+                .header("Content-Type", "application/json")
+                .header("Accept", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(payload), StandardCharsets.UTF_8))
+                .build();
+
+        for (int attempt = 0; ; attempt++) {
+            long start = System.nanoTime();
+            HttpResponse<String> response;
             try {
-                if (retryCount > 0) {
-                    Thread.sleep(delayBetweenRetries);
+                response = httpClient.send(request, HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
+            } catch (IOException e) {
+                MetricsUtil.increment("llm.request.error");
+                if (attempt >= MAX_RETRIES) {
+                    throw new IOException("请求失败，已达到最大重试次数: " + MAX_RETRIES, e);
                 }
+                long delay = backoffDelay(attempt);
+                log.warn("请求调用异常: {}，{} 毫秒后进行第 {} 次重试", e.getMessage(), delay, attempt + 1);
+                sleepBeforeRetry(delay);
+                continue;
+            }
+            MetricsUtil.recordNanos("llm.request.time", System.nanoTime() - start);
 
-                URL url = new URL(apiUrl);
-                HttpURLConnection connection = (HttpURLConnection) url.openConnection();
-
-                connection.setRequestMethod("POST");
-                connection.setRequestProperty("Authorization", "Bearer " + apiKey);
-                connection.setRequestProperty("Content-Type", "application/json");
-                connection.setRequestProperty("Accept", "application/json");
-                connection.setConnectTimeout(10_000);
-                connection.setReadTimeout(30_000);
-                connection.setDoOutput(true);
-
-                Map<String, Object> payload = Map.of(
-                        "model", model,
-                        "stream", false,
-                        "messages", Arrays.asList(
-                                Map.of("role", "system", "content", systemContent),
-                                Map.of("role", "user", "content", userQuestion)
-                        )
-                );
-
-                String jsonInputString = objectMapper.writeValueAsString(payload);
-
-                try (OutputStream os = connection.getOutputStream()) {
-                    byte[] input = jsonInputString.getBytes(StandardCharsets.UTF_8);
-                    os.write(input, 0, input.length);
-                }
+            int responseCode = response.statusCode();
+            if (responseCode == 200) {
+                return response.body();
+            }
 
-                int responseCode = connection.getResponseCode();
-
-                if (responseCode == HttpURLConnection.HTTP_OK) {
-                    try (BufferedReader in = new BufferedReader(
-                            new InputStreamReader(connection.getInputStream(), StandardCharsets.UTF_8))) {
-                        StringBuilder response = new StringBuilder();
-                        String line;
-                        while ((line = in.readLine()) != null) {
-                            response.append(line);
-                        }
-                        return response.toString();
-                    }
-                } else {
-                    InputStream errorStream = connection.getErrorStream();
-                    String errorContent = "";
-                    if (errorStream != null) {
-                        try (BufferedReader errorReader = new BufferedReader(
-                                new InputStreamReader(errorStream, StandardCharsets.UTF_8))) {
-                            StringBuilder error = new StringBuilder();
-                            String line;
-                            while ((line = errorReader.readLine()) != null) {
-                                error.append(line).append("\n");
-                            }
-                            errorContent = error.toString();
-                        }
-                    }
-
-                    log.warn("请求失败，HTTP状态码: {}, 错误详情:\n{}", responseCode, errorContent);
-
-                    if (responseCode == 429 || responseCode == 503 || responseCode == 500) {
-                        retryCount++;
-                        log.warn("触发限流或服务不可用，正在进行第 {} 次重试...", retryCount);
-                        continue;
-                    } else {
-                        throw new IOException("请求失败，状态码：" + responseCode + ", 响应内容：" + errorContent);
-                    }
-                }
+            log.warn("请求失败，HTTP状态码: {}, 错误详情:\n{}", responseCode, response.body());
+            MetricsUtil.increment("llm.request.error");
+            if (!isRetryable(responseCode)) {
+                throw new IOException("请求失败，状态码：" + responseCode + ", 响应内容：" + response.body());
+            }
+            if (attempt >= MAX_RETRIES) {
+                throw new IOException("请求失败，已达到最大重试次数: " + MAX_RETRIES + "，状态码：" + responseCode);
+            }
 
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                log.warn("线程被中断: {}", e.getMessage());
-                throw new IOException("请求被中断", e);
-            } catch (Exception e) {
-                log.warn("请求调用异常: {}", e.getMessage(), e);
-                retryCount++;
-                if (retryCount > maxRetries) {
-                    throw new IOException("请求失败，已达到最大重试次数: " + maxRetries, e);
-                }
-                log.warn("正在进行第 {} 次重试...", retryCount);
-                Thread.sleep(delayBetweenRetries);
+            long retryAfter = parseRetryAfter(response.headers().firstValue("Retry-After").orElse(null));
+            if (retryAfter > MAX_RETRY_AFTER_MILLIS) {
+                throw new IOException("请求被限流，服务端要求 " + retryAfter / 1000 + " 秒后重试，状态码：" + responseCode);
             }
+            long delay = retryAfter >= 0 ? retryAfter : backoffDelay(attempt);
+            log.warn("触发限流或服务不可用，{} 毫秒后进行第 {} 次重试...", delay, attempt + 1);
+            sleepBeforeRetry(delay);
         }
+    }
+
+    private static boolean isRetryable(int statusCode) {
+        return statusCode == 429 || statusCode == 500 || statusCode == 502 || statusCode == 503 || statusCode == 504;
+    }
+
+    /**
+     * 指数退避加随机抖动，避免多个审核任务在同一时刻集中重试
+     */
+    private static long backoffDelay(int attempt) {
+        long ceiling = Math.min(MAX_RETRY_DELAY_MILLIS, BASE_RETRY_DELAY_MILLIS << Math.min(attempt, 16));
+        return ceiling / 2 + ThreadLocalRandom.current().nextLong(ceiling / 2 + 1);
+    }
+
+    /**
+     * 解析 Retry-After 头，支持秒数与 HTTP 日期两种格式，无法解析时返回 -1
+     */
+    private static long parseRetryAfter(String value) {
+        if (value == null || value.isBlank()) {
+            return -1;
+        }
+        String trimmed = value.trim();
+        try {
+            return Math.max(0, Long.parseLong(trimmed) * 1000);
+        } catch (NumberFormatException ignored) {
+            // 不是秒数，按 HTTP 日期解析
+        }
+        try {
+            ZonedDateTime retryAt = ZonedDateTime.parse(trimmed, DateTimeFormatter.RFC_1123_DATE_TIME);
+            return Math.max(0, Duration.between(ZonedDateTime.now(retryAt.getZone()), retryAt).toMillis());
+        } catch (DateTimeParseException e) {
+            return -1;
+        }
+    }
 
-        throw new IOException("请求失败，已达到最大重试次数: " + maxRetries);
+    private static void sleepBeforeRetry(long delayMillis) throws InterruptedException {
+        MetricsUtil.increment("llm.request.retry");
+        Thread.sleep(delayMillis);
     }
-}
\ No newline at end of file
+}
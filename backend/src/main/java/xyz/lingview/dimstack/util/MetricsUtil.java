@@ -0,0 +1,80 @@
+package xyz.lingview.dimstack.util;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * @Author: lingview
+ * @Date: 2026/10/17 22:18:40
+ * @Description: 进程内运行指标（计数器、耗时、瞬时值），供管理接口查看
+ * @Version: 1.0
+ */
+public final class MetricsUtil {
+
+    private static final Map<String, LongAdder> COUNTERS = new ConcurrentHashMap<>();
+    private static final Map<String, TimerStat> TIMERS = new ConcurrentHashMap<>();
+    private static final Map<String, Supplier<? extends Number>> GAUGES = new ConcurrentHashMap<>();
+
+    private MetricsUtil() {
+    }
+
+    public static void increment(String name) {
+        increment(name, 1L);
+    }
+
+    public static void increment(String name, long delta) {
+        COUNTERS.computeIfAbsent(name, k -> new LongAdder()).add(delta);
+    }
+
+    public static void recordNanos(String name, long nanos) {
+        TIMERS.computeIfAbsent(name, k -> new TimerStat()).record(nanos);
+    }
+
+    /**
+     * 注册瞬时值，读取快照时才会调用 supplier
+     */
+    public static void gauge(String name, Supplier<? extends Number> supplier) {
+        GAUGES.put(name, supplier);
+    }
+
+    public static Map<String, Object> snapshot() {
+        Map<String, Object> result = new TreeMap<>();
+        COUNTERS.forEach((name, adder) -> result.put(name, adder.sum()));
+        TIMERS.forEach((name, timer) -> result.put(name, timer.toMap()));
+        GAUGES.forEach((name, supplier) -> {
+            try {
+                result.put(name, supplier.get());
+            } catch (RuntimeException e) {
+                result.put(name, null);
+            }
+        });
+        return result;
+    }
+
+    private static final class TimerStat {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0L);
+
+        void record(long nanos) {
+            count.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulate(nanos);
+        }
+
+        Map<String, Object> toMap() {
+            long c = count.sum();
+            long total = totalNanos.sum();
+            Map<String, Object> map = new TreeMap<>();
+            map.put("count", c);
+            map.put("totalMs", total / 1_000_000.0);
+            map.put("avgMs", c == 0 ? 0.0 : total / 1_000_000.0 / c);
+            map.put("maxMs", maxNanos.get() / 1_000_000.0);
+            return map;
+        }
+    }
+}
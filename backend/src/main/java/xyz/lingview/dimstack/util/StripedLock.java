@@ -0,0 +1,26 @@
+package xyz.lingview.dimstack.util;
+
+/**
+ * @Author: lingview
+ * @Date: 2026/10/19 17:05:33
+ * @Description: 分段锁，按键的哈希取固定数量锁对象中的一个，同一个键总是得到同一把锁
+ * @Version: 1.0
+ */
+public class StripedLock {
+
+    private final Object[] locks;
+
+    public StripedLock(int stripes) {
+        locks = new Object[Math.max(1, stripes)];
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    /**
+     * 获取键对应的锁对象，配合 synchronized 使用
+     */
+    public Object lockFor(Object key) {
+        return locks[Math.floorMod(key.hashCode(), locks.length)];
+    }
+}
@@ -0,0 +1,29 @@
+package xyz.lingview.dimstack.util;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * @Author: lingview
+ * @Date: 2026/10/20 10:12:37
+ * @Description: 事务相关工具，缓存失效等操作需在数据提交后执行，否则并发读取会把未提交前的旧数据重新写入缓存
+ * @Version: 1.0
+ */
+public class TransactionUtil {
+
+    /**
+     * 当前线程处于事务中时在提交后执行，事务回滚则不执行；不在事务中时立即执行
+     */
+    public static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,3 @@
+ALTER TABLE `api_key`
+  ADD COLUMN `last_used_time` datetime NULL DEFAULT NULL COMMENT '最近使用时间'
+  AFTER `status`;
@@ -0,0 +1,17 @@
+ALTER TABLE `storage_migration_log`
+  ADD COLUMN `bytes_migrated` bigint NOT NULL DEFAULT 0 COMMENT '已迁移字节数' AFTER `failed`,
+  ADD COLUMN `finished_at` datetime NULL DEFAULT NULL COMMENT '完成时间' AFTER `updated_at`;
+
+CREATE TABLE `storage_migration_item` (
+  `id`            int NOT NULL AUTO_INCREMENT COMMENT '自增主键',
+  `migration_id`  int NOT NULL COMMENT '关联迁移记录ID',
+  `attachment_id` varchar(255) NOT NULL COMMENT '附件ID',
+  `file_path`     varchar(255) NOT NULL COMMENT '文件路径',
+  `status`        tinyint NOT NULL DEFAULT 0 COMMENT '状态：0-待迁移，1-成功，2-失败',
+  `bytes`         bigint NOT NULL DEFAULT 0 COMMENT '迁移字节数',
+  `updated_at`    datetime NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+  PRIMARY KEY (`id`),
+  UNIQUE INDEX `uk_migration_attachment`(`migration_id`, `attachment_id`),
+  INDEX `idx_migration_status`(`migration_id`, `status`, `id`),
+  CONSTRAINT `fk_migration_progress` FOREIGN KEY (`migration_id`) REFERENCES `storage_migration_log`(`id`) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='迁移明细进度';
@@ -0,0 +1,3 @@
+-- 分类文章列表按 (status, category_id, create_time) 定位，游标分页可直接走索引有序扫描
+ALTER TABLE `article`
+  ADD INDEX `idx_article_status_category_id_ctime`(`status` ASC, `category_id` ASC, `create_time` DESC) USING BTREE;
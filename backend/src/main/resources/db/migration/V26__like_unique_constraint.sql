@@ -0,0 +1,15 @@
+-- 点赞切换依赖唯一约束保证幂等，先清理历史重复记录
+DELETE l1 FROM `article_like` l1
+  JOIN `article_like` l2
+    ON l1.user_id = l2.user_id AND l1.article_id = l2.article_id AND l1.id > l2.id;
+
+ALTER TABLE `article_like`
+  ADD UNIQUE INDEX `uk_user_article`(`user_id` ASC, `article_id` ASC) USING BTREE;
+
+-- 以点赞记录校正此前并发写回丢失的点赞数
+UPDATE `article` a
+  SET a.like_count = (SELECT COUNT(*) FROM `article_like` l WHERE l.article_id = a.article_id);
+
+UPDATE `comment` c
+  SET c.comment_like_count = (SELECT COUNT(*) FROM `comment_like` l WHERE l.comment_id = c.comment_id),
+      c.update_time = c.update_time;
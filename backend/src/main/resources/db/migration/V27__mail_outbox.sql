@@ -0,0 +1,17 @@
+CREATE TABLE `mail_outbox` (
+  `id`                bigint NOT NULL AUTO_INCREMENT COMMENT '自增主键',
+  `recipients`        text NOT NULL COMMENT '收件人，多个以英文逗号分隔',
+  `subject`           varchar(500) NOT NULL COMMENT '邮件主题',
+  `content`           mediumtext NOT NULL COMMENT '邮件内容',
+  `html`              tinyint NOT NULL DEFAULT 0 COMMENT '是否为HTML内容',
+  `status`            tinyint NOT NULL DEFAULT 0 COMMENT '状态：0-待发送，1-已发送，2-发送失败，3-发送中',
+  `attempts`          int NOT NULL DEFAULT 0 COMMENT '已尝试次数',
+  `next_attempt_time` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '下次尝试时间',
+  `claim_token`       varchar(64) NULL DEFAULT NULL COMMENT '发送批次标识',
+  `last_error`        varchar(1000) NULL DEFAULT NULL COMMENT '最近一次失败原因',
+  `create_time`       datetime NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  `update_time`       datetime NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+  PRIMARY KEY (`id`),
+  INDEX `idx_mail_outbox_status_next`(`status`, `next_attempt_time`),
+  INDEX `idx_mail_outbox_claim`(`claim_token`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='邮件发件箱';
@@ -0,0 +1,13 @@
+CREATE TABLE `llm_review_task` (
+  `id`          bigint NOT NULL AUTO_INCREMENT COMMENT '自增主键',
+  `target_type` varchar(20) NOT NULL COMMENT '审核对象类型：ARTICLE / COMMENT',
+  `target_id`   varchar(255) NOT NULL COMMENT '文章id或评论id',
+  `username`    varchar(255) NULL DEFAULT NULL COMMENT '提交内容的用户',
+  `attempts`    int NOT NULL DEFAULT 0 COMMENT '已领取次数',
+  `claim_token` varchar(64) NULL DEFAULT NULL COMMENT '领取批次标识',
+  `claim_time`  datetime NULL DEFAULT NULL COMMENT '领取时间',
+  `create_time` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  PRIMARY KEY (`id`),
+  UNIQUE KEY `uk_llm_review_target`(`target_type`, `target_id`),
+  INDEX `idx_llm_review_claim`(`claim_token`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='待执行的大模型审核任务';
@@ -0,0 +1,24 @@
+CREATE TABLE `multipart_upload` (
+  `id`                bigint NOT NULL AUTO_INCREMENT COMMENT '自增主键',
+  `upload_id`         varchar(64) NOT NULL COMMENT '分片上传标识，由初始化接口返回给客户端',
+  `username`          varchar(255) NOT NULL COMMENT '上传用户',
+  `original_filename` varchar(255) NOT NULL COMMENT '原始文件名',
+  `attachment_id`     varchar(255) NOT NULL COMMENT '完成后使用的附件id',
+  `storage_id`        varchar(255) NOT NULL COMMENT '目标存储方式uuid',
+  `object_key`        varchar(512) NOT NULL COMMENT '目标对象键',
+  `storage_upload_id` varchar(512) NULL DEFAULT NULL COMMENT '存储后端的分片上传标识，分片暂存在本地时为空',
+  `content_type`      varchar(255) NOT NULL COMMENT '文件类型',
+  `create_time`       datetime NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  PRIMARY KEY (`id`),
+  UNIQUE KEY `uk_multipart_upload_id`(`upload_id`),
+  INDEX `idx_multipart_upload_create_time`(`create_time`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='进行中的分片上传';
+
+CREATE TABLE `multipart_upload_part` (
+  `upload_id`   varchar(64) NOT NULL COMMENT '分片上传标识',
+  `part_number` int NOT NULL COMMENT '分片序号，从1开始',
+  `etag`        varchar(255) NULL DEFAULT NULL COMMENT '存储后端返回的分片校验值',
+  `size`        bigint NOT NULL COMMENT '分片字节数',
+  `create_time` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  PRIMARY KEY (`upload_id`, `part_number`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='已上传的分片';
@@ -0,0 +1,5 @@
+-- 附件管理列表按状态与上传/删除时间排序分页，先在二级索引上定位主键再回表
+ALTER TABLE `attachment`
+  ADD INDEX `idx_attachment_status_ctime`(`status` ASC, `create_time` DESC) USING BTREE,
+  ADD INDEX `idx_attachment_status_dtime`(`status` ASC, `deleted_time` DESC) USING BTREE,
+  ADD INDEX `idx_attachment_uuid_status_ctime`(`uuid` ASC, `status` ASC, `create_time` DESC) USING BTREE;
@@ -0,0 +1,3 @@
+-- 审核执行期间内容再次提交时标记任务，执行结束后重新排队审核最新内容
+ALTER TABLE `llm_review_task`
+  ADD COLUMN `resubmitted` tinyint NOT NULL DEFAULT 0 COMMENT '领取后内容是否再次提交：0=否, 1=是' AFTER `attempts`;
@@ -0,0 +1,9 @@
+-- 分片上传按最后活动时间过期，长时间上传的大文件不会在进行中被清理
+ALTER TABLE `multipart_upload`
+  ADD COLUMN `update_time` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '最后活动时间，上传分片或续传时刷新' AFTER `create_time`,
+  DROP INDEX `idx_multipart_upload_create_time`,
+  ADD INDEX `idx_multipart_upload_update_time`(`update_time`);
+
+UPDATE `multipart_upload` u
+SET u.`update_time` = GREATEST(u.`create_time`,
+    COALESCE((SELECT MAX(p.`create_time`) FROM `multipart_upload_part` p WHERE p.`upload_id` = u.`upload_id`), u.`create_time`));
@@ -45,6 +45,7 @@ CREATE TABLE `api_key`  (
                             `create_time` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP,
                             `update_time` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
                             `status` int UNSIGNED NOT NULL DEFAULT 1 COMMENT '状态: 1-启用, 0-禁用',
+                            `last_used_time` datetime NULL DEFAULT NULL COMMENT '最近使用时间',
                             PRIMARY KEY (`id`) USING BTREE,
                             UNIQUE INDEX `uk_key_hash`(`key_hash` ASC) USING BTREE,
                             INDEX `idx_user_status`(`user_id` ASC, `status` ASC) USING BTREE,
@@ -83,6 +84,7 @@ CREATE TABLE `article`  (
                             INDEX `idx_article_status_ctime`(`status` ASC, `create_time` DESC) USING BTREE,
                             INDEX `idx_article_status_category_ctime`(`status` ASC, `create_time` DESC) USING BTREE,
                             INDEX `idx_article_status_category_pageviews`(`status` ASC, `page_views` DESC) USING BTREE,
+                            INDEX `idx_article_status_category_id_ctime`(`status` ASC, `category_id` ASC, `create_time` DESC) USING BTREE,
                             INDEX `fk_article_category_id`(`category_id` ASC) USING BTREE,
                             FULLTEXT INDEX `idx_fulltext_cn`(`article_name`, `excerpt`) WITH PARSER `ngram`,
                             FULLTEXT INDEX `idx_fulltext_en`(`article_name`, `excerpt`),
@@ -133,6 +135,7 @@ CREATE TABLE `article_like`  (
                                  `user_id` varchar(255) CHARACTER SET utf8mb4 NULL DEFAULT NULL,
                                  `create_time` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP,
                                  PRIMARY KEY (`id`) USING BTREE,
+                                 UNIQUE INDEX `uk_user_article`(`user_id` ASC, `article_id` ASC) USING BTREE,
                                  INDEX `fk_like_article`(`article_id` ASC) USING BTREE,
                                  INDEX `fk_user_id`(`user_id` ASC) USING BTREE,
                                  CONSTRAINT `fk_like_article` FOREIGN KEY (`article_id`) REFERENCES `article` (`article_id`) ON DELETE CASCADE ON UPDATE CASCADE,
@@ -208,6 +211,9 @@ CREATE TABLE `attachment`  (
                                UNIQUE INDEX `attachment_path`(`attachment_path` ASC) USING BTREE,
                                UNIQUE INDEX `access_key`(`access_key` ASC) USING BTREE,
                                INDEX `idx_uuid`(`uuid` ASC) USING BTREE,
+                               INDEX `idx_attachment_status_ctime`(`status` ASC, `create_time` DESC) USING BTREE,
+                               INDEX `idx_attachment_status_dtime`(`status` ASC, `deleted_time` DESC) USING BTREE,
+                               INDEX `idx_attachment_uuid_status_ctime`(`uuid` ASC, `status` ASC, `create_time` DESC) USING BTREE,
                                CONSTRAINT `fk_attachment_user` FOREIGN KEY (`uuid`) REFERENCES `user_information` (`uuid`) ON DELETE CASCADE ON UPDATE CASCADE
 ) ENGINE = InnoDB AUTO_INCREMENT = 1 CHARACTER SET = utf8mb4 COMMENT = '附件上传记录表' ROW_FORMAT = DYNAMIC;
 
@@ -415,6 +421,55 @@ INSERT INTO `llm_prompt_config` VALUES (1, 'article_review', '你是一名专业
 INSERT INTO `llm_prompt_config` VALUES (2, 'article_create', '你是一位经验丰富的通用内容作者，擅长撰写结构清晰、语言流畅、富有逻辑与人文关怀的文章。你的文风平实而不平淡，兼具可读性与思想性，能用具体例子或生动比喻解释抽象概念。请避免使用术语堆砌或空洞口号，注重真实感、节奏感和读者共鸣。字数如用户没有特别要求请不要超过2000字。\n下面是本文的主题和内容要求：', '2026-04-08 17:49:55', 1);
 INSERT INTO `llm_prompt_config` VALUES (3, 'comment_review', '你是一名专业的评论内容审核员，需依据以下标准对用户提交的评论内容进行快速评估与风险研判：\n一、违规内容识别\n是否包含色情、低俗、性暗示等不当内容；\n是否包含人身攻击、辱骂、歧视性言论、地域黑等不友善内容；\n是否包含广告、垃圾营销、引流、联系方式等信息；\n是否包含政治敏感、违法信息、谣言、欺诈等内容；\n是否包含恶意代码、SQL注入、XSS攻击等技术性威胁。\n二、评论质量判断\n是否为无意义灌水（如纯表情、重复字符、随机字母等）；\n是否与主题完全无关的恶意刷屏内容。\n你的输出必须且只能是如下两种 JSON 格式：\n{\"compliant\": true}\n{\"compliant\": false}\n下面是需要你审核的评论：', '2026-06-20 21:46:01', 1);
 
+-- ----------------------------
+-- Table structure for llm_review_task
+-- ----------------------------
+DROP TABLE IF EXISTS `llm_review_task`;
+CREATE TABLE `llm_review_task`  (
+                                    `id` bigint NOT NULL AUTO_INCREMENT COMMENT '自增主键',
+                                    `target_type` varchar(20) CHARACTER SET utf8mb4 NOT NULL COMMENT '审核对象类型：ARTICLE / COMMENT',
+                                    `target_id` varchar(255) CHARACTER SET utf8mb4 NOT NULL COMMENT '文章id或评论id',
+                                    `username` varchar(255) CHARACTER SET utf8mb4 NULL DEFAULT NULL COMMENT '提交内容的用户',
+                                    `attempts` int NOT NULL DEFAULT 0 COMMENT '已领取次数',
+                                    `resubmitted` tinyint NOT NULL DEFAULT 0 COMMENT '领取后内容是否再次提交：0=否, 1=是',
+                                    `claim_token` varchar(64) CHARACTER SET utf8mb4 NULL DEFAULT NULL COMMENT '领取批次标识',
+                                    `claim_time` datetime NULL DEFAULT NULL COMMENT '领取时间',
+                                    `create_time` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP,
+                                    PRIMARY KEY (`id`) USING BTREE,
+                                    UNIQUE INDEX `uk_llm_review_target`(`target_type` ASC, `target_id` ASC) USING BTREE,
+                                    INDEX `idx_llm_review_claim`(`claim_token` ASC) USING BTREE
+) ENGINE = InnoDB CHARACTER SET = utf8mb4 COMMENT = '待执行的大模型审核任务' ROW_FORMAT = DYNAMIC;
+
+-- ----------------------------
+-- Records of llm_review_task
+-- ----------------------------
+
+-- ----------------------------
+-- Table structure for mail_outbox
+-- ----------------------------
+DROP TABLE IF EXISTS `mail_outbox`;
+CREATE TABLE `mail_outbox`  (
+                                `id` bigint NOT NULL AUTO_INCREMENT COMMENT '自增主键',
+                                `recipients` text CHARACTER SET utf8mb4 NOT NULL COMMENT '收件人，多个以英文逗号分隔',
+                                `subject` varchar(500) CHARACTER SET utf8mb4 NOT NULL COMMENT '邮件主题',
+                                `content` mediumtext CHARACTER SET utf8mb4 NOT NULL COMMENT '邮件内容',
+                                `html` tinyint NOT NULL DEFAULT 0 COMMENT '是否为HTML内容',
+                                `status` tinyint NOT NULL DEFAULT 0 COMMENT '状态：0-待发送，1-已发送，2-发送失败，3-发送中',
+                                `attempts` int NOT NULL DEFAULT 0 COMMENT '已尝试次数',
+                                `next_attempt_time` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '下次尝试时间',
+                                `claim_token` varchar(64) CHARACTER SET utf8mb4 NULL DEFAULT NULL COMMENT '发送批次标识',
+                                `last_error` varchar(1000) CHARACTER SET utf8mb4 NULL DEFAULT NULL COMMENT '最近一次失败原因',
+                                `create_time` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP,
+                                `update_time` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+                                PRIMARY KEY (`id`) USING BTREE,
+                                INDEX `idx_mail_outbox_status_next`(`status` ASC, `next_attempt_time` ASC) USING BTREE,
+                                INDEX `idx_mail_outbox_claim`(`claim_token` ASC) USING BTREE
+) ENGINE = InnoDB CHARACTER SET = utf8mb4 COMMENT = '邮件发件箱' ROW_FORMAT = DYNAMIC;
+
+-- ----------------------------
+-- Records of mail_outbox
+-- ----------------------------
+
 -- ----------------------------
 -- Table structure for menus
 -- ----------------------------
@@ -443,6 +498,48 @@ INSERT INTO `menus` VALUES (4, 'menu_16404a4412c0463f9d04e5dea10c19bc', '075eb86
 INSERT INTO `menus` VALUES (5, 'menu_8d1022c01adf4b8f87bc9debd86f33a5', '075eb86f721743e3940f35869154a140175689381296899805858', '友链', '/friend-links', 4, 1);
 INSERT INTO `menus` VALUES (6, 'menu_f71584ff8f574978bf0e66e52bccf2ac', '075eb86f721743e3940f35869154a140175689381296899805858', '关于', '/article/about', 5, 1);
 
+-- ----------------------------
+-- Table structure for multipart_upload
+-- ----------------------------
+DROP TABLE IF EXISTS `multipart_upload`;
+CREATE TABLE `multipart_upload`  (
+                                     `id` bigint NOT NULL AUTO_INCREMENT COMMENT '自增主键',
+                                     `upload_id` varchar(64) CHARACTER SET utf8mb4 NOT NULL COMMENT '分片上传标识，由初始化接口返回给客户端',
+                                     `username` varchar(255) CHARACTER SET utf8mb4 NOT NULL COMMENT '上传用户',
+                                     `original_filename` varchar(255) CHARACTER SET utf8mb4 NOT NULL COMMENT '原始文件名',
+                                     `attachment_id` varchar(255) CHARACTER SET utf8mb4 NOT NULL COMMENT '完成后使用的附件id',
+                                     `storage_id` varchar(255) CHARACTER SET utf8mb4 NOT NULL COMMENT '目标存储方式uuid',
+                                     `object_key` varchar(512) CHARACTER SET utf8mb4 NOT NULL COMMENT '目标对象键',
+                                     `storage_upload_id` varchar(512) CHARACTER SET utf8mb4 NULL DEFAULT NULL COMMENT '存储后端的分片上传标识，分片暂存在本地时为空',
+                                     `content_type` varchar(255) CHARACTER SET utf8mb4 NOT NULL COMMENT '文件类型',
+                                     `create_time` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP,
+                                     `update_time` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '最后活动时间，上传分片或续传时刷新',
+                                     PRIMARY KEY (`id`) USING BTREE,
+                                     UNIQUE INDEX `uk_multipart_upload_id`(`upload_id` ASC) USING BTREE,
+                                     INDEX `idx_multipart_upload_update_time`(`update_time` ASC) USING BTREE
+) ENGINE = InnoDB CHARACTER SET = utf8mb4 COMMENT = '进行中的分片上传' ROW_FORMAT = DYNAMIC;
+
+-- ----------------------------
+-- Records of multipart_upload
+-- ----------------------------
+
+-- ----------------------------
+-- Table structure for multipart_upload_part
+-- ----------------------------
+DROP TABLE IF EXISTS `multipart_upload_part`;
+CREATE TABLE `multipart_upload_part`  (
+                                          `upload_id` varchar(64) CHARACTER SET utf8mb4 NOT NULL COMMENT '分片上传标识',
+                                          `part_number` int NOT NULL COMMENT '分片序号，从1开始',
+                                          `etag` varchar(255) CHARACTER SET utf8mb4 NULL DEFAULT NULL COMMENT '存储后端返回的分片校验值',
+                                          `size` bigint NOT NULL COMMENT '分片字节数',
+                                          `create_time` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP,
+                                          PRIMARY KEY (`upload_id`, `part_number`) USING BTREE
+) ENGINE = InnoDB CHARACTER SET = utf8mb4 COMMENT = '已上传的分片' ROW_FORMAT = DYNAMIC;
+
+-- ----------------------------
+-- Records of multipart_upload_part
+-- ----------------------------
+
 -- ----------------------------
 -- Table structure for music
 -- ----------------------------
@@ -758,6 +855,28 @@ CREATE TABLE `storage_migration_failed_item`  (
 -- Records of storage_migration_failed_item
 -- ----------------------------
 
+-- ----------------------------
+-- Table structure for storage_migration_item
+-- ----------------------------
+DROP TABLE IF EXISTS `storage_migration_item`;
+CREATE TABLE `storage_migration_item`  (
+                                           `id` int NOT NULL AUTO_INCREMENT COMMENT '自增主键',
+                                           `migration_id` int NOT NULL COMMENT '关联迁移记录ID',
+                                           `attachment_id` varchar(255) CHARACTER SET utf8mb4 NOT NULL COMMENT '附件ID',
+                                           `file_path` varchar(255) CHARACTER SET utf8mb4 NOT NULL COMMENT '文件路径',
+                                           `status` tinyint NOT NULL DEFAULT 0 COMMENT '状态：0-待迁移，1-成功，2-失败',
+                                           `bytes` bigint NOT NULL DEFAULT 0 COMMENT '迁移字节数',
+                                           `updated_at` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+                                           PRIMARY KEY (`id`) USING BTREE,
+                                           UNIQUE INDEX `uk_migration_attachment`(`migration_id` ASC, `attachment_id` ASC) USING BTREE,
+                                           INDEX `idx_migration_status`(`migration_id` ASC, `status` ASC, `id` ASC) USING BTREE,
+                                           CONSTRAINT `fk_migration_progress` FOREIGN KEY (`migration_id`) REFERENCES `storage_migration_log` (`id`) ON DELETE CASCADE ON UPDATE RESTRICT
+) ENGINE = InnoDB CHARACTER SET = utf8mb4 COMMENT = '迁移明细进度' ROW_FORMAT = DYNAMIC;
+
+-- ----------------------------
+-- Records of storage_migration_item
+-- ----------------------------
+
 -- ----------------------------
 -- Table structure for storage_migration_log
 -- ----------------------------
@@ -769,9 +888,11 @@ CREATE TABLE `storage_migration_log`  (
                                           `total` int NOT NULL DEFAULT 0 COMMENT '总附件数',
                                           `success` int NOT NULL DEFAULT 0 COMMENT '成功数',
                                           `failed` int NOT NULL DEFAULT 0 COMMENT '失败数',
+                                          `bytes_migrated` bigint NOT NULL DEFAULT 0 COMMENT '已迁移字节数',
                                           `status` int NOT NULL DEFAULT 0 COMMENT '状态：0-进行中，1-已完成，2-失败',
                                           `created_at` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP,
                                           `updated_at` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+                                          `finished_at` datetime NULL DEFAULT NULL COMMENT '完成时间',
                                           PRIMARY KEY (`id`) USING BTREE,
                                           INDEX `idx_source`(`source_storage_id` ASC) USING BTREE,
                                           INDEX `idx_target`(`target_storage_id` ASC) USING BTREE,
@@ -0,0 +1,87 @@
+package xyz.lingview.dimstack.test;
+
+import org.junit.jupiter.api.Test;
+import xyz.lingview.dimstack.dto.request.ArticleDTO;
+import xyz.lingview.dimstack.dto.request.CursorPageResult;
+import xyz.lingview.dimstack.util.ArticleCursorUtil;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ArticleCursorUtilTest {
+
+    private static ArticleDTO article(int id, long millis) {
+        ArticleDTO article = new ArticleDTO();
+        article.setId(id);
+        article.setDate(new Date(millis));
+        return article;
+    }
+
+    @Test
+    public void testEncodeDecodeRoundTrip() {
+        String cursor = ArticleCursorUtil.encode(article(42, 1_760_000_000_123L));
+        assertFalse(cursor.contains("="), "游标不应带填充字符");
+
+        ArticleCursorUtil.Cursor decoded = ArticleCursorUtil.decode(cursor);
+        assertEquals(new Date(1_760_000_000_123L), decoded.createTime());
+        assertEquals(42, decoded.id());
+    }
+
+    @Test
+    public void testDecodeBlankCursorMeansFirstPage() {
+        assertNull(ArticleCursorUtil.decode(null));
+        assertNull(ArticleCursorUtil.decode(""));
+        assertNull(ArticleCursorUtil.decode("  "));
+    }
+
+    @Test
+    public void testDecodeRejectsMalformedCursor() {
+        assertThrows(IllegalArgumentException.class, () -> ArticleCursorUtil.decode("not base64!"));
+        assertThrows(IllegalArgumentException.class, () -> ArticleCursorUtil.decode(encodeRaw("12345")));
+        assertThrows(IllegalArgumentException.class, () -> ArticleCursorUtil.decode(encodeRaw("_12")));
+        assertThrows(IllegalArgumentException.class, () -> ArticleCursorUtil.decode(encodeRaw("abc_12")));
+    }
+
+    @Test
+    public void testClampSize() {
+        assertEquals(1, ArticleCursorUtil.clampSize(0));
+        assertEquals(10, ArticleCursorUtil.clampSize(10));
+        assertEquals(ArticleCursorUtil.MAX_PAGE_SIZE, ArticleCursorUtil.clampSize(1000));
+    }
+
+    @Test
+    public void testToPageWithMoreRows() {
+        List<ArticleDTO> rows = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            rows.add(article(10 - i, 1000L - i));
+        }
+
+        CursorPageResult<ArticleDTO> page = ArticleCursorUtil.toPage(rows, 3, 20);
+        assertEquals(3, page.getData().size());
+        assertTrue(page.isHas_more());
+        assertEquals(20, page.getTotal());
+
+        ArticleCursorUtil.Cursor next = ArticleCursorUtil.decode(page.getNext_cursor());
+        assertEquals(8, next.id());
+        assertEquals(new Date(998L), next.createTime());
+    }
+
+    @Test
+    public void testToPageLastPage() {
+        List<ArticleDTO> rows = List.of(article(2, 200L), article(1, 100L));
+
+        CursorPageResult<ArticleDTO> page = ArticleCursorUtil.toPage(rows, 3, 2);
+        assertEquals(2, page.getData().size());
+        assertFalse(page.isHas_more());
+        assertNull(page.getNext_cursor());
+    }
+
+    private static String encodeRaw(String value) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,56 @@
+package xyz.lingview.dimstack.test;
+
+import org.junit.jupiter.api.Test;
+import xyz.lingview.dimstack.util.HttpRangeUtil;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HttpRangeUtilTest {
+
+    @Test
+    public void testResolveBoundedRange() {
+        HttpRangeUtil.ByteRange range = HttpRangeUtil.resolve("bytes=0-99", 1000);
+        assertEquals(new HttpRangeUtil.ByteRange(0, 99), range);
+        assertEquals(100, range.length());
+        assertEquals("bytes 0-99/1000", range.contentRange(1000));
+    }
+
+    @Test
+    public void testResolveOpenEndedAndClampedRange() {
+        assertEquals(new HttpRangeUtil.ByteRange(500, 999), HttpRangeUtil.resolve("bytes=500-", 1000));
+        assertEquals(new HttpRangeUtil.ByteRange(900, 999), HttpRangeUtil.resolve("bytes=900-5000", 1000));
+    }
+
+    @Test
+    public void testResolveSuffixRange() {
+        assertEquals(new HttpRangeUtil.ByteRange(900, 999), HttpRangeUtil.resolve("bytes=-100", 1000));
+        // 后缀长度超过文件大小时返回整个文件
+        assertEquals(new HttpRangeUtil.ByteRange(0, 999), HttpRangeUtil.resolve("bytes=-5000", 1000));
+    }
+
+    @Test
+    public void testResolveUnsatisfiableRange() {
+        assertSame(HttpRangeUtil.UNSATISFIABLE, HttpRangeUtil.resolve("bytes=1000-", 1000));
+        assertSame(HttpRangeUtil.UNSATISFIABLE, HttpRangeUtil.resolve("bytes=50-10", 1000));
+        assertSame(HttpRangeUtil.UNSATISFIABLE, HttpRangeUtil.resolve("bytes=-0", 1000));
+        assertSame(HttpRangeUtil.UNSATISFIABLE, HttpRangeUtil.resolve("bytes=-10", 0));
+    }
+
+    @Test
+    public void testResolveIgnoresUnsupportedHeaders() {
+        assertNull(HttpRangeUtil.resolve(null, 1000));
+        assertNull(HttpRangeUtil.resolve("bytes=0-10,20-30", 1000));
+        assertNull(HttpRangeUtil.resolve("items=0-10", 1000));
+        assertNull(HttpRangeUtil.resolve("bytes=-", 1000));
+        assertNull(HttpRangeUtil.resolve("bytes=a-10", 1000));
+        assertNull(HttpRangeUtil.resolve("bytes=99999999999999999999-", 1000));
+    }
+
+    @Test
+    public void testParseContentRange() {
+        assertArrayEquals(new long[]{0, 99, 1000}, HttpRangeUtil.parseContentRange("bytes 0-99/1000"));
+        assertArrayEquals(new long[]{0, 99, -1}, HttpRangeUtil.parseContentRange("bytes 0-99/*"));
+        assertNull(HttpRangeUtil.parseContentRange("bytes */1000"));
+        assertNull(HttpRangeUtil.parseContentRange(null));
+    }
+}
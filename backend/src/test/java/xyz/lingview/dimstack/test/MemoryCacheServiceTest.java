@@ -0,0 +1,123 @@
+package xyz.lingview.dimstack.test;
+
+import org.junit.jupiter.api.Test;
+import xyz.lingview.dimstack.service.impl.MemoryCacheServiceImpl;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MemoryCacheServiceTest {
+
+    private final MemoryCacheServiceImpl cache = new MemoryCacheServiceImpl();
+
+    @Test
+    public void testIncrementStartsFromZero() {
+        assertEquals(1, cache.incrementAndGet("counter"));
+        assertEquals(6, cache.incrementAndGet("counter", 5));
+        assertEquals(5, cache.decrementAndGet("counter"));
+        assertEquals(5, cache.getAndIncrement("counter"));
+        assertEquals(6, cache.getAndDecrement("counter"));
+        assertEquals(5L, cache.get("counter", Long.class));
+        assertEquals(5, cache.get("counter", Integer.class));
+        assertEquals("5", cache.get("counter", String.class));
+    }
+
+    @Test
+    public void testIncrementConvertsStoredIntegerAndNumericString() {
+        cache.set("int", 10);
+        assertEquals(11, cache.incrementAndGet("int"));
+
+        cache.set("str", " 7 ");
+        assertEquals(8, cache.incrementAndGet("str"));
+
+        cache.set("text", "abc");
+        assertEquals(1, cache.incrementAndGet("text"));
+    }
+
+    @Test
+    public void testSetKeepsNumbersAsWritten() {
+        BigDecimal decimal = new BigDecimal("12345.6789");
+        BigInteger big = new BigInteger("123456789012345678901234567890");
+        cache.set("decimal", decimal);
+        cache.set("big", big);
+        cache.set("double", 1.5d);
+
+        assertEquals(decimal, cache.get("decimal", BigDecimal.class));
+        assertEquals(big, cache.get("big", BigInteger.class));
+        assertEquals(1.5d, cache.get("double", Double.class));
+    }
+
+    @Test
+    public void testIntegerReadableAsLong() {
+        cache.set("int", 3);
+        assertEquals(3L, cache.get("int", Long.class));
+        cache.set("long", 4L);
+        assertEquals(4, cache.get("long", Integer.class));
+    }
+
+    @Test
+    public void testEntryExpiresAfterTimeout() throws InterruptedException {
+        cache.set("short", "value", 100, TimeUnit.MILLISECONDS);
+        cache.set("forever", "value");
+        assertEquals("value", cache.get("short", String.class));
+
+        Thread.sleep(200);
+        assertNull(cache.get("short", String.class));
+        assertEquals("value", cache.get("forever", String.class));
+    }
+
+    @Test
+    public void testIncrementKeepsExistingTtl() throws InterruptedException {
+        cache.set("limited", 1, 100, TimeUnit.MILLISECONDS);
+        assertEquals(2, cache.incrementAndGet("limited"));
+
+        Thread.sleep(200);
+        assertNull(cache.get("limited", Long.class));
+        assertEquals(1, cache.incrementAndGet("limited"));
+    }
+
+    @Test
+    public void testNonPositiveTimeoutNeverExpires() throws InterruptedException {
+        cache.set("zero", "value", 0, TimeUnit.MILLISECONDS);
+        Thread.sleep(50);
+        assertEquals("value", cache.get("zero", String.class));
+    }
+
+    @Test
+    public void testDeleteByPrefix() {
+        cache.set("user:1", "a");
+        cache.set("user:2", "b");
+        cache.incrementAndGet("user:count");
+        cache.set("other", "c");
+
+        assertEquals(3, cache.deleteByPrefix("user:"));
+        assertNull(cache.get("user:1", String.class));
+        assertNull(cache.get("user:count", Long.class));
+        assertEquals("c", cache.get("other", String.class));
+    }
+
+    @Test
+    public void testHashCountersDrainOnce() {
+        cache.incrementHashFields("hash", Map.of("a", 1L, "b", 2L));
+        cache.incrementHashFields("hash", Map.of("a", 3L));
+
+        assertEquals(Map.of("a", 4L, "b", 2L), cache.drainHash("hash"));
+        assertTrue(cache.drainHash("hash").isEmpty());
+    }
+
+    @Test
+    public void testSetMembers() {
+        cache.addToSet("set", "x");
+        cache.addToSet("set", "y");
+        cache.removeFromSet("set", "x");
+
+        assertTrue(cache.isMemberOfSet("set", "y"));
+        assertFalse(cache.isMemberOfSet("set", "x"));
+        assertEquals(Set.of("y"), cache.getSetMembers("set", String.class));
+    }
+}
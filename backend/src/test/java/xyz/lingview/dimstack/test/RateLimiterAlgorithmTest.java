@@ -0,0 +1,73 @@
+package xyz.lingview.dimstack.test;
+
+import org.junit.jupiter.api.Test;
+import xyz.lingview.dimstack.annotation.RateLimit;
+import xyz.lingview.dimstack.service.impl.MemoryRateLimiterServiceImpl;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RateLimiterAlgorithmTest {
+
+    private static final long WINDOW_MILLIS = 200;
+
+    // 滑动窗口的断言依赖重叠比例，窗口取长一些以免线程调度延迟影响结果
+    private static final long SLIDING_WINDOW_MILLIS = 500;
+
+    private final MemoryRateLimiterServiceImpl limiter = new MemoryRateLimiterServiceImpl();
+
+    @Test
+    public void testFixedWindowRejectsAfterLimitAndResetsNextWindow() throws InterruptedException {
+        for (int i = 0; i < 3; i++) {
+            assertTrue(limiter.tryAcquire("fixed", RateLimit.Algorithm.FIXED_WINDOW, 3, WINDOW_MILLIS));
+        }
+        assertFalse(limiter.tryAcquire("fixed", RateLimit.Algorithm.FIXED_WINDOW, 3, WINDOW_MILLIS));
+
+        Thread.sleep(WINDOW_MILLIS + 50);
+        assertTrue(limiter.tryAcquire("fixed", RateLimit.Algorithm.FIXED_WINDOW, 3, WINDOW_MILLIS));
+    }
+
+    @Test
+    public void testSlidingWindowCountsPreviousWindow() throws InterruptedException {
+        for (int i = 0; i < 4; i++) {
+            assertTrue(limiter.tryAcquire("sliding", RateLimit.Algorithm.SLIDING_WINDOW, 4, SLIDING_WINDOW_MILLIS));
+        }
+        assertFalse(limiter.tryAcquire("sliding", RateLimit.Algorithm.SLIDING_WINDOW, 4, SLIDING_WINDOW_MILLIS));
+
+        // 刚进入下一个窗口时上一窗口几乎全部重叠，不能立即放行整批请求
+        Thread.sleep(SLIDING_WINDOW_MILLIS + 20);
+        int allowed = 0;
+        for (int i = 0; i < 4; i++) {
+            if (limiter.tryAcquire("sliding", RateLimit.Algorithm.SLIDING_WINDOW, 4, SLIDING_WINDOW_MILLIS)) {
+                allowed++;
+            }
+        }
+        assertTrue(allowed < 4, "上一窗口的请求应按重叠比例计入");
+
+        // 超过两个窗口后状态完全重置
+        Thread.sleep(SLIDING_WINDOW_MILLIS * 2 + 50);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(limiter.tryAcquire("sliding", RateLimit.Algorithm.SLIDING_WINDOW, 4, SLIDING_WINDOW_MILLIS));
+        }
+    }
+
+    @Test
+    public void testTokenBucketAllowsBurstThenRefills() throws InterruptedException {
+        for (int i = 0; i < 5; i++) {
+            assertTrue(limiter.tryAcquire("bucket", RateLimit.Algorithm.TOKEN_BUCKET, 5, WINDOW_MILLIS));
+        }
+        assertFalse(limiter.tryAcquire("bucket", RateLimit.Algorithm.TOKEN_BUCKET, 5, WINDOW_MILLIS));
+
+        // 每 40ms 补充一个令牌
+        Thread.sleep(WINDOW_MILLIS / 5 + 20);
+        assertTrue(limiter.tryAcquire("bucket", RateLimit.Algorithm.TOKEN_BUCKET, 5, WINDOW_MILLIS));
+    }
+
+    @Test
+    public void testKeysAndAlgorithmsAreIndependent() {
+        assertTrue(limiter.tryAcquire("a", RateLimit.Algorithm.FIXED_WINDOW, 1, 60_000));
+        assertFalse(limiter.tryAcquire("a", RateLimit.Algorithm.FIXED_WINDOW, 1, 60_000));
+
+        assertTrue(limiter.tryAcquire("b", RateLimit.Algorithm.FIXED_WINDOW, 1, 60_000));
+        assertTrue(limiter.tryAcquire("a", RateLimit.Algorithm.TOKEN_BUCKET, 1, 60_000));
+    }
+}
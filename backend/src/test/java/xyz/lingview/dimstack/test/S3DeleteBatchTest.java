@@ -0,0 +1,113 @@
+package xyz.lingview.dimstack.test;
+
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsRequest;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsResponse;
+import software.amazon.awssdk.services.s3.model.ObjectIdentifier;
+import software.amazon.awssdk.services.s3.model.S3Error;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+import xyz.lingview.dimstack.service.impl.S3FileStorageImpl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class S3DeleteBatchTest {
+
+    /**
+     * 记录每次 DeleteObjects 请求，按调用序号决定返回结果
+     */
+    private static final class RecordingS3Client implements S3Client {
+        private final List<DeleteObjectsRequest> requests = new ArrayList<>();
+        private final Function<Integer, DeleteObjectsResponse> responder;
+
+        private RecordingS3Client(Function<Integer, DeleteObjectsResponse> responder) {
+            this.responder = responder;
+        }
+
+        @Override
+        public DeleteObjectsResponse deleteObjects(DeleteObjectsRequest request) {
+            requests.add(request);
+            return responder.apply(requests.size());
+        }
+
+        @Override
+        public String serviceName() {
+            return SERVICE_NAME;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    private static List<String> keys(int count) {
+        List<String> keys = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            keys.add("attachment/" + i);
+        }
+        return keys;
+    }
+
+    private static List<String> requestedKeys(DeleteObjectsRequest request) {
+        return request.delete().objects().stream().map(ObjectIdentifier::key).toList();
+    }
+
+    @Test
+    public void testDeleteBatchSplitsIntoChunksOfOneThousand() {
+        RecordingS3Client s3Client = new RecordingS3Client(call -> DeleteObjectsResponse.builder().build());
+        S3FileStorageImpl storage = new S3FileStorageImpl(s3Client, null, "bucket");
+
+        List<String> keys = keys(2500);
+        assertTrue(storage.deleteBatch(keys).isEmpty());
+
+        List<DeleteObjectsRequest> requests = s3Client.requests;
+        assertEquals(List.of(1000, 1000, 500), requests.stream().map(r -> r.delete().objects().size()).toList());
+        assertEquals(keys.subList(0, 1000), requestedKeys(requests.get(0)));
+        assertEquals(keys.subList(2000, 2500), requestedKeys(requests.get(2)));
+        for (DeleteObjectsRequest request : requests) {
+            assertEquals("bucket", request.bucket());
+            assertTrue(request.delete().quiet());
+        }
+    }
+
+    @Test
+    public void testDeleteBatchExactMultipleSendsNoEmptyRequest() {
+        RecordingS3Client s3Client = new RecordingS3Client(call -> DeleteObjectsResponse.builder().build());
+        S3FileStorageImpl storage = new S3FileStorageImpl(s3Client, null, "bucket");
+
+        storage.deleteBatch(keys(2000));
+        assertEquals(2, s3Client.requests.size());
+
+        storage.deleteBatch(List.of());
+        assertEquals(2, s3Client.requests.size());
+    }
+
+    @Test
+    public void testDeleteBatchReportsPerObjectErrors() {
+        RecordingS3Client s3Client = new RecordingS3Client(call -> DeleteObjectsResponse.builder()
+                .errors(S3Error.builder().key("attachment/3").code("AccessDenied").message("denied").build())
+                .build());
+        S3FileStorageImpl storage = new S3FileStorageImpl(s3Client, null, "bucket");
+
+        assertEquals(List.of("attachment/3"), storage.deleteBatch(keys(10)));
+    }
+
+    @Test
+    public void testDeleteBatchFailedRequestFailsOnlyItsChunk() {
+        RecordingS3Client s3Client = new RecordingS3Client(call -> {
+            if (call == 2) {
+                throw S3Exception.builder().message("timeout").build();
+            }
+            return DeleteObjectsResponse.builder().build();
+        });
+        S3FileStorageImpl storage = new S3FileStorageImpl(s3Client, null, "bucket");
+
+        List<String> keys = keys(1200);
+        assertEquals(keys.subList(1000, 1200), storage.deleteBatch(keys));
+        assertEquals(2, s3Client.requests.size());
+    }
+}
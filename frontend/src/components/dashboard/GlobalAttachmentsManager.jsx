@@ -207,6 +207,28 @@ const GlobalAttachmentsManager = () => {
         setShowMigrateModal(true);
     };
 
+    // 迁移在后台执行，轮询进度直到任务结束
+    const waitForMigration = async (migrationId, onProgress) => {
+        while (true) {
+            const response = await apiClient.get(`/attachments/admin/migrate-logs/${migrationId}/progress`);
+            if (response.code !== 200) {
+                throw new Error(response.message || '获取迁移进度失败');
+            }
+            onProgress?.(response.data);
+            if (!response.data.running) {
+                return response.data;
+            }
+            await new Promise(resolve => setTimeout(resolve, 2000));
+        }
+    };
+
+    const formatEta = (seconds) => {
+        if (seconds === null || seconds === undefined) return '计算中';
+        if (seconds < 60) return `${seconds} 秒`;
+        if (seconds < 3600) return `${Math.ceil(seconds / 60)} 分钟`;
+        return `${(seconds / 3600).toFixed(1)} 小时`;
+    };
+
     const handleMigrate = async () => {
         if (!migrateSource || !migrateTarget) {
             showToast('请选择源存储和目标存储', 'error');
@@ -224,11 +246,11 @@ const GlobalAttachmentsManager = () => {
                 targetStorageId: migrateTarget
             });
             if (response.code === 200) {
-                setMigrateResult(response.data);
-                if (response.data.failed === 0) {
-                    showToast(`迁移完成，成功 ${response.data.success} 个`);
+                const result = await waitForMigration(response.data.migrationId, setMigrateResult);
+                if (result.failed === 0) {
+                    showToast(`迁移完成，成功 ${result.success} 个`);
                 } else {
-                    showToast(`迁移完成，成功 ${response.data.success} 个，失败 ${response.data.failed} 个`, 'error');
+                    showToast(`迁移完成，成功 ${result.success} 个，失败 ${result.failed} 个`, 'error');
                 }
             } else {
                 showToast(response.message || '迁移失败', 'error');
@@ -251,11 +273,11 @@ const GlobalAttachmentsManager = () => {
                 attachmentIds: migrateResult.failedItems.map(item => item.attachmentId)
             });
             if (response.code === 200) {
-                setMigrateResult(response.data);
-                if (response.data.failed === 0) {
-                    showToast(`重试完成，成功 ${response.data.success} 个`);
+                const result = await waitForMigration(response.data.migrationId, setMigrateResult);
+                if (result.failed === 0) {
+                    showToast(`重试完成，成功 ${result.success} 个`);
                 } else {
-                    showToast(`重试完成，成功 ${response.data.success} 个，仍有 ${response.data.failed} 个失败`, 'error');
+                    showToast(`重试完成，成功 ${result.success} 个，仍有 ${result.failed} 个失败`, 'error');
                 }
             } else {
                 showToast(response.message || '重试失败', 'error');
@@ -278,10 +300,11 @@ const GlobalAttachmentsManager = () => {
                 attachmentIds: migrateLogDetail.failedItems.map(item => item.attachment_id)
             });
             if (response.code === 200) {
-                if (response.data.failed === 0) {
-                    showToast(`重试完成，成功 ${response.data.success} 个`);
+                const result = await waitForMigration(response.data.migrationId);
+                if (result.failed === 0) {
+                    showToast(`重试完成，成功 ${result.success} 个`);
                 } else {
-                    showToast(`重试完成，成功 ${response.data.success} 个，仍有 ${response.data.failed} 个失败`, 'error');
+                    showToast(`重试完成，成功 ${result.success} 个，仍有 ${result.failed} 个失败`, 'error');
                 }
                 fetchMigrateLogs();
                 setMigrateLogDetail(null);
@@ -993,8 +1016,13 @@ const GlobalAttachmentsManager = () => {
                                 {migrateResult && (
                                     <div className="bg-gray-50 rounded-lg p-4">
                                         <div className="text-sm text-gray-700 mb-2">
-                                            迁移结果：共 {migrateResult.total} 个，成功 {migrateResult.success} 个，失败 {migrateResult.failed} 个
+                                            {migrateResult.running ? '迁移进度' : '迁移结果'}：共 {migrateResult.total} 个，成功 {migrateResult.success} 个，失败 {migrateResult.failed} 个
                                         </div>
+                                        {migrateResult.running && (
+                                            <div className="text-xs text-gray-500 mb-2">
+                                                已迁移 {(migrateResult.bytesMigrated / 1024 / 1024).toFixed(1)} MB，预计剩余 {formatEta(migrateResult.etaSeconds)}
+                                            </div>
+                                        )}
                                         {migrateResult.failedItems && migrateResult.failedItems.length > 0 && (
                                             <div className="mt-2 space-y-1 max-h-40 overflow-y-auto">
                                                 {migrateResult.failedItems.map((item, idx) => (
@@ -1061,7 +1089,7 @@ const GlobalAttachmentsManager = () => {
                                 >
                                     关闭
                                 </button>
-                                {migrateResult && migrateResult.failed > 0 && (
+                                {migrateResult && !migrateResult.running && migrateResult.failed > 0 && (
                                     <button
                                         onClick={handleRetryMigrate}
                                         disabled={migrating}
@@ -59,6 +59,8 @@ export function useFileUpload(apiClient, getConfig) {
 
     const multipartUpload = async (file, progressId) => {
         const CHUNK_SIZE = 5 * 1024 * 1024;
+        // 并发上传的分片数，外置存储时分片直接写入存储
+        const CONCURRENCY = 3;
         const chunks = Math.ceil(file.size / CHUNK_SIZE);
 
         try {
@@ -67,7 +69,13 @@ export function useFileUpload(apiClient, getConfig) {
             });
             const uploadId = initResponse.data?.uploadId || initResponse.uploadId;
 
-            for (let i = 0; i < chunks; i++) {
+            const loaded = new Array(chunks).fill(0);
+            const reportProgress = () => {
+                const total = loaded.reduce((sum, value) => sum + value, 0);
+                uploadProgress.progress(progressId, (total / file.size) * 85);
+            };
+
+            const uploadPart = async (i) => {
                 const start = i * CHUNK_SIZE;
                 const chunk = file.slice(start, Math.min(start + CHUNK_SIZE, file.size));
 
@@ -78,12 +86,21 @@ export function useFileUpload(apiClient, getConfig) {
                         'Content-Type': 'application/octet-stream'
                     },
                     onUploadProgress: (e) => {
-                        if (!e.total) return;
-                        const overall = ((i + e.loaded / e.total) / chunks) * 85;
-                        uploadProgress.progress(progressId, overall);
+                        loaded[i] = e.loaded;
+                        reportProgress();
                     }
                 });
-            }
+                loaded[i] = chunk.size;
+                reportProgress();
+            };
+
+            let next = 0;
+            const worker = async () => {
+                while (next < chunks) {
+                    await uploadPart(next++);
+                }
+            };
+            await Promise.all(Array.from({ length: Math.min(CONCURRENCY, chunks) }, worker));
 
             uploadProgress.processing(progressId);
 